@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging;
+
+/**
+ * Broad categories of metadata that may be embedded within an image file, used to select which blocks
+ * {@link MetadataStripper} removes.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public enum MetadataCategory
+{
+    /** Exif data, including GPS locations and camera makernotes.  JPEG APP1, PNG eXIf and WebP EXIF. */
+    Exif,
+    /** XMP packets.  JPEG APP1 (including extended XMP), PNG iTXt with the XMP keyword and WebP XMP. */
+    Xmp,
+    /** Photoshop image resources, which carry IPTC data.  JPEG APP13. */
+    Iptc,
+    /** ICC colour profiles.  JPEG APP2, PNG iCCP and WebP ICCP.  Removal may alter how colours are displayed. */
+    Icc,
+    /** Free-form comments.  JPEG COM. */
+    Comment,
+    /** Textual key/value pairs, such as author or description.  PNG tEXt, zTXt and (non-XMP) iTXt. */
+    Text
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging;
+
+import com.drew.lang.Charsets;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Copies JPEG, PNG and WebP data from an {@link InputStream} to an {@link OutputStream}, removing blocks of metadata
+ * in selected {@link MetadataCategory categories} while leaving image data untouched.
+ * <p>
+ * Only block headers, and a short prefix of each candidate block needed to identify its contents, are examined.
+ * Everything else is copied in large blocks through a fixed-size buffer, so files of any size are processed in
+ * constant memory without decoding the image.
+ * <p>
+ * WebP files declare their total size in the RIFF header, which is written before the size of any removed chunk
+ * is known.  Rather than buffer the file, removed WebP chunks are instead renamed to <code>JUNK</code> and their
+ * contents zeroed, which decoders skip as an unknown chunk.  The matching feature flags in any <code>VP8X</code>
+ * chunk are cleared.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MetadataStripper
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Long enough to identify any JPEG APPn preamble or PNG iTXt keyword examined here. */
+    private static final int PREFIX_LENGTH = 64;
+
+    private static final byte[] PNG_SIGNATURE_BYTES = {(byte)0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
+
+    private static final String JPEG_EXIF_PREAMBLE = "Exif\0";
+    private static final String JPEG_XMP_PREAMBLE = "http://ns.adobe.com/xap/1.0/\0";
+    private static final String JPEG_XMP_EXTENSION_PREAMBLE = "http://ns.adobe.com/xmp/extension/\0";
+    private static final String JPEG_PHOTOSHOP_PREAMBLE = "Photoshop 3.0\0";
+    private static final String JPEG_ICC_PREAMBLE = "ICC_PROFILE\0";
+    private static final String PNG_XMP_KEYWORD = "XML:com.adobe.xmp\0";
+
+    private static final int WEBP_VP8X_FLAG_ICC = 0x20;
+    private static final int WEBP_VP8X_FLAG_EXIF = 0x08;
+    private static final int WEBP_VP8X_FLAG_XMP = 0x04;
+
+    /**
+     * Describes a block of metadata removed from the input.
+     */
+    public static class RemovedBlock
+    {
+        @NotNull private final String _name;
+        @NotNull private final MetadataCategory _category;
+        private final long _offset;
+        private final long _length;
+
+        public RemovedBlock(@NotNull String name, @NotNull MetadataCategory category, long offset, long length)
+        {
+            _name = name;
+            _category = category;
+            _offset = offset;
+            _length = length;
+        }
+
+        /** Gets the format's name for the block, such as <code>APP1</code> or <code>iTXt</code>. */
+        @NotNull
+        public String getName()
+        {
+            return _name;
+        }
+
+        @NotNull
+        public MetadataCategory getCategory()
+        {
+            return _category;
+        }
+
+        /** Gets the offset within the input of the block's first byte, including any marker or header. */
+        public long getOffset()
+        {
+            return _offset;
+        }
+
+        /** Gets the number of bytes in the block, including any marker or header. */
+        public long getLength()
+        {
+            return _length;
+        }
+
+        @Override
+        @NotNull
+        public String toString()
+        {
+            return String.format("%s (%s): %d bytes at offset %d", _name, _category, _length, _offset);
+        }
+    }
+
+    @NotNull
+    private final Set<MetadataCategory> _categoriesToRemove;
+
+    /**
+     * @param categoriesToRemove the categories of metadata to remove, with all others retained
+     */
+    public MetadataStripper(@NotNull Set<MetadataCategory> categoriesToRemove)
+    {
+        _categoriesToRemove = categoriesToRemove.isEmpty()
+            ? EnumSet.noneOf(MetadataCategory.class)
+            : EnumSet.copyOf(categoriesToRemove);
+    }
+
+    /**
+     * Creates a stripper that removes all metadata categories, except for ICC profiles which affect image rendering.
+     */
+    @NotNull
+    public static MetadataStripper removingAllButIcc()
+    {
+        return new MetadataStripper(EnumSet.complementOf(EnumSet.of(MetadataCategory.Icc)));
+    }
+
+    /**
+     * Copies <code>inputStream</code> to <code>outputStream</code>, removing metadata blocks.
+     * <p>
+     * Neither stream is closed by this method.
+     *
+     * @param inputStream the JPEG, PNG or WebP data to read
+     * @param outputStream the stream to which filtered data is written
+     * @return the blocks that were removed, in the order they appeared
+     * @throws ImageProcessingException if the input is not JPEG, PNG or WebP, or its structure is invalid
+     */
+    @NotNull
+    public List<RemovedBlock> strip(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws ImageProcessingException, IOException
+    {
+        Copier copier = new Copier(inputStream, outputStream);
+        List<RemovedBlock> removed = new ArrayList<RemovedBlock>();
+
+        byte[] header = new byte[2];
+        copier.read(header, 0, 2);
+
+        if ((header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8) {
+            copier.write(header, 0, 2);
+            stripJpeg(copier, removed);
+        } else if (header[0] == PNG_SIGNATURE_BYTES[0] && header[1] == PNG_SIGNATURE_BYTES[1]) {
+            byte[] signature = new byte[PNG_SIGNATURE_BYTES.length];
+            System.arraycopy(header, 0, signature, 0, 2);
+            copier.read(signature, 2, signature.length - 2);
+            for (int i = 0; i < signature.length; i++) {
+                if (signature[i] != PNG_SIGNATURE_BYTES[i])
+                    throw new ImageProcessingException("PNG signature mismatch");
+            }
+            copier.write(signature, 0, signature.length);
+            stripPng(copier, removed);
+        } else if (header[0] == 'R' && header[1] == 'I') {
+            byte[] riffHeader = new byte[12];
+            System.arraycopy(header, 0, riffHeader, 0, 2);
+            copier.read(riffHeader, 2, riffHeader.length - 2);
+            if (!new String(riffHeader, 0, 4, Charsets.ASCII).equals("RIFF") || !new String(riffHeader, 8, 4, Charsets.ASCII).equals("WEBP"))
+                throw new ImageProcessingException("RIFF data is not WebP");
+            copier.write(riffHeader, 0, riffHeader.length);
+            stripWebp(copier, removed);
+        } else {
+            throw new ImageProcessingException("File format is not supported for metadata stripping");
+        }
+
+        return Collections.unmodifiableList(removed);
+    }
+
+    private void stripJpeg(@NotNull Copier copier, @NotNull List<RemovedBlock> removed) throws ImageProcessingException, IOException
+    {
+        byte[] prefix = new byte[PREFIX_LENGTH];
+        byte[] marker = new byte[4];
+
+        while (true) {
+            // Markers may be preceded by any number of 0xFF fill bytes, which are not copied
+            long markerOffset = copier.getPosition();
+            int identifier = copier.readOrEnd();
+            if (identifier == -1)
+                return;
+            if (identifier != 0xFF)
+                throw new ImageProcessingException("Expected JPEG segment marker at offset " + markerOffset);
+            int segmentType = copier.readByte();
+            while (segmentType == 0xFF)
+                segmentType = copier.readByte();
+            markerOffset = copier.getPosition() - 2;
+
+            marker[0] = (byte)0xFF;
+            marker[1] = (byte)segmentType;
+
+            if (segmentType == 0xDA || segmentType == 0xD9) {
+                // Start of scan or end of image, after which all data is copied untouched
+                copier.write(marker, 0, 2);
+                copier.copyToEnd();
+                return;
+            }
+
+            // segment length includes size bytes
+            copier.read(marker, 2, 2);
+            int segmentLength = ((marker[2] & 0xFF) << 8) | (marker[3] & 0xFF);
+            if (segmentLength < 2)
+                throw new ImageProcessingException("JPEG segment size would be less than zero");
+            int payloadLength = segmentLength - 2;
+
+            int prefixLength = Math.min(payloadLength, PREFIX_LENGTH);
+            copier.read(prefix, 0, prefixLength);
+
+            MetadataCategory category = getJpegCategory(segmentType, prefix, prefixLength);
+            if (category != null && _categoriesToRemove.contains(category)) {
+                copier.skip(payloadLength - prefixLength);
+                removed.add(new RemovedBlock(getJpegSegmentName(segmentType), category, markerOffset, segmentLength + 2));
+            } else {
+                copier.write(marker, 0, 4);
+                copier.write(prefix, 0, prefixLength);
+                copier.copy(payloadLength - prefixLength);
+            }
+        }
+    }
+
+    private void stripPng(@NotNull Copier copier, @NotNull List<RemovedBlock> removed) throws ImageProcessingException, IOException
+    {
+        byte[] header = new byte[8];
+        byte[] prefix = new byte[PREFIX_LENGTH];
+
+        while (true) {
+            long chunkOffset = copier.getPosition();
+            if (!copier.readOrEnd(header))
+                return;
+
+            long dataLength = ((header[0] & 0xFFL) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+            if (dataLength > Integer.MAX_VALUE)
+                throw new ImageProcessingException("PNG chunk length exceeds maximum");
+            String chunkType = new String(header, 4, 4, Charsets.ASCII);
+
+            int prefixLength = (int)Math.min(dataLength, PREFIX_LENGTH);
+            copier.read(prefix, 0, prefixLength);
+
+            // Chunk data is followed by a four byte CRC
+            long remaining = dataLength - prefixLength + 4;
+
+            MetadataCategory category = getPngCategory(chunkType, prefix, prefixLength);
+            if (category != null && _categoriesToRemove.contains(category)) {
+                copier.skip(remaining);
+                removed.add(new RemovedBlock(chunkType, category, chunkOffset, dataLength + 12));
+            } else {
+                copier.write(header, 0, header.length);
+                copier.write(prefix, 0, prefixLength);
+                copier.copy(remaining);
+            }
+
+            if (chunkType.equals("IEND")) {
+                copier.copyToEnd();
+                return;
+            }
+        }
+    }
+
+    private void stripWebp(@NotNull Copier copier, @NotNull List<RemovedBlock> removed) throws IOException
+    {
+        byte[] header = new byte[8];
+        byte[] flags = new byte[1];
+
+        while (true) {
+            long chunkOffset = copier.getPosition();
+            if (!copier.readOrEnd(header))
+                return;
+
+            String fourCC = new String(header, 0, 4, Charsets.ASCII);
+            long size = (header[4] & 0xFF) | ((header[5] & 0xFF) << 8) | ((header[6] & 0xFF) << 16) | ((header[7] & 0xFFL) << 24);
+            // Chunks are padded to an even length
+            long paddedSize = size + (size & 1);
+
+            MetadataCategory category = getWebpCategory(fourCC);
+            if (category != null && _categoriesToRemove.contains(category)) {
+                System.arraycopy("JUNK".getBytes(Charsets.ASCII), 0, header, 0, 4);
+                copier.write(header, 0, header.length);
+                copier.skip(paddedSize);
+                copier.writeZeroes(paddedSize);
+                removed.add(new RemovedBlock(fourCC.trim(), category, chunkOffset, paddedSize + 8));
+            } else if (fourCC.equals("VP8X") && size > 0) {
+                copier.write(header, 0, header.length);
+                copier.read(flags, 0, 1);
+                int mask = 0;
+                if (_categoriesToRemove.contains(MetadataCategory.Icc))
+                    mask |= WEBP_VP8X_FLAG_ICC;
+                if (_categoriesToRemove.contains(MetadataCategory.Exif))
+                    mask |= WEBP_VP8X_FLAG_EXIF;
+                if (_categoriesToRemove.contains(MetadataCategory.Xmp))
+                    mask |= WEBP_VP8X_FLAG_XMP;
+                flags[0] = (byte)(flags[0] & ~mask);
+                copier.write(flags, 0, 1);
+                copier.copy(paddedSize - 1);
+            } else {
+                copier.write(header, 0, header.length);
+                copier.copy(paddedSize);
+            }
+        }
+    }
+
+    @Nullable
+    private static MetadataCategory getJpegCategory(int segmentType, @NotNull byte[] prefix, int prefixLength)
+    {
+        switch (segmentType) {
+            case 0xE1:
+                if (startsWith(prefix, prefixLength, JPEG_EXIF_PREAMBLE))
+                    return MetadataCategory.Exif;
+                if (startsWith(prefix, prefixLength, JPEG_XMP_PREAMBLE) || startsWith(prefix, prefixLength, JPEG_XMP_EXTENSION_PREAMBLE))
+                    return MetadataCategory.Xmp;
+                return null;
+            case 0xE2:
+                return startsWith(prefix, prefixLength, JPEG_ICC_PREAMBLE) ? MetadataCategory.Icc : null;
+            case 0xED:
+                return startsWith(prefix, prefixLength, JPEG_PHOTOSHOP_PREAMBLE) ? MetadataCategory.Iptc : null;
+            case 0xFE:
+                return MetadataCategory.Comment;
+            default:
+                return null;
+        }
+    }
+
+    @NotNull
+    private static String getJpegSegmentName(int segmentType)
+    {
+        if (segmentType >= 0xE0 && segmentType <= 0xEF)
+            return "APP" + Integer.toHexString(segmentType - 0xE0).toUpperCase();
+        if (segmentType == 0xFE)
+            return "COM";
+        return String.format("0x%02X", segmentType);
+    }
+
+    @Nullable
+    private static MetadataCategory getPngCategory(@NotNull String chunkType, @NotNull byte[] prefix, int prefixLength)
+    {
+        if (chunkType.equals("eXIf"))
+            return MetadataCategory.Exif;
+        if (chunkType.equals("iCCP"))
+            return MetadataCategory.Icc;
+        if (chunkType.equals("tEXt") || chunkType.equals("zTXt"))
+            return MetadataCategory.Text;
+        if (chunkType.equals("iTXt"))
+            return startsWith(prefix, prefixLength, PNG_XMP_KEYWORD) ? MetadataCategory.Xmp : MetadataCategory.Text;
+        return null;
+    }
+
+    @Nullable
+    private static MetadataCategory getWebpCategory(@NotNull String fourCC)
+    {
+        if (fourCC.equals("EXIF"))
+            return MetadataCategory.Exif;
+        if (fourCC.equals("XMP "))
+            return MetadataCategory.Xmp;
+        if (fourCC.equals("ICCP"))
+            return MetadataCategory.Icc;
+        return null;
+    }
+
+    private static boolean startsWith(@NotNull byte[] bytes, int length, @NotNull String prefix)
+    {
+        if (length < prefix.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (bytes[i] != (byte)prefix.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads from an input stream and writes to an output stream, tracking the input position and reusing a single
+     * buffer for bulk copies.
+     */
+    private static class Copier
+    {
+        @NotNull private final InputStream _input;
+        @NotNull private final OutputStream _output;
+        @NotNull private final byte[] _buffer = new byte[BUFFER_SIZE];
+        private long _position;
+
+        Copier(@NotNull InputStream input, @NotNull OutputStream output)
+        {
+            _input = input;
+            _output = output;
+        }
+
+        long getPosition()
+        {
+            return _position;
+        }
+
+        int readOrEnd() throws IOException
+        {
+            int b = _input.read();
+            if (b != -1)
+                _position++;
+            return b;
+        }
+
+        int readByte() throws IOException
+        {
+            int b = readOrEnd();
+            if (b == -1)
+                throw new EOFException("Unexpected end of stream");
+            return b;
+        }
+
+        /** Fills <code>bytes</code>, returning <code>false</code> if the stream ended before any byte was read. */
+        boolean readOrEnd(@NotNull byte[] bytes) throws IOException
+        {
+            int first = _input.read(bytes, 0, bytes.length);
+            if (first == -1)
+                return false;
+            _position += first;
+            read(bytes, first, bytes.length - first);
+            return true;
+        }
+
+        void read(@NotNull byte[] bytes, int offset, int count) throws IOException
+        {
+            while (count > 0) {
+                int read = _input.read(bytes, offset, count);
+                if (read == -1)
+                    throw new EOFException("Unexpected end of stream");
+                offset += read;
+                count -= read;
+                _position += read;
+            }
+        }
+
+        void write(@NotNull byte[] bytes, int offset, int count) throws IOException
+        {
+            _output.write(bytes, offset, count);
+        }
+
+        void writeZeroes(long count) throws IOException
+        {
+            byte[] zeroes = new byte[(int)Math.min(count, BUFFER_SIZE)];
+            while (count > 0) {
+                int n = (int)Math.min(count, zeroes.length);
+                _output.write(zeroes, 0, n);
+                count -= n;
+            }
+        }
+
+        void copy(long count) throws IOException
+        {
+            while (count > 0) {
+                int read = _input.read(_buffer, 0, (int)Math.min(count, _buffer.length));
+                if (read == -1)
+                    throw new EOFException("Unexpected end of stream");
+                _output.write(_buffer, 0, read);
+                count -= read;
+                _position += read;
+            }
+        }
+
+        void copyToEnd() throws IOException
+        {
+            int read;
+            while ((read = _input.read(_buffer)) != -1) {
+                _output.write(_buffer, 0, read);
+                _position += read;
+            }
+        }
+
+        void skip(long count) throws IOException
+        {
+            while (count > 0) {
+                long skipped = _input.skip(count);
+                if (skipped <= 0) {
+                    // Some streams cannot skip, or report zero at the end of the stream
+                    int read = _input.read(_buffer, 0, (int)Math.min(count, _buffer.length));
+                    if (read == -1)
+                        throw new EOFException("Unexpected end of stream");
+                    skipped = read;
+                }
+                count -= skipped;
+                _position += skipped;
+            }
+        }
+    }
+}
@@ -70,17 +70,28 @@ public class HeifMetadataReader
 	}
 
 	public static Metadata readMetadata(RandomAccessReader reader, long atomEnd) throws IOException
+	{
+		Metadata metadata = new Metadata();
+		return process(metadata, reader, atomEnd) ? metadata : null;
+	}
+
+	/**
+	 * Reads HEIF boxes into an existing {@link Metadata} object, which allows options such as
+	 * {@link Metadata#setSourceRangesEnabled(boolean)} to be configured first.
+	 *
+	 * @return <code>true</code> if the data was processed, or <code>false</code> if its format was invalid
+	 */
+	public static boolean process(Metadata metadata, RandomAccessReader reader, long atomEnd) throws IOException
 	{
 		try
 		{
-			Metadata metadata = new Metadata();
 			HeifReader.extract(metadata, reader, atomEnd, new HeifBoxHandler(metadata));
-			return metadata;
+			return true;
 		}
 		catch (DataFormatException e)
 		{
 			e.printStackTrace();
 		}
-		return null;
+		return false;
 	}
 }
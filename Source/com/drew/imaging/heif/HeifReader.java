@@ -27,6 +27,7 @@ import java.util.zip.DataFormatException;
 import com.drew.lang.RandomAccessFileReader;
 import com.drew.lang.RandomAccessReader;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.heif.boxes.Box;
 
 public class HeifReader
@@ -60,17 +61,21 @@ public class HeifReader
 			while ((atomEnd == -1) ? true : reader.getPosition() < atomEnd)
 			{
 
+				long boxOffset = reader.getPosition();
 				Box box = new Box(reader);
 				// Determine if fourCC is container/atom and process accordingly
 				// Unknown atoms will be skipped
 
+				int directoryCount = handler.metadata.getLoadedDirectoryCount();
 				if (handler.shouldAcceptContainer(box))
 				{
 					handler.processContainer(depth, box, reader);
+					applySourceRange(handler, directoryCount, boxOffset, box);
 				}
 				else if (handler.shouldAcceptBox(box))
 				{
 					handler.processBox(depth, box, reader);
+					applySourceRange(handler, directoryCount, boxOffset, box);
 				}
 				else if (box.size > 0)
 				{
@@ -90,4 +95,16 @@ public class HeifReader
 			// Currently, reader relies on IOException to end
 		}
 	}
+
+	/**
+	 * Attributes any values produced while processing a box, and not already attributed to a nested box, to that box.
+	 */
+	private static void applySourceRange(HeifHandler handler, int directoryCount, long boxOffset, Box box)
+	{
+		if (!handler.metadata.isSourceRangesEnabled() || box.size <= 0)
+			return;
+		SourceRange range = new SourceRange(boxOffset, box.size);
+		handler.directory.applyTagSourceRange(range);
+		handler.metadata.applySourceRange(directoryCount, range);
+	}
 }
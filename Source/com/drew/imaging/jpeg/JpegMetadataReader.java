@@ -24,6 +24,7 @@ import com.drew.lang.StreamReader;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.adobe.AdobeJpegReader;
 import com.drew.metadata.exif.ExifReader;
 import com.drew.metadata.file.FileSystemMetadataReader;
@@ -131,11 +132,40 @@ public class JpegMetadataReader
         // Pass the appropriate byte arrays to each reader.
         for (JpegSegmentMetadataReader reader : readers) {
             for (JpegSegmentType segmentType : reader.getSegmentTypes()) {
-                reader.readJpegSegments(segmentData.getSegments(segmentType), metadata, segmentType);
+                if (metadata.isSourceRangesEnabled() || reader instanceof JpegSegmentRangeMetadataReader) {
+                    processJpegSegmentsWithSourceRanges(metadata, reader, segmentData, segmentType);
+                } else {
+                    reader.readJpegSegments(segmentData.getSegments(segmentType), metadata, segmentType);
+                }
             }
         }
     }
 
+    private static void processJpegSegmentsWithSourceRanges(Metadata metadata, JpegSegmentMetadataReader reader, JpegSegmentData segmentData, JpegSegmentType segmentType)
+    {
+        int segmentCount = segmentData.getSegmentCount(segmentType);
+        long[] segmentOffsets = new long[segmentCount];
+        for (int i = 0; i < segmentCount; i++)
+            segmentOffsets[i] = segmentData.getSegmentOffset(segmentType, i);
+
+        boolean applySourceRanges = metadata.isSourceRangesEnabled();
+        int directoryCount = metadata.getLoadedDirectoryCount();
+
+        if (reader instanceof JpegSegmentRangeMetadataReader) {
+            ((JpegSegmentRangeMetadataReader)reader).readJpegSegments(segmentData.getSegments(segmentType), segmentOffsets, metadata, segmentType);
+        } else {
+            reader.readJpegSegments(segmentData.getSegments(segmentType), metadata, segmentType);
+        }
+
+        // Where a single segment was read, anything not attributed more precisely came from that segment.
+        // Readers may combine multiple segments (ICC, extended XMP) so the source is ambiguous otherwise.
+        if (applySourceRanges && segmentCount == 1 && segmentOffsets[0] >= 0) {
+            byte[] segment = segmentData.getSegment(segmentType, 0);
+            if (segment != null)
+                metadata.applySourceRange(directoryCount, new SourceRange(segmentOffsets[0], segment.length));
+        }
+    }
+
     private JpegMetadataReader() throws Exception
     {
         throw new Exception("Not intended for instantiation");
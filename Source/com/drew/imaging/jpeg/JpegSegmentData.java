@@ -45,6 +45,10 @@ public class JpegSegmentData
     @NotNull
     private final HashMap<Byte, List<byte[]>> _segmentDataMap = new HashMap<Byte, List<byte[]>>(10);
 
+    /** Parallel to {@link #_segmentDataMap}, holding the offset of each segment's data within the source. */
+    @NotNull
+    private final HashMap<Byte, List<Long>> _segmentOffsetMap = new HashMap<Byte, List<Long>>(10);
+
     /**
      * Adds segment bytes to the collection.
      *
@@ -53,8 +57,22 @@ public class JpegSegmentData
      */
     @SuppressWarnings({"MismatchedQueryAndUpdateOfCollection"})
     public void addSegment(byte segmentType, @NotNull byte[] segmentBytes)
+    {
+        addSegment(segmentType, segmentBytes, -1);
+    }
+
+    /**
+     * Adds segment bytes to the collection, along with the position at which they were found.
+     *
+     * @param segmentType   the type of the segment being added
+     * @param segmentBytes  the byte array holding data for the segment being added
+     * @param segmentOffset the offset of the first byte of <code>segmentBytes</code> within the source, or -1 if unknown
+     */
+    @SuppressWarnings({"MismatchedQueryAndUpdateOfCollection"})
+    public void addSegment(byte segmentType, @NotNull byte[] segmentBytes, long segmentOffset)
     {
         getOrCreateSegmentList(segmentType).add(segmentBytes);
+        getOrCreateSegmentOffsetList(segmentType).add(segmentOffset);
     }
 
     /**
@@ -157,6 +175,36 @@ public class JpegSegmentData
         return segmentList == null ? new ArrayList<byte[]>() : segmentList;
     }
 
+    /**
+     * Gets the offset within the source at which the data of a specific segment occurrence begins.  This is the
+     * position immediately following the segment's marker and length bytes.
+     *
+     * @param segmentType identifies the required segment
+     * @param occurrence  the zero-based index of the occurrence
+     * @return the offset of the segment's data, or -1 if no such segment exists or its position was not recorded
+     */
+    public long getSegmentOffset(@NotNull JpegSegmentType segmentType, int occurrence)
+    {
+        return getSegmentOffset(segmentType.byteValue, occurrence);
+    }
+
+    /**
+     * Gets the offset within the source at which the data of a specific segment occurrence begins.  This is the
+     * position immediately following the segment's marker and length bytes.
+     *
+     * @param segmentType identifies the required segment
+     * @param occurrence  the zero-based index of the occurrence
+     * @return the offset of the segment's data, or -1 if no such segment exists or its position was not recorded
+     */
+    public long getSegmentOffset(byte segmentType, int occurrence)
+    {
+        final List<Long> offsetList = _segmentOffsetMap.get(segmentType);
+
+        return offsetList != null && offsetList.size() > occurrence
+                ? offsetList.get(occurrence)
+                : -1;
+    }
+
     @Nullable
     private List<byte[]> getSegmentList(byte segmentType)
     {
@@ -176,6 +224,17 @@ public class JpegSegmentData
         return segmentList;
     }
 
+    @NotNull
+    private List<Long> getOrCreateSegmentOffsetList(byte segmentType)
+    {
+        List<Long> offsetList = _segmentOffsetMap.get(segmentType);
+        if (offsetList == null) {
+            offsetList = new ArrayList<Long>();
+            _segmentOffsetMap.put(segmentType, offsetList);
+        }
+        return offsetList;
+    }
+
     /**
      * Returns the count of segment data byte arrays stored for a given segment type.
      *
@@ -224,6 +283,9 @@ public class JpegSegmentData
     {
         final List<byte[]> segmentList = _segmentDataMap.get(segmentType);
         segmentList.remove(occurrence);
+        final List<Long> offsetList = _segmentOffsetMap.get(segmentType);
+        if (offsetList != null)
+            offsetList.remove(occurrence);
     }
 
     /**
@@ -244,6 +306,7 @@ public class JpegSegmentData
     public void removeSegment(byte segmentType)
     {
         _segmentDataMap.remove(segmentType);
+        _segmentOffsetMap.remove(segmentType);
     }
 
     /**
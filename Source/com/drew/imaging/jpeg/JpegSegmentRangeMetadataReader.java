@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging.jpeg;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Metadata;
+
+/**
+ * Defines a {@link JpegSegmentMetadataReader} that can attribute the values it extracts to absolute positions within
+ * the JPEG file.
+ * <p>
+ * Used in place of {@link JpegSegmentMetadataReader#readJpegSegments} when {@link Metadata#isSourceRangesEnabled()}
+ * is set.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public interface JpegSegmentRangeMetadataReader extends JpegSegmentMetadataReader
+{
+    /**
+     * Extracts metadata from all instances of a particular JPEG segment type, recording source ranges.
+     *
+     * @param segments A sequence of byte arrays from which the metadata should be extracted. These are in the order
+     *                 encountered in the original file.
+     * @param segmentOffsets The absolute offset of the first byte of each segment's payload, in the same order as
+     *                       <code>segments</code>. Values are -1 where the offset is unknown.
+     * @param metadata The {@link Metadata} object into which extracted values should be merged.
+     * @param segmentType The {@link JpegSegmentType} being read.
+     */
+    void readJpegSegments(@NotNull final Iterable<byte[]> segments, @NotNull final long[] segmentOffsets, @NotNull final Metadata metadata, @NotNull final JpegSegmentType segmentType);
+}
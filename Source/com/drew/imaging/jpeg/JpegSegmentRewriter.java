@@ -0,0 +1,215 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging.jpeg;
+
+import com.drew.lang.ChannelUtil;
+import com.drew.lang.Charsets;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.exif.ExifReader;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a copy of a JPEG file in which the Exif APP1 segment is replaced, without decoding or buffering image data.
+ * <p>
+ * Only segment headers are read.  Every other byte, including the entropy-coded image data following the
+ * start-of-scan marker, is moved with {@link FileChannel#transferTo} (falling back to a small buffer should that
+ * stall), so memory use is independent of file size.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class JpegSegmentRewriter
+{
+    /** The maximum payload of a JPEG segment, as its two byte length field includes itself. */
+    private static final int MAX_SEGMENT_PAYLOAD_LENGTH = 0xFFFF - 2;
+
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_EOI = 0xD9;
+
+    private static final byte[] EXIF_PREAMBLE_BYTES = ExifReader.JPEG_SEGMENT_PREAMBLE.getBytes(Charsets.ASCII);
+
+    /**
+     * Copies the JPEG file <code>source</code> to <code>target</code>, replacing its Exif data.
+     *
+     * @param source the JPEG file to read
+     * @param target the file to write, which must differ from <code>source</code>
+     * @param exifSegment the complete APP1 payload to write, beginning with {@link ExifReader#JPEG_SEGMENT_PREAMBLE},
+     *                    or <code>null</code> to remove Exif data
+     */
+    public static void replaceExifSegment(@NotNull File source, @NotNull File target, @Nullable byte[] exifSegment) throws JpegProcessingException, IOException
+    {
+        RandomAccessFile sourceFile = new RandomAccessFile(source, "r");
+        try {
+            FileOutputStream targetStream = new FileOutputStream(target);
+            try {
+                replaceExifSegment(sourceFile.getChannel(), targetStream.getChannel(), exifSegment);
+            } finally {
+                targetStream.close();
+            }
+        } finally {
+            sourceFile.close();
+        }
+    }
+
+    /**
+     * Copies JPEG data from <code>source</code> to <code>target</code>, replacing its Exif data.
+     * <p>
+     * All existing Exif APP1 segments are dropped.  The new segment is written where the first of them was found or,
+     * if there were none, after any leading APP0 (JFIF) segments.  All other segments are copied unchanged, in order.
+     * The position of <code>source</code> is not modified.
+     *
+     * @param source the channel to read JPEG data from, starting at position zero
+     * @param target the channel to write to
+     * @param exifSegment the complete APP1 payload to write, beginning with {@link ExifReader#JPEG_SEGMENT_PREAMBLE},
+     *                    or <code>null</code> to remove Exif data
+     * @throws JpegProcessingException if <code>source</code> does not contain valid JPEG segment structure
+     * @throws IllegalArgumentException if <code>exifSegment</code> lacks the Exif preamble or is too large for a
+     *                                  single JPEG segment
+     */
+    public static void replaceExifSegment(@NotNull FileChannel source, @NotNull WritableByteChannel target, @Nullable byte[] exifSegment) throws JpegProcessingException, IOException
+    {
+        if (exifSegment != null) {
+            if (!startsWith(exifSegment, EXIF_PREAMBLE_BYTES))
+                throw new IllegalArgumentException("Exif segment must begin with the Exif preamble");
+            if (exifSegment.length > MAX_SEGMENT_PAYLOAD_LENGTH)
+                throw new IllegalArgumentException("Exif segment is too large for a JPEG segment: " + exifSegment.length + " bytes");
+        }
+
+        final long size = source.size();
+        final ByteBuffer header = ByteBuffer.allocate(4);
+
+        final int magicNumber = readUInt16(source, 0, header);
+        if (magicNumber != 0xFFD8) {
+            throw new JpegProcessingException("JPEG data is expected to begin with 0xFFD8 (ÿØ) not 0x" + Integer.toHexString(magicNumber));
+        }
+        ChannelUtil.transferFully(source, 0, 2, target);
+
+        boolean isExifWritten = exifSegment == null;
+        long position = 2;
+
+        while (position < size) {
+            // Markers may be preceded by any number of 0xFF fill bytes
+            long markerStart = position;
+            if (readUInt8(source, position++, header) != 0xFF)
+                throw new JpegProcessingException("Expected JPEG segment marker at offset " + markerStart);
+            int segmentType = readUInt8(source, position++, header);
+            while (segmentType == 0xFF)
+                segmentType = readUInt8(source, position++, header);
+            markerStart = position - 2;
+
+            if (segmentType == MARKER_SOS || segmentType == MARKER_EOI) {
+                // Image data follows, which is copied verbatim through to the end of the file
+                if (!isExifWritten)
+                    writeSegment(target, JpegSegmentType.APP1.byteValue, exifSegment);
+                ChannelUtil.transferFully(source, markerStart, size - markerStart, target);
+                return;
+            }
+
+            // segment length includes size bytes
+            int segmentLength = readUInt16(source, position, header);
+            if (segmentLength < 2)
+                throw new JpegProcessingException("JPEG segment size would be less than zero");
+            long segmentEnd = position + segmentLength;
+            if (segmentEnd > size)
+                throw new JpegProcessingException("JPEG segment extends beyond end of file");
+
+            boolean isExif = segmentType == (JpegSegmentType.APP1.byteValue & 0xFF) && isExifSegment(source, position + 2, segmentLength - 2);
+
+            if (!isExifWritten && (isExif || segmentType != (JpegSegmentType.APP0.byteValue & 0xFF))) {
+                writeSegment(target, JpegSegmentType.APP1.byteValue, exifSegment);
+                isExifWritten = true;
+            }
+
+            if (!isExif)
+                ChannelUtil.transferFully(source, markerStart, segmentEnd - markerStart, target);
+
+            position = segmentEnd;
+        }
+
+        if (!isExifWritten)
+            writeSegment(target, JpegSegmentType.APP1.byteValue, exifSegment);
+    }
+
+    private static boolean isExifSegment(@NotNull FileChannel source, long payloadOffset, int payloadLength) throws IOException
+    {
+        if (payloadLength < EXIF_PREAMBLE_BYTES.length)
+            return false;
+        ByteBuffer preamble = ByteBuffer.allocate(EXIF_PREAMBLE_BYTES.length);
+        readFully(source, payloadOffset, preamble);
+        return startsWith(preamble.array(), EXIF_PREAMBLE_BYTES);
+    }
+
+    private static void writeSegment(@NotNull WritableByteChannel target, byte segmentType, @NotNull byte[] payload) throws IOException
+    {
+        int length = payload.length + 2;
+        ByteBuffer header = ByteBuffer.wrap(new byte[] { (byte)0xFF, segmentType, (byte)(length >> 8), (byte)length });
+        ChannelUtil.writeFully(target, header);
+        ChannelUtil.writeFully(target, ByteBuffer.wrap(payload));
+    }
+
+    private static int readUInt8(@NotNull FileChannel source, long offset, @NotNull ByteBuffer buffer) throws IOException
+    {
+        buffer.clear();
+        buffer.limit(1);
+        readFully(source, offset, buffer);
+        return buffer.get(0) & 0xFF;
+    }
+
+    private static int readUInt16(@NotNull FileChannel source, long offset, @NotNull ByteBuffer buffer) throws IOException
+    {
+        buffer.clear();
+        buffer.limit(2);
+        readFully(source, offset, buffer);
+        return ((buffer.get(0) & 0xFF) << 8) | (buffer.get(1) & 0xFF);
+    }
+
+    private static void readFully(@NotNull FileChannel source, long offset, @NotNull ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, offset + buffer.position()) < 0)
+                throw new EOFException("Unexpected end of JPEG data");
+        }
+    }
+
+    private static boolean startsWith(@NotNull byte[] bytes, @NotNull byte[] prefix)
+    {
+        if (bytes.length < prefix.length)
+            return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    private JpegSegmentRewriter() throws Exception
+    {
+        throw new Exception("Not intended for instantiation.");
+    }
+}
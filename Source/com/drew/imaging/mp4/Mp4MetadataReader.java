@@ -54,7 +54,19 @@ public class Mp4MetadataReader
     public static Metadata readMetadata(@NotNull InputStream inputStream) throws IOException
     {
         Metadata metadata = new Metadata();
-        Mp4Reader.extract(inputStream, new Mp4BoxHandler(metadata));
+        process(metadata, inputStream);
         return metadata;
     }
+
+    /**
+     * Reads from <code>inputStream</code> into an existing {@link Metadata} object, which allows options such as
+     * {@link Metadata#setSourceRangesEnabled(boolean)} to be configured first.
+     *
+     * @param metadata the metadata object to populate
+     * @param inputStream a stream positioned at the start of the file
+     */
+    public static void process(@NotNull Metadata metadata, @NotNull InputStream inputStream)
+    {
+        Mp4Reader.extract(inputStream, new Mp4BoxHandler(metadata));
+    }
 }
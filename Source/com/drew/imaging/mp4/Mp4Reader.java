@@ -22,6 +22,8 @@ package com.drew.imaging.mp4;
 
 import com.drew.lang.StreamReader;
 import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.mp4.Mp4Context;
 import com.drew.metadata.mp4.boxes.Box;
 
@@ -50,15 +52,27 @@ public class Mp4Reader
         try {
             while (atomEnd == -1 || reader.getPosition() < atomEnd) {
 
+                long boxOffset = reader.getPosition();
                 Box box = new Box(reader);
 
                 // Determine if fourCC is container/atom and process accordingly.
                 // Unknown atoms will be skipped
 
                 if (handler.shouldAcceptContainer(box)) {
-                    processBoxes(reader, box.size + reader.getPosition() - 8, handler.processContainer(box, context), context);
+                    Mp4Handler<?> containerHandler = handler.processContainer(box, context);
+                    if (containerHandler != handler && handler.metadata.isSourceRangesEnabled() && box.size > 0 && containerHandler.directory.getSourceRange() == null)
+                        containerHandler.directory.setSourceRange(new SourceRange(boxOffset, box.size));
+                    processBoxes(reader, box.size + reader.getPosition() - 8, containerHandler, context);
                 } else if (handler.shouldAcceptBox(box)) {
+                    Directory directory = handler.directory;
+                    int directoryCount = handler.metadata.getLoadedDirectoryCount();
                     handler = handler.processBox(box, reader.getBytes((int)box.size - 8), context);
+                    if (handler.metadata.isSourceRangesEnabled()) {
+                        // Values are attributed to the whole box, the smallest unit this reader addresses
+                        SourceRange range = new SourceRange(boxOffset, box.size);
+                        directory.applyTagSourceRange(range);
+                        handler.metadata.applySourceRange(directoryCount, range);
+                    }
                 } else if (box.usertype != null) {
                     reader.skip(box.size - 24);
                 } else if (box.size > 1) {
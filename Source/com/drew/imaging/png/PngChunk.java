@@ -32,10 +32,18 @@ public class PngChunk
     @NotNull
     private final byte[] _bytes;
 
+    private final long _dataOffset;
+
     public PngChunk(@NotNull PngChunkType chunkType, @NotNull byte[] bytes)
+    {
+        this(chunkType, bytes, -1);
+    }
+
+    public PngChunk(@NotNull PngChunkType chunkType, @NotNull byte[] bytes, long dataOffset)
     {
         _chunkType = chunkType;
         _bytes = bytes;
+        _dataOffset = dataOffset;
     }
 
     @NotNull
@@ -49,4 +57,14 @@ public class PngChunk
     {
         return _bytes;
     }
+
+    /**
+     * Gets the position of this chunk's data field within the PNG stream.
+     *
+     * @return the offset of the first data byte, or -1 if unknown
+     */
+    public long getDataOffset()
+    {
+        return _dataOffset;
+    }
 }
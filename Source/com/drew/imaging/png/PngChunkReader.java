@@ -93,6 +93,7 @@ public class PngChunkReader
 
             boolean willStoreChunk = desiredChunkTypes == null || desiredChunkTypes.contains(chunkType);
 
+            long chunkDataOffset = reader.getPosition();
             byte[] chunkData = reader.getBytes(chunkDataLength);
 
             // Skip the CRC bytes at the end of the chunk
@@ -114,7 +115,7 @@ public class PngChunkReader
             }
 
             if (willStoreChunk) {
-                chunks.add(new PngChunk(chunkType, chunkData));
+                chunks.add(new PngChunk(chunkType, chunkData, chunkDataOffset));
             }
 
             seenChunkTypes.add(chunkType);
@@ -23,6 +23,7 @@ package com.drew.imaging.png;
 import com.drew.lang.*;
 import com.drew.lang.annotations.NotNull;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.StringValue;
 import com.drew.metadata.file.FileSystemMetadataReader;
 import com.drew.metadata.icc.IccReader;
@@ -94,19 +95,33 @@ public class PngMetadataReader
     @NotNull
     public static Metadata readMetadata(@NotNull InputStream inputStream) throws PngProcessingException, IOException
     {
-        Iterable<PngChunk> chunks = new PngChunkReader().extract(new StreamReader(inputStream), _desiredChunkTypes);
-
         Metadata metadata = new Metadata();
+        process(metadata, inputStream);
+        return metadata;
+    }
+
+    /**
+     * Reads PNG chunks from <code>inputStream</code> into an existing {@link Metadata} object, which allows options
+     * such as {@link Metadata#setSourceRangesEnabled(boolean)} to be configured first.
+     *
+     * @param metadata the metadata object to populate
+     * @param inputStream a stream positioned at the start of the PNG file
+     */
+    public static void process(@NotNull Metadata metadata, @NotNull InputStream inputStream) throws PngProcessingException, IOException
+    {
+        Iterable<PngChunk> chunks = new PngChunkReader().extract(new StreamReader(inputStream), _desiredChunkTypes);
 
         for (PngChunk chunk : chunks) {
+            boolean applySourceRange = metadata.isSourceRangesEnabled() && chunk.getDataOffset() >= 0;
+            int directoryCount = metadata.getLoadedDirectoryCount();
             try {
                 processChunk(metadata, chunk);
             } catch (Exception e) {
                 e.printStackTrace(System.err);
             }
+            if (applySourceRange)
+                metadata.applySourceRange(directoryCount, new SourceRange(chunk.getDataOffset(), chunk.getBytes().length));
         }
-
-        return metadata;
     }
 
     private static void processChunk(@NotNull Metadata metadata, @NotNull PngChunk chunk) throws PngProcessingException, IOException
@@ -51,7 +51,19 @@ public class QuickTimeMetadataReader
     public static Metadata readMetadata(@NotNull InputStream inputStream)
     {
         Metadata metadata = new Metadata();
-        QuickTimeReader.extract(inputStream, new QuickTimeAtomHandler(metadata));
+        process(metadata, inputStream);
         return metadata;
     }
+
+    /**
+     * Reads from <code>inputStream</code> into an existing {@link Metadata} object, which allows options such as
+     * {@link Metadata#setSourceRangesEnabled(boolean)} to be configured first.
+     *
+     * @param metadata the metadata object to populate
+     * @param inputStream a stream positioned at the start of the file
+     */
+    public static void process(@NotNull Metadata metadata, @NotNull InputStream inputStream)
+    {
+        QuickTimeReader.extract(inputStream, new QuickTimeAtomHandler(metadata));
+    }
 }
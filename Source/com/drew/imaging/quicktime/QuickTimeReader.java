@@ -22,6 +22,8 @@ package com.drew.imaging.quicktime;
 
 import com.drew.lang.StreamReader;
 import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.mov.QuickTimeContext;
 import com.drew.metadata.mov.atoms.Atom;
 
@@ -50,15 +52,27 @@ public class QuickTimeReader
         try {
             while (atomEnd == -1 || reader.getPosition() < atomEnd) {
 
+                long atomOffset = reader.getPosition();
                 Atom atom = new Atom(reader);
 
                 // Determine if fourCC is container/atom and process accordingly.
                 // Unknown atoms will be skipped
 
                 if (handler.shouldAcceptContainer(atom)) {
-                    processAtoms(reader, atom.size + reader.getPosition() - 8, handler.processContainer(atom, context), context);
+                    QuickTimeHandler<?> containerHandler = handler.processContainer(atom, context);
+                    if (containerHandler != handler && handler.metadata.isSourceRangesEnabled() && atom.size > 0 && containerHandler.directory.getSourceRange() == null)
+                        containerHandler.directory.setSourceRange(new SourceRange(atomOffset, atom.size));
+                    processAtoms(reader, atom.size + reader.getPosition() - 8, containerHandler, context);
                 } else if (handler.shouldAcceptAtom(atom)) {
+                    Directory directory = handler.directory;
+                    int directoryCount = handler.metadata.getLoadedDirectoryCount();
                     handler = handler.processAtom(atom, reader.getBytes((int)atom.size - 8), context);
+                    if (handler.metadata.isSourceRangesEnabled()) {
+                        // Values are attributed to the whole atom, the smallest unit this reader addresses
+                        SourceRange range = new SourceRange(atomOffset, atom.size);
+                        directory.applyTagSourceRange(range);
+                        handler.metadata.applySourceRange(directoryCount, range);
+                    }
                 } else if (atom.size > 1) {
                     reader.skip(atom.size - 8);
                 } else if (atom.size == -1) {
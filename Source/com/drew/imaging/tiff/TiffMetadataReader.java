@@ -67,8 +67,21 @@ public class TiffMetadataReader
     public static Metadata readMetadata(@NotNull RandomAccessReader reader) throws IOException, TiffProcessingException
     {
         Metadata metadata = new Metadata();
+        process(metadata, reader);
+        return metadata;
+    }
+
+    /**
+     * Reads TIFF data from <code>reader</code> into an existing {@link Metadata} object, which allows options such as
+     * {@link Metadata#setSourceRangesEnabled(boolean)} to be configured first.
+     *
+     * @param metadata the metadata object to populate
+     * @param reader a reader positioned at the start of the TIFF file
+     */
+    public static void process(@NotNull Metadata metadata, @NotNull RandomAccessReader reader) throws IOException, TiffProcessingException
+    {
         ExifTiffHandler handler = new ExifTiffHandler(metadata, null);
+        handler.setSourceOffset(0);
         new TiffReader().processTiff(reader, handler, 0);
-        return metadata;
     }
 }
@@ -141,6 +141,10 @@ public class TiffReader
                 return;
             }
 
+            TiffSourceRangeHandler rangeHandler = handler instanceof TiffSourceRangeHandler ? (TiffSourceRangeHandler)handler : null;
+            if (rangeHandler != null)
+                rangeHandler.setIfdSourceRange(reader.toUnshiftedOffset(ifdOffset), dirLength);
+
             //
             // Handle each tag in this directory
             //
@@ -221,6 +225,9 @@ public class TiffReader
                     // If no custom processing occurred, process the tag in the standard fashion
                     processTag(handler, tagId, (int) tagValueOffset, (int) componentCount, formatCode, reader);
                 }
+
+                if (!isIfdPointer && rangeHandler != null)
+                    rangeHandler.setTagSourceRange(tagId, reader.toUnshiftedOffset(tagValueOffset), byteCount, formatCode, componentCount);
             }
 
             // at the end of each IFD is an optional link to the next IFD
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging.tiff;
+
+/**
+ * An optional extension of {@link TiffHandler} for handlers that record where IFDs and tag values were read from.
+ * <p>
+ * {@link TiffReader} only reports positions to handlers implementing this interface, so existing
+ * {@link TiffHandler} implementations are unaffected.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public interface TiffSourceRangeHandler extends TiffHandler
+{
+    /**
+     * Receives the position of the IFD currently being processed.
+     * <p>
+     * Offsets are relative to the start of the underlying data, ignoring any base offset shift applied to the reader.
+     *
+     * @param ifdOffset the unshifted offset of the IFD's entry count
+     * @param ifdLength the number of bytes in the IFD, including its entries and next-IFD link
+     */
+    void setIfdSourceRange(long ifdOffset, long ifdLength);
+
+    /**
+     * Receives the position of the value bytes of the tag just processed.
+     * <p>
+     * Offsets are relative to the start of the underlying data, ignoring any base offset shift applied to the reader.
+     *
+     * @param tagId the tag identifier
+     * @param valueOffset the unshifted offset of the tag's value, which is within the IFD entry for small values
+     * @param valueLength the number of bytes in the tag's value
+     * @param formatCode the format code of the tag's IFD entry
+     * @param componentCount the component count of the tag's IFD entry
+     */
+    void setTagSourceRange(int tagId, long valueOffset, long valueLength, int formatCode, long componentCount);
+}
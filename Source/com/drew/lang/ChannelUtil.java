@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.lang;
+
+import com.drew.lang.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class ChannelUtil
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Copies <code>count</code> bytes from <code>source</code>, starting at <code>position</code>, into
+     * <code>target</code>.
+     * <p>
+     * Data is moved with {@link FileChannel#transferTo}, which allows the operating system to avoid copying the
+     * bytes through user space where supported.  Should that stop making progress, the remaining bytes are copied
+     * through a buffer.  The position of <code>source</code> is not modified.
+     *
+     * @return the number of bytes copied, which is always <code>count</code>
+     * @throws EOFException if <code>source</code> ends before all bytes could be copied
+     * @throws IOException if <code>target</code> accepts no data, or if an I/O error occurs
+     */
+    public static long transferFully(@NotNull FileChannel source, long position, long count, @NotNull WritableByteChannel target) throws IOException
+    {
+        long copied = 0;
+        while (copied < count) {
+            long transferred = source.transferTo(position + copied, count - copied, target);
+            if (transferred <= 0) {
+                if (position + copied >= source.size())
+                    throw new EOFException("Unexpected end of file while copying data");
+                // Some targets, such as non-blocking channels, may stall transferTo, so copy the rest through a buffer
+                return copied + copyBuffered(source, position + copied, count - copied, target);
+            }
+            copied += transferred;
+        }
+        return copied;
+    }
+
+    /**
+     * Writes the remaining bytes of <code>buffer</code> to <code>target</code>.
+     *
+     * @throws IOException if <code>target</code> accepts no data, or if an I/O error occurs
+     */
+    public static void writeFully(@NotNull WritableByteChannel target, @NotNull ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            if (target.write(buffer) <= 0)
+                throw new IOException("Target channel accepted no data");
+        }
+    }
+
+    private static long copyBuffered(@NotNull FileChannel source, long position, long count, @NotNull WritableByteChannel target) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(count, BUFFER_SIZE));
+        long copied = 0;
+        while (copied < count) {
+            buffer.clear();
+            buffer.limit((int)Math.min(buffer.capacity(), count - copied));
+            int read = source.read(buffer, position + copied);
+            if (read < 0)
+                throw new EOFException("Unexpected end of file while copying data");
+            buffer.flip();
+            writeFully(target, buffer);
+            copied += read;
+        }
+        return copied;
+    }
+
+    private ChannelUtil() throws Exception
+    {
+        throw new Exception("Not intended for instantiation.");
+    }
+}
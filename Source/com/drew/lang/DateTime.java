@@ -0,0 +1,488 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.lang;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * An immutable date and time of day, as written in Exif, XMP and IPTC metadata, with an optional offset from UTC.
+ * <p>
+ * Unlike {@link Date}, this retains the values as written: a local date and time, the precision of any fractional
+ * seconds (up to nanoseconds) and whether an offset was given.  Its {@link #toString()} form is ISO 8601, such as
+ * <code>2002-01-30T23:59:59.099-08:00</code>, which may be passed to <code>java.time</code> parsers on platforms
+ * that provide them.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class DateTime
+{
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    /** Represents an unknown offset, being outside the range of valid offsets. */
+    private static final int NO_OFFSET = Integer.MIN_VALUE;
+
+    private final int _year;
+    private final int _month;
+    private final int _day;
+    private final int _hour;
+    private final int _minute;
+    private final int _second;
+    private final int _nanosecond;
+    private final boolean _hasTime;
+    /** The offset from UTC in seconds, or {@link #NO_OFFSET}. */
+    private final int _offsetSeconds;
+
+    /**
+     * Creates a date and time.
+     *
+     * @param month the month of the year, from 1 to 12
+     * @param hasTime whether a time of day was specified, otherwise the time fields must be zero
+     * @param offsetSeconds the offset from UTC, or <code>null</code> if unknown
+     * @throws IllegalArgumentException if any field is out of range
+     */
+    public DateTime(int year, int month, int day, int hour, int minute, int second, int nanosecond, boolean hasTime, @Nullable Integer offsetSeconds)
+    {
+        this(year, month, day, hour, minute, second, nanosecond, hasTime, offsetSeconds == null ? NO_OFFSET : offsetSeconds);
+    }
+
+    private DateTime(int year, int month, int day, int hour, int minute, int second, int nanosecond, boolean hasTime, int offsetSeconds)
+    {
+        if (!DateUtil.isValidDate(year, month - 1, day))
+            throw new IllegalArgumentException("Invalid date: " + year + "-" + month + "-" + day);
+        if (!DateUtil.isValidTime(hour, minute, second) || nanosecond < 0 || nanosecond > 999999999)
+            throw new IllegalArgumentException("Invalid time: " + hour + ":" + minute + ":" + second + "." + nanosecond);
+        if (!hasTime && (hour | minute | second | nanosecond) != 0)
+            throw new IllegalArgumentException("Time fields must be zero when no time is specified");
+        if (offsetSeconds != NO_OFFSET && (offsetSeconds <= -18 * 3600 || offsetSeconds >= 18 * 3600))
+            throw new IllegalArgumentException("Invalid offset: " + offsetSeconds);
+
+        _year = year;
+        _month = month;
+        _day = day;
+        _hour = hour;
+        _minute = minute;
+        _second = second;
+        _nanosecond = nanosecond;
+        _hasTime = hasTime;
+        _offsetSeconds = offsetSeconds;
+    }
+
+    /**
+     * Parses a date and optional time, in any of the forms used by Exif, XMP and IPTC metadata:
+     * <ul>
+     *     <li><code>yyyy:MM:dd HH:mm:ss</code>, also with <code>-</code> or <code>.</code> separating the date</li>
+     *     <li><code>yyyy-MM-ddTHH:mm:ss</code></li>
+     *     <li>either of the above without seconds</li>
+     *     <li><code>yyyy-MM-dd</code>, <code>yyyy-MM</code>, <code>yyyyMMdd</code> or <code>yyyy</code></li>
+     * </ul>
+     * Seconds may have a fractional part, such as <code>.099</code>, and a time may be followed by <code>Z</code> or
+     * an offset such as <code>-08:00</code>.  Text following a recognised form is ignored.
+     *
+     * @param value the text to parse
+     * @return the parsed value, or <code>null</code> if the text does not begin with a valid date
+     */
+    @Nullable
+    public static DateTime parse(@NotNull String value)
+    {
+        return parse(value, null);
+    }
+
+    /**
+     * As {@link #parse(String)}, where <code>subsecond</code> gives the digits of a fractional second to use when
+     * <code>value</code> does not specify one, as held separately by Exif's SubSecTime tags.  A <code>subsecond</code>
+     * which is not a sequence of digits is ignored.
+     */
+    @Nullable
+    public static DateTime parse(@NotNull String value, @Nullable String subsecond)
+    {
+        int length = value.length();
+
+        // Year, which must have four digits
+        int year = parseDigits(value, 0, 4);
+        if (year < 0)
+            return null;
+        int pos = 4;
+        int month = 1;
+        int day = 1;
+
+        if (pos + 4 <= length && isDigit(value.charAt(pos))) {
+            // yyyyMMdd, as used by IPTC
+            month = parseDigits(value, pos, 2);
+            day = parseDigits(value, pos + 2, 2);
+            if (month < 0 || day < 0)
+                return null;
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        }
+
+        if (pos == length)
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+
+        char separator = value.charAt(pos);
+        if (separator != ':' && separator != '-' && separator != '.')
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+
+        // Month, then day, each of one or two digits
+        int end = skipDigits(value, pos + 1);
+        if (end == pos + 1 || end > pos + 3)
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        month = parseDigits(value, pos + 1, end - pos - 1);
+        pos = end;
+
+        if (pos == length || value.charAt(pos) != separator)
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        end = skipDigits(value, pos + 1);
+        if (end == pos + 1 || end > pos + 3)
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        day = parseDigits(value, pos + 1, end - pos - 1);
+        pos = end;
+
+        // Time of day, separated from the date by a space or 'T', and having at least hours and minutes
+        if (pos == length || (value.charAt(pos) != ' ' && value.charAt(pos) != 'T'))
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        pos++;
+        end = skipDigits(value, pos);
+        if (end == pos || end > pos + 2 || end == length || value.charAt(end) != ':')
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        int hour = parseDigits(value, pos, end - pos);
+        pos = end + 1;
+        end = skipDigits(value, pos);
+        if (end == pos || end > pos + 2)
+            return create(year, month, day, 0, 0, 0, -1, false, NO_OFFSET, subsecond);
+        int minute = parseDigits(value, pos, end - pos);
+        pos = end;
+
+        int second = 0;
+        int nanosecond = -1;
+        if (pos + 1 < length && value.charAt(pos) == ':' && isDigit(value.charAt(pos + 1))) {
+            end = skipDigits(value, pos + 1);
+            if (end <= pos + 3) {
+                second = parseDigits(value, pos + 1, end - pos - 1);
+                pos = end;
+                if (pos + 1 < length && value.charAt(pos) == '.' && isDigit(value.charAt(pos + 1))) {
+                    end = skipDigits(value, pos + 1);
+                    nanosecond = parseFraction(value, pos + 1, end);
+                    pos = end;
+                }
+            }
+        }
+
+        // Offset from UTC, if any
+        int offsetSeconds = NO_OFFSET;
+        if (pos < length) {
+            char c = value.charAt(pos);
+            if (c == 'Z') {
+                offsetSeconds = 0;
+            } else if ((c == '+' || c == '-') && pos + 6 <= length && value.charAt(pos + 3) == ':') {
+                int offsetHours = parseDigits(value, pos + 1, 2);
+                int offsetMinutes = parseDigits(value, pos + 4, 2);
+                if (offsetHours >= 0 && offsetHours < 18 && offsetMinutes >= 0 && offsetMinutes < 60) {
+                    int offset = offsetHours * 3600 + offsetMinutes * 60;
+                    offsetSeconds = c == '-' ? -offset : offset;
+                }
+            }
+        }
+
+        return create(year, month, day, hour, minute, second, nanosecond, true, offsetSeconds, subsecond);
+    }
+
+    @Nullable
+    private static DateTime create(int year, int month, int day, int hour, int minute, int second, int nanosecond,
+                                   boolean hasTime, int offsetSeconds, @Nullable String subsecond)
+    {
+        // A fraction within the value takes precedence over a separate subsecond value
+        if (nanosecond < 0) {
+            nanosecond = 0;
+            if (subsecond != null) {
+                String digits = subsecond.trim();
+                if (digits.length() != 0 && skipDigits(digits, 0) == digits.length())
+                    nanosecond = parseFraction(digits, 0, digits.length());
+            }
+        }
+
+        if (!DateUtil.isValidDate(year, month - 1, day) || !DateUtil.isValidTime(hour, minute, second))
+            return null;
+
+        // A fractional second without a time is retained, as it was by earlier versions
+        if (!hasTime && nanosecond != 0)
+            hasTime = true;
+
+        return new DateTime(year, month, day, hour, minute, second, nanosecond, hasTime, offsetSeconds);
+    }
+
+    /**
+     * Creates a value holding the UTC date and time of <code>date</code>, with a zero offset.
+     */
+    @NotNull
+    public static DateTime fromDate(@NotNull Date date)
+    {
+        long millis = date.getTime();
+        long days = floorDiv(millis, MILLIS_PER_DAY);
+        int millisOfDay = (int)(millis - days * MILLIS_PER_DAY);
+
+        // Converts days since 1970-01-01 to a civil date in the proleptic Gregorian calendar
+        long z = days + 719468;
+        long era = floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int)(dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int)(mp < 10 ? mp + 3 : mp - 9);
+        int year = (int)(yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        return new DateTime(year, month, day,
+            millisOfDay / 3600000, millisOfDay / 60000 % 60, millisOfDay / 1000 % 60, millisOfDay % 1000 * 1000000,
+            true, 0);
+    }
+
+    public int getYear()
+    {
+        return _year;
+    }
+
+    /**
+     * Gets the month of the year, from 1 to 12.
+     */
+    public int getMonth()
+    {
+        return _month;
+    }
+
+    public int getDay()
+    {
+        return _day;
+    }
+
+    public int getHour()
+    {
+        return _hour;
+    }
+
+    public int getMinute()
+    {
+        return _minute;
+    }
+
+    public int getSecond()
+    {
+        return _second;
+    }
+
+    public int getNanosecond()
+    {
+        return _nanosecond;
+    }
+
+    /**
+     * Gets whether a time of day was specified, rather than only a date.
+     */
+    public boolean hasTime()
+    {
+        return _hasTime;
+    }
+
+    /**
+     * Gets the offset from UTC in seconds, or <code>null</code> if it was not specified.
+     */
+    @Nullable
+    public Integer getOffsetSeconds()
+    {
+        return _offsetSeconds == NO_OFFSET ? null : _offsetSeconds;
+    }
+
+    /**
+     * Gets the number of milliseconds since 1970-01-01T00:00:00Z represented by this value, truncating any fraction of
+     * a millisecond.
+     *
+     * @param timeZone the zone in which to interpret the value if it has no offset, or <code>null</code> for UTC
+     */
+    public long getEpochMillis(@Nullable TimeZone timeZone)
+    {
+        long local = daysSinceEpoch(_year, _month, _day) * MILLIS_PER_DAY
+            + _hour * 3600000L + _minute * 60000L + _second * 1000L + _nanosecond / 1000000;
+
+        if (_offsetSeconds != NO_OFFSET)
+            return local - _offsetSeconds * 1000L;
+        if (timeZone == null)
+            return local;
+        return local - timeZone.getOffset(local - timeZone.getRawOffset());
+    }
+
+    /**
+     * Gets this value as a {@link Date}.
+     *
+     * @param timeZone the zone in which to interpret the value if it has no offset, or <code>null</code> for UTC
+     */
+    @NotNull
+    public Date toDate(@Nullable TimeZone timeZone)
+    {
+        return new Date(getEpochMillis(timeZone));
+    }
+
+    private static long daysSinceEpoch(int year, int month, int day)
+    {
+        // Converts a civil date in the proleptic Gregorian calendar to days since 1970-01-01
+        long y = month <= 2 ? year - 1 : year;
+        long era = floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static long floorDiv(long x, long y)
+    {
+        long q = x / y;
+        return (x % y != 0 && (x < 0) != (y < 0)) ? q - 1 : q;
+    }
+
+    private static boolean isDigit(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipDigits(@NotNull String value, int pos)
+    {
+        while (pos < value.length() && isDigit(value.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    /**
+     * Parses <code>count</code> decimal digits beginning at <code>pos</code>, or returns -1 if there are not enough.
+     */
+    private static int parseDigits(@NotNull String value, int pos, int count)
+    {
+        if (pos + count > value.length())
+            return -1;
+        int result = 0;
+        for (int i = pos; i < pos + count; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c))
+                return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Parses the digits of a decimal fraction as nanoseconds, ignoring digits beyond the ninth.
+     */
+    private static int parseFraction(@NotNull String value, int pos, int end)
+    {
+        int nanosecond = 0;
+        for (int i = 0; i < 9; i++) {
+            nanosecond *= 10;
+            if (pos + i < end)
+                nanosecond += value.charAt(pos + i) - '0';
+        }
+        return nanosecond;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o)
+    {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        DateTime other = (DateTime)o;
+        return _year == other._year && _month == other._month && _day == other._day
+            && _hour == other._hour && _minute == other._minute && _second == other._second
+            && _nanosecond == other._nanosecond && _hasTime == other._hasTime
+            && _offsetSeconds == other._offsetSeconds;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = ((_year * 12 + _month) * 31 + _day) * 24 + _hour;
+        result = (result * 60 + _minute) * 60 + _second;
+        result = result * 31 + _nanosecond;
+        result = result * 2 + (_hasTime ? 1 : 0);
+        return result * 31 + _offsetSeconds;
+    }
+
+    /**
+     * Gets the ISO 8601 representation of this value, such as <code>2002-01-30</code> when there is no time,
+     * <code>2002-01-30T23:59:59.099</code> when there is no offset, or <code>2002-01-30T23:59:59Z</code>.
+     */
+    @Override
+    @NotNull
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder(35);
+        appendPadded(builder, _year, 4);
+        builder.append('-');
+        appendPadded(builder, _month, 2);
+        builder.append('-');
+        appendPadded(builder, _day, 2);
+
+        if (!_hasTime)
+            return builder.toString();
+
+        builder.append('T');
+        appendPadded(builder, _hour, 2);
+        builder.append(':');
+        appendPadded(builder, _minute, 2);
+        builder.append(':');
+        appendPadded(builder, _second, 2);
+
+        if (_nanosecond != 0) {
+            builder.append('.');
+            // Use groups of three digits, as java.time does
+            if (_nanosecond % 1000000 == 0)
+                appendPadded(builder, _nanosecond / 1000000, 3);
+            else if (_nanosecond % 1000 == 0)
+                appendPadded(builder, _nanosecond / 1000, 6);
+            else
+                appendPadded(builder, _nanosecond, 9);
+        }
+
+        if (_offsetSeconds != NO_OFFSET) {
+            int offset = _offsetSeconds;
+            if (offset == 0) {
+                builder.append('Z');
+            } else {
+                builder.append(offset < 0 ? '-' : '+');
+                offset = Math.abs(offset);
+                appendPadded(builder, offset / 3600, 2);
+                builder.append(':');
+                appendPadded(builder, offset / 60 % 60, 2);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static void appendPadded(@NotNull StringBuilder builder, int value, int width)
+    {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit)
+                builder.append('0');
+        }
+        builder.append(value);
+    }
+}
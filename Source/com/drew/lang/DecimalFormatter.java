@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.lang;
+
+import com.drew.lang.annotations.NotNull;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+
+/**
+ * A thread-safe, reusable equivalent of {@link DecimalFormat} for a fixed pattern and rounding mode.
+ * <p>
+ * {@link DecimalFormat} is expensive to construct and may not be shared between threads, so descriptors historically
+ * created one per formatted value. Instances of this class are intended to be held in <code>static final</code>
+ * fields: each thread lazily receives its own {@link DecimalFormat}, and whole numbers (the most common case for
+ * metadata values) bypass it entirely where the pattern allows, producing identical output.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class DecimalFormatter
+{
+    /** Whole numbers below this magnitude are exactly representable and formatted via {@link Long#toString(long)}. */
+    private static final double MAX_FAST_PATH_VALUE = 1e15;
+
+    @NotNull
+    private final String _pattern;
+    @NotNull
+    private final RoundingMode _roundingMode;
+    private final boolean _wholeNumberFastPath;
+    @NotNull
+    private final ThreadLocal<DecimalFormat> _format = new ThreadLocal<DecimalFormat>()
+    {
+        @Override
+        protected DecimalFormat initialValue()
+        {
+            return createFormat();
+        }
+    };
+
+    public DecimalFormatter(@NotNull String pattern)
+    {
+        this(pattern, RoundingMode.HALF_EVEN);
+    }
+
+    public DecimalFormatter(@NotNull String pattern, @NotNull RoundingMode roundingMode)
+    {
+        _pattern = pattern;
+        _roundingMode = roundingMode;
+
+        // Whole numbers may skip DecimalFormat only when it would print nothing but the plain digits
+        DecimalFormat format = createFormat();
+        _wholeNumberFastPath = format.getMinimumFractionDigits() == 0
+            && format.getMinimumIntegerDigits() <= 1
+            && !format.isGroupingUsed()
+            && format.getMultiplier() == 1
+            && format.getPositivePrefix().length() == 0
+            && format.getPositiveSuffix().length() == 0
+            && format.getDecimalFormatSymbols().getZeroDigit() == '0';
+    }
+
+    @NotNull
+    public String getPattern()
+    {
+        return _pattern;
+    }
+
+    @NotNull
+    public RoundingMode getRoundingMode()
+    {
+        return _roundingMode;
+    }
+
+    /**
+     * Formats <code>value</code> exactly as <code>new DecimalFormat(pattern)</code> with this instance's rounding mode would.
+     */
+    @NotNull
+    public String format(double value)
+    {
+        if (_wholeNumberFastPath && value >= 0 && value < MAX_FAST_PATH_VALUE && value == Math.floor(value)
+            && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0d)) {
+            return Long.toString((long)value);
+        }
+        return _format.get().format(value);
+    }
+
+    @NotNull
+    private DecimalFormat createFormat()
+    {
+        DecimalFormat format = new DecimalFormat(_pattern);
+        format.setRoundingMode(_roundingMode);
+        return format;
+    }
+
+    @Override
+    @NotNull
+    public String toString()
+    {
+        return _pattern;
+    }
+}
@@ -24,8 +24,6 @@ package com.drew.lang;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 
-import java.text.DecimalFormat;
-
 /**
  * Represents a latitude and longitude pair, giving a position on earth in spherical coordinates.
  * <p>
@@ -35,6 +33,8 @@ import java.text.DecimalFormat;
  */
 public final class GeoLocation
 {
+    private static final DecimalFormatter UP_TO_2DP = new DecimalFormatter("0.##");
+
     private final double _latitude;
     private final double _longitude;
 
@@ -82,8 +82,7 @@ public final class GeoLocation
     public static String decimalToDegreesMinutesSecondsString(double decimal)
     {
         double[] dms = decimalToDegreesMinutesSeconds(decimal);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return String.format("%s\u00B0 %s' %s\"", format.format(dms[0]), format.format(dms[1]), format.format(dms[2]));
+        return String.format("%s\u00B0 %s' %s\"", UP_TO_2DP.format(dms[0]), UP_TO_2DP.format(dms[1]), UP_TO_2DP.format(dms[2]));
     }
 
     /**
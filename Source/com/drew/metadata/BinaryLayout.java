@@ -0,0 +1,319 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.BufferBoundsException;
+import com.drew.lang.RandomAccessReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Describes a block of binary data having values at fixed offsets, as used by various makernotes and RAW formats in
+ * place of an IFD, and populates a {@link Directory} from such a block.
+ * <p>
+ * Each field maps a tag to an offset within the block, a {@link FieldType} and an element count (and for text, a
+ * charset).  The block is read from the underlying reader in a single request, so is bounds checked once, and then
+ * decoded in one pass rather than issuing a read per value.  This copies the block, so suits the small blocks of
+ * makernotes and RAW headers rather than large regions of a file.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class BinaryLayout
+{
+    /**
+     * The binary encoding of a field's value, and the type with which it is stored in a {@link Directory}.
+     */
+    public enum FieldType
+    {
+        /** Signed 8-bit values, stored as {@link Integer} or <code>byte[]</code>. */
+        Int8(1),
+        /** Unsigned 8-bit values, stored as {@link Integer} or <code>int[]</code>. */
+        UInt8(1),
+        /** Signed 16-bit values, stored as {@link Integer} or <code>short[]</code>. */
+        Int16(2),
+        /** Unsigned 16-bit values, stored as {@link Integer} or <code>int[]</code>. */
+        UInt16(2),
+        /** Signed 32-bit values, stored as {@link Integer} or <code>int[]</code>. */
+        Int32(4),
+        /** Unsigned 32-bit values, stored as {@link Long} or <code>long[]</code>. */
+        UInt32(4),
+        /** Text occupying a fixed number of bytes, stored as {@link String}. */
+        Text(1),
+        /** Text occupying up to a fixed number of bytes and ending at the first zero byte, stored as {@link String}. */
+        NullTerminatedText(1),
+        /** Text occupying a fixed number of bytes, stored undecoded as {@link StringValue}. */
+        RawText(1);
+
+        private final int _size;
+
+        FieldType(int size)
+        {
+            _size = size;
+        }
+
+        /**
+         * Gets the number of bytes occupied by a single value of this type.
+         */
+        public int getSize()
+        {
+            return _size;
+        }
+
+        /**
+         * Gets whether this type is text, in which case a field's count is its length in bytes.
+         */
+        public boolean isText()
+        {
+            return this == Text || this == NullTerminatedText || this == RawText;
+        }
+    }
+
+    private static final class Field
+    {
+        final int tagType;
+        final int offset;
+        @NotNull final FieldType type;
+        final int count;
+        @Nullable final Charset charset;
+
+        Field(int tagType, int offset, @NotNull FieldType type, int count, @Nullable Charset charset)
+        {
+            this.tagType = tagType;
+            this.offset = offset;
+            this.type = type;
+            this.count = count;
+            this.charset = charset;
+        }
+
+        int getEnd()
+        {
+            return offset + type.getSize() * count;
+        }
+    }
+
+    @NotNull
+    private final List<Field> _fields = new ArrayList<Field>();
+    private int _length;
+
+    /**
+     * Adds a field holding a single value.
+     */
+    public void add(int tagType, int offset, @NotNull FieldType type)
+    {
+        add(tagType, offset, type, 1);
+    }
+
+    /**
+     * Adds a field holding <code>count</code> consecutive values.  When <code>count</code> is greater than one, the
+     * values are stored as an array.
+     */
+    public void add(int tagType, int offset, @NotNull FieldType type, int count)
+    {
+        if (type.isText())
+            throw new IllegalArgumentException("A charset must be specified for text fields");
+
+        addField(new Field(tagType, offset, type, count, null));
+    }
+
+    /**
+     * Adds a text field occupying <code>byteCount</code> bytes, encoded using <code>charset</code>.
+     */
+    public void add(int tagType, int offset, @NotNull FieldType type, int byteCount, @NotNull Charset charset)
+    {
+        if (!type.isText())
+            throw new IllegalArgumentException("A charset may only be specified for text fields");
+
+        addField(new Field(tagType, offset, type, byteCount, charset));
+    }
+
+    private void addField(@NotNull Field field)
+    {
+        if (field.offset < 0)
+            throw new IllegalArgumentException("offset must be zero or greater");
+        if (field.count < 1)
+            throw new IllegalArgumentException("count must be greater than zero");
+
+        _fields.add(field);
+        _length = Math.max(_length, field.getEnd());
+    }
+
+    /**
+     * Gets the number of bytes spanned by this layout's fields, from the start of the block.
+     */
+    public int getLength()
+    {
+        return _length;
+    }
+
+    /**
+     * Reads the block beginning at <code>offset</code> in <code>reader</code>, and stores its fields in
+     * <code>directory</code> using the reader's byte order.  If the reader's data ends within the block, the fields
+     * preceding that point are still stored.
+     *
+     * @throws IOException if the reader does not contain any of the block's fields
+     */
+    public void read(@NotNull RandomAccessReader reader, long offset, @NotNull Directory directory) throws IOException
+    {
+        read(readBlock(reader, offset), reader.isMotorolaByteOrder(), directory);
+    }
+
+    /**
+     * Gets the bytes of the block beginning at <code>offset</code> in <code>reader</code>.  If the reader's data ends
+     * within the block, the returned array is shortened to end with the last field that is entirely available.
+     *
+     * @throws IOException if the reader does not contain any of the block's fields
+     */
+    @NotNull
+    public byte[] readBlock(@NotNull RandomAccessReader reader, long offset) throws IOException
+    {
+        try {
+            return reader.getBytes(offset, _length);
+        } catch (BufferBoundsException e) {
+            // The data is truncated, so try successively shorter prefixes ending at field boundaries
+            int[] ends = new int[_fields.size()];
+            for (int i = 0; i < ends.length; i++)
+                ends[i] = _fields.get(i).getEnd();
+            Arrays.sort(ends);
+            for (int i = ends.length - 1; i >= 0; i--) {
+                if (ends[i] == _length || (i < ends.length - 1 && ends[i] == ends[i + 1]))
+                    continue;
+                try {
+                    return reader.getBytes(offset, ends[i]);
+                } catch (BufferBoundsException ignored) {
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the fields found in <code>block</code> in <code>directory</code>.  Fields which extend beyond the end of
+     * the block are not stored.
+     */
+    public void read(@NotNull byte[] block, boolean isMotorolaByteOrder, @NotNull Directory directory)
+    {
+        for (Field field : _fields) {
+            if (field.getEnd() > block.length)
+                continue;
+
+            if (field.type.isText()) {
+                assert(field.charset != null);
+                switch (field.type) {
+                    case Text:
+                        directory.setString(field.tagType, new String(block, field.offset, field.count, field.charset));
+                        break;
+                    case NullTerminatedText: {
+                        int length = 0;
+                        while (length < field.count && block[field.offset + length] != 0)
+                            length++;
+                        directory.setString(field.tagType, new String(block, field.offset, length, field.charset));
+                        break;
+                    }
+                    default: {
+                        byte[] bytes = new byte[field.count];
+                        System.arraycopy(block, field.offset, bytes, 0, field.count);
+                        directory.setStringValue(field.tagType, new StringValue(bytes, field.charset));
+                        break;
+                    }
+                }
+                continue;
+            }
+
+            if (field.count == 1) {
+                if (field.type == FieldType.UInt32)
+                    directory.setLong(field.tagType, getUInt32(block, field.offset, isMotorolaByteOrder));
+                else
+                    directory.setInt(field.tagType, getInt(block, field.offset, field.type, isMotorolaByteOrder));
+                continue;
+            }
+
+            int size = field.type.getSize();
+            switch (field.type) {
+                case Int8: {
+                    byte[] values = new byte[field.count];
+                    System.arraycopy(block, field.offset, values, 0, field.count);
+                    directory.setByteArray(field.tagType, values);
+                    break;
+                }
+                case Int16: {
+                    short[] values = new short[field.count];
+                    for (int i = 0; i < values.length; i++)
+                        values[i] = (short)getInt(block, field.offset + i * size, FieldType.Int16, isMotorolaByteOrder);
+                    directory.setObjectArray(field.tagType, values);
+                    break;
+                }
+                case UInt32: {
+                    long[] values = new long[field.count];
+                    for (int i = 0; i < values.length; i++)
+                        values[i] = getUInt32(block, field.offset + i * size, isMotorolaByteOrder);
+                    directory.setObjectArray(field.tagType, values);
+                    break;
+                }
+                default: {
+                    int[] values = new int[field.count];
+                    for (int i = 0; i < values.length; i++)
+                        values[i] = getInt(block, field.offset + i * size, field.type, isMotorolaByteOrder);
+                    directory.setIntArray(field.tagType, values);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int getInt(@NotNull byte[] block, int offset, @NotNull FieldType type, boolean isMotorolaByteOrder)
+    {
+        switch (type) {
+            case Int8:
+                return block[offset];
+            case UInt8:
+                return block[offset] & 0xFF;
+            case Int16:
+                return (short)getUInt16(block, offset, isMotorolaByteOrder);
+            case UInt16:
+                return getUInt16(block, offset, isMotorolaByteOrder);
+            default:
+                return (int)getUInt32(block, offset, isMotorolaByteOrder);
+        }
+    }
+
+    private static int getUInt16(@NotNull byte[] block, int offset, boolean isMotorolaByteOrder)
+    {
+        int b0 = block[offset] & 0xFF;
+        int b1 = block[offset + 1] & 0xFF;
+        return isMotorolaByteOrder ? b0 << 8 | b1 : b1 << 8 | b0;
+    }
+
+    private static long getUInt32(@NotNull byte[] block, int offset, boolean isMotorolaByteOrder)
+    {
+        long value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = block[isMotorolaByteOrder ? offset + i : offset + 3 - i] & 0xFF;
+            value = value << 8 | b;
+        }
+        return value;
+    }
+}
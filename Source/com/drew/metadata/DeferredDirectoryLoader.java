@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.annotations.NotNull;
+
+/**
+ * Populates one or more directories on demand, the first time a matching directory is requested from a
+ * {@link Metadata} object.
+ * <p>
+ * Readers register loaders via {@link Metadata#addDeferredDirectoryLoader(DeferredDirectoryLoader)} for data that is
+ * expensive to decode and often not needed, such as camera makernotes.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public interface DeferredDirectoryLoader
+{
+    /**
+     * Indicates whether loading may produce a directory of type <code>directoryType</code>, or a subtype of it.
+     * <p>
+     * Implementations must return <code>true</code> when unsure, as a <code>false</code> result means a query for
+     * that type is answered without loading.
+     *
+     * @param directoryType the directory type being queried
+     * @return <code>true</code> if loading may produce a matching directory
+     */
+    boolean mayProduce(@NotNull Class<? extends Directory> directoryType);
+
+    /**
+     * Reads the deferred data, adding the resulting directories to <code>metadata</code>.  Called at most once.
+     * <p>
+     * Errors must be recorded on the produced directories rather than thrown.
+     *
+     * @param metadata the metadata object that registered this loader
+     */
+    void load(@NotNull Metadata metadata);
+}
@@ -20,6 +20,8 @@
  */
 package com.drew.metadata;
 
+import com.drew.lang.DateTime;
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.Rational;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
@@ -27,13 +29,7 @@ import com.drew.lang.annotations.SuppressWarnings;
 
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Array;
-import java.text.DateFormat;
-import java.text.DecimalFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Abstract base class for all directory implementations, having methods for getting and setting tag values of various
@@ -44,22 +40,33 @@ import java.util.regex.Pattern;
 @java.lang.SuppressWarnings("WeakerAccess")
 public abstract class Directory
 {
-    private static final String _floatFormatPattern = "0.###";
+    private static final DecimalFormatter _floatFormat = new DecimalFormatter("0.###");
 
-    /** Map of values hashed by type identifiers. */
+    /** Tag values keyed by type identifiers, in the order in which they were stored. */
     @NotNull
-    protected final Map<Integer, Object> _tagMap = new HashMap<Integer, Object>();
+    private final TagValueTable _tagValues = new TagValueTable();
 
-    /**
-     * A convenient list holding tag values in the order in which they were stored.
-     * This is used for creation of an iterator, and for counting the number of
-     * defined tags.
-     */
+    /** A view over the stored tags, creating {@link Tag} instances as they are accessed. */
     @NotNull
-    protected final Collection<Tag> _definedTagList = new ArrayList<Tag>();
+    private final Collection<Tag> _tags = new AbstractList<Tag>()
+    {
+        @Override
+        public Tag get(int index)
+        {
+            if (index < 0 || index >= _tagValues.size())
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _tagValues.size());
+            return new Tag(_tagValues.getTagType(index), Directory.this);
+        }
+
+        @Override
+        public int size()
+        {
+            return _tagValues.size();
+        }
+    };
 
     @NotNull
-    private final Collection<String> _errorList = new ArrayList<String>(4);
+    private final ArrayList<String> _errorList = new ArrayList<String>(4);
 
     /** The descriptor used to interpret tag values. */
     protected TagDescriptor _descriptor;
@@ -67,6 +74,28 @@ public abstract class Directory
     @Nullable
     private Directory _parent;
 
+    @Nullable
+    private SourceRange _sourceRange;
+
+    /** Source ranges of tag values hashed by type identifiers, or <code>null</code> if none were recorded. */
+    @Nullable
+    private Map<Integer, SourceRange> _tagSourceRanges;
+
+    /** The table of tag names for this directory's class, looked up on first use. */
+    @Nullable
+    private TagNameTable _tagNameTable;
+
+    /** Arrays converted from tag values by the array getters, keyed by tag type, or <code>null</code> if none. */
+    @Nullable
+    private TagValueTable _convertedArrays;
+
+    /** The pool from which text values are shared as they are set, or <code>null</code> if values are not pooled. */
+    @Nullable
+    private StringPool _stringPool;
+
+    /** Whether this directory has been frozen by {@link Metadata#freeze()}, after which it may not be modified. */
+    private boolean _frozen;
+
 // ABSTRACT METHODS
 
     /**
@@ -95,7 +124,7 @@ public abstract class Directory
      */
     public boolean isEmpty()
     {
-        return _errorList.isEmpty() && _definedTagList.isEmpty();
+        return _errorList.isEmpty() && _tagValues.size() == 0;
     }
 
     /**
@@ -104,21 +133,23 @@ public abstract class Directory
      * @param tagType the tag type to check for
      * @return true if a value exists for the specified tag type, false if not
      */
-    @java.lang.SuppressWarnings({ "UnnecessaryBoxing" })
     public boolean containsTag(int tagType)
     {
-        return _tagMap.containsKey(Integer.valueOf(tagType));
+        return _tagValues.indexOf(tagType) != -1;
     }
 
     /**
-     * Returns an Iterator of Tag instances that have been set in this Directory.
+     * Returns the Tag instances that have been set in this Directory, in the order in which they were set.
+     * <p>
+     * The returned collection is a read-only view which reflects subsequent changes.  Its {@link Tag} instances are
+     * created as they are accessed.
      *
-     * @return an Iterator of Tag instances
+     * @return a collection of Tag instances
      */
     @NotNull
     public Collection<Tag> getTags()
     {
-        return Collections.unmodifiableCollection(_definedTagList);
+        return _tags;
     }
 
     /**
@@ -128,7 +159,43 @@ public abstract class Directory
      */
     public int getTagCount()
     {
-        return _definedTagList.size();
+        return _tagValues.size();
+    }
+
+    /**
+     * Moves the tags set from position <code>fromIndex</code> onwards so that they begin at <code>toIndex</code>, for
+     * subclasses which store values later than they should be ordered.
+     *
+     * @param fromIndex the position of the first tag to move
+     * @param toIndex the position at which the moved tags should begin, no greater than <code>fromIndex</code>
+     */
+    protected void moveTags(int fromIndex, int toIndex)
+    {
+        checkNotFrozen();
+        _tagValues.move(fromIndex, toIndex);
+    }
+
+    /**
+     * Sets the pool from which this directory's text values are shared, replacing any values already set with pooled
+     * instances.  Called by {@link Metadata} as directories are added.
+     */
+    void setStringPool(@Nullable StringPool stringPool)
+    {
+        checkNotFrozen();
+        _stringPool = stringPool;
+        if (stringPool == null)
+            return;
+        for (int i = 0; i < _tagValues.size(); i++)
+            _tagValues.put(_tagValues.getTagType(i), stringPool.internValue(_tagValues.getValue(i)));
+    }
+
+    /**
+     * Removes all tag values, for use where values set by a subclass constructor are to be replaced wholesale.
+     */
+    void clearTags()
+    {
+        checkNotFrozen();
+        _tagValues.clear();
     }
 
     /**
@@ -141,6 +208,7 @@ public abstract class Directory
     {
         if (descriptor == null)
             throw new NullPointerException("cannot set a null descriptor");
+        checkNotFrozen();
         _descriptor = descriptor;
     }
 
@@ -151,6 +219,7 @@ public abstract class Directory
      */
     public void addError(@NotNull String message)
     {
+        checkNotFrozen();
         _errorList.add(message);
     }
 
@@ -189,9 +258,124 @@ public abstract class Directory
 
     public void setParent(@NotNull Directory parent)
     {
+        checkNotFrozen();
         _parent = parent;
     }
 
+// FREEZING
+
+    /**
+     * Gets whether this directory has been frozen by {@link Metadata#freeze()}.  Frozen directories reject any
+     * modification with an {@link IllegalStateException}, and may be read concurrently from multiple threads.
+     *
+     * @return <code>true</code> if this directory is frozen, otherwise <code>false</code>
+     */
+    public boolean isFrozen()
+    {
+        return _frozen;
+    }
+
+    /**
+     * Prevents further modification of this directory, releasing any capacity reserved for values yet to be set.
+     * Subclasses holding state of their own must complete any lazy initialisation of it before calling this method.
+     */
+    protected void freeze()
+    {
+        if (_frozen)
+            return;
+        _tagValues.trimToSize();
+        _errorList.trimToSize();
+        _frozen = true;
+    }
+
+    /**
+     * Throws {@link IllegalStateException} if this directory is frozen, for use by subclasses that modify state of
+     * their own.
+     */
+    protected void checkNotFrozen()
+    {
+        if (_frozen)
+            throw new IllegalStateException("Cannot modify frozen " + getName() + " directory");
+    }
+
+// SOURCE RANGES
+
+    /**
+     * Gets the range of bytes within the source file from which this directory was read, if known.
+     * <p>
+     * Ranges are only recorded when {@link Metadata#setSourceRangesEnabled(boolean)} was enabled prior to reading.
+     *
+     * @return the directory's source range, or <code>null</code> if unknown
+     */
+    @Nullable
+    public SourceRange getSourceRange()
+    {
+        return _sourceRange;
+    }
+
+    public void setSourceRange(@Nullable SourceRange sourceRange)
+    {
+        checkNotFrozen();
+        _sourceRange = sourceRange;
+    }
+
+    /**
+     * Gets the range of bytes within the source file from which the specified tag's value was read, if known.
+     *
+     * @param tagType the tag identifier
+     * @return the tag's source range, or <code>null</code> if unknown
+     */
+    @Nullable
+    public SourceRange getTagSourceRange(int tagType)
+    {
+        return _tagSourceRanges == null ? null : _tagSourceRanges.get(tagType);
+    }
+
+    /**
+     * Records the range of bytes within the source file from which the specified tag's value was read.
+     *
+     * @param tagType     the tag identifier
+     * @param sourceRange the absolute range of the tag's value bytes
+     */
+    public void setTagSourceRange(int tagType, @NotNull SourceRange sourceRange)
+    {
+        checkNotFrozen();
+        // Created lazily, as most directories are read without source ranges
+        if (_tagSourceRanges == null)
+            _tagSourceRanges = new HashMap<Integer, SourceRange>();
+        _tagSourceRanges.put(tagType, sourceRange);
+    }
+
+    /**
+     * Assigns <code>sourceRange</code> to this directory, and to each of its tags, where no more specific range has
+     * already been recorded.
+     * <p>
+     * Used by readers whose smallest addressable unit (a PNG chunk, a QuickTime atom) holds several values.
+     *
+     * @param sourceRange the absolute range of the bytes from which this directory's values were read
+     */
+    public void applySourceRange(@NotNull SourceRange sourceRange)
+    {
+        checkNotFrozen();
+        if (_sourceRange == null)
+            _sourceRange = sourceRange;
+        applyTagSourceRange(sourceRange);
+    }
+
+    /**
+     * Assigns <code>sourceRange</code> to each of this directory's tags where no range has already been recorded,
+     * leaving the range of the directory itself unchanged.
+     *
+     * @param sourceRange the absolute range of the bytes from which the most recently added values were read
+     */
+    public void applyTagSourceRange(@NotNull SourceRange sourceRange)
+    {
+        for (Tag tag : getTags()) {
+            if (getTagSourceRange(tag.getTagType()) == null)
+                setTagSourceRange(tag.getTagType(), sourceRange);
+        }
+    }
+
 // TAG SETTERS
 
     /**
@@ -383,21 +567,16 @@ public abstract class Directory
      * @param value   the value for the specified tag
      * @throws NullPointerException if value is <code>null</code>
      */
-    @java.lang.SuppressWarnings( { "ConstantConditions", "UnnecessaryBoxing" })
+    @java.lang.SuppressWarnings( { "ConstantConditions" })
     public void setObject(int tagType, @NotNull Object value)
     {
         if (value == null)
             throw new NullPointerException("cannot set a null object");
+        checkNotFrozen();
 
-        if (!_tagMap.containsKey(Integer.valueOf(tagType))) {
-            _definedTagList.add(new Tag(tagType, this));
-        }
-//        else {
-//            final Object oldValue = _tagMap.get(tagType);
-//            if (!oldValue.equals(value))
-//                addError(String.format("Overwritten tag 0x%s (%s).  Old=%s, New=%s", Integer.toHexString(tagType), getTagName(tagType), oldValue, value));
-//        }
-        _tagMap.put(tagType, value);
+        if (_stringPool != null)
+            value = _stringPool.internValue(value);
+        _tagValues.put(tagType, value);
     }
 
     /**
@@ -431,6 +610,10 @@ public abstract class Directory
      */
     public int getInt(int tagType) throws MetadataException
     {
+        Object value = getObject(tagType);
+        if (value instanceof Number)
+            return ((Number)value).intValue();
+
         Integer integer = getInteger(tagType);
         if (integer!=null)
             return integer;
@@ -464,7 +647,10 @@ public abstract class Directory
         if (o == null)
             return null;
 
-        if (o instanceof Number) {
+        if (o instanceof Integer) {
+            // Return the stored instance rather than boxing its value anew
+            return (Integer)o;
+        } else if (o instanceof Number) {
             return ((Number)o).intValue();
         } else if (o instanceof String || o instanceof StringValue) {
             try {
@@ -500,9 +686,43 @@ public abstract class Directory
         return null;
     }
 
+    /**
+     * Returns the specified tag's value as an int, converted as per {@link #getInteger(int)}, or
+     * <code>defaultValue</code> if the value is unset or cannot be converted.  Unlike {@link #getInt(int)}, numeric
+     * values are read without boxing and no exception is thrown.
+     */
+    public int getIntOrDefault(int tagType, int defaultValue)
+    {
+        Object o = getObject(tagType);
+        if (o == null)
+            return defaultValue;
+        if (o instanceof Number)
+            return ((Number)o).intValue();
+        if (o instanceof int[]) {
+            int[] ints = (int[])o;
+            return ints.length == 1 ? ints[0] : defaultValue;
+        }
+        if (o instanceof short[]) {
+            short[] shorts = (short[])o;
+            return shorts.length == 1 ? shorts[0] : defaultValue;
+        }
+        if (o instanceof byte[]) {
+            byte[] bytes = (byte[])o;
+            return bytes.length == 1 ? bytes[0] : defaultValue;
+        }
+        if (o instanceof Rational[]) {
+            Rational[] rationals = (Rational[])o;
+            return rationals.length == 1 ? rationals[0].intValue() : defaultValue;
+        }
+        Integer value = getInteger(tagType);
+        return value != null ? value : defaultValue;
+    }
+
     /**
      * Gets the specified tag's value as a String array, if possible.  Only supported
      * where the tag is set as StringValue[], String[], StringValue, String, int[], byte[] or Rational[].
+     * <p>
+     * Converted arrays are cached, and returned again while the tag's value is unchanged, so must not be modified.
      *
      * @param tagType the tag identifier
      * @return the tag's value as an array of Strings. If the value is unset or cannot be converted, <code>null</code> is returned.
@@ -515,6 +735,18 @@ public abstract class Directory
             return null;
         if (o instanceof String[])
             return (String[])o;
+
+        synchronized (_tagValues) {
+            ConvertedArrays converted = getConvertedArrays(tagType, o);
+            if (converted._strings == null)
+                converted._strings = toStringArray(o);
+            return converted._strings;
+        }
+    }
+
+    @Nullable
+    private static String[] toStringArray(@NotNull Object o)
+    {
         if (o instanceof String)
             return new String[] { (String)o };
         if (o instanceof StringValue)
@@ -573,6 +805,8 @@ public abstract class Directory
     /**
      * Gets the specified tag's value as an int array, if possible.  Only supported
      * where the tag is set as String, Integer, int[], byte[] or Rational[].
+     * <p>
+     * Converted arrays are cached, and returned again while the tag's value is unchanged, so must not be modified.
      *
      * @param tagType the tag identifier
      * @return the tag's value as an int array
@@ -585,6 +819,18 @@ public abstract class Directory
             return null;
         if (o instanceof int[])
             return (int[])o;
+
+        synchronized (_tagValues) {
+            ConvertedArrays converted = getConvertedArrays(tagType, o);
+            if (converted._ints == null)
+                converted._ints = toIntArray(o);
+            return converted._ints;
+        }
+    }
+
+    @Nullable
+    private static int[] toIntArray(@NotNull Object o)
+    {
         if (o instanceof Rational[]) {
             Rational[] rationals = (Rational[])o;
             int[] ints = new int[rationals.length];
@@ -626,6 +872,8 @@ public abstract class Directory
     /**
      * Gets the specified tag's value as an byte array, if possible.  Only supported
      * where the tag is set as String, Integer, int[], byte[] or Rational[].
+     * <p>
+     * Converted arrays are cached, and returned again while the tag's value is unchanged, so must not be modified.
      *
      * @param tagType the tag identifier
      * @return the tag's value as a byte array
@@ -634,19 +882,31 @@ public abstract class Directory
     public byte[] getByteArray(int tagType)
     {
         Object o = getObject(tagType);
-        if (o == null) {
+        if (o == null)
             return null;
-        } else if (o instanceof StringValue) {
+        if (o instanceof byte[])
+            return (byte[])o;
+        if (o instanceof StringValue)
             return ((StringValue)o).getBytes();
-        } else if (o instanceof Rational[]) {
+
+        synchronized (_tagValues) {
+            ConvertedArrays converted = getConvertedArrays(tagType, o);
+            if (converted._bytes == null)
+                converted._bytes = toByteArray(o);
+            return converted._bytes;
+        }
+    }
+
+    @Nullable
+    private static byte[] toByteArray(@NotNull Object o)
+    {
+        if (o instanceof Rational[]) {
             Rational[] rationals = (Rational[])o;
             byte[] bytes = new byte[rationals.length];
             for (int i = 0; i < bytes.length; i++) {
                 bytes[i] = rationals[i].byteValue();
             }
             return bytes;
-        } else if (o instanceof byte[]) {
-            return (byte[])o;
         } else if (o instanceof int[]) {
             int[] ints = (int[])o;
             byte[] bytes = new byte[ints.length];
@@ -675,9 +935,50 @@ public abstract class Directory
         return null;
     }
 
+    /**
+     * Gets the holder of arrays converted from <code>value</code>, the current value of <code>tagType</code>,
+     * replacing any holder of conversions from a previous value.  Callers must synchronise on {@link #_tagValues}.
+     */
+    @NotNull
+    private ConvertedArrays getConvertedArrays(int tagType, @NotNull Object value)
+    {
+        if (_convertedArrays == null)
+            _convertedArrays = new TagValueTable();
+        ConvertedArrays converted = (ConvertedArrays)_convertedArrays.get(tagType);
+        if (converted == null || converted._source != value) {
+            converted = new ConvertedArrays(value);
+            _convertedArrays.put(tagType, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Arrays converted from a single tag value, each computed when first requested.
+     */
+    private static final class ConvertedArrays
+    {
+        @NotNull
+        private final Object _source;
+        @Nullable
+        private int[] _ints;
+        @Nullable
+        private byte[] _bytes;
+        @Nullable
+        private String[] _strings;
+
+        private ConvertedArrays(@NotNull Object source)
+        {
+            _source = source;
+        }
+    }
+
     /** Returns the specified tag's value as a double, if possible. */
     public double getDouble(int tagType) throws MetadataException
     {
+        Object number = getObject(tagType);
+        if (number instanceof Number)
+            return ((Number)number).doubleValue();
+
         Double value = getDoubleObject(tagType);
         if (value!=null)
             return value;
@@ -700,15 +1001,36 @@ public abstract class Directory
                 return null;
             }
         }
+        if (o instanceof Double)
+            return (Double)o;
         if (o instanceof Number)
             return ((Number)o).doubleValue();
 
         return null;
     }
 
+    /**
+     * Returns the specified tag's value as a double, or <code>defaultValue</code> if the value is unset or cannot be
+     * converted.  Numeric values are read without boxing and no exception is thrown.
+     */
+    public double getDoubleOrDefault(int tagType, double defaultValue)
+    {
+        Object o = getObject(tagType);
+        if (o == null)
+            return defaultValue;
+        if (o instanceof Number)
+            return ((Number)o).doubleValue();
+        Double value = getDoubleObject(tagType);
+        return value != null ? value : defaultValue;
+    }
+
     /** Returns the specified tag's value as a float, if possible. */
     public float getFloat(int tagType) throws MetadataException
     {
+        Object number = getObject(tagType);
+        if (number instanceof Number)
+            return ((Number)number).floatValue();
+
         Float value = getFloatObject(tagType);
         if (value!=null)
             return value;
@@ -732,14 +1054,35 @@ public abstract class Directory
                 return null;
             }
         }
+        if (o instanceof Float)
+            return (Float)o;
         if (o instanceof Number)
             return ((Number)o).floatValue();
         return null;
     }
 
+    /**
+     * Returns the specified tag's value as a float, or <code>defaultValue</code> if the value is unset or cannot be
+     * converted.  Numeric values are read without boxing and no exception is thrown.
+     */
+    public float getFloatOrDefault(int tagType, float defaultValue)
+    {
+        Object o = getObject(tagType);
+        if (o == null)
+            return defaultValue;
+        if (o instanceof Number)
+            return ((Number)o).floatValue();
+        Float value = getFloatObject(tagType);
+        return value != null ? value : defaultValue;
+    }
+
     /** Returns the specified tag's value as a long, if possible. */
     public long getLong(int tagType) throws MetadataException
     {
+        Object number = getObject(tagType);
+        if (number instanceof Number)
+            return ((Number)number).longValue();
+
         Long value = getLongObject(tagType);
         if (value != null)
             return value;
@@ -756,6 +1099,8 @@ public abstract class Directory
         Object o = getObject(tagType);
         if (o == null)
             return null;
+        if (o instanceof Long)
+            return (Long)o;
         if (o instanceof Number)
             return ((Number)o).longValue();
         if (o instanceof String || o instanceof StringValue) {
@@ -784,6 +1129,38 @@ public abstract class Directory
         return null;
     }
 
+    /**
+     * Returns the specified tag's value as a long, converted as per {@link #getLongObject(int)}, or
+     * <code>defaultValue</code> if the value is unset or cannot be converted.  Unlike {@link #getLong(int)}, numeric
+     * values are read without boxing and no exception is thrown.
+     */
+    public long getLongOrDefault(int tagType, long defaultValue)
+    {
+        Object o = getObject(tagType);
+        if (o == null)
+            return defaultValue;
+        if (o instanceof Number)
+            return ((Number)o).longValue();
+        if (o instanceof int[]) {
+            int[] ints = (int[])o;
+            return ints.length == 1 ? ints[0] : defaultValue;
+        }
+        if (o instanceof short[]) {
+            short[] shorts = (short[])o;
+            return shorts.length == 1 ? shorts[0] : defaultValue;
+        }
+        if (o instanceof byte[]) {
+            byte[] bytes = (byte[])o;
+            return bytes.length == 1 ? bytes[0] : defaultValue;
+        }
+        if (o instanceof Rational[]) {
+            Rational[] rationals = (Rational[])o;
+            return rationals.length == 1 ? rationals[0].longValue() : defaultValue;
+        }
+        Long value = getLongObject(tagType);
+        return value != null ? value : defaultValue;
+    }
+
     /** Returns the specified tag's value as a boolean, if possible. */
     public boolean getBoolean(int tagType) throws MetadataException
     {
@@ -818,6 +1195,16 @@ public abstract class Directory
         return null;
     }
 
+    /**
+     * Returns the specified tag's value as a boolean, or <code>defaultValue</code> if the value is unset or cannot be
+     * converted.  No exception is thrown.
+     */
+    public boolean getBooleanOrDefault(int tagType, boolean defaultValue)
+    {
+        Boolean value = getBooleanObject(tagType);
+        return value != null ? value : defaultValue;
+    }
+
     /**
      * Returns the specified tag's value as a java.util.Date.  If the value is unset or cannot be converted, <code>null</code> is returned.
      * <p>
@@ -866,77 +1253,51 @@ public abstract class Directory
         if (o instanceof java.util.Date)
             return (java.util.Date)o;
 
-        java.util.Date date = null;
-
         if ((o instanceof String) || (o instanceof StringValue)) {
-            // This seems to cover all known Exif and Xmp date strings
             // Note that "    :  :     :  :  " is a valid date string according to the Exif spec (which means 'unknown date'): http://www.awaresystems.be/imaging/tiff/tifftags/privateifd/exif/datetimeoriginal.html
-            String datePatterns[] = {
-                    "yyyy:MM:dd HH:mm:ss",
-                    "yyyy:MM:dd HH:mm",
-                    "yyyy-MM-dd HH:mm:ss",
-                    "yyyy-MM-dd HH:mm",
-                    "yyyy.MM.dd HH:mm:ss",
-                    "yyyy.MM.dd HH:mm",
-                    "yyyy-MM-dd'T'HH:mm:ss",
-                    "yyyy-MM-dd'T'HH:mm",
-                    "yyyy-MM-dd",
-                    "yyyy-MM",
-                    "yyyyMMdd", // as used in IPTC data
-                    "yyyy" };
-
-            String dateString = o.toString();
-
-            // if the date string has subsecond information, it supersedes the subsecond parameter
-            Pattern subsecondPattern = Pattern.compile("(\\d\\d:\\d\\d:\\d\\d)(\\.\\d+)");
-            Matcher subsecondMatcher = subsecondPattern.matcher(dateString);
-            if (subsecondMatcher.find()) {
-                subsecond = subsecondMatcher.group(2).substring(1);
-                dateString = subsecondMatcher.replaceAll("$1");
-            }
+            DateTime dateTime = DateTime.parse(o.toString(), subsecond);
+            if (dateTime != null)
+                return dateTime.toDate(timeZone);
+        }
 
-            // if the date string has time zone information, it supersedes the timeZone parameter
-            Pattern timeZonePattern = Pattern.compile("(Z|[+-]\\d\\d:\\d\\d)$");
-            Matcher timeZoneMatcher = timeZonePattern.matcher(dateString);
-            if (timeZoneMatcher.find()) {
-                timeZone = TimeZone.getTimeZone("GMT" + timeZoneMatcher.group().replaceAll("Z", ""));
-                dateString = timeZoneMatcher.replaceAll("");
-            }
+        return null;
+    }
 
-            for (String datePattern : datePatterns) {
-                try {
-                    DateFormat parser = new SimpleDateFormat(datePattern);
-                    if (timeZone != null)
-                        parser.setTimeZone(timeZone);
-                    else
-                        parser.setTimeZone(TimeZone.getTimeZone("GMT")); // don't interpret zone time
-
-                    date = parser.parse(dateString);
-                    break;
-                } catch (ParseException ex) {
-                    // simply try the next pattern
-                }
-            }
-        }
+    /**
+     * Returns the specified tag's value as a {@link DateTime}, retaining the local date and time as written, any
+     * fractional seconds and any offset from UTC.  If the value is unset or cannot be converted, <code>null</code>
+     * is returned.  Values stored as a {@link java.util.Date} are returned in UTC.
+     *
+     * @param tagType the tag identifier
+     * @return the tag's value as a DateTime
+     * @see DateTime#parse(String)
+     */
+    @Nullable
+    public DateTime getDateTime(int tagType)
+    {
+        return getDateTime(tagType, null);
+    }
 
-        if (date == null)
-            return null;
+    /**
+     * As {@link #getDateTime(int)}, where <code>subsecond</code> gives the digits of a fractional second to use when
+     * the tag's value does not include one.
+     *
+     * @param tagType the tag identifier
+     * @param subsecond the subsecond value, such as that of an Exif SubSecTime tag
+     * @return the tag's value as a DateTime
+     */
+    @Nullable
+    public DateTime getDateTime(int tagType, @Nullable String subsecond)
+    {
+        Object o = getObject(tagType);
 
-        if (subsecond == null)
-            return date;
+        if (o instanceof java.util.Date)
+            return DateTime.fromDate((java.util.Date)o);
 
-        try {
-            int millisecond = (int) (Double.parseDouble("." + subsecond) * 1000);
-            if (millisecond >= 0 && millisecond < 1000) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.setTime(date);
-                calendar.set(Calendar.MILLISECOND, millisecond);
-                return calendar.getTime();
-            }
-            return date;
-        } catch (NumberFormatException e) {
-            return date;
-        }
+        if ((o instanceof String) || (o instanceof StringValue))
+            return DateTime.parse(o.toString(), subsecond);
+
+        return null;
     }
 
     /** Returns the specified tag's value as a Rational.  If the value is unset or cannot be converted, <code>null</code> is returned. */
@@ -1024,19 +1385,17 @@ public abstract class Directory
                     string.append(Array.getLong(o, i));
                 }
             } else if (componentType.getName().equals("float")) {
-                DecimalFormat format = new DecimalFormat(_floatFormatPattern);
                 for (int i = 0; i < arrayLength; i++) {
                     if (i != 0)
                         string.append(' ');
-                    String s = format.format(Array.getFloat(o, i));
+                    String s = _floatFormat.format(Array.getFloat(o, i));
                     string.append(s.equals("-0") ? "0" : s);
                 }
             } else if (componentType.getName().equals("double")) {
-                DecimalFormat format = new DecimalFormat(_floatFormatPattern);
                 for (int i = 0; i < arrayLength; i++) {
                     if (i != 0)
                         string.append(' ');
-                    String s = format.format(Array.getDouble(o, i));
+                    String s = _floatFormat.format(Array.getDouble(o, i));
                     string.append(s.equals("-0") ? "0" : s);
                 }
             } else if (componentType.getName().equals("byte")) {
@@ -1053,10 +1412,10 @@ public abstract class Directory
         }
 
         if (o instanceof Double)
-            return new DecimalFormat(_floatFormatPattern).format(((Double)o).doubleValue());
+            return _floatFormat.format(((Double)o).doubleValue());
 
         if (o instanceof Float)
-            return new DecimalFormat(_floatFormatPattern).format(((Float)o).floatValue());
+            return _floatFormat.format(((Float)o).floatValue());
 
         // Note that several cameras leave trailing spaces (Olympus, Nikon) but this library is intended to show
         // the actual data within the file.  It is not inconceivable that whitespace may be significant here, so we
@@ -1093,11 +1452,10 @@ public abstract class Directory
      * @param tagType the tag type identifier
      * @return the tag's value as an Object if available, else <code>null</code>
      */
-    @java.lang.SuppressWarnings({ "UnnecessaryBoxing" })
     @Nullable
     public Object getObject(int tagType)
     {
-        return _tagMap.get(Integer.valueOf(tagType));
+        return _tagValues.get(tagType);
     }
 
 // OTHER METHODS
@@ -1111,15 +1469,8 @@ public abstract class Directory
     @NotNull
     public String getTagName(int tagType)
     {
-        HashMap<Integer, String> nameMap = getTagNameMap();
-        if (!nameMap.containsKey(tagType)) {
-            String hex = Integer.toHexString(tagType);
-            while (hex.length() < 4) {
-                hex = "0" + hex;
-            }
-            return "Unknown tag (0x" + hex + ")";
-        }
-        return nameMap.get(tagType);
+        String name = getTagNameTable().get(tagType);
+        return name != null ? name : TagNameTable.getUnknownName(tagType);
     }
 
     /**
@@ -1130,7 +1481,19 @@ public abstract class Directory
      */
     public boolean hasTagName(int tagType)
     {
-        return getTagNameMap().containsKey(tagType);
+        return getTagNameTable().get(tagType) != null;
+    }
+
+    @NotNull
+    private TagNameTable getTagNameTable()
+    {
+        HashMap<Integer, String> nameMap = getTagNameMap();
+        TagNameTable table = _tagNameTable;
+        if (table == null || !table.isBuiltFrom(nameMap)) {
+            table = TagNameTable.forDirectory(getClass(), nameMap);
+            _tagNameTable = table;
+        }
+        return table;
     }
 
     /**
@@ -1152,8 +1515,8 @@ public abstract class Directory
     {
         return String.format("%s Directory (%d %s)",
             getName(),
-            _tagMap.size(),
-            _tagMap.size() == 1
+            getTagCount(),
+            getTagCount() == 1
                 ? "tag"
                 : "tags");
     }
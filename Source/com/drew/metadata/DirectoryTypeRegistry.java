@@ -0,0 +1,252 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.imaging.FileType;
+import com.drew.imaging.png.PngChunkType;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.adobe.AdobeJpegDirectory;
+import com.drew.metadata.avi.AviDirectory;
+import com.drew.metadata.bmp.BmpHeaderDirectory;
+import com.drew.metadata.eps.EpsDirectory;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifImageDirectory;
+import com.drew.metadata.exif.ExifInteropDirectory;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.drew.metadata.exif.ExifThumbnailDirectory;
+import com.drew.metadata.exif.GpsDirectory;
+import com.drew.metadata.exif.PanasonicRawDistortionDirectory;
+import com.drew.metadata.exif.PanasonicRawIFD0Directory;
+import com.drew.metadata.exif.PanasonicRawWbInfo2Directory;
+import com.drew.metadata.exif.PanasonicRawWbInfoDirectory;
+import com.drew.metadata.exif.PrintIMDirectory;
+import com.drew.metadata.exif.makernotes.AppleMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.CanonMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.CasioType1MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.CasioType2MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.FujifilmMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.KodakMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.KyoceraMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.LeicaMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.LeicaType5MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.NikonColorBalanceDirectory;
+import com.drew.metadata.exif.makernotes.NikonLensDataDirectory;
+import com.drew.metadata.exif.makernotes.NikonShotInfoDirectory;
+import com.drew.metadata.exif.makernotes.NikonType1MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.NikonType2MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusCameraSettingsMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusEquipmentMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusFocusInfoMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusImageProcessingMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusRawDevelopment2MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusRawDevelopmentMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusRawInfoMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.PanasonicMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.PentaxMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.ReconyxHyperFireMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.ReconyxUltraFireMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.RicohMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.SamsungType2MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.SanyoMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.SigmaMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.SonyTag2010Directory;
+import com.drew.metadata.exif.makernotes.SonyTag9050Directory;
+import com.drew.metadata.exif.makernotes.SonyType1MakernoteDirectory;
+import com.drew.metadata.exif.makernotes.SonyType6MakernoteDirectory;
+import com.drew.metadata.file.FileSystemDirectory;
+import com.drew.metadata.file.FileTypeDirectory;
+import com.drew.metadata.gif.GifAnimationDirectory;
+import com.drew.metadata.gif.GifCommentDirectory;
+import com.drew.metadata.gif.GifControlDirectory;
+import com.drew.metadata.gif.GifHeaderDirectory;
+import com.drew.metadata.gif.GifImageDirectory;
+import com.drew.metadata.heif.HeifDirectory;
+import com.drew.metadata.icc.IccDirectory;
+import com.drew.metadata.ico.IcoDirectory;
+import com.drew.metadata.iptc.IptcDirectory;
+import com.drew.metadata.jfif.JfifDirectory;
+import com.drew.metadata.jfxx.JfxxDirectory;
+import com.drew.metadata.jpeg.HuffmanTablesDirectory;
+import com.drew.metadata.jpeg.JpegCommentDirectory;
+import com.drew.metadata.jpeg.JpegDirectory;
+import com.drew.metadata.mov.QuickTimeDirectory;
+import com.drew.metadata.mov.media.QuickTimeMusicDirectory;
+import com.drew.metadata.mov.media.QuickTimeSoundDirectory;
+import com.drew.metadata.mov.media.QuickTimeSubtitleDirectory;
+import com.drew.metadata.mov.media.QuickTimeTextDirectory;
+import com.drew.metadata.mov.media.QuickTimeTimecodeDirectory;
+import com.drew.metadata.mov.media.QuickTimeVideoDirectory;
+import com.drew.metadata.mov.metadata.QuickTimeMetadataDirectory;
+import com.drew.metadata.mp3.Mp3Directory;
+import com.drew.metadata.mp4.Mp4Directory;
+import com.drew.metadata.mp4.media.Mp4HintDirectory;
+import com.drew.metadata.mp4.media.Mp4MetaDirectory;
+import com.drew.metadata.mp4.media.Mp4SoundDirectory;
+import com.drew.metadata.mp4.media.Mp4TextDirectory;
+import com.drew.metadata.mp4.media.Mp4VideoDirectory;
+import com.drew.metadata.pcx.PcxDirectory;
+import com.drew.metadata.photoshop.DuckyDirectory;
+import com.drew.metadata.photoshop.PhotoshopDirectory;
+import com.drew.metadata.photoshop.PsdHeaderDirectory;
+import com.drew.metadata.png.PngChromaticitiesDirectory;
+import com.drew.metadata.png.PngDirectory;
+import com.drew.metadata.wav.WavDirectory;
+import com.drew.metadata.webp.WebpDirectory;
+import com.drew.metadata.xmp.XmpDirectory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns each concrete {@link Directory} type a stable numeric identifier, for use by {@link MetadataCodec}.
+ * <p>
+ * Identifiers are persisted in encoded data, so existing entries must never be renumbered or reused.  New directory
+ * types are added at the end.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class DirectoryTypeRegistry
+{
+    @NotNull
+    private static final Map<Class<? extends Directory>, Integer> _typeIdByClass = new HashMap<Class<? extends Directory>, Integer>();
+
+    static {
+        Directory directory;
+        for (int typeId = 0; (directory = create(typeId)) != null; typeId++)
+            _typeIdByClass.put(directory.getClass(), typeId);
+    }
+
+    private DirectoryTypeRegistry()
+    {}
+
+    /**
+     * Gets the identifier of <code>type</code>, or -1 if it is not registered.
+     */
+    static int getTypeId(@NotNull Class<? extends Directory> type)
+    {
+        Integer typeId = _typeIdByClass.get(type);
+        return typeId == null ? -1 : typeId;
+    }
+
+    /**
+     * Creates an empty directory of the type having <code>typeId</code>, or returns <code>null</code> if there is none.
+     * Types whose constructors require arguments are created with placeholders, which callers must replace.
+     */
+    @Nullable
+    static Directory create(int typeId)
+    {
+        switch (typeId) {
+            case 0: return new ErrorDirectory();
+            case 1: return new FileTypeDirectory(FileType.Unknown);
+            case 2: return new FileSystemDirectory();
+            case 3: return new JpegDirectory();
+            case 4: return new JpegCommentDirectory();
+            case 5: return new HuffmanTablesDirectory();
+            case 6: return new JfifDirectory();
+            case 7: return new JfxxDirectory();
+            case 8: return new AdobeJpegDirectory();
+            case 9: return new ExifIFD0Directory();
+            case 10: return new ExifSubIFDDirectory();
+            case 11: return new ExifInteropDirectory();
+            case 12: return new ExifThumbnailDirectory();
+            case 13: return new ExifImageDirectory();
+            case 14: return new GpsDirectory();
+            case 15: return new PrintIMDirectory();
+            case 16: return new PanasonicRawIFD0Directory();
+            case 17: return new PanasonicRawWbInfoDirectory();
+            case 18: return new PanasonicRawWbInfo2Directory();
+            case 19: return new PanasonicRawDistortionDirectory();
+            case 20: return new AppleMakernoteDirectory();
+            case 21: return new CanonMakernoteDirectory();
+            case 22: return new CasioType1MakernoteDirectory();
+            case 23: return new CasioType2MakernoteDirectory();
+            case 24: return new FujifilmMakernoteDirectory();
+            case 25: return new KodakMakernoteDirectory();
+            case 26: return new KyoceraMakernoteDirectory();
+            case 27: return new LeicaMakernoteDirectory();
+            case 28: return new LeicaType5MakernoteDirectory();
+            case 29: return new NikonType1MakernoteDirectory();
+            case 30: return new NikonType2MakernoteDirectory();
+            case 31: return new NikonColorBalanceDirectory();
+            case 32: return new NikonLensDataDirectory();
+            case 33: return new NikonShotInfoDirectory();
+            case 34: return new OlympusMakernoteDirectory();
+            case 35: return new OlympusCameraSettingsMakernoteDirectory();
+            case 36: return new OlympusEquipmentMakernoteDirectory();
+            case 37: return new OlympusFocusInfoMakernoteDirectory();
+            case 38: return new OlympusImageProcessingMakernoteDirectory();
+            case 39: return new OlympusRawDevelopmentMakernoteDirectory();
+            case 40: return new OlympusRawDevelopment2MakernoteDirectory();
+            case 41: return new OlympusRawInfoMakernoteDirectory();
+            case 42: return new PanasonicMakernoteDirectory();
+            case 43: return new PentaxMakernoteDirectory();
+            case 44: return new ReconyxHyperFireMakernoteDirectory();
+            case 45: return new ReconyxUltraFireMakernoteDirectory();
+            case 46: return new RicohMakernoteDirectory();
+            case 47: return new SamsungType2MakernoteDirectory();
+            case 48: return new SanyoMakernoteDirectory();
+            case 49: return new SigmaMakernoteDirectory();
+            case 50: return new SonyType1MakernoteDirectory();
+            case 51: return new SonyType6MakernoteDirectory();
+            case 52: return new SonyTag2010Directory();
+            case 53: return new SonyTag9050Directory();
+            case 54: return new IptcDirectory();
+            case 55: return new XmpDirectory();
+            case 56: return new IccDirectory();
+            case 57: return new PhotoshopDirectory();
+            case 58: return new PsdHeaderDirectory();
+            case 59: return new DuckyDirectory();
+            case 60: return new PngDirectory(PngChunkType.IHDR);
+            case 61: return new PngChromaticitiesDirectory();
+            case 62: return new BmpHeaderDirectory();
+            case 63: return new GifHeaderDirectory();
+            case 64: return new GifControlDirectory();
+            case 65: return new GifAnimationDirectory();
+            case 66: return new GifCommentDirectory(new StringValue(new byte[0], null));
+            case 67: return new GifImageDirectory();
+            case 68: return new IcoDirectory();
+            case 69: return new PcxDirectory();
+            case 70: return new WebpDirectory();
+            case 71: return new HeifDirectory();
+            case 72: return new EpsDirectory();
+            case 73: return new AviDirectory();
+            case 74: return new WavDirectory();
+            case 75: return new Mp3Directory();
+            case 76: return new QuickTimeDirectory();
+            case 77: return new QuickTimeMetadataDirectory();
+            case 78: return new QuickTimeMusicDirectory();
+            case 79: return new QuickTimeSoundDirectory();
+            case 80: return new QuickTimeSubtitleDirectory();
+            case 81: return new QuickTimeTextDirectory();
+            case 82: return new QuickTimeTimecodeDirectory();
+            case 83: return new QuickTimeVideoDirectory();
+            case 84: return new Mp4Directory();
+            case 85: return new Mp4HintDirectory();
+            case 86: return new Mp4MetaDirectory();
+            case 87: return new Mp4SoundDirectory();
+            case 88: return new Mp4TextDirectory();
+            case 89: return new Mp4VideoDirectory();
+            default: return null;
+        }
+    }
+}
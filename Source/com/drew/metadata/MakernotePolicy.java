@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+/**
+ * Controls how much work is spent on camera manufacturers' makernote data, which is often the largest and most
+ * complex part of Exif data.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ * @see Metadata#setMakernotePolicy(MakernotePolicy)
+ */
+public enum MakernotePolicy
+{
+    /** Makernote data is ignored entirely. */
+    Skip,
+
+    /**
+     * Makernote data is not decoded, but its position is recorded as the source range of the makernote tag, via
+     * <code>getTagSourceRange(ExifDirectoryBase.TAG_MAKERNOTE)</code> on the Exif SubIFD directory.  The range is
+     * only available when the reader knows the data's position within the file.
+     */
+    LocationOnly,
+
+    /**
+     * Makernote data is decoded when a makernote directory is first requested from the {@link Metadata} object.
+     * <p>
+     * Exif data held in memory, such as that of JPEG APP1 segments, is retained for decoding.  TIFF files and
+     * TIFF-based camera raw files (such as NEF, CR2 and ORF) are read via a {@link com.drew.lang.RandomAccessFileReader}
+     * or {@link com.drew.lang.RandomAccessStreamReader}, whose file or stream may be closed once reading completes, so
+     * a copy of the data up to the end of the makernote is retained instead.  Any data such a makernote refers to
+     * beyond its own end is then unavailable, and is reported as an error on the makernote directory.
+     */
+    Lazy,
+
+    /** Makernote data is decoded as it is read.  The default. */
+    Eager
+}
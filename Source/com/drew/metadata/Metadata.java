@@ -30,6 +30,10 @@ import java.util.*;
  * <p>
  * Metadata objects may contain zero or more {@link Directory} objects.  Each directory may contain zero or more tags
  * with corresponding values.
+ * <p>
+ * Instances are not thread-safe while being populated.  Once complete, they may be queried from several threads, as
+ * queries that load deferred directories or index directories by type hold a lock while doing so.  {@link #freeze()}
+ * produces an immutable snapshot that may be shared between threads without any synchronisation or copying.
  *
  * @author Drew Noakes https://drewnoakes.com
  */
@@ -39,7 +43,212 @@ public final class Metadata
      * The list of {@link Directory} instances in this container, in the order they were added.
      */
     @NotNull
-    private final List<Directory> _directories = new ArrayList<Directory>();
+    private final List<Directory> _directories;
+
+    /**
+     * Directories of each type that has been queried, in the order they were added, including instances of subtypes.
+     * Created on first query, and maintained as directories are added.
+     */
+    @Nullable
+    private Map<Class<?>, List<Directory>> _directoriesByType;
+
+    /**
+     * For frozen instances, the directories of every type present, including instances of subtypes.  Held in a final
+     * field so that the whole frozen graph is safely published with the instance.  <code>null</code> while mutable.
+     */
+    @Nullable
+    private final Map<Class<?>, List<Directory>> _frozenDirectoriesByType;
+
+    /**
+     * Loaders for directories that have not yet been read, or <code>null</code> if there are none.
+     */
+    @Nullable
+    private List<DeferredDirectoryLoader> _deferredLoaders;
+
+    private boolean _sourceRangesEnabled;
+
+    @NotNull
+    private MakernotePolicy _makernotePolicy = MakernotePolicy.Eager;
+
+    @Nullable
+    private StringPool _stringPool;
+
+    public Metadata()
+    {
+        _directories = new ArrayList<Directory>();
+        _frozenDirectoriesByType = null;
+    }
+
+    private Metadata(@NotNull Directory[] directories, @NotNull Map<Class<?>, List<Directory>> directoriesByType)
+    {
+        _directories = Collections.unmodifiableList(Arrays.asList(directories));
+        _frozenDirectoriesByType = directoriesByType;
+    }
+
+    /**
+     * Returns an immutable snapshot of this metadata, which may be shared between threads without synchronisation.
+     * <p>
+     * Any deferred directories are loaded first.  The directories themselves are frozen in place rather than copied,
+     * so are shared with this instance, and any attempt to modify them throws {@link IllegalStateException}.
+     * Directories added to this instance afterwards do not appear in the snapshot.  Note that array values are
+     * returned by directories as stored, so must not be modified by callers.
+     *
+     * @return a frozen snapshot of this metadata, or this instance if it is already frozen
+     */
+    @NotNull
+    public Metadata freeze()
+    {
+        if (isFrozen())
+            return this;
+
+        Directory[] directories;
+        synchronized (_directories) {
+            loadDeferredDirectories(null);
+            directories = _directories.toArray(new Directory[_directories.size()]);
+        }
+        Map<Class<?>, List<Directory>> directoriesByType = new HashMap<Class<?>, List<Directory>>();
+        for (Directory directory : directories) {
+            directory.freeze();
+            for (Class<?> type = directory.getClass(); type != Object.class; type = type.getSuperclass()) {
+                List<Directory> ofType = directoriesByType.get(type);
+                if (ofType == null) {
+                    ofType = new ArrayList<Directory>(1);
+                    directoriesByType.put(type, ofType);
+                }
+                ofType.add(directory);
+            }
+        }
+
+        return new Metadata(directories, directoriesByType);
+    }
+
+    /**
+     * Gets whether this instance is an immutable snapshot produced by {@link #freeze()}.
+     *
+     * @return <code>true</code> if this instance is frozen, otherwise <code>false</code>
+     */
+    public boolean isFrozen()
+    {
+        return _frozenDirectoriesByType != null;
+    }
+
+    private void checkNotFrozen()
+    {
+        if (isFrozen())
+            throw new IllegalStateException("Cannot modify frozen metadata");
+    }
+
+    /**
+     * Gets whether readers should record the absolute file position of each directory and tag value they produce.
+     *
+     * @return <code>true</code> if source ranges are recorded, otherwise <code>false</code> (the default)
+     */
+    public boolean isSourceRangesEnabled()
+    {
+        return _sourceRangesEnabled;
+    }
+
+    /**
+     * Sets whether readers should record the absolute file position of each directory and tag value they produce,
+     * made available via {@link Directory#getSourceRange()} and {@link Tag#getSourceRange()}.
+     * <p>
+     * Disabled by default, as recording ranges costs time and memory that most callers don't need.  Must be set
+     * before the metadata object is populated, via one of the <code>process</code> methods that accept an existing
+     * {@link Metadata} instance.
+     *
+     * @param sourceRangesEnabled whether source ranges should be recorded
+     */
+    public void setSourceRangesEnabled(boolean sourceRangesEnabled)
+    {
+        checkNotFrozen();
+        _sourceRangesEnabled = sourceRangesEnabled;
+    }
+
+    /**
+     * Gets how makernote data is to be processed by readers populating this object.
+     */
+    @NotNull
+    public MakernotePolicy getMakernotePolicy()
+    {
+        return _makernotePolicy;
+    }
+
+    /**
+     * Sets how makernote data is to be processed by readers populating this object.  Defaults to
+     * {@link MakernotePolicy#Eager}.  Must be set before the metadata object is populated.
+     *
+     * @param makernotePolicy the policy to apply
+     */
+    public void setMakernotePolicy(@NotNull MakernotePolicy makernotePolicy)
+    {
+        checkNotFrozen();
+        _makernotePolicy = makernotePolicy;
+    }
+
+    /**
+     * Gets the pool from which the text values of directories in this object are shared, if any.
+     */
+    @Nullable
+    public StringPool getStringPool()
+    {
+        return _stringPool;
+    }
+
+    /**
+     * Sets the pool from which the text values of directories in this object are shared.  Short strings that repeat
+     * across many files, such as camera makes and models, then share a single instance, reducing the memory held by
+     * collections of metadata.  Defaults to <code>null</code>, meaning values are not pooled.
+     * <p>
+     * Should be set before the metadata object is populated.  Values of directories already added are pooled
+     * immediately.
+     *
+     * @param stringPool the pool to use, which may be shared between instances and threads, or <code>null</code>
+     */
+    public void setStringPool(@Nullable StringPool stringPool)
+    {
+        checkNotFrozen();
+        _stringPool = stringPool;
+        for (Directory directory : _directories)
+            directory.setStringPool(stringPool);
+    }
+
+    /**
+     * Registers a loader for directories to be read when first requested.
+     * <p>
+     * Directories produced by the loader are appended to this collection when loaded, and so appear after any
+     * directories added in the meantime.
+     *
+     * @param loader the loader to run on demand
+     */
+    public void addDeferredDirectoryLoader(@NotNull DeferredDirectoryLoader loader)
+    {
+        checkNotFrozen();
+        synchronized (_directories) {
+            if (_deferredLoaders == null)
+                _deferredLoaders = new ArrayList<DeferredDirectoryLoader>(2);
+            _deferredLoaders.add(loader);
+        }
+    }
+
+    /**
+     * Runs deferred loaders that may produce directories of the given type, or all of them if <code>type</code> is
+     * <code>null</code>.  Callers must hold the lock on <code>_directories</code>.
+     */
+    private void loadDeferredDirectories(@Nullable Class<? extends Directory> type)
+    {
+        if (_deferredLoaders == null)
+            return;
+        // Loaders may register further loaders, so take one at a time
+        for (int i = 0; i < _deferredLoaders.size(); ) {
+            DeferredDirectoryLoader loader = _deferredLoaders.get(i);
+            if (type == null || loader.mayProduce(type)) {
+                _deferredLoaders.remove(i);
+                loader.load(this);
+            } else {
+                i++;
+            }
+        }
+    }
 
     /**
      * Returns an iterable set of the {@link Directory} instances contained in this metadata collection.
@@ -49,18 +258,51 @@ public final class Metadata
     @NotNull
     public Iterable<Directory> getDirectories()
     {
-        return _directories;
+        if (!isFrozen()) {
+            synchronized (_directories) {
+                loadDeferredDirectories(null);
+            }
+        }
+        return Collections.unmodifiableList(_directories);
     }
 
     @NotNull
     @SuppressWarnings("unchecked")
     public <T extends Directory> Collection<T> getDirectoriesOfType(Class<T> type)
     {
-        List<T> directories = new ArrayList<T>();
-        for (Directory dir : _directories) {
-            if (type.isAssignableFrom(dir.getClass())) {
-                directories.add((T)dir);
+        if (isFrozen())
+            return new ArrayList<T>((List<T>)getIndexedDirectories(type));
+
+        synchronized (_directories) {
+            loadDeferredDirectories(type);
+            return new ArrayList<T>((List<T>)getIndexedDirectories(type));
+        }
+    }
+
+    /**
+     * Gets the directories of the given type, including instances of subtypes, in the order they were added.
+     * The first query for a type scans all directories, after which the result is kept up to date as directories
+     * are added.  Callers of mutable instances must hold the lock on <code>_directories</code>.
+     */
+    @NotNull
+    private List<Directory> getIndexedDirectories(@NotNull Class<? extends Directory> type)
+    {
+        if (_frozenDirectoriesByType != null) {
+            List<Directory> directories = _frozenDirectoriesByType.get(type);
+            return directories == null ? Collections.<Directory>emptyList() : directories;
+        }
+
+        if (_directoriesByType == null)
+            _directoriesByType = new HashMap<Class<?>, List<Directory>>();
+
+        List<Directory> directories = _directoriesByType.get(type);
+        if (directories == null) {
+            directories = new ArrayList<Directory>(1);
+            for (Directory dir : _directories) {
+                if (type.isAssignableFrom(dir.getClass()))
+                    directories.add(dir);
             }
+            _directoriesByType.put(type, directories);
         }
         return directories;
     }
@@ -72,7 +314,29 @@ public final class Metadata
      */
     public int getDirectoryCount()
     {
-        return _directories.size();
+        if (isFrozen())
+            return _directories.size();
+
+        synchronized (_directories) {
+            loadDeferredDirectories(null);
+            return _directories.size();
+        }
+    }
+
+    /**
+     * Returns the count of directories added to this metadata collection so far, without loading any that were
+     * deferred.  Readers use this to find the directories a block of data produced, for {@link #applySourceRange}.
+     *
+     * @return the number of directories held, excluding any yet to be loaded
+     */
+    public int getLoadedDirectoryCount()
+    {
+        if (isFrozen())
+            return _directories.size();
+
+        synchronized (_directories) {
+            return _directories.size();
+        }
     }
 
     /**
@@ -82,7 +346,41 @@ public final class Metadata
      */
     public <T extends Directory> void addDirectory(@NotNull T directory)
     {
-        _directories.add(directory);
+        checkNotFrozen();
+
+        if (_stringPool != null)
+            directory.setStringPool(_stringPool);
+
+        synchronized (_directories) {
+            _directories.add(directory);
+
+            if (_directoriesByType != null) {
+                // Only types that have already been queried are indexed
+                for (Class<?> type = directory.getClass(); type != Object.class; type = type.getSuperclass()) {
+                    List<Directory> directories = _directoriesByType.get(type);
+                    if (directories != null)
+                        directories.add(directory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies <code>sourceRange</code> to each directory at or after index <code>firstDirectoryIndex</code>, for those
+     * directories and tags that do not already have a more specific range.
+     * <p>
+     * Readers call this after processing a block of the source file that may have produced several directories.
+     *
+     * @param firstDirectoryIndex the index of the first directory to update, as given by {@link #getLoadedDirectoryCount()}
+     *                            before the block was processed
+     * @param sourceRange the absolute range of the processed block
+     * @see Directory#applySourceRange(SourceRange)
+     */
+    public void applySourceRange(int firstDirectoryIndex, @NotNull SourceRange sourceRange)
+    {
+        checkNotFrozen();
+        for (int i = firstDirectoryIndex; i < _directories.size(); i++)
+            _directories.get(i).applySourceRange(sourceRange);
     }
 
     /**
@@ -97,11 +395,19 @@ public final class Metadata
     @SuppressWarnings("unchecked")
     public <T extends Directory> T getFirstDirectoryOfType(@NotNull Class<T> type)
     {
-        for (Directory dir : _directories) {
-            if (type.isAssignableFrom(dir.getClass()))
-                return (T)dir;
+        if (isFrozen())
+            return (T)getFirst(getIndexedDirectories(type));
+
+        synchronized (_directories) {
+            loadDeferredDirectories(type);
+            return (T)getFirst(getIndexedDirectories(type));
         }
-        return null;
+    }
+
+    @Nullable
+    private static Directory getFirst(@NotNull List<Directory> directories)
+    {
+        return directories.isEmpty() ? null : directories.get(0);
     }
 
     /**
@@ -112,11 +418,13 @@ public final class Metadata
      */
     public boolean containsDirectoryOfType(Class<? extends Directory> type)
     {
-        for (Directory dir : _directories) {
-            if (type.isAssignableFrom(dir.getClass()))
-                return true;
+        if (isFrozen())
+            return !getIndexedDirectories(type).isEmpty();
+
+        synchronized (_directories) {
+            loadDeferredDirectories(type);
+            return !getIndexedDirectories(type).isEmpty();
         }
-        return false;
     }
 
     /**
@@ -0,0 +1,832 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.adobe.internal.xmp.XMPException;
+import com.adobe.internal.xmp.XMPMetaFactory;
+import com.adobe.internal.xmp.options.SerializeOptions;
+import com.drew.imaging.png.PngChunkType;
+import com.drew.imaging.png.PngProcessingException;
+import com.drew.lang.Charsets;
+import com.drew.lang.KeyValuePair;
+import com.drew.lang.Rational;
+import com.drew.lang.SequentialByteArrayReader;
+import com.drew.lang.SequentialReader;
+import com.drew.lang.StreamReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.gif.GifControlDirectory;
+import com.drew.metadata.jpeg.JpegComponent;
+import com.drew.metadata.png.PngDirectory;
+import com.drew.metadata.xmp.XmpDirectory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes {@link Metadata} to, and decodes it from, a compact binary form, so that extracted metadata may be cached
+ * and later restored far more cheaply than by reading the original file again.
+ * <p>
+ * Data begins with a four byte signature and a version number.  Directory types are identified by number, integers
+ * are written as variable-length quantities (zig-zag encoded where signed), each distinct string is written once and
+ * referenced by index thereafter, and each tag value is preceded by a byte identifying its type.  Neither encoding nor
+ * decoding uses reflection.
+ * <p>
+ * All directory types in this library are supported, along with their errors, parent relationships, source ranges
+ * and the value types their readers produce.  Values derived lazily by a directory, such as the typed Canon
+ * makernote records, are restored as the plain tags they expand to.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class MetadataCodec
+{
+    /** The version of the format written by this class.  Data of other versions is rejected when decoding. */
+    public static final int VERSION = 1;
+
+    private static final byte[] SIGNATURE = { 'M', 'D', 'X', 'B' };
+
+    private static final int FLAG_SOURCE_RANGES_ENABLED = 1;
+
+    private static final int DIRECTORY_FLAG_SOURCE_RANGE = 1;
+    private static final int DIRECTORY_FLAG_TAG_SOURCE_RANGES = 2;
+    private static final int DIRECTORY_FLAG_XMP = 4;
+
+    // Value type identifiers, which are persisted and so must never be renumbered
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_LONG = 2;
+    private static final int TYPE_SHORT = 3;
+    private static final int TYPE_BYTE = 4;
+    private static final int TYPE_FLOAT = 5;
+    private static final int TYPE_DOUBLE = 6;
+    private static final int TYPE_BOOLEAN = 7;
+    private static final int TYPE_STRING = 8;
+    private static final int TYPE_STRING_VALUE = 9;
+    private static final int TYPE_RATIONAL = 10;
+    private static final int TYPE_DATE = 11;
+    private static final int TYPE_BYTE_ARRAY = 12;
+    private static final int TYPE_SHORT_ARRAY = 13;
+    private static final int TYPE_INT_ARRAY = 14;
+    private static final int TYPE_LONG_ARRAY = 15;
+    private static final int TYPE_FLOAT_ARRAY = 16;
+    private static final int TYPE_DOUBLE_ARRAY = 17;
+    private static final int TYPE_STRING_ARRAY = 18;
+    private static final int TYPE_STRING_VALUE_ARRAY = 19;
+    private static final int TYPE_RATIONAL_ARRAY = 20;
+    private static final int TYPE_JPEG_COMPONENT = 21;
+    private static final int TYPE_DISPOSAL_METHOD = 22;
+    private static final int TYPE_KEY_VALUE_PAIRS = 23;
+
+    private MetadataCodec()
+    {}
+
+    /**
+     * Encodes <code>metadata</code>, loading any deferred directories first.
+     *
+     * @throws IllegalArgumentException if a directory or tag value has a type that cannot be encoded
+     */
+    @NotNull
+    public static byte[] encode(@NotNull Metadata metadata)
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(4096);
+        try {
+            encode(metadata, stream);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return stream.toByteArray();
+    }
+
+    /**
+     * Encodes <code>metadata</code> to <code>stream</code>, loading any deferred directories first.  The stream is
+     * neither flushed nor closed.
+     *
+     * @throws IllegalArgumentException if a directory or tag value has a type that cannot be encoded
+     */
+    public static void encode(@NotNull Metadata metadata, @NotNull OutputStream stream) throws IOException
+    {
+        new Encoder(stream).writeMetadata(metadata);
+    }
+
+    /**
+     * Decodes metadata previously produced by {@link #encode(Metadata)}.
+     *
+     * @throws IOException if the data is malformed, truncated or of an unsupported version
+     */
+    @NotNull
+    public static Metadata decode(@NotNull byte[] bytes) throws IOException
+    {
+        return new Decoder(new SequentialByteArrayReader(bytes)).readMetadata();
+    }
+
+    /**
+     * Decodes metadata from <code>stream</code>, reading no further than the end of the encoded data.  Callers should
+     * provide a buffered stream.
+     *
+     * @throws IOException if the data is malformed, truncated or of an unsupported version
+     */
+    @NotNull
+    public static Metadata decode(@NotNull InputStream stream) throws IOException
+    {
+        return new Decoder(new StreamReader(stream)).readMetadata();
+    }
+
+    private static final class Encoder
+    {
+        @NotNull private final OutputStream _stream;
+        @NotNull private final byte[] _buffer = new byte[8192];
+        private int _position;
+        @NotNull private final Map<String, Integer> _stringIds = new HashMap<String, Integer>();
+
+        Encoder(@NotNull OutputStream stream)
+        {
+            _stream = stream;
+        }
+
+        void writeMetadata(@NotNull Metadata metadata) throws IOException
+        {
+            List<Directory> directories = new ArrayList<Directory>(metadata.getDirectoryCount());
+            for (Directory directory : metadata.getDirectories())
+                directories.add(directory);
+
+            Map<Directory, Integer> indexByDirectory = new IdentityHashMap<Directory, Integer>();
+            for (int i = 0; i < directories.size(); i++)
+                indexByDirectory.put(directories.get(i), i);
+
+            writeBytes(SIGNATURE);
+            writeByte(VERSION);
+            writeByte(metadata.isSourceRangesEnabled() ? FLAG_SOURCE_RANGES_ENABLED : 0);
+            writeVarInt(directories.size());
+
+            for (Directory directory : directories) {
+                Directory parent = directory.getParent();
+                Integer parentIndex = parent == null ? null : indexByDirectory.get(parent);
+                writeDirectory(directory, parentIndex == null ? 0 : parentIndex + 1);
+            }
+
+            _stream.write(_buffer, 0, _position);
+            _position = 0;
+        }
+
+        private void writeDirectory(@NotNull Directory directory, int parentReference) throws IOException
+        {
+            int typeId = DirectoryTypeRegistry.getTypeId(directory.getClass());
+            if (typeId == -1)
+                throw new IllegalArgumentException("Cannot encode unregistered directory type " + directory.getClass().getName());
+
+            writeVarInt(typeId);
+            if (directory instanceof PngDirectory)
+                writeBytes(((PngDirectory)directory).getPngChunkType().getIdentifier().getBytes(Charsets.ASCII));
+            writeVarInt(parentReference);
+
+            writeVarInt(directory.getErrorCount());
+            for (String error : directory.getErrors())
+                writeString(error);
+
+            // Enumerating tags first lets directories that derive tags lazily complete them
+            int tagSourceRangeCount = 0;
+            writeVarInt(directory.getTagCount());
+            for (Tag tag : directory.getTags()) {
+                int tagType = tag.getTagType();
+                writeVarInt(tagType);
+                writeValue(directory, tagType, directory.getObject(tagType));
+                if (directory.getTagSourceRange(tagType) != null)
+                    tagSourceRangeCount++;
+            }
+
+            SourceRange sourceRange = directory.getSourceRange();
+            int flags = (sourceRange != null ? DIRECTORY_FLAG_SOURCE_RANGE : 0)
+                | (tagSourceRangeCount != 0 ? DIRECTORY_FLAG_TAG_SOURCE_RANGES : 0)
+                | (directory instanceof XmpDirectory ? DIRECTORY_FLAG_XMP : 0);
+            writeByte(flags);
+
+            if (sourceRange != null)
+                writeSourceRange(sourceRange);
+
+            if (tagSourceRangeCount != 0) {
+                writeVarInt(tagSourceRangeCount);
+                for (Tag tag : directory.getTags()) {
+                    SourceRange tagSourceRange = directory.getTagSourceRange(tag.getTagType());
+                    if (tagSourceRange != null) {
+                        writeVarInt(tag.getTagType());
+                        writeSourceRange(tagSourceRange);
+                    }
+                }
+            }
+
+            if (directory instanceof XmpDirectory) {
+                try {
+                    SerializeOptions options = new SerializeOptions().setOmitPacketWrapper(true);
+                    writeByteArray(XMPMetaFactory.serializeToBuffer(((XmpDirectory)directory).getXMPMeta(), options));
+                } catch (XMPException e) {
+                    throw new IllegalArgumentException("Cannot encode XMP data: " + e.getMessage(), e);
+                }
+            }
+        }
+
+        private void writeValue(@NotNull Directory directory, int tagType, @Nullable Object value) throws IOException
+        {
+            if (value instanceof Integer) {
+                writeByte(TYPE_INT);
+                writeSignedVarLong((Integer)value);
+            } else if (value instanceof Long) {
+                writeByte(TYPE_LONG);
+                writeSignedVarLong((Long)value);
+            } else if (value instanceof Short) {
+                writeByte(TYPE_SHORT);
+                writeSignedVarLong((Short)value);
+            } else if (value instanceof Byte) {
+                writeByte(TYPE_BYTE);
+                writeByte((Byte)value);
+            } else if (value instanceof Float) {
+                writeByte(TYPE_FLOAT);
+                writeInt32(Float.floatToRawIntBits((Float)value));
+            } else if (value instanceof Double) {
+                writeByte(TYPE_DOUBLE);
+                writeInt64(Double.doubleToRawLongBits((Double)value));
+            } else if (value instanceof Boolean) {
+                writeByte(TYPE_BOOLEAN);
+                writeByte((Boolean)value ? 1 : 0);
+            } else if (value instanceof String) {
+                writeByte(TYPE_STRING);
+                writeString((String)value);
+            } else if (value instanceof StringValue) {
+                writeByte(TYPE_STRING_VALUE);
+                writeStringValue((StringValue)value);
+            } else if (value instanceof Rational) {
+                writeByte(TYPE_RATIONAL);
+                writeRational((Rational)value);
+            } else if (value instanceof Date) {
+                writeByte(TYPE_DATE);
+                writeSignedVarLong(((Date)value).getTime());
+            } else if (value instanceof byte[]) {
+                writeByte(TYPE_BYTE_ARRAY);
+                writeByteArray((byte[])value);
+            } else if (value instanceof short[]) {
+                short[] array = (short[])value;
+                writeByte(TYPE_SHORT_ARRAY);
+                writeVarInt(array.length);
+                for (short item : array)
+                    writeSignedVarLong(item);
+            } else if (value instanceof int[]) {
+                int[] array = (int[])value;
+                writeByte(TYPE_INT_ARRAY);
+                writeVarInt(array.length);
+                for (int item : array)
+                    writeSignedVarLong(item);
+            } else if (value instanceof long[]) {
+                long[] array = (long[])value;
+                writeByte(TYPE_LONG_ARRAY);
+                writeVarInt(array.length);
+                for (long item : array)
+                    writeSignedVarLong(item);
+            } else if (value instanceof float[]) {
+                float[] array = (float[])value;
+                writeByte(TYPE_FLOAT_ARRAY);
+                writeVarInt(array.length);
+                for (float item : array)
+                    writeInt32(Float.floatToRawIntBits(item));
+            } else if (value instanceof double[]) {
+                double[] array = (double[])value;
+                writeByte(TYPE_DOUBLE_ARRAY);
+                writeVarInt(array.length);
+                for (double item : array)
+                    writeInt64(Double.doubleToRawLongBits(item));
+            } else if (value instanceof String[]) {
+                String[] array = (String[])value;
+                writeByte(TYPE_STRING_ARRAY);
+                writeVarInt(array.length);
+                for (String item : array)
+                    writeString(item);
+            } else if (value instanceof StringValue[]) {
+                StringValue[] array = (StringValue[])value;
+                writeByte(TYPE_STRING_VALUE_ARRAY);
+                writeVarInt(array.length);
+                for (StringValue item : array)
+                    writeStringValue(item);
+            } else if (value instanceof Rational[]) {
+                Rational[] array = (Rational[])value;
+                writeByte(TYPE_RATIONAL_ARRAY);
+                writeVarInt(array.length);
+                for (Rational item : array)
+                    writeRational(item);
+            } else if (value instanceof JpegComponent) {
+                JpegComponent component = (JpegComponent)value;
+                writeByte(TYPE_JPEG_COMPONENT);
+                writeVarInt(component.getComponentId());
+                writeVarInt((component.getHorizontalSamplingFactor() << 4) | component.getVerticalSamplingFactor());
+                writeVarInt(component.getQuantizationTableNumber());
+            } else if (value instanceof GifControlDirectory.DisposalMethod) {
+                writeByte(TYPE_DISPOSAL_METHOD);
+                writeVarInt(((GifControlDirectory.DisposalMethod)value).ordinal());
+            } else if (value instanceof List && isKeyValuePairList((List<?>)value)) {
+                List<?> pairs = (List<?>)value;
+                writeByte(TYPE_KEY_VALUE_PAIRS);
+                writeVarInt(pairs.size());
+                for (Object item : pairs) {
+                    KeyValuePair pair = (KeyValuePair)item;
+                    writeString(pair.getKey());
+                    writeStringValue(pair.getValue());
+                }
+            } else {
+                throw new IllegalArgumentException(String.format("Cannot encode value of type %s for tag %d of %s directory",
+                    value == null ? "null" : value.getClass().getName(), tagType, directory.getName()));
+            }
+        }
+
+        private static boolean isKeyValuePairList(@NotNull List<?> list)
+        {
+            for (Object item : list) {
+                if (!(item instanceof KeyValuePair))
+                    return false;
+            }
+            return true;
+        }
+
+        private void writeSourceRange(@NotNull SourceRange sourceRange) throws IOException
+        {
+            writeVarLong(sourceRange.getOffset());
+            writeVarLong(sourceRange.getLength());
+        }
+
+        private void writeRational(@NotNull Rational rational) throws IOException
+        {
+            writeSignedVarLong(rational.getNumerator());
+            writeSignedVarLong(rational.getDenominator());
+        }
+
+        private void writeStringValue(@NotNull StringValue value) throws IOException
+        {
+            writeByteArray(value.getBytes());
+            Charset charset = value.getCharset();
+            writeString(charset == null ? null : charset.name());
+        }
+
+        /**
+         * Writes <code>0</code> for <code>null</code>, <code>1</code> followed by the UTF-8 bytes of a string not
+         * written before, or two more than the index of a string written previously.
+         */
+        private void writeString(@Nullable String value) throws IOException
+        {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            Integer id = _stringIds.get(value);
+            if (id != null) {
+                writeVarInt(id + 2);
+                return;
+            }
+            _stringIds.put(value, _stringIds.size());
+            writeVarInt(1);
+            writeByteArray(value.getBytes(Charsets.UTF_8));
+        }
+
+        private void writeByteArray(@NotNull byte[] bytes) throws IOException
+        {
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void writeSignedVarLong(long value) throws IOException
+        {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /** Writes <code>value</code> as an unsigned 32-bit quantity. */
+        private void writeVarInt(int value) throws IOException
+        {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) throws IOException
+        {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int)(value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int)value);
+        }
+
+        private void writeInt32(int value) throws IOException
+        {
+            writeByte(value >>> 24);
+            writeByte(value >>> 16);
+            writeByte(value >>> 8);
+            writeByte(value);
+        }
+
+        private void writeInt64(long value) throws IOException
+        {
+            writeInt32((int)(value >>> 32));
+            writeInt32((int)value);
+        }
+
+        private void writeByte(int value) throws IOException
+        {
+            if (_position == _buffer.length) {
+                _stream.write(_buffer, 0, _position);
+                _position = 0;
+            }
+            _buffer[_position++] = (byte)value;
+        }
+
+        private void writeBytes(@NotNull byte[] bytes) throws IOException
+        {
+            if (bytes.length > _buffer.length - _position) {
+                _stream.write(_buffer, 0, _position);
+                _position = 0;
+                if (bytes.length > _buffer.length) {
+                    _stream.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, _buffer, _position, bytes.length);
+            _position += bytes.length;
+        }
+    }
+
+    private static final class Decoder
+    {
+        private static final int MAX_INITIAL_ARRAY_LENGTH = 8192;
+
+        @NotNull private final SequentialReader _reader;
+        @NotNull private final List<String> _strings = new ArrayList<String>();
+
+        Decoder(@NotNull SequentialReader reader)
+        {
+            _reader = reader;
+        }
+
+        @NotNull
+        Metadata readMetadata() throws IOException
+        {
+            for (byte b : SIGNATURE) {
+                if (_reader.getByte() != b)
+                    throw new IOException("Data is not encoded metadata");
+            }
+            int version = _reader.getUInt8();
+            if (version != VERSION)
+                throw new IOException("Unsupported encoded metadata version " + version);
+
+            Metadata metadata = new Metadata();
+            metadata.setSourceRangesEnabled((_reader.getUInt8() & FLAG_SOURCE_RANGES_ENABLED) != 0);
+
+            int directoryCount = readLength();
+            List<Directory> directories = new ArrayList<Directory>(getInitialLength(directoryCount));
+            int[] parentReferences = new int[getInitialLength(directoryCount)];
+            for (int i = 0; i < directoryCount; i++) {
+                if (i == parentReferences.length)
+                    parentReferences = Arrays.copyOf(parentReferences, getGrownLength(i, directoryCount));
+                Directory directory = readDirectory();
+                directories.add(directory);
+                parentReferences[i] = readLength();
+                if (parentReferences[i] > directoryCount)
+                    throw new IOException("Invalid parent directory reference " + parentReferences[i]);
+                readDirectoryContent(directory);
+            }
+
+            for (int i = 0; i < directoryCount; i++) {
+                Directory directory = directories.get(i);
+                if (parentReferences[i] != 0)
+                    directory.setParent(directories.get(parentReferences[i] - 1));
+                metadata.addDirectory(directory);
+            }
+
+            return metadata;
+        }
+
+        @NotNull
+        private Directory readDirectory() throws IOException
+        {
+            int typeId = readLength();
+            Directory directory = DirectoryTypeRegistry.create(typeId);
+            if (directory == null)
+                throw new IOException("Unknown directory type " + typeId);
+
+            if (directory instanceof PngDirectory) {
+                try {
+                    directory = new PngDirectory(new PngChunkType(_reader.getBytes(4)));
+                } catch (PngProcessingException e) {
+                    throw new IOException("Invalid PNG chunk type: " + e.getMessage());
+                }
+            } else if (directory.getTagCount() != 0) {
+                // Discard values set by constructors, such as that of FileTypeDirectory
+                directory.clearTags();
+            }
+            return directory;
+        }
+
+        private void readDirectoryContent(@NotNull Directory directory) throws IOException
+        {
+            int errorCount = readLength();
+            for (int i = 0; i < errorCount; i++)
+                directory.addError(readNotNullString());
+
+            int tagCount = readLength();
+            for (int i = 0; i < tagCount; i++) {
+                int tagType = (int)readVarLong();
+                directory.setObject(tagType, readValue());
+            }
+
+            int flags = _reader.getUInt8();
+
+            if ((flags & DIRECTORY_FLAG_SOURCE_RANGE) != 0)
+                directory.setSourceRange(readSourceRange());
+
+            if ((flags & DIRECTORY_FLAG_TAG_SOURCE_RANGES) != 0) {
+                int count = readLength();
+                for (int i = 0; i < count; i++) {
+                    int tagType = (int)readVarLong();
+                    directory.setTagSourceRange(tagType, readSourceRange());
+                }
+            }
+
+            if ((flags & DIRECTORY_FLAG_XMP) != 0) {
+                if (!(directory instanceof XmpDirectory))
+                    throw new IOException("XMP data present for " + directory.getName() + " directory");
+                try {
+                    ((XmpDirectory)directory).setXMPMeta(XMPMetaFactory.parseFromBuffer(readByteArray()));
+                } catch (XMPException e) {
+                    throw new IOException("Invalid XMP data: " + e.getMessage());
+                }
+            }
+        }
+
+        @NotNull
+        private Object readValue() throws IOException
+        {
+            int type = _reader.getUInt8();
+            switch (type) {
+                case TYPE_INT:
+                    return (int)readSignedVarLong();
+                case TYPE_LONG:
+                    return readSignedVarLong();
+                case TYPE_SHORT:
+                    return (short)readSignedVarLong();
+                case TYPE_BYTE:
+                    return _reader.getByte();
+                case TYPE_FLOAT:
+                    return _reader.getFloat32();
+                case TYPE_DOUBLE:
+                    return _reader.getDouble64();
+                case TYPE_BOOLEAN:
+                    return _reader.getByte() != 0;
+                case TYPE_STRING:
+                    return readNotNullString();
+                case TYPE_STRING_VALUE:
+                    return readStringValue();
+                case TYPE_RATIONAL:
+                    return readRational();
+                case TYPE_DATE:
+                    return new Date(readSignedVarLong());
+                case TYPE_BYTE_ARRAY:
+                    return readByteArray();
+                case TYPE_SHORT_ARRAY: {
+                    int length = readLength();
+                    short[] array = new short[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = (short)readSignedVarLong();
+                    }
+                    return array;
+                }
+                case TYPE_INT_ARRAY: {
+                    int length = readLength();
+                    int[] array = new int[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = (int)readSignedVarLong();
+                    }
+                    return array;
+                }
+                case TYPE_LONG_ARRAY: {
+                    int length = readLength();
+                    long[] array = new long[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = readSignedVarLong();
+                    }
+                    return array;
+                }
+                case TYPE_FLOAT_ARRAY: {
+                    int length = readLength();
+                    float[] array = new float[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = _reader.getFloat32();
+                    }
+                    return array;
+                }
+                case TYPE_DOUBLE_ARRAY: {
+                    int length = readLength();
+                    double[] array = new double[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = _reader.getDouble64();
+                    }
+                    return array;
+                }
+                case TYPE_STRING_ARRAY: {
+                    int length = readLength();
+                    String[] array = new String[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = readString();
+                    }
+                    return array;
+                }
+                case TYPE_STRING_VALUE_ARRAY: {
+                    int length = readLength();
+                    StringValue[] array = new StringValue[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = readStringValue();
+                    }
+                    return array;
+                }
+                case TYPE_RATIONAL_ARRAY: {
+                    int length = readLength();
+                    Rational[] array = new Rational[getInitialLength(length)];
+                    for (int i = 0; i < length; i++) {
+                        if (i == array.length)
+                            array = Arrays.copyOf(array, getGrownLength(i, length));
+                        array[i] = readRational();
+                    }
+                    return array;
+                }
+                case TYPE_JPEG_COMPONENT: {
+                    int componentId = readLength();
+                    int samplingFactorByte = readLength();
+                    int quantizationTableNumber = readLength();
+                    return new JpegComponent(componentId, samplingFactorByte, quantizationTableNumber);
+                }
+                case TYPE_DISPOSAL_METHOD: {
+                    GifControlDirectory.DisposalMethod[] values = GifControlDirectory.DisposalMethod.values();
+                    int ordinal = readLength();
+                    if (ordinal >= values.length)
+                        throw new IOException("Invalid GIF disposal method " + ordinal);
+                    return values[ordinal];
+                }
+                case TYPE_KEY_VALUE_PAIRS: {
+                    int count = readLength();
+                    List<KeyValuePair> pairs = new ArrayList<KeyValuePair>(getInitialLength(count));
+                    for (int i = 0; i < count; i++)
+                        pairs.add(new KeyValuePair(readNotNullString(), readStringValue()));
+                    return pairs;
+                }
+                default:
+                    throw new IOException("Unknown value type " + type);
+            }
+        }
+
+        @NotNull
+        private SourceRange readSourceRange() throws IOException
+        {
+            long offset = readVarLong();
+            long length = readVarLong();
+            return new SourceRange(offset, length);
+        }
+
+        @NotNull
+        private Rational readRational() throws IOException
+        {
+            long numerator = readSignedVarLong();
+            long denominator = readSignedVarLong();
+            return new Rational(numerator, denominator);
+        }
+
+        @NotNull
+        private StringValue readStringValue() throws IOException
+        {
+            byte[] bytes = readByteArray();
+            String charsetName = readString();
+            try {
+                return new StringValue(bytes, charsetName == null ? null : Charset.forName(charsetName));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unsupported charset " + charsetName);
+            }
+        }
+
+        @NotNull
+        private String readNotNullString() throws IOException
+        {
+            String value = readString();
+            if (value == null)
+                throw new IOException("Unexpected null string");
+            return value;
+        }
+
+        @Nullable
+        private String readString() throws IOException
+        {
+            int reference = readLength();
+            if (reference == 0)
+                return null;
+            if (reference == 1) {
+                String value = new String(readByteArray(), Charsets.UTF_8);
+                _strings.add(value);
+                return value;
+            }
+            if (reference - 2 >= _strings.size())
+                throw new IOException("Invalid string reference " + reference);
+            return _strings.get(reference - 2);
+        }
+
+        @NotNull
+        private byte[] readByteArray() throws IOException
+        {
+            int length = readLength();
+            if (length <= MAX_INITIAL_ARRAY_LENGTH)
+                return _reader.getBytes(length);
+
+            byte[] bytes = new byte[MAX_INITIAL_ARRAY_LENGTH];
+            int read = 0;
+            while (read < length) {
+                if (read == bytes.length)
+                    bytes = Arrays.copyOf(bytes, getGrownLength(read, length));
+                _reader.getBytes(bytes, read, bytes.length - read);
+                read = bytes.length;
+            }
+            return bytes;
+        }
+
+        /**
+         * Gets the number of elements to allocate for an array of <code>length</code> elements before any are read.
+         * Lengths are read from the data, so arrays grow as elements are read, in order that a corrupt length fails
+         * with an {@link IOException} once the data runs out, rather than exhausting memory.
+         */
+        private static int getInitialLength(int length)
+        {
+            return Math.min(length, MAX_INITIAL_ARRAY_LENGTH);
+        }
+
+        /** Gets the new size of an array of <code>currentLength</code> elements, growing towards <code>length</code>. */
+        private static int getGrownLength(int currentLength, int length)
+        {
+            return (int)Math.min(currentLength * 2L, length);
+        }
+
+        /** Reads an unsigned variable-length quantity that must fit within a non-negative <code>int</code>. */
+        private int readLength() throws IOException
+        {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE)
+                throw new IOException("Invalid length " + value);
+            return (int)value;
+        }
+
+        private long readSignedVarLong() throws IOException
+        {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarLong() throws IOException
+        {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = _reader.getByte();
+                value |= (long)(b & 0x7F) << shift;
+                if (b >= 0)
+                    return value;
+            }
+            throw new IOException("Malformed variable-length integer");
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.adobe.internal.xmp.XMPException;
+import com.adobe.internal.xmp.XMPIterator;
+import com.adobe.internal.xmp.options.IteratorOptions;
+import com.adobe.internal.xmp.properties.XMPPropertyInfo;
+import com.drew.lang.Charsets;
+import com.drew.lang.DateTime;
+import com.drew.lang.KeyValuePair;
+import com.drew.lang.Rational;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.xmp.XmpDirectory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link Metadata} as JSON, directly to a {@link Writer} or {@link OutputStream} without building any
+ * intermediate document.
+ * <p>
+ * The output is an object holding a <code>directories</code> array.  Each directory gives its <code>name</code>, its
+ * <code>index</code> within that array, the <code>parent</code> index (or <code>null</code>), its <code>tags</code> and
+ * any <code>errors</code>.  XMP directories additionally list their <code>xmpProperties</code> by path.  Each tag gives
+ * its numeric <code>id</code>, <code>name</code> and typed <code>value</code>:
+ * <ul>
+ *     <li>integers and real numbers are JSON numbers (or strings, for NaN and infinities)</li>
+ *     <li>rationals are objects with <code>numerator</code> and <code>denominator</code> members</li>
+ *     <li>dates are ISO 8601 strings in UTC</li>
+ *     <li>byte arrays are Base64 strings, and other arrays are JSON arrays</li>
+ *     <li>text is a string, and values of other types use the directory's string representation</li>
+ * </ul>
+ * Tag descriptions are included as <code>description</code> unless disabled via
+ * {@link #setIncludeDescriptions(boolean)}, which avoids the cost of producing them.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class MetadataJsonWriter
+{
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char[] BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private boolean _includeDescriptions = true;
+
+    /**
+     * Gets whether tag descriptions are written alongside raw values.  Defaults to <code>true</code>.
+     */
+    public boolean isIncludeDescriptions()
+    {
+        return _includeDescriptions;
+    }
+
+    /**
+     * Sets whether tag descriptions are written alongside raw values.  Producing descriptions is usually the
+     * most expensive part of writing, so may be disabled where only values are needed.
+     */
+    public void setIncludeDescriptions(boolean includeDescriptions)
+    {
+        _includeDescriptions = includeDescriptions;
+    }
+
+    /**
+     * Writes <code>metadata</code> to <code>stream</code> as UTF-8 encoded JSON.  The stream is flushed, but not closed.
+     */
+    public void write(@NotNull Metadata metadata, @NotNull OutputStream stream) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, Charsets.UTF_8));
+        write(metadata, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes <code>metadata</code> to <code>writer</code> as JSON.  The writer is neither flushed nor closed.
+     */
+    public void write(@NotNull Metadata metadata, @NotNull Writer writer) throws IOException
+    {
+        Map<Directory, Integer> indexByDirectory = new IdentityHashMap<Directory, Integer>();
+        for (Directory directory : metadata.getDirectories())
+            indexByDirectory.put(directory, indexByDirectory.size());
+
+        writer.write("{\"directories\":[");
+        int index = 0;
+        for (Directory directory : metadata.getDirectories()) {
+            if (index != 0)
+                writer.write(',');
+            Directory parent = directory.getParent();
+            writeDirectory(writer, directory, index++, parent == null ? null : indexByDirectory.get(parent));
+        }
+        writer.write("]}");
+    }
+
+    private void writeDirectory(@NotNull Writer writer, @NotNull Directory directory, int index, @Nullable Integer parentIndex) throws IOException
+    {
+        writer.write("{\"name\":");
+        writeString(writer, directory.getName());
+        writer.write(",\"index\":");
+        writer.write(Integer.toString(index));
+        writer.write(",\"parent\":");
+        writer.write(parentIndex == null ? "null" : parentIndex.toString());
+
+        writer.write(",\"tags\":[");
+        boolean first = true;
+        for (Tag tag : directory.getTags()) {
+            if (!first)
+                writer.write(',');
+            first = false;
+            writeTag(writer, directory, tag.getTagType());
+        }
+        writer.write(']');
+
+        if (directory.hasErrors()) {
+            writer.write(",\"errors\":[");
+            first = true;
+            for (String error : directory.getErrors()) {
+                if (!first)
+                    writer.write(',');
+                first = false;
+                writeString(writer, error);
+            }
+            writer.write(']');
+        }
+
+        if (directory instanceof XmpDirectory)
+            writeXmpProperties(writer, (XmpDirectory)directory);
+
+        writer.write('}');
+    }
+
+    private void writeTag(@NotNull Writer writer, @NotNull Directory directory, int tagType) throws IOException
+    {
+        writer.write("{\"id\":");
+        writer.write(Integer.toString(tagType));
+        writer.write(",\"name\":");
+        writeString(writer, directory.getTagName(tagType));
+        writer.write(",\"value\":");
+        writeValue(writer, directory, tagType, directory.getObject(tagType));
+
+        if (_includeDescriptions) {
+            writer.write(",\"description\":");
+            String description = directory.getDescription(tagType);
+            if (description == null)
+                writer.write("null");
+            else
+                writeString(writer, description);
+        }
+
+        writer.write('}');
+    }
+
+    private static void writeValue(@NotNull Writer writer, @NotNull Directory directory, int tagType, @Nullable Object value) throws IOException
+    {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writer.write(value.toString());
+        } else if (value instanceof Float || value instanceof Double) {
+            writeReal(writer, ((Number)value).doubleValue(), value.toString());
+        } else if (value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof String) {
+            writeString(writer, (String)value);
+        } else if (value instanceof StringValue) {
+            writeString(writer, value.toString());
+        } else if (value instanceof Rational) {
+            writeRational(writer, (Rational)value);
+        } else if (value instanceof Date) {
+            writeString(writer, DateTime.fromDate((Date)value).toString());
+        } else if (value instanceof byte[]) {
+            writeBase64(writer, (byte[])value);
+        } else if (value.getClass().isArray()) {
+            writeArray(writer, directory, tagType, value);
+        } else if (value instanceof List && !((List<?>)value).isEmpty() && ((List<?>)value).get(0) instanceof KeyValuePair) {
+            writer.write('[');
+            boolean first = true;
+            for (Object item : (List<?>)value) {
+                if (!first)
+                    writer.write(',');
+                first = false;
+                KeyValuePair pair = (KeyValuePair)item;
+                writer.write("{\"key\":");
+                writeString(writer, pair.getKey());
+                writer.write(",\"value\":");
+                writeString(writer, pair.getValue().toString());
+                writer.write('}');
+            }
+            writer.write(']');
+        } else {
+            String string = directory.getString(tagType);
+            if (string == null)
+                writer.write("null");
+            else
+                writeString(writer, string);
+        }
+    }
+
+    private static void writeArray(@NotNull Writer writer, @NotNull Directory directory, int tagType, @NotNull Object array) throws IOException
+    {
+        writer.write('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i != 0)
+                writer.write(',');
+            if (array instanceof int[])
+                writer.write(Integer.toString(((int[])array)[i]));
+            else if (array instanceof short[])
+                writer.write(Integer.toString(((short[])array)[i]));
+            else if (array instanceof long[])
+                writer.write(Long.toString(((long[])array)[i]));
+            else if (array instanceof float[])
+                writeReal(writer, ((float[])array)[i], Float.toString(((float[])array)[i]));
+            else if (array instanceof double[])
+                writeReal(writer, ((double[])array)[i], Double.toString(((double[])array)[i]));
+            else if (array instanceof Object[])
+                writeValue(writer, directory, tagType, ((Object[])array)[i]);
+            else
+                writeString(writer, String.valueOf(Array.get(array, i)));
+        }
+        writer.write(']');
+    }
+
+    private static void writeReal(@NotNull Writer writer, double value, @NotNull String string) throws IOException
+    {
+        // JSON has no representation of NaN or the infinities
+        if (Double.isNaN(value) || Double.isInfinite(value))
+            writeString(writer, string);
+        else
+            writer.write(string);
+    }
+
+    private static void writeRational(@NotNull Writer writer, @NotNull Rational rational) throws IOException
+    {
+        writer.write("{\"numerator\":");
+        writer.write(Long.toString(rational.getNumerator()));
+        writer.write(",\"denominator\":");
+        writer.write(Long.toString(rational.getDenominator()));
+        writer.write('}');
+    }
+
+    private static void writeXmpProperties(@NotNull Writer writer, @NotNull XmpDirectory directory) throws IOException
+    {
+        writer.write(",\"xmpProperties\":{");
+        try {
+            boolean first = true;
+            IteratorOptions options = new IteratorOptions().setJustLeafnodes(true);
+            for (XMPIterator i = directory.getXMPMeta().iterator(options); i.hasNext(); ) {
+                XMPPropertyInfo prop = (XMPPropertyInfo)i.next();
+                String path = prop.getPath();
+                String value = prop.getValue();
+                if (path == null || value == null)
+                    continue;
+                if (!first)
+                    writer.write(',');
+                first = false;
+                writeString(writer, path);
+                writer.write(':');
+                writeString(writer, value);
+            }
+        } catch (XMPException ignored) {
+        }
+        writer.write('}');
+    }
+
+    private static void writeString(@NotNull Writer writer, @NotNull String value) throws IOException
+    {
+        writer.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != 0x2028 && c != 0x2029)
+                continue;
+
+            // Write the preceding run of unescaped characters in one call.  U+2028 and U+2029 are escaped as they
+            // are invalid within JavaScript string literals.
+            writer.write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"': writer.write("\\\""); break;
+                case '\\': writer.write("\\\\"); break;
+                case '\n': writer.write("\\n"); break;
+                case '\r': writer.write("\\r"); break;
+                case '\t': writer.write("\\t"); break;
+                case '\b': writer.write("\\b"); break;
+                case '\f': writer.write("\\f"); break;
+                default:
+                    writer.write("\\u");
+                    writer.write(HEX_DIGITS[(c >> 12) & 0xF]);
+                    writer.write(HEX_DIGITS[(c >> 8) & 0xF]);
+                    writer.write(HEX_DIGITS[(c >> 4) & 0xF]);
+                    writer.write(HEX_DIGITS[c & 0xF]);
+                    break;
+            }
+        }
+        writer.write(value, start, length - start);
+        writer.write('"');
+    }
+
+    private static void writeBase64(@NotNull Writer writer, @NotNull byte[] bytes) throws IOException
+    {
+        writer.write('"');
+        char[] chunk = new char[4];
+        int i = 0;
+        for (; i + 2 < bytes.length; i += 3) {
+            int bits = ((bytes[i] & 0xFF) << 16) | ((bytes[i + 1] & 0xFF) << 8) | (bytes[i + 2] & 0xFF);
+            chunk[0] = BASE64_DIGITS[bits >>> 18];
+            chunk[1] = BASE64_DIGITS[(bits >>> 12) & 0x3F];
+            chunk[2] = BASE64_DIGITS[(bits >>> 6) & 0x3F];
+            chunk[3] = BASE64_DIGITS[bits & 0x3F];
+            writer.write(chunk);
+        }
+        int remaining = bytes.length - i;
+        if (remaining != 0) {
+            int bits = (bytes[i] & 0xFF) << 16;
+            if (remaining == 2)
+                bits |= (bytes[i + 1] & 0xFF) << 8;
+            chunk[0] = BASE64_DIGITS[bits >>> 18];
+            chunk[1] = BASE64_DIGITS[(bits >>> 12) & 0x3F];
+            chunk[2] = remaining == 2 ? BASE64_DIGITS[(bits >>> 6) & 0x3F] : '=';
+            chunk[3] = '=';
+            writer.write(chunk);
+        }
+        writer.write('"');
+    }
+}
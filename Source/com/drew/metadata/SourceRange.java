@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * Identifies a contiguous run of bytes within the file from which a {@link Directory} or tag value was read.
+ * <p>
+ * Offsets are absolute, measured from the first byte of the file or stream passed to the metadata reader.
+ * Immutable.  Subclasses, such as {@link com.drew.metadata.tiff.TiffSourceRange}, describe how the bytes are encoded.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class SourceRange
+{
+    private final long _offset;
+    private final long _length;
+
+    public SourceRange(long offset, long length)
+    {
+        if (offset < 0)
+            throw new IllegalArgumentException("offset must be zero or greater");
+        if (length < 0)
+            throw new IllegalArgumentException("length must be zero or greater");
+        _offset = offset;
+        _length = length;
+    }
+
+    /** Gets the absolute offset of the first byte in this range. */
+    public long getOffset()
+    {
+        return _offset;
+    }
+
+    /** Gets the number of bytes in this range. */
+    public long getLength()
+    {
+        return _length;
+    }
+
+    /** Gets the absolute offset of the first byte after this range. */
+    public long getEndOffset()
+    {
+        return _offset + _length;
+    }
+
+    /**
+     * Indicates whether <code>other</code> lies entirely within this range.
+     *
+     * @param other the range to test
+     * @return <code>true</code> if every byte of <code>other</code> is also within this range
+     */
+    public boolean contains(@NotNull SourceRange other)
+    {
+        return other._offset >= _offset && other.getEndOffset() <= getEndOffset();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o)
+    {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        SourceRange that = (SourceRange)o;
+        return _offset == that._offset && _length == that._length;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = (int)(_offset ^ (_offset >>> 32));
+        result = 31 * result + (int)(_length ^ (_length >>> 32));
+        return result;
+    }
+
+    @Override
+    @NotNull
+    public String toString()
+    {
+        return String.format("[%d, %d) (%d bytes)", _offset, getEndOffset(), _length);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of short {@link String} and {@link StringValue} instances, used to share a single instance between
+ * equal tag values, such as camera makes, models and software names that repeat across many files.
+ * <p>
+ * Assign a pool to each {@link Metadata} instance via {@link Metadata#setStringPool(StringPool)} before it is
+ * populated, and the text values of its directories are replaced by pooled instances as they are set.  A single
+ * pool may be shared by any number of {@link Metadata} instances and threads.
+ * <p>
+ * The pool is a fixed-size, lossy cache: each value hashes to a single slot, and a value displaces any different
+ * value previously held in its slot.  Memory use is therefore bounded by the capacity and maximum length given at
+ * construction, and values that recur frequently tend to remain pooled.  Values longer than the maximum length
+ * are never pooled.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class StringPool
+{
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    @NotNull
+    private final AtomicReferenceArray<String> _strings;
+    @NotNull
+    private final AtomicReferenceArray<StringValue> _stringValues;
+    private final int _mask;
+    private final int _maxLength;
+
+    /**
+     * Creates a pool of {@link #DEFAULT_CAPACITY} entries of each kind, pooling values of up to
+     * {@link #DEFAULT_MAX_LENGTH} characters or bytes.
+     */
+    public StringPool()
+    {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param capacity the number of strings, and separately of string values, that may be held, rounded up to a power of two
+     * @param maxLength the length in characters of the longest string, or in bytes of the longest string value, to pool
+     */
+    public StringPool(int capacity, int maxLength)
+    {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        if (maxLength < 0)
+            throw new IllegalArgumentException("maxLength cannot be negative");
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+
+        _strings = new AtomicReferenceArray<String>(size);
+        _stringValues = new AtomicReferenceArray<StringValue>(size);
+        _mask = size - 1;
+        _maxLength = maxLength;
+    }
+
+    /**
+     * Gets the number of strings, and separately of string values, that this pool may hold.
+     */
+    public int getCapacity()
+    {
+        return _mask + 1;
+    }
+
+    /**
+     * Gets the length of the longest string, in characters, or string value, in bytes, that this pool holds.
+     */
+    public int getMaxLength()
+    {
+        return _maxLength;
+    }
+
+    /**
+     * Returns a pooled string equal to <code>value</code>, which is itself pooled if no equal string is held.
+     */
+    @NotNull
+    public String intern(@NotNull String value)
+    {
+        if (value.length() > _maxLength)
+            return value;
+
+        int slot = spread(value.hashCode()) & _mask;
+        String pooled = _strings.get(slot);
+        if (value.equals(pooled))
+            return pooled;
+        _strings.set(slot, value);
+        return value;
+    }
+
+    /**
+     * Returns a pooled string value having equal bytes and charset to <code>value</code>.  If no such string value is
+     * held, one is pooled that owns a copy of <code>value</code>'s bytes.
+     * <p>
+     * As pooled string values are shared, {@link StringValue#getBytes()} returns a copy of their bytes, so that
+     * modifying the array obtained from one {@link Metadata} object cannot affect another.
+     */
+    @NotNull
+    public StringValue intern(@NotNull StringValue value)
+    {
+        byte[] bytes = value.getBytesUnsafe();
+        if (bytes.length > _maxLength)
+            return value;
+
+        Charset charset = value.getCharset();
+        int hash = Arrays.hashCode(bytes) * 31 + (charset == null ? 0 : charset.hashCode());
+        int slot = spread(hash) & _mask;
+        StringValue pooled = _stringValues.get(slot);
+        if (pooled != null && Arrays.equals(bytes, pooled.getBytesUnsafe()) && equal(charset, pooled.getCharset()))
+            return pooled;
+        pooled = value.toPooled();
+        _stringValues.set(slot, pooled);
+        return pooled;
+    }
+
+    /**
+     * Returns <code>value</code> with any text it holds replaced by pooled instances.  Elements of string and string
+     * value arrays are replaced in place, and values of other types are returned unchanged.
+     */
+    @NotNull
+    Object internValue(@NotNull Object value)
+    {
+        if (value instanceof String)
+            return intern((String)value);
+        if (value instanceof StringValue)
+            return intern((StringValue)value);
+        if (value instanceof String[]) {
+            String[] strings = (String[])value;
+            for (int i = 0; i < strings.length; i++) {
+                if (strings[i] != null)
+                    strings[i] = intern(strings[i]);
+            }
+        } else if (value instanceof StringValue[]) {
+            StringValue[] stringValues = (StringValue[])value;
+            for (int i = 0; i < stringValues.length; i++) {
+                if (stringValues[i] != null)
+                    stringValues[i] = intern(stringValues[i]);
+            }
+        }
+        return value;
+    }
+
+    /** Mixes high bits into low bits, as only the low bits select a slot. */
+    private static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equal(@Nullable Charset a, @Nullable Charset b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+}
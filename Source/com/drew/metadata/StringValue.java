@@ -37,18 +37,47 @@ public final class StringValue
     @Nullable
     private final Charset _charset;
 
+    /** Whether this instance is held by a {@link StringPool}, and so may be shared between {@link Metadata} objects. */
+    private final boolean _pooled;
+
     public StringValue(@NotNull byte[] bytes, @Nullable Charset charset)
+    {
+        this(bytes, charset, false);
+    }
+
+    private StringValue(@NotNull byte[] bytes, @Nullable Charset charset, boolean pooled)
     {
         _bytes = bytes;
         _charset = charset;
+        _pooled = pooled;
     }
 
+    /**
+     * Gets the bytes of this value.
+     * <p>
+     * Values obtained from a {@link StringPool} may be shared between {@link Metadata} objects, so a copy of their
+     * bytes is returned.  Otherwise, the array passed to the constructor is returned.
+     */
     @NotNull
     public byte[] getBytes()
+    {
+        return _pooled ? _bytes.clone() : _bytes;
+    }
+
+    /** Gets the bytes of this value without copying them. The caller must not modify the array. */
+    @NotNull
+    byte[] getBytesUnsafe()
     {
         return _bytes;
     }
 
+    /** Returns an equal value that owns a copy of its bytes, for sharing via a {@link StringPool}. */
+    @NotNull
+    StringValue toPooled()
+    {
+        return _pooled ? this : new StringValue(_bytes.clone(), _charset, true);
+    }
+
     @Nullable
     public Charset getCharset()
     {
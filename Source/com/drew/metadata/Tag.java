@@ -25,7 +25,8 @@ import com.drew.lang.annotations.Nullable;
 
 /**
  * Models a particular tag within a {@link com.drew.metadata.Directory} and provides methods for obtaining its value.
- * Immutable.
+ * Immutable.  Tags are equal when they have the same type and belong to the same directory instance, as
+ * {@link Directory#getTags()} creates its tags as they are accessed, so doesn't return the same instances twice.
  *
  * @author Drew Noakes https://drewnoakes.com
  */
@@ -113,6 +114,37 @@ public class Tag
         return _directory.getName();
     }
 
+    /**
+     * Gets the range of bytes within the source file from which this tag's value was read.
+     * <p>
+     * Ranges are only recorded when {@link Metadata#setSourceRangesEnabled(boolean)} was enabled prior to reading,
+     * and only by readers able to attribute values to file positions.
+     *
+     * @return the tag's source range, or <code>null</code> if unknown
+     */
+    @Nullable
+    public SourceRange getSourceRange()
+    {
+        return _directory.getTagSourceRange(_tagType);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o)
+    {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        Tag other = (Tag)o;
+        return _tagType == other._tagType && _directory == other._directory;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * System.identityHashCode(_directory) + _tagType;
+    }
+
     /**
      * A basic representation of the tag's type and value.  EG: <code>[Exif IFD0] FNumber - f/2.8</code>.
      *
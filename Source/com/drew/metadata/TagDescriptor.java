@@ -20,6 +20,7 @@
  */
 package com.drew.metadata;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.Rational;
 import com.drew.lang.StringUtil;
 import com.drew.lang.annotations.NotNull;
@@ -29,13 +30,14 @@ import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Array;
 import java.math.RoundingMode;
 import java.nio.charset.Charset;
-import java.text.DecimalFormat;
+import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * Base class for all tag descriptor classes.  Implementations are responsible for
@@ -46,6 +48,21 @@ import java.util.Map;
  */
 public class TagDescriptor<T extends Directory>
 {
+    private static final DecimalFormatter DECIMAL_3DP = new DecimalFormatter("0.###");
+    private static final DecimalFormatter F_STOP_FORMAT = new DecimalFormatter("0.0", RoundingMode.HALF_UP);
+    private static final DecimalFormatter FOCAL_LENGTH_FORMAT = new DecimalFormatter("0.#", RoundingMode.HALF_UP);
+    private static final DecimalFormatter EXPOSURE_TIME_FORMAT = new DecimalFormatter("0.##", RoundingMode.HALF_UP);
+
+    /** {@link SimpleDateFormat} is not thread-safe, so each thread keeps its own. */
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = new ThreadLocal<DateFormat>()
+    {
+        @Override
+        protected DateFormat initialValue()
+        {
+            return new SimpleDateFormat("EEE MMM dd HH:mm:ss Z yyyy");
+        }
+    };
+
     @NotNull
     protected final T _directory;
 
@@ -82,9 +99,11 @@ public class TagDescriptor<T extends Directory>
 
         if (object instanceof Date) {
             // Produce a date string having a format that includes the offset in form "+00:00"
-            return new SimpleDateFormat("EEE MMM dd HH:mm:ss Z yyyy")
-                .format((Date) object)
-                .replaceAll("([0-9]{2} [^ ]+)$", ":$1");
+            DateFormat format = DATE_FORMAT.get();
+            format.setTimeZone(TimeZone.getDefault());
+            StringBuilder date = new StringBuilder(format.format((Date) object));
+            date.insert(date.lastIndexOf(" ") - 2, ':');
+            return date.toString();
         }
 
         // no special handling required, so use default conversion to a string
@@ -293,8 +312,7 @@ public class TagDescriptor<T extends Directory>
 
         Double d = _directory.getDoubleObject(tagType);
         if (d != null) {
-            DecimalFormat format = new DecimalFormat("0.###");
-            return format.format(d);
+            return DECIMAL_3DP.format(d);
         }
 
         return null;
@@ -303,17 +321,13 @@ public class TagDescriptor<T extends Directory>
     @Nullable
     protected static String getFStopDescription(double fStop)
     {
-        DecimalFormat format = new DecimalFormat("0.0");
-        format.setRoundingMode(RoundingMode.HALF_UP);
-        return "f/" + format.format(fStop);
+        return "f/" + F_STOP_FORMAT.format(fStop);
     }
 
     @Nullable
     protected static String getFocalLengthDescription(double mm)
     {
-        DecimalFormat format = new DecimalFormat("0.#");
-        format.setRoundingMode(RoundingMode.HALF_UP);
-        return format.format(mm) + " mm";
+        return FOCAL_LENGTH_FORMAT.format(mm) + " mm";
     }
 
     @Nullable
@@ -334,13 +348,10 @@ public class TagDescriptor<T extends Directory>
         if (!values[2].isZero()) {
             sb.append(' ');
 
-            DecimalFormat format = new DecimalFormat("0.0");
-            format.setRoundingMode(RoundingMode.HALF_UP);
-
             if (values[2].equals(values[3]))
                 sb.append(getFStopDescription(values[2].doubleValue()));
             else
-                sb.append("f/").append(format.format(values[2].doubleValue())).append('-').append(format.format(values[3].doubleValue()));
+                sb.append("f/").append(F_STOP_FORMAT.format(values[2].doubleValue())).append('-').append(F_STOP_FORMAT.format(values[3].doubleValue()));
         }
 
         return sb.toString();
@@ -380,9 +391,7 @@ public class TagDescriptor<T extends Directory>
             float apexPower = (float)(1 / (Math.exp(apexValue * Math.log(2))));
             long apexPower10 = Math.round((double)apexPower * 10.0);
             float fApexPower = (float)apexPower10 / 10.0f;
-            DecimalFormat format = new DecimalFormat("0.##");
-            format.setRoundingMode(RoundingMode.HALF_UP);
-            return format.format(fApexPower) + " sec";
+            return EXPOSURE_TIME_FORMAT.format(fApexPower) + " sec";
         } else {
             int apexPower = (int)((Math.exp(apexValue * Math.log(2))));
             return "1/" + apexPower + " sec";
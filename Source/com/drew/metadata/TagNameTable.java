@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An immutable, compact lookup from primitive <code>int</code> tag types to tag names, built from the map returned by
+ * {@link Directory#getTagNameMap()}.
+ * <p>
+ * Names are held in an array indexed directly by tag type when the types are densely packed, and otherwise in
+ * parallel sorted arrays that are binary searched, so that lookups neither box keys nor hash.  Tables are shared by
+ * all directories of the same class, and are rebuilt should a directory return a different map.
+ * <p>
+ * Names for unknown tags, such as <code>Unknown tag (0x1234)</code>, are also cached and shared across threads.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class TagNameTable
+{
+    /** Tag types may span at most this multiple of the table's size (plus a little slack) to be held densely. */
+    private static final int MAX_DENSE_SPREAD = 2;
+
+    private static final int UNKNOWN_NAME_CHUNK_BITS = 8;
+    private static final int UNKNOWN_NAME_CHUNK_SIZE = 1 << UNKNOWN_NAME_CHUNK_BITS;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @NotNull
+    private static final ConcurrentHashMap<Class<?>, TagNameTable> _tablesByDirectoryClass = new ConcurrentHashMap<Class<?>, TagNameTable>();
+
+    /** Names of unknown 16-bit tag types, allocated in chunks as needed. */
+    @NotNull
+    private static final AtomicReferenceArray<String[]> _unknownNames = new AtomicReferenceArray<String[]>(0x10000 >> UNKNOWN_NAME_CHUNK_BITS);
+
+    @NotNull
+    private final Map<Integer, String> _source;
+    private final int _size;
+
+    /** The lowest tag type, which is held at index zero of {@link #_names} when dense. */
+    private final int _offset;
+    /** Sorted tag types parallel to {@link #_names}, or <code>null</code> if <code>_names</code> is indexed densely. */
+    @Nullable
+    private final int[] _tagTypes;
+    @NotNull
+    private final String[] _names;
+
+    private TagNameTable(@NotNull Map<Integer, String> source)
+    {
+        int[] tagTypes = new int[source.size()];
+        int count = 0;
+        for (Map.Entry<Integer, String> entry : source.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null)
+                tagTypes[count++] = entry.getKey();
+        }
+        tagTypes = Arrays.copyOf(tagTypes, count);
+        Arrays.sort(tagTypes);
+
+        _source = source;
+        _size = source.size();
+
+        long spread = count == 0 ? 0 : (long)tagTypes[count - 1] - tagTypes[0] + 1;
+        if (spread <= (long)count * MAX_DENSE_SPREAD + 16) {
+            _offset = count == 0 ? 0 : tagTypes[0];
+            _tagTypes = null;
+            _names = new String[(int)spread];
+            for (int tagType : tagTypes)
+                _names[tagType - _offset] = source.get(tagType);
+        } else {
+            _offset = 0;
+            _tagTypes = tagTypes;
+            _names = new String[count];
+            for (int i = 0; i < count; i++)
+                _names[i] = source.get(tagTypes[i]);
+        }
+    }
+
+    /**
+     * Gets the table for a directory class having the specified tag name map, building it if no table has been
+     * built from that map for the class.
+     */
+    @NotNull
+    static TagNameTable forDirectory(@NotNull Class<? extends Directory> directoryClass, @NotNull Map<Integer, String> source)
+    {
+        TagNameTable table = _tablesByDirectoryClass.get(directoryClass);
+        if (table != null && table.isBuiltFrom(source))
+            return table;
+
+        table = new TagNameTable(source);
+        _tablesByDirectoryClass.put(directoryClass, table);
+        return table;
+    }
+
+    /**
+     * Gets whether this table was built from <code>source</code>, and that map has not since changed size.
+     */
+    boolean isBuiltFrom(@NotNull Map<Integer, String> source)
+    {
+        return _source == source && _size == source.size();
+    }
+
+    /**
+     * Gets the name of the specified tag type, or <code>null</code> if it is unknown.
+     */
+    @Nullable
+    String get(int tagType)
+    {
+        if (_tagTypes == null) {
+            int index = tagType - _offset;
+            return index >= 0 && index < _names.length ? _names[index] : null;
+        }
+        int index = Arrays.binarySearch(_tagTypes, tagType);
+        return index >= 0 ? _names[index] : null;
+    }
+
+    /**
+     * Gets the name used for a tag type having no known name, such as <code>Unknown tag (0x1234)</code>.
+     */
+    @NotNull
+    static String getUnknownName(int tagType)
+    {
+        if (tagType < 0 || tagType > 0xFFFF)
+            return formatUnknownName(tagType);
+
+        int chunkIndex = tagType >> UNKNOWN_NAME_CHUNK_BITS;
+        String[] chunk = _unknownNames.get(chunkIndex);
+        if (chunk == null) {
+            _unknownNames.compareAndSet(chunkIndex, null, new String[UNKNOWN_NAME_CHUNK_SIZE]);
+            chunk = _unknownNames.get(chunkIndex);
+        }
+
+        // Strings are immutable and safely published, so racing writers at worst format the same name twice
+        int index = tagType & (UNKNOWN_NAME_CHUNK_SIZE - 1);
+        String name = chunk[index];
+        if (name == null) {
+            name = formatUnknownName(tagType);
+            chunk[index] = name;
+        }
+        return name;
+    }
+
+    @NotNull
+    private static String formatUnknownName(int tagType)
+    {
+        StringBuilder builder = new StringBuilder(24).append("Unknown tag (0x");
+        int digits = Math.max(4, 8 - Integer.numberOfLeadingZeros(tagType) / 4);
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4)
+            builder.append(HEX_DIGITS[(tagType >>> shift) & 0xF]);
+        return builder.append(')').toString();
+    }
+}
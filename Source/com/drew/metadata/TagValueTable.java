@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * Holds the tag values of a {@link Directory} in the order in which they were first set, keyed by primitive
+ * <code>int</code> tag types.
+ * <p>
+ * Values are held in parallel arrays.  Small tables are searched linearly, and a hash index over the arrays is only
+ * built once a table grows beyond a few entries, so that neither keys nor entries are boxed.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class TagValueTable
+{
+    /** The largest number of entries searched linearly, before a hash index is built. */
+    private static final int LINEAR_SEARCH_LIMIT = 8;
+
+    private static final int[] EMPTY_TAG_TYPES = new int[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    @NotNull private int[] _tagTypes = EMPTY_TAG_TYPES;
+    @NotNull private Object[] _values = EMPTY_VALUES;
+    private int _size;
+
+    /**
+     * Open addressing hash index, holding one plus the position of each entry, or zero for an empty slot.
+     * <code>null</code> while the table is small enough to search linearly.
+     */
+    @Nullable private int[] _index;
+
+    int size()
+    {
+        return _size;
+    }
+
+    int getTagType(int position)
+    {
+        return _tagTypes[position];
+    }
+
+    @NotNull
+    Object getValue(int position)
+    {
+        return _values[position];
+    }
+
+    /**
+     * Gets the position of the entry for <code>tagType</code>, or -1 if there is none.
+     */
+    int indexOf(int tagType)
+    {
+        int[] index = _index;
+        if (index == null) {
+            for (int i = 0; i < _size; i++) {
+                if (_tagTypes[i] == tagType)
+                    return i;
+            }
+            return -1;
+        }
+
+        int mask = index.length - 1;
+        for (int i = hash(tagType) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int position = index[i] - 1;
+            if (_tagTypes[position] == tagType)
+                return position;
+        }
+        return -1;
+    }
+
+    @Nullable
+    Object get(int tagType)
+    {
+        int position = indexOf(tagType);
+        return position == -1 ? null : _values[position];
+    }
+
+    /**
+     * Sets the value for <code>tagType</code>, retaining the position of any existing entry.
+     *
+     * @return <code>true</code> if a new entry was added, or <code>false</code> if an existing value was replaced
+     */
+    boolean put(int tagType, @NotNull Object value)
+    {
+        int position = indexOf(tagType);
+        if (position != -1) {
+            _values[position] = value;
+            return false;
+        }
+
+        if (_size == _tagTypes.length) {
+            int capacity = _size < 4 ? 4 : _size * 2;
+            int[] tagTypes = new int[capacity];
+            Object[] values = new Object[capacity];
+            System.arraycopy(_tagTypes, 0, tagTypes, 0, _size);
+            System.arraycopy(_values, 0, values, 0, _size);
+            _tagTypes = tagTypes;
+            _values = values;
+        }
+
+        _tagTypes[_size] = tagType;
+        _values[_size] = value;
+        _size++;
+
+        if (_index != null && _size * 2 <= _index.length)
+            addToIndex(_size - 1);
+        else if (_size > LINEAR_SEARCH_LIMIT)
+            rebuildIndex();
+
+        return true;
+    }
+
+    /**
+     * Moves the entries from <code>fromPosition</code> onwards so that they begin at <code>toPosition</code>, shifting
+     * the entries between the two positions after them.
+     */
+    void move(int fromPosition, int toPosition)
+    {
+        if (toPosition < 0 || toPosition > fromPosition || fromPosition > _size)
+            throw new IndexOutOfBoundsException("Cannot move entries from " + fromPosition + " to " + toPosition);
+
+        int movedCount = _size - fromPosition;
+        if (movedCount == 0 || fromPosition == toPosition)
+            return;
+
+        int shiftedCount = fromPosition - toPosition;
+        int[] movedTagTypes = new int[movedCount];
+        Object[] movedValues = new Object[movedCount];
+        System.arraycopy(_tagTypes, fromPosition, movedTagTypes, 0, movedCount);
+        System.arraycopy(_values, fromPosition, movedValues, 0, movedCount);
+        System.arraycopy(_tagTypes, toPosition, _tagTypes, toPosition + movedCount, shiftedCount);
+        System.arraycopy(_values, toPosition, _values, toPosition + movedCount, shiftedCount);
+        System.arraycopy(movedTagTypes, 0, _tagTypes, toPosition, movedCount);
+        System.arraycopy(movedValues, 0, _values, toPosition, movedCount);
+
+        if (_index != null)
+            rebuildIndex();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear()
+    {
+        _tagTypes = EMPTY_TAG_TYPES;
+        _values = EMPTY_VALUES;
+        _size = 0;
+        _index = null;
+    }
+
+    /**
+     * Releases unused capacity, for tables which will not grow further.
+     */
+    void trimToSize()
+    {
+        if (_size == _tagTypes.length)
+            return;
+        int[] tagTypes = new int[_size];
+        Object[] values = new Object[_size];
+        System.arraycopy(_tagTypes, 0, tagTypes, 0, _size);
+        System.arraycopy(_values, 0, values, 0, _size);
+        _tagTypes = tagTypes;
+        _values = values;
+    }
+
+    private void rebuildIndex()
+    {
+        int capacity = 16;
+        while (capacity < _size * 2)
+            capacity <<= 1;
+        _index = new int[capacity];
+        for (int i = 0; i < _size; i++)
+            addToIndex(i);
+    }
+
+    private void addToIndex(int position)
+    {
+        int[] index = _index;
+        assert(index != null);
+        int mask = index.length - 1;
+        int i = hash(_tagTypes[position]) & mask;
+        while (index[i] != 0)
+            i = (i + 1) & mask;
+        index[i] = position + 1;
+    }
+
+    private static int hash(int tagType)
+    {
+        int h = tagType * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -20,11 +20,11 @@
  */
 package com.drew.metadata.bmp;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.TagDescriptor;
 
-import java.text.DecimalFormat;
 
 import static com.drew.metadata.bmp.BmpHeaderDirectory.*;
 
@@ -35,6 +35,8 @@ import static com.drew.metadata.bmp.BmpHeaderDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class BmpHeaderDescriptor extends TagDescriptor<BmpHeaderDirectory>
 {
+    private static final DecimalFormatter UP_TO_3DP = new DecimalFormatter("0.###");
+
     public BmpHeaderDescriptor(@NotNull BmpHeaderDirectory directory)
     {
         super(directory);
@@ -164,7 +166,6 @@ public class BmpHeaderDescriptor extends TagDescriptor<BmpHeaderDirectory>
     @NotNull
     public static String formatFixed1616(long value) {
         Double d = (double) value / 0x10000;
-        DecimalFormat format = new DecimalFormat("0.###");
-        return format.format(d);
+        return UP_TO_3DP.format(d);
     }
 }
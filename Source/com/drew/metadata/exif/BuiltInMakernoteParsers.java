@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.exif.makernotes.*;
+
+import java.io.IOException;
+
+/**
+ * Registers the makernote parsers provided by this library.
+ * <p>
+ * Each vendor's parser is only instantiated within an anonymous delegating parser, so its classes (and those of its
+ * directories and descriptors) are not loaded until one of its makernotes is encountered. Unlike loading the classes
+ * by name, this leaves the references visible to shrinkers and ahead-of-time compilers.
+ * <p>
+ * The order of registration mirrors the order in which makernote formats were historically tested, which matters
+ * where a makernote matches more than one entry.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class BuiltInMakernoteParsers implements MakernoteParserProvider
+{
+    public void register(@NotNull MakernoteSignatureTable table)
+    {
+        MakernoteParser olympus = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new OlympusMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser nikon = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new NikonMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser sony = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new SonyMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser sigma = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new SigmaMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser kodak = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new KodakMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser canon = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new CanonMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser casio = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new CasioMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser fujifilm = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new FujifilmMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser kyocera = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new KyoceraMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser leica = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new LeicaMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser panasonic = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new PanasonicMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser pentax = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new PentaxMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser sanyo = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new SanyoMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser ricoh = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new RicohMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser apple = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new AppleMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser reconyx = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new ReconyxMakernoteParser().parse(context);
+            }
+        };
+        MakernoteParser samsung = new MakernoteParser() {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return new SamsungMakernoteParser().parse(context);
+            }
+        };
+
+        table.addSignature("OLYMP\0", olympus);
+        table.addSignature("EPSON", olympus);
+        table.addSignature("AGFA", olympus);
+        table.addSignature("OLYMPUS\0II", olympus);
+        table.addMake("MINOLTA", olympus);
+        table.addMake("NIKON", nikon);
+        table.addSignature("SONY CAM", sony);
+        table.addSignature("SONY DSC", sony);
+        // Do this check LAST after most other Sony checks
+        table.addMake("SONY", sony);
+        table.addSignature("SEMC MS\0\0\0\0\0", sony);
+        table.addSignature("SIGMA\0\0\0", sigma);
+        table.addSignature("FOVEON\0\0", sigma);
+        table.addSignature("KDK", kodak);
+        table.addMake("CANON", true, canon);
+        table.addMake("CASIO", casio);
+        table.addSignature("FUJIFILM", fujifilm);
+        table.addMake("FUJIFILM", true, fujifilm);
+        table.addSignature("KYOCERA", kyocera);
+        table.addSignature("LEICA", leica);
+        table.addSignature("Panasonic\0\0\0", panasonic);
+        table.addSignature("AOC\0", pentax);
+        table.addMake("PENTAX", pentax);
+        table.addMake("ASAHI", pentax);
+        // This Konica data is not understood. Header identified in accordance with information at this site:
+        // http://www.ozhiker.com/electronics/pjmt/jpeg_info/minolta_mn.html
+        // TODO add support for minolta/konica cameras ("KC", "MINOL", "MLY" and "+M+M+M+M" signatures)
+        table.addSignature("SANYO\0\1\0", sanyo);
+        table.addMake("RICOH", ricoh);
+        table.addSignature("Apple iOS\0", apple);
+        // Reconyx HyperFire makernotes have no signature
+        table.addFallback(reconyx);
+        table.addSignature("RECONYXUF", true, reconyx);
+        table.addMake("SAMSUNG", true, samsung);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.ChannelUtil;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Describes the location of an image, such as a thumbnail or preview, that is embedded within a larger file.
+ * <p>
+ * Instances are produced by {@link EmbeddedImageLocator}.  The offset is absolute within the source file, so
+ * the image's bytes may be served directly from that file without decoding anything.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class EmbeddedImage
+{
+    @NotNull
+    private final Directory _directory;
+    private final long _offset;
+    private final long _length;
+
+    public EmbeddedImage(@NotNull Directory directory, long offset, long length)
+    {
+        _directory = directory;
+        _offset = offset;
+        _length = length;
+    }
+
+    /**
+     * Gets the directory that described this image, such as an {@link ExifThumbnailDirectory}.  Tags such as
+     * {@link ExifDirectoryBase#TAG_IMAGE_WIDTH} may be read from it, where present.
+     */
+    @NotNull
+    public Directory getDirectory()
+    {
+        return _directory;
+    }
+
+    /** Gets the absolute offset of the first byte of the image within its source file. */
+    public long getOffset()
+    {
+        return _offset;
+    }
+
+    /** Gets the number of bytes comprising the image. */
+    public long getLength()
+    {
+        return _length;
+    }
+
+    /**
+     * Copies this image's bytes from <code>source</code> into <code>target</code>.
+     * <p>
+     * Data is moved with {@link FileChannel#transferTo} where possible, as described by
+     * {@link ChannelUtil#transferFully}.  The position of <code>source</code> is not modified.
+     *
+     * @param source the channel of the file this image was located in
+     * @param target the channel to write the image bytes to
+     * @return the number of bytes copied
+     * @throws IOException if the source ends before all bytes could be copied, or if an I/O error occurs
+     */
+    public long copyTo(@NotNull FileChannel source, @NotNull WritableByteChannel target) throws IOException
+    {
+        return ChannelUtil.transferFully(source, _offset, _length, target);
+    }
+
+    /**
+     * Copies this image's bytes from <code>file</code> into <code>outputStream</code>.
+     * <p>
+     * The output stream is not closed by this method.
+     *
+     * @param file the file this image was located in
+     * @param outputStream the stream to write the image bytes to
+     * @return the number of bytes copied
+     * @throws IOException if the file ends before all bytes could be copied, or if an I/O error occurs
+     */
+    public long copyTo(@NotNull File file, @NotNull OutputStream outputStream) throws IOException
+    {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            return copyTo(randomAccessFile.getChannel(), Channels.newChannel(outputStream));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Override
+    @NotNull
+    public String toString()
+    {
+        return String.format("%s: %d bytes at offset %d", _directory.getName(), _length, _offset);
+    }
+}
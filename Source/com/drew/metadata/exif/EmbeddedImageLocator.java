@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.imaging.FileType;
+import com.drew.imaging.FileTypeDetector;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.imaging.jpeg.JpegSegmentData;
+import com.drew.imaging.jpeg.JpegSegmentReader;
+import com.drew.imaging.jpeg.JpegSegmentType;
+import com.drew.imaging.tiff.TiffReader;
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.Charsets;
+import com.drew.lang.RandomAccessFileReader;
+import com.drew.lang.RandomAccessReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.Directory;
+import com.drew.metadata.Metadata;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds thumbnails and previews embedded within JPEG, TIFF and TIFF-based camera raw files, reporting their absolute
+ * positions within the file.
+ * <p>
+ * The following are located:
+ * <ul>
+ *     <li>JPEG data referenced by <code>JPEGInterchangeFormat</code>/<code>JPEGInterchangeFormatLength</code> in
+ *         IFD0, the thumbnail IFD, chained image IFDs and sub-IFDs (Exif thumbnails, NEF and ARW previews)</li>
+ *     <li>JPEG-compressed single-strip images referenced by <code>StripOffsets</code>/<code>StripByteCounts</code>
+ *         (CR2 previews)</li>
+ *     <li>Panasonic <code>JpgFromRaw</code> data in RW2 files</li>
+ * </ul>
+ * Embedded images are not decoded or copied during location.  Use {@link EmbeddedImage#copyTo} to stream an
+ * image's bytes directly from the source file.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class EmbeddedImageLocator
+{
+    /**
+     * Locates all embedded images within <code>file</code>.
+     *
+     * @param file a JPEG, TIFF or TIFF-based camera raw file
+     * @return the embedded images, in the order they were found, or an empty list if the file type is not supported
+     */
+    @NotNull
+    public static List<EmbeddedImage> locate(@NotNull File file) throws IOException, ImageProcessingException
+    {
+        FileType fileType;
+        BufferedInputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+        try {
+            fileType = FileTypeDetector.detectFileType(inputStream);
+        } finally {
+            inputStream.close();
+        }
+
+        switch (fileType) {
+            case Jpeg:
+                return locateInJpeg(file);
+            case Tiff:
+            case Arw:
+            case Cr2:
+            case Nef:
+            case Orf:
+            case Rw2:
+                RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                try {
+                    return locate(new RandomAccessFileReader(randomAccessFile), 0, 0);
+                } finally {
+                    randomAccessFile.close();
+                }
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Locates embedded images within TIFF-formatted data.
+     *
+     * @param reader the reader from which TIFF data will be read
+     * @param tiffHeaderOffset the offset within <code>reader</code> at which the TIFF header starts
+     * @param readerOffset the offset within the source file of the first byte of <code>reader</code>, which is added
+     *                     to all reported offsets
+     * @return the embedded images, in the order they were found
+     */
+    @NotNull
+    public static List<EmbeddedImage> locate(@NotNull RandomAccessReader reader, int tiffHeaderOffset, long readerOffset) throws IOException, ImageProcessingException
+    {
+        LocatingTiffHandler handler = new LocatingTiffHandler(reader, tiffHeaderOffset, readerOffset);
+        new TiffReader().processTiff(reader, handler, tiffHeaderOffset);
+        return handler._images;
+    }
+
+    @NotNull
+    private static List<EmbeddedImage> locateInJpeg(@NotNull File file) throws IOException, ImageProcessingException
+    {
+        JpegSegmentData segmentData = JpegSegmentReader.readSegments(file, Collections.singletonList(JpegSegmentType.APP1));
+        final String preamble = ExifReader.JPEG_SEGMENT_PREAMBLE;
+
+        List<EmbeddedImage> images = new ArrayList<EmbeddedImage>();
+        int occurrence = 0;
+        for (byte[] segmentBytes : segmentData.getSegments(JpegSegmentType.APP1)) {
+            long segmentOffset = segmentData.getSegmentOffset(JpegSegmentType.APP1, occurrence++);
+            if (segmentBytes.length < preamble.length() || !new String(segmentBytes, 0, preamble.length(), Charsets.ASCII).equals(preamble))
+                continue;
+            images.addAll(locate(new ByteArrayReader(segmentBytes), preamble.length(), segmentOffset));
+        }
+        return images;
+    }
+
+    /**
+     * Walks the TIFF structure as {@link ExifReader} does, inspecting each IFD as it completes.
+     * <p>
+     * IFD pointer values are relative to the TIFF header, so are rebased onto the header's position in the file.
+     */
+    private static class LocatingTiffHandler extends ExifTiffHandler
+    {
+        @NotNull private final RandomAccessReader _reader;
+        private final int _tiffHeaderOffset;
+        private final long _readerOffset;
+        @NotNull private final List<EmbeddedImage> _images = new ArrayList<EmbeddedImage>();
+        @NotNull private final Set<Long> _foundOffsets = new HashSet<Long>();
+
+        LocatingTiffHandler(@NotNull RandomAccessReader reader, int tiffHeaderOffset, long readerOffset)
+        {
+            super(new Metadata(), null);
+            _reader = reader;
+            _tiffHeaderOffset = tiffHeaderOffset;
+            _readerOffset = readerOffset;
+        }
+
+        @Override
+        public boolean hasFollowerIfd()
+        {
+            // Chained IFDs of a CR2 share a single directory, so inspect before the next one overwrites values
+            inspect(_currentDirectory);
+            return super.hasFollowerIfd();
+        }
+
+        @Override
+        public void endingIFD()
+        {
+            inspect(_currentDirectory);
+            super.endingIFD();
+        }
+
+        @Override
+        public boolean customProcessTag(int tagOffset, @NotNull Set<Integer> processedIfdOffsets, int tiffHeaderOffset, @NotNull RandomAccessReader reader, int tagId, int byteCount) throws IOException
+        {
+            if (tagId == PanasonicRawIFD0Directory.TagJpgFromRaw && _currentDirectory instanceof PanasonicRawIFD0Directory) {
+                // The value is the JPEG itself, so no decoding is needed to know where it lives
+                add(_currentDirectory, tagOffset, byteCount);
+                return true;
+            }
+            return super.customProcessTag(tagOffset, processedIfdOffsets, tiffHeaderOffset, reader, tagId, byteCount);
+        }
+
+        private void inspect(@Nullable Directory directory)
+        {
+            if (!(directory instanceof ExifDirectoryBase) && !(directory instanceof PanasonicRawIFD0Directory))
+                return;
+
+            // JPEGInterchangeFormat (0x0201) and JPEGInterchangeFormatLength (0x0202)
+            Long jpegOffset = directory.getLongObject(ExifThumbnailDirectory.TAG_THUMBNAIL_OFFSET);
+            Long jpegLength = directory.getLongObject(ExifThumbnailDirectory.TAG_THUMBNAIL_LENGTH);
+            if (jpegOffset != null && jpegLength != null)
+                add(directory, _tiffHeaderOffset + jpegOffset, jpegLength);
+
+            // JPEG-compressed images stored as strips, where the strips are contiguous
+            Integer compression = directory.getInteger(ExifDirectoryBase.TAG_COMPRESSION);
+            if (compression != null && (compression == 6 || compression == 7)) {
+                long[] stripOffsets = getLongArray(directory, ExifDirectoryBase.TAG_STRIP_OFFSETS);
+                long[] stripByteCounts = getLongArray(directory, ExifDirectoryBase.TAG_STRIP_BYTE_COUNTS);
+                if (stripOffsets != null && stripByteCounts != null && stripOffsets.length == stripByteCounts.length && stripOffsets.length != 0) {
+                    long length = 0;
+                    for (int i = 0; i < stripOffsets.length; i++) {
+                        if (stripOffsets[i] != stripOffsets[0] + length)
+                            return;
+                        length += stripByteCounts[i];
+                    }
+                    add(directory, _tiffHeaderOffset + stripOffsets[0], length);
+                }
+            }
+        }
+
+        private void add(@NotNull Directory directory, long localOffset, long length)
+        {
+            try {
+                if (length <= 0 || localOffset < 0 || localOffset + length > _reader.getLength())
+                    return;
+            } catch (IOException e) {
+                return;
+            }
+
+            long offset = _readerOffset + _reader.toUnshiftedOffset(localOffset);
+            if (_foundOffsets.add(offset))
+                _images.add(new EmbeddedImage(directory, offset, length));
+        }
+
+        @Nullable
+        private static long[] getLongArray(@NotNull Directory directory, int tagType)
+        {
+            Object value = directory.getObject(tagType);
+            if (value instanceof long[])
+                return (long[])value;
+            if (value instanceof Number)
+                return new long[] { ((Number)value).longValue() };
+            int[] ints = directory.getIntArray(tagType);
+            if (ints == null)
+                return null;
+            long[] longs = new long[ints.length];
+            for (int i = 0; i < ints.length; i++)
+                longs[i] = ints[i] & 0xFFFFFFFFL;
+            return longs;
+        }
+    }
+}
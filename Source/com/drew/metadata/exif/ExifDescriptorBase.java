@@ -22,6 +22,7 @@
 package com.drew.metadata.exif;
 
 import com.drew.imaging.PhotographicConversions;
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.Rational;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
@@ -31,7 +32,6 @@ import com.drew.metadata.TagDescriptor;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.text.DecimalFormat;
 
 import static com.drew.metadata.exif.ExifDirectoryBase.*;
 
@@ -43,6 +43,11 @@ import static com.drew.metadata.exif.ExifDirectoryBase.*;
 @SuppressWarnings("WeakerAccess")
 public abstract class ExifDescriptorBase<T extends Directory> extends TagDescriptor<T>
 {
+    private static final DecimalFormatter EXACTLY_1DP = new DecimalFormatter("0.0");
+    private static final DecimalFormatter ONE_TO_3DP = new DecimalFormatter("0.0##");
+    private static final DecimalFormatter UP_TO_1DP = new DecimalFormatter("0.#");
+    private static final DecimalFormatter UP_TO_2DP = new DecimalFormatter("0.##");
+
     /**
      * Dictates whether rational values will be represented in decimal format in instances
      * where decimal notation is elegant (such as 1/2 -> 0.5, but not 1/3).
@@ -716,8 +721,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getNumerator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0##");
-        return formatter.format(value.doubleValue());
+        return ONE_TO_3DP.format(value.doubleValue());
     }
 
     @Nullable
@@ -749,8 +753,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return "Infinity";
         if (value.getNumerator() == 0)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0##");
-        return formatter.format(value.doubleValue()) + " metres";
+        return ONE_TO_3DP.format(value.doubleValue()) + " metres";
     }
 
     @Nullable
@@ -881,8 +884,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getDenominator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0");
-        return formatter.format(value.doubleValue()) + " °C";
+        return EXACTLY_1DP.format(value.doubleValue()) + " °C";
     }
 
     @Nullable
@@ -893,8 +895,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getDenominator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0");
-        return formatter.format(value.doubleValue()) + " %";
+        return EXACTLY_1DP.format(value.doubleValue()) + " %";
     }
 
     @Nullable
@@ -905,8 +906,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getDenominator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0");
-        return formatter.format(value.doubleValue()) + " hPa";
+        return EXACTLY_1DP.format(value.doubleValue()) + " hPa";
     }
 
     @Nullable
@@ -917,8 +917,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getDenominator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0##");
-        return formatter.format(value.doubleValue()) + " metres";
+        return ONE_TO_3DP.format(value.doubleValue()) + " metres";
     }
 
     @Nullable
@@ -929,8 +928,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getDenominator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.0##");
-        return formatter.format(value.doubleValue()) + " mGal";
+        return ONE_TO_3DP.format(value.doubleValue()) + " mGal";
     }
 
     @Nullable
@@ -941,8 +939,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             return null;
         if (value.getDenominator() == 0xFFFFFFFFL)
             return "Unknown";
-        DecimalFormat formatter = new DecimalFormat("0.##");
-        return formatter.format(value.doubleValue()) + " degrees";
+        return UP_TO_2DP.format(value.doubleValue()) + " degrees";
     }
 
     /** The Windows specific tags uses plain Unicode. */
@@ -1218,7 +1215,7 @@ public abstract class ExifDescriptorBase<T extends Directory> extends TagDescrip
             ? null
             : value.getNumerator() == 0
                 ? "Digital zoom not used"
-                : new DecimalFormat("0.#").format(value.doubleValue());
+                : UP_TO_1DP.format(value.doubleValue());
     }
 
     @Nullable
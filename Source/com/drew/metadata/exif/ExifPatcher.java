@@ -0,0 +1,278 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.imaging.ImageProcessingException;
+import com.drew.imaging.jpeg.JpegSegmentData;
+import com.drew.imaging.jpeg.JpegSegmentReader;
+import com.drew.imaging.jpeg.JpegSegmentType;
+import com.drew.imaging.tiff.TiffDataFormat;
+import com.drew.imaging.tiff.TiffMetadataReader;
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.Charsets;
+import com.drew.lang.RandomAccessFileReader;
+import com.drew.lang.StreamReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.Directory;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
+import com.drew.metadata.Tag;
+import com.drew.metadata.tiff.TiffSourceRange;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Overwrites fixed-size Exif values within a JPEG or TIFF-based file, without rewriting the rest of the file.
+ * <p>
+ * On construction the file's Exif structure is read with source ranges enabled (see
+ * {@link Metadata#setSourceRangesEnabled(boolean)}), reading only segment and IFD data.  Each setter then writes the
+ * new value directly over the bytes of the existing one.  Values can only be replaced by values of the same encoded
+ * size, so tags cannot be added, removed or grown this way; use {@link com.drew.imaging.jpeg.JpegSegmentRewriter}
+ * for such changes.
+ * <p>
+ * Only the standard Exif directories (IFD0, SubIFD, Interop, GPS and thumbnail) may be patched, as values are
+ * written in the byte order of the file's TIFF header, which makernotes need not share.  Values read into
+ * {@link #getMetadata()} are not updated by patching.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class ExifPatcher
+{
+    @NotNull
+    private final FileChannel _channel;
+    @NotNull
+    private final Metadata _metadata;
+    private final boolean _isMotorolaByteOrder;
+
+    /**
+     * Reads the Exif structure of <code>file</code>, which must be open for writing.
+     *
+     * @param file a JPEG file, or a TIFF-based file such as a camera raw
+     * @throws ImageProcessingException if the file is neither JPEG nor TIFF, or contains no Exif data
+     */
+    public ExifPatcher(@NotNull RandomAccessFile file) throws ImageProcessingException, IOException
+    {
+        _channel = file.getChannel();
+        _metadata = new Metadata();
+        _metadata.setSourceRangesEnabled(true);
+
+        file.seek(0);
+        int magicNumber = file.readUnsignedShort();
+
+        if (magicNumber == 0xFFD8) {
+            // Read segments until the start of scan, without closing the channel afterwards
+            _channel.position(0);
+            JpegSegmentData segments = JpegSegmentReader.readSegments(
+                new StreamReader(new BufferedInputStream(Channels.newInputStream(_channel))),
+                Collections.singletonList(JpegSegmentType.APP1));
+
+            Boolean isMotorolaByteOrder = null;
+            int count = segments.getSegmentCount(JpegSegmentType.APP1);
+            for (int i = 0; i < count && isMotorolaByteOrder == null; i++) {
+                byte[] segment = segments.getSegment(JpegSegmentType.APP1, i);
+                int preambleLength = ExifReader.JPEG_SEGMENT_PREAMBLE.length();
+                if (segment == null || segment.length < preambleLength + 2 || !new String(segment, 0, preambleLength, Charsets.ASCII).equals(ExifReader.JPEG_SEGMENT_PREAMBLE))
+                    continue;
+                isMotorolaByteOrder = segment[preambleLength] == 'M';
+                new ExifReader().extract(new ByteArrayReader(segment), _metadata, preambleLength, null, segments.getSegmentOffset(JpegSegmentType.APP1, i));
+            }
+
+            if (isMotorolaByteOrder == null)
+                throw new ImageProcessingException("JPEG file contains no Exif segment");
+            _isMotorolaByteOrder = isMotorolaByteOrder;
+        } else if (magicNumber == 0x4D4D || magicNumber == 0x4949) {
+            _isMotorolaByteOrder = magicNumber == 0x4D4D;
+            TiffMetadataReader.process(_metadata, new RandomAccessFileReader(file));
+        } else {
+            throw new ImageProcessingException("File format is not supported for Exif patching");
+        }
+    }
+
+    /**
+     * Gets the metadata read when this patcher was created, including source ranges for each value.
+     */
+    @NotNull
+    public Metadata getMetadata()
+    {
+        return _metadata;
+    }
+
+    /**
+     * Overwrites {@link ExifDirectoryBase#TAG_ORIENTATION} in IFD0.
+     *
+     * @param orientation the new orientation, from 1 to 8 inclusive
+     * @return <code>true</code> if the value was written, or <code>false</code> if the file has no orientation tag
+     */
+    public boolean setOrientation(int orientation) throws IOException
+    {
+        if (orientation < 1 || orientation > 8)
+            throw new IllegalArgumentException("Orientation must be between 1 and 8: " + orientation);
+        return setInt(ExifIFD0Directory.class, ExifDirectoryBase.TAG_ORIENTATION, orientation);
+    }
+
+    /**
+     * Overwrites an unsigned integer value held as a single BYTE, SHORT or LONG, preserving its format.
+     *
+     * @param directoryType the type of directory holding the tag
+     * @param tagType the tag identifier
+     * @param value the new value
+     * @return <code>true</code> if the value was written, or <code>false</code> if the tag is absent
+     * @throws IllegalArgumentException if the tag holds any other format or number of components, or
+     *                                  <code>value</code> cannot be encoded in the tag's format
+     */
+    public boolean setInt(@NotNull Class<? extends ExifDirectoryBase> directoryType, int tagType, long value) throws IOException
+    {
+        SourceRange range = getTagSourceRange(directoryType, tagType);
+        if (range == null)
+            return false;
+
+        // The length alone doesn't distinguish a LONG from two SHORTs, four BYTEs or four ASCII characters
+        int length = range instanceof TiffSourceRange ? getUnsignedIntegerLength((TiffSourceRange)range) : 0;
+        if (length == 0 || length != range.getLength())
+            throw new IllegalArgumentException(String.format("Tag 0x%04X does not hold a single unsigned BYTE, SHORT or LONG value", tagType));
+        if (value < 0 || value >= 1L << (length * 8))
+            throw new IllegalArgumentException(String.format("Value %d does not fit in the %d bytes of tag 0x%04X", value, length, tagType));
+
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int shift = 8 * (_isMotorolaByteOrder ? length - 1 - i : i);
+            bytes[i] = (byte)(value >> shift);
+        }
+        write(range.getOffset(), bytes);
+        return true;
+    }
+
+    /**
+     * Overwrites an ASCII string value.  Shorter values are padded with null characters to the existing length.
+     *
+     * @param directoryType the type of directory holding the tag
+     * @param tagType the tag identifier
+     * @param value the new value, which must contain only ASCII characters
+     * @return <code>true</code> if the value was written, or <code>false</code> if the tag is absent
+     * @throws IllegalArgumentException if <code>value</code>, plus its terminating null, is longer than the existing
+     *                                  value
+     */
+    public boolean setString(@NotNull Class<? extends ExifDirectoryBase> directoryType, int tagType, @NotNull String value) throws IOException
+    {
+        SourceRange range = getTagSourceRange(directoryType, tagType);
+        if (range == null)
+            return false;
+
+        byte[] valueBytes = value.getBytes(Charsets.ASCII);
+        if (valueBytes.length >= range.getLength())
+            throw new IllegalArgumentException(String.format("Value \"%s\" does not fit in the %d bytes of tag 0x%04X", value, range.getLength(), tagType));
+
+        byte[] bytes = new byte[(int)range.getLength()];
+        System.arraycopy(valueBytes, 0, bytes, 0, valueBytes.length);
+        write(range.getOffset(), bytes);
+        return true;
+    }
+
+    /**
+     * Overwrites an Exif date/time value, such as {@link ExifDirectoryBase#TAG_DATETIME_ORIGINAL}, in the standard
+     * <code>yyyy:MM:dd HH:mm:ss</code> form.
+     *
+     * @param directoryType the type of directory holding the tag
+     * @param tagType the tag identifier
+     * @param date the new date
+     * @param timeZone the time zone in which to express <code>date</code>, as Exif dates hold local time
+     * @return <code>true</code> if the value was written, or <code>false</code> if the tag is absent
+     */
+    public boolean setDate(@NotNull Class<? extends ExifDirectoryBase> directoryType, int tagType, @NotNull Date date, @NotNull TimeZone timeZone) throws IOException
+    {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy:MM:dd HH:mm:ss");
+        format.setTimeZone(timeZone);
+        return setString(directoryType, tagType, format.format(date));
+    }
+
+    /**
+     * Overwrites the value of every tag in each {@link GpsDirectory} with zeroes.
+     * <p>
+     * The GPS IFD entries remain, but hold no location information.
+     *
+     * @return the number of tag values cleared
+     */
+    public int clearGps() throws IOException
+    {
+        int count = 0;
+        for (GpsDirectory directory : _metadata.getDirectoriesOfType(GpsDirectory.class)) {
+            for (Tag tag : directory.getTags()) {
+                SourceRange range = tag.getSourceRange();
+                if (range == null)
+                    continue;
+                write(range.getOffset(), new byte[(int)range.getLength()]);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of bytes in the value described by <code>range</code> if it is a single unsigned BYTE, SHORT or
+     * LONG, otherwise zero.
+     */
+    private static int getUnsignedIntegerLength(@NotNull TiffSourceRange range)
+    {
+        if (range.getComponentCount() != 1)
+            return 0;
+        switch (range.getFormatCode()) {
+            case TiffDataFormat.CODE_INT8_U:
+                return 1;
+            case TiffDataFormat.CODE_INT16_U:
+                return 2;
+            case TiffDataFormat.CODE_INT32_U:
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    @Nullable
+    private SourceRange getTagSourceRange(@NotNull Class<? extends ExifDirectoryBase> directoryType, int tagType)
+    {
+        for (Directory directory : _metadata.getDirectoriesOfType(directoryType)) {
+            // Subtypes may hold values read from structures having a different byte order
+            if (directory.getClass() != directoryType)
+                continue;
+            SourceRange range = directory.getTagSourceRange(tagType);
+            if (range != null)
+                return range;
+        }
+        return null;
+    }
+
+    private void write(long offset, @NotNull byte[] bytes) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining())
+            _channel.write(buffer, offset + buffer.position());
+    }
+}
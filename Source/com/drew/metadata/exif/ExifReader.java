@@ -20,11 +20,12 @@
  */
 package com.drew.metadata.exif;
 
-import com.drew.imaging.jpeg.JpegSegmentMetadataReader;
+import com.drew.imaging.jpeg.JpegSegmentRangeMetadataReader;
 import com.drew.imaging.jpeg.JpegSegmentType;
 import com.drew.imaging.tiff.TiffProcessingException;
 import com.drew.imaging.tiff.TiffReader;
 import com.drew.lang.ByteArrayReader;
+import com.drew.lang.Charsets;
 import com.drew.lang.RandomAccessReader;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
@@ -42,7 +43,7 @@ import java.util.Collections;
  * @author Drew Noakes https://drewnoakes.com
  */
 @SuppressWarnings("WeakerAccess")
-public class ExifReader implements JpegSegmentMetadataReader
+public class ExifReader implements JpegSegmentRangeMetadataReader
 {
     /** Exif data stored in JPEG files' APP1 segment are preceded by this six character preamble. */
     public static final String JPEG_SEGMENT_PREAMBLE = "Exif\0\0";
@@ -54,14 +55,22 @@ public class ExifReader implements JpegSegmentMetadataReader
     }
 
     public void readJpegSegments(@NotNull final Iterable<byte[]> segments, @NotNull final Metadata metadata, @NotNull final JpegSegmentType segmentType)
+    {
+        readJpegSegments(segments, new long[0], metadata, segmentType);
+    }
+
+    public void readJpegSegments(@NotNull final Iterable<byte[]> segments, @NotNull final long[] segmentOffsets, @NotNull final Metadata metadata, @NotNull final JpegSegmentType segmentType)
     {
         assert(segmentType == JpegSegmentType.APP1);
 
+        int index = 0;
         for (byte[] segmentBytes : segments) {
+            long segmentOffset = index < segmentOffsets.length ? segmentOffsets[index] : -1;
+            index++;
             // Filter any segments containing unexpected preambles
-            if (segmentBytes.length < JPEG_SEGMENT_PREAMBLE.length() || !new String(segmentBytes, 0, JPEG_SEGMENT_PREAMBLE.length()).equals(JPEG_SEGMENT_PREAMBLE))
+            if (segmentBytes.length < JPEG_SEGMENT_PREAMBLE.length() || !new String(segmentBytes, 0, JPEG_SEGMENT_PREAMBLE.length(), Charsets.ASCII).equals(JPEG_SEGMENT_PREAMBLE))
                 continue;
-            extract(new ByteArrayReader(segmentBytes), metadata, JPEG_SEGMENT_PREAMBLE.length());
+            extract(new ByteArrayReader(segmentBytes), metadata, JPEG_SEGMENT_PREAMBLE.length(), null, segmentOffset);
         }
     }
 
@@ -79,8 +88,20 @@ public class ExifReader implements JpegSegmentMetadataReader
 
     /** Reads TIFF formatted Exif data at a specified offset within a {@link RandomAccessReader}. */
     public void extract(@NotNull final RandomAccessReader reader, @NotNull final Metadata metadata, int readerOffset, @Nullable Directory parentDirectory)
+    {
+        extract(reader, metadata, readerOffset, parentDirectory, -1);
+    }
+
+    /**
+     * Reads TIFF formatted Exif data at a specified offset within a {@link RandomAccessReader}, recording source ranges
+     * relative to <code>sourceOffset</code> when {@link Metadata#isSourceRangesEnabled()} is set.
+     *
+     * @param sourceOffset the absolute file offset of the reader's first byte, or -1 if unknown
+     */
+    public void extract(@NotNull final RandomAccessReader reader, @NotNull final Metadata metadata, int readerOffset, @Nullable Directory parentDirectory, long sourceOffset)
     {
         ExifTiffHandler exifTiffHandler = new ExifTiffHandler(metadata, parentDirectory);
+        exifTiffHandler.setSourceOffset(sourceOffset);
 
         try {
             // Read the TIFF-formatted Exif data
@@ -24,16 +24,18 @@ import com.drew.imaging.tiff.TiffProcessingException;
 import com.drew.imaging.tiff.TiffReader;
 import com.drew.imaging.jpeg.JpegMetadataReader;
 import com.drew.imaging.jpeg.JpegProcessingException;
-import com.drew.lang.BufferBoundsException;
 import com.drew.lang.ByteArrayReader;
 import com.drew.lang.Charsets;
 import com.drew.lang.RandomAccessReader;
 import com.drew.lang.SequentialByteArrayReader;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.BinaryLayout;
+import com.drew.metadata.DeferredDirectoryLoader;
 import com.drew.metadata.Directory;
+import com.drew.metadata.MakernotePolicy;
 import com.drew.metadata.Metadata;
-import com.drew.metadata.StringValue;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.exif.makernotes.*;
 import com.drew.metadata.icc.IccReader;
 import com.drew.metadata.iptc.IptcReader;
@@ -43,7 +45,7 @@ import com.drew.metadata.xmp.XmpReader;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -56,11 +58,25 @@ import java.util.Set;
  */
 public class ExifTiffHandler extends DirectoryTiffHandler
 {
+    /** The position and length of the makernote being processed, if any. */
+    private int _makernoteOffset;
+    private int _makernoteByteCount;
+    /** The bytes of the makernote being processed, once copied for deferred reading, and their position. */
+    @Nullable
+    private ByteArrayReader _makernoteCopy;
+    private int _makernoteCopyStart;
+
     public ExifTiffHandler(@NotNull Metadata metadata, @Nullable Directory parentDirectory)
     {
         super(metadata, parentDirectory);
     }
 
+    @NotNull
+    Metadata getMetadata()
+    {
+        return _metadata;
+    }
+
     public void setTiffMarker(int marker) throws TiffProcessingException
     {
         final int standardTiffMarker = 0x002A;
@@ -72,10 +88,10 @@ public class ExifTiffHandler extends DirectoryTiffHandler
             case standardTiffMarker:
             case olympusRawTiffMarker:      // TODO implement an IFD0, if there is one
             case olympusRawTiffMarker2:     // TODO implement an IFD0, if there is one
-                pushDirectory(ExifIFD0Directory.class);
+                pushDirectory(new ExifIFD0Directory());
                 break;
             case panasonicRawTiffMarker:
-                pushDirectory(PanasonicRawIFD0Directory.class);
+                pushDirectory(new PanasonicRawIFD0Directory());
                 break;
             default:
                 throw new TiffProcessingException(String.format("Unexpected TIFF marker: 0x%X", marker));
@@ -85,63 +101,56 @@ public class ExifTiffHandler extends DirectoryTiffHandler
     public boolean tryEnterSubIfd(int tagId)
     {
         if (tagId == ExifDirectoryBase.TAG_SUB_IFD_OFFSET) {
-            pushDirectory(ExifSubIFDDirectory.class);
+            pushDirectory(new ExifSubIFDDirectory());
             return true;
         }
 
         if (_currentDirectory instanceof ExifIFD0Directory || _currentDirectory instanceof PanasonicRawIFD0Directory) {
             if (tagId == ExifIFD0Directory.TAG_EXIF_SUB_IFD_OFFSET) {
-                pushDirectory(ExifSubIFDDirectory.class);
+                pushDirectory(new ExifSubIFDDirectory());
                 return true;
             }
 
             if (tagId == ExifIFD0Directory.TAG_GPS_INFO_OFFSET) {
-                pushDirectory(GpsDirectory.class);
+                pushDirectory(new GpsDirectory());
                 return true;
             }
         }
 
         if (_currentDirectory instanceof ExifSubIFDDirectory) {
             if (tagId == ExifSubIFDDirectory.TAG_INTEROP_OFFSET) {
-                pushDirectory(ExifInteropDirectory.class);
+                pushDirectory(new ExifInteropDirectory());
                 return true;
             }
         }
 
-        if (_currentDirectory instanceof OlympusMakernoteDirectory) {
-            // Note: these also appear in customProcessTag because some are IFD pointers while others begin immediately
-            // for the same directories
-            switch(tagId) {
-                case OlympusMakernoteDirectory.TAG_EQUIPMENT:
-                    pushDirectory(OlympusEquipmentMakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_CAMERA_SETTINGS:
-                    pushDirectory(OlympusCameraSettingsMakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT:
-                    pushDirectory(OlympusRawDevelopmentMakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT_2:
-                    pushDirectory(OlympusRawDevelopment2MakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_IMAGE_PROCESSING:
-                    pushDirectory(OlympusImageProcessingMakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_FOCUS_INFO:
-                    pushDirectory(OlympusFocusInfoMakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_RAW_INFO:
-                    pushDirectory(OlympusRawInfoMakernoteDirectory.class);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_MAIN_INFO:
-                    pushDirectory(OlympusMakernoteDirectory.class);
-                    return true;
-            }
-        }
+        // Note: Olympus sub-IFDs are handled in customProcessTag, as some are IFD pointers while others begin
+        // immediately for the same directories, and either may be deferred
 
         return false;
     }
 
+    /**
+     * Tests whether <code>tagId</code> may reference an Olympus sub-IFD. Checking this before the directory's type
+     * avoids loading Olympus classes while processing other directories.
+     */
+    private static boolean isOlympusSubIfdTag(final int tagId)
+    {
+        switch (tagId) {
+            case OlympusMakernoteDirectory.TAG_EQUIPMENT:
+            case OlympusMakernoteDirectory.TAG_CAMERA_SETTINGS:
+            case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT:
+            case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT_2:
+            case OlympusMakernoteDirectory.TAG_IMAGE_PROCESSING:
+            case OlympusMakernoteDirectory.TAG_FOCUS_INFO:
+            case OlympusMakernoteDirectory.TAG_RAW_INFO:
+            case OlympusMakernoteDirectory.TAG_MAIN_INFO:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public boolean hasFollowerIfd()
     {
         // In Exif, the only known 'follower' IFD is the thumbnail one, however this may not be the case.
@@ -150,9 +159,9 @@ public class ExifTiffHandler extends DirectoryTiffHandler
             // If the PageNumber tag is defined, assume this is a multipage TIFF or similar
             // TODO: Find better ways to know which follower Directory should be used
             if (_currentDirectory.containsTag(ExifDirectoryBase.TAG_PAGE_NUMBER))
-                pushDirectory(ExifImageDirectory.class);
+                pushDirectory(new ExifImageDirectory());
             else
-                pushDirectory(ExifThumbnailDirectory.class);
+                pushDirectory(new ExifThumbnailDirectory());
             return true;
         }
 
@@ -201,7 +210,17 @@ public class ExifTiffHandler extends DirectoryTiffHandler
 
         // Custom processing for the Makernote tag
         if (tagId == ExifSubIFDDirectory.TAG_MAKERNOTE && _currentDirectory instanceof ExifSubIFDDirectory) {
-            return processMakernote(tagOffset, processedIfdOffsets, tiffHeaderOffset, reader);
+            switch (_metadata.getMakernotePolicy()) {
+                case Skip:
+                    return true;
+                case LocationOnly:
+                    SourceRange makernoteRange = toSourceRange(reader.toUnshiftedOffset(tagOffset), byteCount);
+                    if (makernoteRange != null)
+                        _currentDirectory.setTagSourceRange(tagId, makernoteRange);
+                    return true;
+                default:
+                    return processMakernote(tagOffset, byteCount, processedIfdOffsets, tiffHeaderOffset, reader);
+            }
         }
 
         // Custom processing for embedded IPTC data
@@ -244,43 +263,16 @@ public class ExifTiffHandler extends DirectoryTiffHandler
             return true;
         }
 
-        // Note: these also appear in tryEnterSubIfd because some are IFD pointers while others begin immediately
-        // for the same directories
-        if (_currentDirectory instanceof OlympusMakernoteDirectory) {
-            switch (tagId) {
-                case OlympusMakernoteDirectory.TAG_EQUIPMENT:
-                    pushDirectory(OlympusEquipmentMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_CAMERA_SETTINGS:
-                    pushDirectory(OlympusCameraSettingsMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT:
-                    pushDirectory(OlympusRawDevelopmentMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT_2:
-                    pushDirectory(OlympusRawDevelopment2MakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_IMAGE_PROCESSING:
-                    pushDirectory(OlympusImageProcessingMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_FOCUS_INFO:
-                    pushDirectory(OlympusFocusInfoMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_RAW_INFO:
-                    pushDirectory(OlympusRawInfoMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-                case OlympusMakernoteDirectory.TAG_MAIN_INFO:
-                    pushDirectory(OlympusMakernoteDirectory.class);
-                    TiffReader.processIfd(this, reader, processedIfdOffsets, tagOffset, tiffHeaderOffset);
-                    return true;
-            }
+        if (isOlympusSubIfdTag(tagId) && _currentDirectory instanceof OlympusMakernoteDirectory) {
+            // Some cameras store a pointer to the sub-IFD, while others store the sub-IFD itself as the tag's value.
+            // The smallest IFD (an entry count and the next IFD's offset) occupies six bytes, so a four byte value
+            // can only be a pointer, whatever format code the camera gave it.
+            int subIfdOffset = byteCount == 4 ? tiffHeaderOffset + reader.getInt32(tagOffset) : tagOffset;
+            Directory directory = OlympusMakernoteParser.createSubIfdDirectory(tagId);
+            ((OlympusMakernoteDirectory)_currentDirectory).setSubIfdOffset(tagId, subIfdOffset);
+            processMakernoteIfd(directory, reader, processedIfdOffsets, subIfdOffset, tiffHeaderOffset,
+                directory instanceof OlympusMakernoteDirectory);
+            return true;
         }
 
         if (_currentDirectory instanceof PanasonicRawIFD0Directory) {
@@ -288,22 +280,13 @@ public class ExifTiffHandler extends DirectoryTiffHandler
             // The binary data is broken into 'fake' tags and there is a pattern.
             switch (tagId) {
                 case PanasonicRawIFD0Directory.TagWbInfo:
-                    PanasonicRawWbInfoDirectory dirWbInfo = new PanasonicRawWbInfoDirectory();
-                    dirWbInfo.setParent(_currentDirectory);
-                    _metadata.addDirectory(dirWbInfo);
-                    processBinary(dirWbInfo, tagOffset, reader, byteCount, false, 2);
+                    processBinary(new PanasonicRawWbInfoDirectory(), PanasonicRawWbInfoDirectory.LAYOUT, tagOffset, reader, byteCount);
                     return true;
                 case PanasonicRawIFD0Directory.TagWbInfo2:
-                    PanasonicRawWbInfo2Directory dirWbInfo2 = new PanasonicRawWbInfo2Directory();
-                    dirWbInfo2.setParent(_currentDirectory);
-                    _metadata.addDirectory(dirWbInfo2);
-                    processBinary(dirWbInfo2, tagOffset, reader, byteCount, false, 3);
+                    processBinary(new PanasonicRawWbInfo2Directory(), PanasonicRawWbInfo2Directory.LAYOUT, tagOffset, reader, byteCount);
                     return true;
                 case PanasonicRawIFD0Directory.TagDistortionInfo:
-                    PanasonicRawDistortionDirectory dirDistort = new PanasonicRawDistortionDirectory();
-                    dirDistort.setParent(_currentDirectory);
-                    _metadata.addDirectory(dirDistort);
-                    processBinary(dirDistort, tagOffset, reader, byteCount, true, 1);
+                    processBinary(new PanasonicRawDistortionDirectory(), PanasonicRawDistortionDirectory.LAYOUT, tagOffset, reader, byteCount);
                     return true;
             }
         }
@@ -331,62 +314,20 @@ public class ExifTiffHandler extends DirectoryTiffHandler
         return false;
     }
 
-    private static void processBinary(@NotNull final Directory directory, final int tagValueOffset, @NotNull final RandomAccessReader reader, final int byteCount, final Boolean isSigned, final int arrayLength) throws IOException
-    {
-        // expects signed/unsigned int16 (for now)
-        //int byteSize = isSigned ? sizeof(short) : sizeof(ushort);
-        int byteSize = 2;
-
-        // 'directory' is assumed to contain tags that correspond to the byte position unless it's a set of bytes
-        for (int i = 0; i < byteCount; i++) {
-            if (directory.hasTagName(i)) {
-                // only process this tag if the 'next' integral tag exists. Otherwise, it's a set of bytes
-                if (i < byteCount - 1 && directory.hasTagName(i + 1)) {
-                    if (isSigned)
-                        directory.setObject(i, reader.getInt16(tagValueOffset + (i* byteSize)));
-                    else
-                        directory.setObject(i, reader.getUInt16(tagValueOffset + (i* byteSize)));
-                } else {
-                    // the next arrayLength bytes are a multi-byte value
-                    if (isSigned) {
-                        short[] val = new short[arrayLength];
-                        for (int j = 0; j<val.length; j++)
-                            val[j] = reader.getInt16(tagValueOffset + ((i + j) * byteSize));
-                        directory.setObjectArray(i, val);
-                    } else {
-                        int[] val = new int[arrayLength];
-                        for (int j = 0; j<val.length; j++)
-                            val[j] = reader.getUInt16(tagValueOffset + ((i + j) * byteSize));
-                        directory.setObjectArray(i, val);
-                    }
-
-                    i += arrayLength - 1;
-                }
-            }
-        }
-    }
-
-    /** Read a given number of bytes from the stream
-     *
-     * This method is employed to "suppress" attempts to read beyond end of the
-     * file as may happen at the beginning of processMakernote when we read
-     * increasingly longer camera makes.
-     *
-     * Instead of failing altogether in this context we return an empty string
-     * which will fail all sensible attempts to compare to makes while avoiding
-     * a full-on failure.
-     */
-    @NotNull
-    private static String getReaderString(final @NotNull RandomAccessReader reader, final int makernoteOffset, final int bytesRequested) throws IOException
+    private void processBinary(@NotNull final Directory directory, @NotNull final BinaryLayout layout, final int tagValueOffset, @NotNull final RandomAccessReader reader, final int byteCount) throws IOException
     {
-        try {
-            return reader.getString(makernoteOffset, bytesRequested, Charsets.UTF_8);
-        } catch(BufferBoundsException e) {
-            return "";
-        }
+        directory.setParent(_currentDirectory);
+        _metadata.addDirectory(directory);
+
+        // The block is copied so that it is bounds checked once and decoded without a reader call per value.  The copy is
+        // limited to the layout's length, which for these blocks is at most a few dozen bytes, so costs less than the
+        // per-value calls (and, for streams, the per-value chunk lookups) it replaces.
+        // Values beyond the end of the tag's data are omitted.
+        layout.read(reader.getBytes(tagValueOffset, Math.min(byteCount, layout.getLength())), reader.isMotorolaByteOrder(), directory);
     }
 
     private boolean processMakernote(final int makernoteOffset,
+                                     final int makernoteByteCount,
                                      final @NotNull Set<Integer> processedIfdOffsets,
                                      final int tiffHeaderOffset,
                                      final @NotNull RandomAccessReader reader) throws IOException
@@ -398,210 +339,162 @@ public class ExifTiffHandler extends DirectoryTiffHandler
 
         String cameraMake = ifd0Directory == null ? null : ifd0Directory.getString(ExifIFD0Directory.TAG_MAKE);
 
-        final String firstTwoChars    = getReaderString(reader, makernoteOffset, 2);
-        final String firstThreeChars  = getReaderString(reader, makernoteOffset, 3);
-        final String firstFourChars   = getReaderString(reader, makernoteOffset, 4);
-        final String firstFiveChars   = getReaderString(reader, makernoteOffset, 5);
-        final String firstSixChars    = getReaderString(reader, makernoteOffset, 6);
-        final String firstSevenChars  = getReaderString(reader, makernoteOffset, 7);
-        final String firstEightChars  = getReaderString(reader, makernoteOffset, 8);
-        final String firstNineChars   = getReaderString(reader, makernoteOffset, 9);
-        final String firstTenChars    = getReaderString(reader, makernoteOffset, 10);
-        final String firstTwelveChars = getReaderString(reader, makernoteOffset, 12);
+        MakernoteContext context = new MakernoteContext(this, reader, processedIfdOffsets, _currentDirectory, makernoteOffset, tiffHeaderOffset, cameraMake);
 
         boolean byteOrderBefore = reader.isMotorolaByteOrder();
+        _makernoteOffset = makernoteOffset;
+        _makernoteByteCount = makernoteByteCount;
+        try {
+            // If no parser comprehends the makernote, it is stored as a regular tag.
+            // If you are reading this and believe a particular camera's image should be processed, get in touch.
+            return MakernoteSignatureTable.getDefault().parse(context);
+        } finally {
+            reader.setMotorolaByteOrder(byteOrderBefore);
+            _makernoteByteCount = 0;
+            _makernoteCopy = null;
+        }
+    }
 
-        if ("OLYMP\0".equals(firstSixChars) || "EPSON".equals(firstFiveChars) || "AGFA".equals(firstFourChars)) {
-            // Olympus Makernote
-            // Epson and Agfa use Olympus makernote standard: http://www.ozhiker.com/electronics/pjmt/jpeg_info/
-            pushDirectory(OlympusMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, tiffHeaderOffset);
-        } else if ("OLYMPUS\0II".equals(firstTenChars)) {
-            // Olympus Makernote (alternate)
-            // Note that data is relative to the beginning of the makernote
-            // http://exiv2.org/makernote.html
-            pushDirectory(OlympusMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 12, makernoteOffset);
-        } else if (cameraMake != null && cameraMake.toUpperCase().startsWith("MINOLTA")) {
-            // Cases seen with the model starting with MINOLTA in capitals seem to have a valid Olympus makernote
-            // area that commences immediately.
-            pushDirectory(OlympusMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, tiffHeaderOffset);
-        } else if (cameraMake != null && cameraMake.trim().toUpperCase().startsWith("NIKON")) {
-            if ("Nikon".equals(firstFiveChars)) {
-                /* There are two scenarios here:
-                 * Type 1:                  **
-                 * :0000: 4E 69 6B 6F 6E 00 01 00-05 00 02 00 02 00 06 00 Nikon...........
-                 * :0010: 00 00 EC 02 00 00 03 00-03 00 01 00 00 00 06 00 ................
-                 * Type 3:                  **
-                 * :0000: 4E 69 6B 6F 6E 00 02 00-00 00 4D 4D 00 2A 00 00 Nikon....MM.*...
-                 * :0010: 00 08 00 1E 00 01 00 07-00 00 00 04 30 32 30 30 ............0200
-                 */
-                switch (reader.getUInt8(makernoteOffset + 6)) {
-                    case 1:
-                        pushDirectory(NikonType1MakernoteDirectory.class);
-                        TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, tiffHeaderOffset);
-                        break;
-                    case 2:
-                        pushDirectory(NikonType2MakernoteDirectory.class);
-                        TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 18, makernoteOffset + 10);
-                        break;
-                    default:
-                        _currentDirectory.addError("Unsupported Nikon makernote data ignored.");
-                        break;
-                }
-            } else {
-                // The IFD begins with the first Makernote byte (no ASCII name).  This occurs with CoolPix 775, E990 and D1 models.
-                pushDirectory(NikonType2MakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, tiffHeaderOffset);
-            }
-        } else if ("SONY CAM".equals(firstEightChars) || "SONY DSC".equals(firstEightChars)) {
-            pushDirectory(SonyType1MakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 12, tiffHeaderOffset);
-        // Do this check LAST after most other Sony checks
-        } else if (cameraMake != null && cameraMake.startsWith("SONY") &&
-                !Arrays.equals(reader.getBytes(makernoteOffset, 2), new byte[]{ 0x01, 0x00 }) ) {
-            // The IFD begins with the first Makernote byte (no ASCII name). Used in SR2 and ARW images
-            pushDirectory(SonyType1MakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, tiffHeaderOffset);
-        } else if ("SEMC MS\u0000\u0000\u0000\u0000\u0000".equals(firstTwelveChars)) {
-            // force MM for this directory
-            reader.setMotorolaByteOrder(true);
-            // skip 12 byte header + 2 for "MM" + 6
-            pushDirectory(SonyType6MakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 20, tiffHeaderOffset);
-        } else if ("SIGMA\u0000\u0000\u0000".equals(firstEightChars) || "FOVEON\u0000\u0000".equals(firstEightChars)) {
-            pushDirectory(SigmaMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 10, tiffHeaderOffset);
-        } else if ("KDK".equals(firstThreeChars)) {
-            reader.setMotorolaByteOrder(firstSevenChars.equals("KDK INFO"));
-            KodakMakernoteDirectory directory = new KodakMakernoteDirectory();
-            _metadata.addDirectory(directory);
-            processKodakMakernote(directory, makernoteOffset, reader);
-        } else if ("Canon".equalsIgnoreCase(cameraMake)) {
-            pushDirectory(CanonMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, tiffHeaderOffset);
-        } else if (cameraMake != null && cameraMake.toUpperCase().startsWith("CASIO")) {
-            if ("QVC\u0000\u0000\u0000".equals(firstSixChars)) {
-                pushDirectory(CasioType2MakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 6, tiffHeaderOffset);
-            } else {
-                pushDirectory(CasioType1MakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, tiffHeaderOffset);
+    /**
+     * Processes a makernote IFD into <code>directory</code>, or defers doing so if the metadata's
+     * {@link MakernotePolicy} is {@link MakernotePolicy#Lazy} and the data can be retained cheaply.
+     */
+    void processMakernoteIfd(@NotNull final Directory directory,
+                                     @NotNull final RandomAccessReader reader,
+                                     @NotNull final Set<Integer> processedIfdOffsets,
+                                     final int ifdOffset,
+                                     final int tiffHeaderOffset) throws IOException
+    {
+        processMakernoteIfd(directory, reader, processedIfdOffsets, ifdOffset, tiffHeaderOffset, true);
+    }
+
+    /**
+     * As {@link #processMakernoteIfd(Directory, RandomAccessReader, Set, int, int)}, where
+     * <code>mayProduceOtherDirectories</code> indicates whether the IFD may contain data for directories other than
+     * <code>directory</code>, such as nested makernote sub-IFDs.  When it doesn't, a deferred IFD is only read once
+     * a directory of its own type is requested.
+     */
+    private void processMakernoteIfd(@NotNull final Directory directory,
+                                     @NotNull final RandomAccessReader reader,
+                                     @NotNull final Set<Integer> processedIfdOffsets,
+                                     final int ifdOffset,
+                                     final int tiffHeaderOffset,
+                                     final boolean mayProduceOtherDirectories) throws IOException
+    {
+        if (_metadata.getMakernotePolicy() == MakernotePolicy.Lazy && _currentDirectory != null) {
+            // Byte arrays remain readable after reading completes, unlike files and streams
+            if (reader instanceof ByteArrayReader) {
+                _metadata.addDeferredDirectoryLoader(new DeferredMakernoteLoader(
+                    directory, _currentDirectory, reader, reader.isMotorolaByteOrder(),
+                    new HashSet<Integer>(processedIfdOffsets), ifdOffset, tiffHeaderOffset, getSourceOffset(),
+                    mayProduceOtherDirectories));
+                return;
             }
-        } else if ("FUJIFILM".equals(firstEightChars) || "Fujifilm".equalsIgnoreCase(cameraMake)) {
-            // Note that this also applies to certain Leica cameras, such as the Digilux-4.3
-            reader.setMotorolaByteOrder(false);
-            // the 4 bytes after "FUJIFILM" in the makernote point to the start of the makernote
-            // IFD, though the offset is relative to the start of the makernote, not the TIFF
-            // header (like everywhere else)
-            int ifdStart = makernoteOffset + reader.getInt32(makernoteOffset + 8);
-            pushDirectory(FujifilmMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, ifdStart, makernoteOffset);
-        } else if ("KYOCERA".equals(firstSevenChars)) {
-            // http://www.ozhiker.com/electronics/pjmt/jpeg_info/kyocera_mn.html
-            pushDirectory(KyoceraMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 22, tiffHeaderOffset);
-        } else if ("LEICA".equals(firstFiveChars)) {
-            reader.setMotorolaByteOrder(false);
-
-            // used by the X1/X2/X VARIO/T
-            // (X1 starts with "LEICA\0\x01\0", Make is "LEICA CAMERA AG")
-            // (X2 starts with "LEICA\0\x05\0", Make is "LEICA CAMERA AG")
-            // (X VARIO starts with "LEICA\0\x04\0", Make is "LEICA CAMERA AG")
-            // (T (Typ 701) starts with "LEICA\0\0x6", Make is "LEICA CAMERA AG")
-            // (X (Typ 113) starts with "LEICA\0\0x7", Make is "LEICA CAMERA AG")
-
-            if ("LEICA\0\u0001\0".equals(firstEightChars) ||
-                "LEICA\0\u0004\0".equals(firstEightChars) ||
-                "LEICA\0\u0005\0".equals(firstEightChars) ||
-                "LEICA\0\u0006\0".equals(firstEightChars) ||
-                "LEICA\0\u0007\0".equals(firstEightChars))
-            {
-                pushDirectory(LeicaType5MakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, makernoteOffset);
-            } else if ("Leica Camera AG".equals(cameraMake)) {
-                pushDirectory(LeicaMakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, tiffHeaderOffset);
-            } else if ("LEICA".equals(cameraMake)) {
-                // Some Leica cameras use Panasonic makernote tags
-                pushDirectory(PanasonicMakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, tiffHeaderOffset);
-            } else {
-                return false;
+
+            // Otherwise retain a copy of the bytes the IFD may refer to, with offsets made relative to the copy
+            ByteArrayReader copy = getMakernoteCopy(reader, ifdOffset, tiffHeaderOffset);
+            if (copy != null) {
+                _metadata.addDeferredDirectoryLoader(new DeferredMakernoteLoader(
+                    directory, _currentDirectory, copy, reader.isMotorolaByteOrder(),
+                    new HashSet<Integer>(), ifdOffset - _makernoteCopyStart, tiffHeaderOffset - _makernoteCopyStart,
+                    getSourceOffset() + reader.toUnshiftedOffset(_makernoteCopyStart),
+                    mayProduceOtherDirectories));
+                return;
             }
-        } else if ("Panasonic\u0000\u0000\u0000".equals(firstTwelveChars)) {
-            // NON-Standard TIFF IFD Data using Panasonic Tags. There is no Next-IFD pointer after the IFD
-            // Offsets are relative to the start of the TIFF header at the beginning of the EXIF segment
-            // more information here: http://www.ozhiker.com/electronics/pjmt/jpeg_info/panasonic_mn.html
-            pushDirectory(PanasonicMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 12, tiffHeaderOffset);
-        } else if ("AOC\u0000".equals(firstFourChars)) {
-            // NON-Standard TIFF IFD Data using Casio Type 2 Tags
-            // IFD has no Next-IFD pointer at end of IFD, and
-            // Offsets are relative to the start of the current IFD tag, not the TIFF header
-            // Observed for:
-            // - Pentax ist D
-            pushDirectory(CasioType2MakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 6, makernoteOffset);
-        } else if (cameraMake != null && (cameraMake.toUpperCase().startsWith("PENTAX") || cameraMake.toUpperCase().startsWith("ASAHI"))) {
-            // NON-Standard TIFF IFD Data using Pentax Tags
-            // IFD has no Next-IFD pointer at end of IFD, and
-            // Offsets are relative to the start of the current IFD tag, not the TIFF header
-            // Observed for:
-            // - PENTAX Optio 330
-            // - PENTAX Optio 430
-            pushDirectory(PentaxMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, makernoteOffset);
-//        } else if ("KC".equals(firstTwoChars) || "MINOL".equals(firstFiveChars) || "MLY".equals(firstThreeChars) || "+M+M+M+M".equals(firstEightChars)) {
-//            // This Konica data is not understood.  Header identified in accordance with information at this site:
-//            // http://www.ozhiker.com/electronics/pjmt/jpeg_info/minolta_mn.html
-//            // TODO add support for minolta/konica cameras
-//            exifDirectory.addError("Unsupported Konica/Minolta data ignored.");
-        } else if ("SANYO\0\1\0".equals(firstEightChars)) {
-            pushDirectory(SanyoMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, makernoteOffset);
-        } else if (cameraMake != null && cameraMake.toLowerCase().startsWith("ricoh")) {
-            if (firstTwoChars.equals("Rv") || firstThreeChars.equals("Rev")) {
-                // This is a textual format, where the makernote bytes look like:
-                //   Rv0103;Rg1C;Bg18;Ll0;Ld0;Aj0000;Bn0473800;Fp2E00:������������������������������
-                //   Rv0103;Rg1C;Bg18;Ll0;Ld0;Aj0000;Bn0473800;Fp2D05:������������������������������
-                //   Rv0207;Sf6C84;Rg76;Bg60;Gg42;Ll0;Ld0;Aj0004;Bn0B02900;Fp10B8;Md6700;Ln116900086D27;Sv263:0000000000000000000000��
-                // This format is currently unsupported
-                return false;
-            } else if (firstFiveChars.equalsIgnoreCase("Ricoh")) {
-                // Always in Motorola byte order
-                reader.setMotorolaByteOrder(true);
-                pushDirectory(RicohMakernoteDirectory.class);
-                TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 8, makernoteOffset);
+        }
+
+        pushDirectory(directory);
+        TiffReader.processIfd(this, reader, processedIfdOffsets, ifdOffset, tiffHeaderOffset);
+    }
+
+    /**
+     * Returns a copy of the bytes from <code>tiffHeaderOffset</code> (or the makernote's start, if later) to the end
+     * of the makernote being processed, or <code>null</code> if <code>ifdOffset</code> lies outside them or they
+     * cannot be read.  Some makernotes take offsets from the Exif TIFF header, and so may refer to data preceding
+     * them, but data a makernote refers to beyond its own end is unavailable once the copy is read, and is reported
+     * as an error on its directory.
+     */
+    @Nullable
+    private ByteArrayReader getMakernoteCopy(@NotNull final RandomAccessReader reader, final int ifdOffset, final int tiffHeaderOffset)
+    {
+        int start = Math.max(0, Math.min(tiffHeaderOffset, _makernoteOffset));
+        int end = _makernoteOffset + _makernoteByteCount;
+        if (ifdOffset < start || ifdOffset >= end)
+            return null;
+
+        // Makernotes are mostly read with a single TIFF header offset, so the copy is usually shared by their IFDs
+        if (_makernoteCopy == null || _makernoteCopyStart > start) {
+            try {
+                _makernoteCopy = new ByteArrayReader(reader.getBytes(start, end - start));
+                _makernoteCopyStart = start;
+            } catch (IOException e) {
+                return null;
             }
-        } else if (firstTenChars.equals("Apple iOS\0")) {
-            // Always in Motorola byte order
-            boolean orderBefore = reader.isMotorolaByteOrder();
-            reader.setMotorolaByteOrder(true);
-            pushDirectory(AppleMakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset + 14, makernoteOffset);
-            reader.setMotorolaByteOrder(orderBefore);
-        } else if (reader.getUInt16(makernoteOffset) == ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION) {
-            ReconyxHyperFireMakernoteDirectory directory = new ReconyxHyperFireMakernoteDirectory();
-            _metadata.addDirectory(directory);
-            processReconyxHyperFireMakernote(directory, makernoteOffset, reader);
-        } else if (firstNineChars.equalsIgnoreCase("RECONYXUF")) {
-            ReconyxUltraFireMakernoteDirectory directory = new ReconyxUltraFireMakernoteDirectory();
-            _metadata.addDirectory(directory);
-            processReconyxUltraFireMakernote(directory, makernoteOffset, reader);
-        } else if ("SAMSUNG".equals(cameraMake)) {
-            // Only handles Type2 notes correctly. Others aren't implemented, and it's complex to determine which ones to use
-            pushDirectory(SamsungType2MakernoteDirectory.class);
-            TiffReader.processIfd(this, reader, processedIfdOffsets, makernoteOffset, tiffHeaderOffset);
-        } else {
-            // The makernote is not comprehended by this library.
-            // If you are reading this and believe a particular camera's image should be processed, get in touch.
-            return false;
         }
+        return _makernoteCopy;
+    }
+
+    /**
+     * Reads a makernote IFD when a directory it may produce is first requested from the {@link Metadata}.
+     */
+    private static class DeferredMakernoteLoader implements DeferredDirectoryLoader
+    {
+        private static final String MAKERNOTES_PACKAGE_PREFIX = "com.drew.metadata.exif.makernotes.";
+
+        @NotNull private final Directory _directory;
+        @NotNull private final Directory _parentDirectory;
+        @NotNull private final RandomAccessReader _reader;
+        private final boolean _isMotorolaByteOrder;
+        @NotNull private final Set<Integer> _processedIfdOffsets;
+        private final int _ifdOffset;
+        private final int _tiffHeaderOffset;
+        private final long _sourceOffset;
+        private final boolean _mayProduceOtherDirectories;
+
+        DeferredMakernoteLoader(@NotNull Directory directory, @NotNull Directory parentDirectory, @NotNull RandomAccessReader reader, boolean isMotorolaByteOrder,
+                                @NotNull Set<Integer> processedIfdOffsets, int ifdOffset, int tiffHeaderOffset, long sourceOffset,
+                                boolean mayProduceOtherDirectories)
+        {
+            _directory = directory;
+            _parentDirectory = parentDirectory;
+            _reader = reader;
+            _isMotorolaByteOrder = isMotorolaByteOrder;
+            _processedIfdOffsets = processedIfdOffsets;
+            _ifdOffset = ifdOffset;
+            _tiffHeaderOffset = tiffHeaderOffset;
+            _sourceOffset = sourceOffset;
+            _mayProduceOtherDirectories = mayProduceOtherDirectories;
+        }
+
+        public boolean mayProduce(@NotNull Class<? extends Directory> directoryType)
+        {
+            if (directoryType.isAssignableFrom(_directory.getClass()))
+                return true;
+
+            // Makernote IFDs only produce makernote directories (including nested ones such as Olympus
+            // equipment) and embedded PrintIM data
+            return _mayProduceOtherDirectories
+                && (directoryType.getName().startsWith(MAKERNOTES_PACKAGE_PREFIX) || directoryType == PrintIMDirectory.class);
+        }
+
+        public void load(@NotNull Metadata metadata)
+        {
+            ExifTiffHandler handler = new ExifTiffHandler(metadata, null);
+            handler.setSourceOffset(_sourceOffset);
+            // Nest beneath the SubIFD, as if read in place
+            handler._currentDirectory = _parentDirectory;
 
-        reader.setMotorolaByteOrder(byteOrderBefore);
-        return true;
+            boolean byteOrderBefore = _reader.isMotorolaByteOrder();
+            _reader.setMotorolaByteOrder(_isMotorolaByteOrder);
+            try {
+                handler.pushDirectory(_directory);
+                TiffReader.processIfd(handler, _reader, _processedIfdOffsets, _ifdOffset, _tiffHeaderOffset);
+            } catch (IOException e) {
+                _directory.addError("Exception processing makernote: " + e.getMessage());
+            } finally {
+                _reader.setMotorolaByteOrder(byteOrderBefore);
+            }
+        }
     }
 
     private static boolean handlePrintIM(@NotNull final Directory directory, final int tagId)
@@ -636,8 +529,6 @@ public class ExifTiffHandler extends DirectoryTiffHandler
     /// </remarks>
     private static void processPrintIM(@NotNull final PrintIMDirectory directory, final int tagValueOffset, @NotNull final RandomAccessReader reader, final int byteCount) throws IOException
     {
-        Boolean resetByteOrder = null;
-
         if (byteCount == 0) {
             directory.addError("Empty PrintIM data");
             return;
@@ -648,7 +539,11 @@ public class ExifTiffHandler extends DirectoryTiffHandler
             return;
         }
 
-        String header = reader.getString(tagValueOffset, 12, Charsets.UTF_8);
+        // Read the whole block at once, so entries are decoded from memory
+        ByteArrayReader blockReader = new ByteArrayReader(reader.getBytes(tagValueOffset, byteCount));
+        blockReader.setMotorolaByteOrder(reader.isMotorolaByteOrder());
+
+        String header = blockReader.getString(0, 12, Charsets.UTF_8);
 
         if (!header.startsWith("PrintIM")) {
             directory.addError("Invalid PrintIM header");
@@ -656,13 +551,12 @@ public class ExifTiffHandler extends DirectoryTiffHandler
         }
 
         // check size of PrintIM block
-        int num = reader.getUInt16(tagValueOffset + 14);
+        int num = blockReader.getUInt16(14);
 
         if (byteCount < 16 + num * 6) {
             // size is too big, maybe byte ordering is wrong
-            resetByteOrder = reader.isMotorolaByteOrder();
-            reader.setMotorolaByteOrder(!reader.isMotorolaByteOrder());
-            num = reader.getUInt16(tagValueOffset + 14);
+            blockReader.setMotorolaByteOrder(!blockReader.isMotorolaByteOrder());
+            num = blockReader.getUInt16(14);
             if (byteCount < 16 + num * 6) {
                 directory.addError("Bad PrintIM size");
                 return;
@@ -672,184 +566,11 @@ public class ExifTiffHandler extends DirectoryTiffHandler
         directory.setObject(PrintIMDirectory.TagPrintImVersion, header.substring(8, 12));
 
         for (int n = 0; n < num; n++) {
-            int pos = tagValueOffset + 16 + n * 6;
-            int tag = reader.getUInt16(pos);
-            long val = reader.getUInt32(pos + 2);
+            int pos = 16 + n * 6;
+            int tag = blockReader.getUInt16(pos);
+            long val = blockReader.getUInt32(pos + 2);
 
             directory.setObject(tag, val);
         }
-
-        if (resetByteOrder != null)
-            reader.setMotorolaByteOrder(resetByteOrder);
-    }
-
-    private static void processKodakMakernote(@NotNull final KodakMakernoteDirectory directory, final int tagValueOffset, @NotNull final RandomAccessReader reader)
-    {
-        // Kodak's makernote is not in IFD format. It has values at fixed offsets.
-        int dataOffset = tagValueOffset + 8;
-        try {
-            directory.setStringValue(KodakMakernoteDirectory.TAG_KODAK_MODEL, reader.getStringValue(dataOffset, 8, Charsets.UTF_8));
-            directory.setInt(KodakMakernoteDirectory.TAG_QUALITY, reader.getUInt8(dataOffset + 9));
-            directory.setInt(KodakMakernoteDirectory.TAG_BURST_MODE, reader.getUInt8(dataOffset + 10));
-            directory.setInt(KodakMakernoteDirectory.TAG_IMAGE_WIDTH, reader.getUInt16(dataOffset + 12));
-            directory.setInt(KodakMakernoteDirectory.TAG_IMAGE_HEIGHT, reader.getUInt16(dataOffset + 14));
-            directory.setInt(KodakMakernoteDirectory.TAG_YEAR_CREATED, reader.getUInt16(dataOffset + 16));
-            directory.setByteArray(KodakMakernoteDirectory.TAG_MONTH_DAY_CREATED, reader.getBytes(dataOffset + 18, 2));
-            directory.setByteArray(KodakMakernoteDirectory.TAG_TIME_CREATED, reader.getBytes(dataOffset + 20, 4));
-            directory.setInt(KodakMakernoteDirectory.TAG_BURST_MODE_2, reader.getUInt16(dataOffset + 24));
-            directory.setInt(KodakMakernoteDirectory.TAG_SHUTTER_MODE, reader.getUInt8(dataOffset + 27));
-            directory.setInt(KodakMakernoteDirectory.TAG_METERING_MODE, reader.getUInt8(dataOffset + 28));
-            directory.setInt(KodakMakernoteDirectory.TAG_SEQUENCE_NUMBER, reader.getUInt8(dataOffset + 29));
-            directory.setInt(KodakMakernoteDirectory.TAG_F_NUMBER, reader.getUInt16(dataOffset + 30));
-            directory.setLong(KodakMakernoteDirectory.TAG_EXPOSURE_TIME, reader.getUInt32(dataOffset + 32));
-            directory.setInt(KodakMakernoteDirectory.TAG_EXPOSURE_COMPENSATION, reader.getInt16(dataOffset + 36));
-            directory.setInt(KodakMakernoteDirectory.TAG_FOCUS_MODE, reader.getUInt8(dataOffset + 56));
-            directory.setInt(KodakMakernoteDirectory.TAG_WHITE_BALANCE, reader.getUInt8(dataOffset + 64));
-            directory.setInt(KodakMakernoteDirectory.TAG_FLASH_MODE, reader.getUInt8(dataOffset + 92));
-            directory.setInt(KodakMakernoteDirectory.TAG_FLASH_FIRED, reader.getUInt8(dataOffset + 93));
-            directory.setInt(KodakMakernoteDirectory.TAG_ISO_SETTING, reader.getUInt16(dataOffset + 94));
-            directory.setInt(KodakMakernoteDirectory.TAG_ISO, reader.getUInt16(dataOffset + 96));
-            directory.setInt(KodakMakernoteDirectory.TAG_TOTAL_ZOOM, reader.getUInt16(dataOffset + 98));
-            directory.setInt(KodakMakernoteDirectory.TAG_DATE_TIME_STAMP, reader.getUInt16(dataOffset + 100));
-            directory.setInt(KodakMakernoteDirectory.TAG_COLOR_MODE, reader.getUInt16(dataOffset + 102));
-            directory.setInt(KodakMakernoteDirectory.TAG_DIGITAL_ZOOM, reader.getUInt16(dataOffset + 104));
-            directory.setInt(KodakMakernoteDirectory.TAG_SHARPNESS, reader.getInt8(dataOffset + 107));
-        } catch (IOException ex) {
-            directory.addError("Error processing Kodak makernote data: " + ex.getMessage());
-        }
-    }
-
-    private static void processReconyxHyperFireMakernote(@NotNull final ReconyxHyperFireMakernoteDirectory directory, final int makernoteOffset, @NotNull final RandomAccessReader reader) throws IOException
-    {
-        directory.setObject(ReconyxHyperFireMakernoteDirectory.TAG_MAKERNOTE_VERSION, reader.getUInt16(makernoteOffset));
-
-        int major = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION);
-        int minor = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 2);
-        int revision = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 4);
-        String buildYear = String.format("%04X", reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 6));
-        String buildDate = String.format("%04X", reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 8));
-        String buildYearAndDate = buildYear + buildDate;
-        Integer build;
-        try {
-            build = Integer.parseInt(buildYearAndDate);
-        } catch (NumberFormatException e) {
-            build = null;
-        }
-
-        if (build != null) {
-            directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION, String.format("%d.%d.%d.%s", major, minor, revision, build));
-        } else {
-            directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION, String.format("%d.%d.%d", major, minor, revision));
-            directory.addError("Error processing Reconyx HyperFire makernote data: build '" + buildYearAndDate + "' is not in the expected format and will be omitted from Firmware Version.");
-        }
-
-        directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE, String.valueOf((char)reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE)));
-        directory.setIntArray(ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE,
-                      new int[]
-                      {
-                          reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE),
-                          reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE + 2)
-                      });
-
-        int eventNumberHigh = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER);
-        int eventNumberLow = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER + 2);
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER, (eventNumberHigh << 16) + eventNumberLow);
-
-        int seconds = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL);
-        int minutes = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 2);
-        int hour = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 4);
-        int month = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 6);
-        int day = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 8);
-        int year = reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 10);
-
-        if ((seconds >= 0 && seconds < 60) &&
-            (minutes >= 0 && minutes < 60) &&
-            (hour >= 0 && hour < 24) &&
-            (month >= 1 && month < 13) &&
-            (day >= 1 && day < 32) &&
-            (year >= 1 && year <= 9999)) {
-            directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL,
-                    String.format("%4d:%2d:%2d %2d:%2d:%2d", year, month, day, hour, minutes, seconds));
-        } else {
-            directory.addError("Error processing Reconyx HyperFire makernote data: Date/Time Original " + year + "-" + month + "-" + day + " " + hour + ":" + minutes + ":" + seconds + " is not a valid date/time.");
-        }
-
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, reader.getInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, reader.getInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE));
-        //directory.setByteArray(ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, reader.getBytes(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, 28));
-        directory.setStringValue(ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, new StringValue(reader.getBytes(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, 28), Charsets.UTF_16LE));
-        // two unread bytes: the serial number's terminating null
-
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_CONTRAST, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_CONTRAST));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_BRIGHTNESS, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_BRIGHTNESS));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_SHARPNESS, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_SHARPNESS));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_SATURATION, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_SATURATION));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_INFRARED_ILLUMINATOR, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_INFRARED_ILLUMINATOR));
-        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_MOTION_SENSITIVITY, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_MOTION_SENSITIVITY));
-        directory.setDouble(ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE, reader.getUInt16(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE) / 1000.0);
-        directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_USER_LABEL, reader.getNullTerminatedString(makernoteOffset + ReconyxHyperFireMakernoteDirectory.TAG_USER_LABEL, 44, Charsets.UTF_8));
-    }
-
-    private static void processReconyxUltraFireMakernote(@NotNull final ReconyxUltraFireMakernoteDirectory directory, final int makernoteOffset, @NotNull final RandomAccessReader reader) throws IOException
-    {
-        directory.setString(ReconyxUltraFireMakernoteDirectory.TAG_LABEL, reader.getString(makernoteOffset, 9, Charsets.UTF_8));
-        /*uint makernoteID = ByteConvert.FromBigEndianToNative(reader.GetUInt32(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagMakernoteID));
-        directory.Set(ReconyxUltraFireMakernoteDirectory.TagMakernoteID, makernoteID);
-        if (makernoteID != ReconyxUltraFireMakernoteDirectory.MAKERNOTE_ID) {
-            directory.addError("Error processing Reconyx UltraFire makernote data: unknown Makernote ID 0x" + makernoteID.ToString("x8"));
-            return;
-        }
-        directory.Set(ReconyxUltraFireMakernoteDirectory.TagMakernoteSize, ByteConvert.FromBigEndianToNative(reader.GetUInt32(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagMakernoteSize)));
-        uint makernotePublicID = ByteConvert.FromBigEndianToNative(reader.GetUInt32(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagMakernotePublicID));
-        directory.Set(ReconyxUltraFireMakernoteDirectory.TagMakernotePublicID, makernotePublicID);
-        if (makernotePublicID != ReconyxUltraFireMakernoteDirectory.MAKERNOTE_PUBLIC_ID) {
-            directory.addError("Error processing Reconyx UltraFire makernote data: unknown Makernote Public ID 0x" + makernotePublicID.ToString("x8"));
-            return;
-        }*/
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagMakernotePublicSize, ByteConvert.FromBigEndianToNative(reader.GetUInt16(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagMakernotePublicSize)));
-
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagCameraVersion, ProcessReconyxUltraFireVersion(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagCameraVersion, reader));
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagUibVersion, ProcessReconyxUltraFireVersion(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagUibVersion, reader));
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagBtlVersion, ProcessReconyxUltraFireVersion(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagBtlVersion, reader));
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagPexVersion, ProcessReconyxUltraFireVersion(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagPexVersion, reader));
-
-        directory.setString(ReconyxUltraFireMakernoteDirectory.TAG_EVENT_TYPE, reader.getString(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_EVENT_TYPE, 1, Charsets.UTF_8));
-        directory.setIntArray(ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE,
-                      new int[]
-                      {
-                          reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE),
-                          reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE + 1)
-                      });
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagEventNumber, ByteConvert.FromBigEndianToNative(reader.GetUInt32(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagEventNumber)));
-
-        byte seconds = reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL);
-        byte minutes = reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 1);
-        byte hour = reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 2);
-        byte day = reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 3);
-        byte month = reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 4);
-        /*ushort year = ByteConvert.FromBigEndianToNative(reader.GetUInt16(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagDateTimeOriginal + 5));
-        if ((seconds >= 0 && seconds < 60) &&
-            (minutes >= 0 && minutes < 60) &&
-            (hour >= 0 && hour < 24) &&
-            (month >= 1 && month < 13) &&
-            (day >= 1 && day < 32) &&
-            (year >= 1 && year <= 9999)) {
-            directory.Set(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL, new DateTime(year, month, day, hour, minutes, seconds, DateTimeKind.Unspecified));
-        } else {
-            directory.addError("Error processing Reconyx UltraFire makernote data: Date/Time Original " + year + "-" + month + "-" + day + " " + hour + ":" + minutes + ":" + seconds + " is not a valid date/time.");
-        }*/
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagDayOfWeek, reader.GetByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagDayOfWeek));
-
-        directory.setInt(ReconyxUltraFireMakernoteDirectory.TAG_MOON_PHASE, reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_MOON_PHASE));
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagAmbientTemperatureFahrenheit, ByteConvert.FromBigEndianToNative(reader.GetInt16(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagAmbientTemperatureFahrenheit)));
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagAmbientTemperature, ByteConvert.FromBigEndianToNative(reader.GetInt16(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagAmbientTemperature)));
-
-        directory.setInt(ReconyxUltraFireMakernoteDirectory.TAG_FLASH, reader.getByte(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_FLASH));
-        //directory.Set(ReconyxUltraFireMakernoteDirectory.TagBatteryVoltage, ByteConvert.FromBigEndianToNative(reader.GetUInt16(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TagBatteryVoltage)) / 1000.0);
-        directory.setStringValue(ReconyxUltraFireMakernoteDirectory.TAG_SERIAL_NUMBER, new StringValue(reader.getBytes(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_SERIAL_NUMBER, 14), Charsets.UTF_8));
-        // unread byte: the serial number's terminating null
-        directory.setString(ReconyxUltraFireMakernoteDirectory.TAG_USER_LABEL, reader.getNullTerminatedString(makernoteOffset + ReconyxUltraFireMakernoteDirectory.TAG_USER_LABEL, 20, Charsets.UTF_8));
     }
 }
-
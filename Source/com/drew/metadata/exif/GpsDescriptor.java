@@ -20,13 +20,13 @@
  */
 package com.drew.metadata.exif;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.GeoLocation;
 import com.drew.lang.Rational;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.TagDescriptor;
 
-import java.text.DecimalFormat;
 
 import static com.drew.metadata.exif.GpsDirectory.*;
 
@@ -38,6 +38,9 @@ import static com.drew.metadata.exif.GpsDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class GpsDescriptor extends TagDescriptor<GpsDirectory>
 {
+    private static final DecimalFormatter SECONDS_FORMAT = new DecimalFormatter("00.000");
+    private static final DecimalFormatter UP_TO_2DP = new DecimalFormatter("0.##");
+
     public GpsDescriptor(@NotNull GpsDirectory directory)
     {
         super(directory);
@@ -126,13 +129,12 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
     {
         // time in hour, min, sec
         Rational[] timeComponents = _directory.getRationalArray(TAG_TIME_STAMP);
-        DecimalFormat df = new DecimalFormat("00.000");
         return timeComponents == null
             ? null
             : String.format("%02d:%02d:%s UTC",
                 timeComponents[0].intValue(),
                 timeComponents[1].intValue(),
-                df.format(timeComponents[2].doubleValue()));
+                SECONDS_FORMAT.format(timeComponents[2].doubleValue()));
     }
 
     @Nullable
@@ -191,7 +193,7 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
             return null;
         final String unit = getGpsDestinationReferenceDescription();
         return String.format("%s %s",
-            new DecimalFormat("0.##").format(value.doubleValue()),
+            UP_TO_2DP.format(value.doubleValue()),
             unit == null ? "unit" : unit.toLowerCase());
     }
 
@@ -201,7 +203,7 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
         Rational angle = _directory.getRational(tagType);
         // provide a decimal version of rational numbers in the description, to avoid strings like "35334/199 degrees"
         String value = angle != null
-            ? new DecimalFormat("0.##").format(angle.doubleValue())
+            ? UP_TO_2DP.format(angle.doubleValue())
             : _directory.getString(tagType);
         return value == null || value.trim().length() == 0 ? null : value.trim() + " degrees";
     }
@@ -226,7 +228,7 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
     public String getGpsDopDescription()
     {
         final Rational value = _directory.getRational(TAG_DOP);
-        return value == null ? null : new DecimalFormat("0.##").format(value.doubleValue());
+        return value == null ? null : UP_TO_2DP.format(value.doubleValue());
     }
 
     @Nullable
@@ -255,7 +257,7 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
             return null;
         final String unit = getGpsSpeedRefDescription();
         return String.format("%s %s",
-            new DecimalFormat("0.##").format(value.doubleValue()),
+            UP_TO_2DP.format(value.doubleValue()),
             unit == null ? "unit" : unit.toLowerCase());
     }
 
@@ -301,7 +303,7 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
     public String getGpsAltitudeDescription()
     {
         final Rational value = _directory.getRational(TAG_ALTITUDE);
-        return value == null ? null : new DecimalFormat("0.##").format(value.doubleValue()) + " metres";
+        return value == null ? null : UP_TO_2DP.format(value.doubleValue()) + " metres";
     }
 
     @Nullable
@@ -326,7 +328,7 @@ public class GpsDescriptor extends TagDescriptor<GpsDirectory>
     public String getGpsHPositioningErrorDescription()
     {
         final Rational value = _directory.getRational(TAG_H_POSITIONING_ERROR);
-        return value == null ? null : new DecimalFormat("0.##").format(value.doubleValue()) + " metres";
+        return value == null ? null : UP_TO_2DP.format(value.doubleValue()) + " metres";
     }
 
     @Nullable
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.BufferBoundsException;
+import com.drew.lang.RandomAccessReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.Directory;
+import com.drew.metadata.Metadata;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Describes a makernote being processed, and provides the operations a {@link MakernoteParser} may use to populate
+ * {@link Metadata} from it.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class MakernoteContext
+{
+    @NotNull private final ExifTiffHandler _handler;
+    @NotNull private final RandomAccessReader _reader;
+    @NotNull private final Set<Integer> _processedIfdOffsets;
+    @NotNull private final Directory _parentDirectory;
+    private final int _makernoteOffset;
+    private final int _tiffHeaderOffset;
+    @Nullable private final String _cameraMake;
+
+    MakernoteContext(@NotNull ExifTiffHandler handler,
+                     @NotNull RandomAccessReader reader,
+                     @NotNull Set<Integer> processedIfdOffsets,
+                     @NotNull Directory parentDirectory,
+                     int makernoteOffset,
+                     int tiffHeaderOffset,
+                     @Nullable String cameraMake)
+    {
+        _handler = handler;
+        _reader = reader;
+        _processedIfdOffsets = processedIfdOffsets;
+        _parentDirectory = parentDirectory;
+        _makernoteOffset = makernoteOffset;
+        _tiffHeaderOffset = tiffHeaderOffset;
+        _cameraMake = cameraMake;
+    }
+
+    /** Gets the reader from which the makernote is read. Its byte order is restored once parsing completes. */
+    @NotNull
+    public RandomAccessReader getReader()
+    {
+        return _reader;
+    }
+
+    /** Gets the offset of the makernote's first byte within {@link #getReader()}. */
+    public int getMakernoteOffset()
+    {
+        return _makernoteOffset;
+    }
+
+    /** Gets the offset of the TIFF header that contains the makernote, against which most IFD offsets are resolved. */
+    public int getTiffHeaderOffset()
+    {
+        return _tiffHeaderOffset;
+    }
+
+    /** Gets the value of the Exif IFD0 <code>Make</code> tag, if present. */
+    @Nullable
+    public String getCameraMake()
+    {
+        return _cameraMake;
+    }
+
+    /** Gets the directory containing the makernote tag, usually the {@link ExifSubIFDDirectory}. */
+    @NotNull
+    public Directory getParentDirectory()
+    {
+        return _parentDirectory;
+    }
+
+    @NotNull
+    public Metadata getMetadata()
+    {
+        return _handler.getMetadata();
+    }
+
+    /**
+     * Gets the byte at <code>index</code> bytes into the makernote, without throwing if the data ends first.
+     *
+     * @return the unsigned byte value, or <code>-1</code> if the index lies beyond the available data
+     */
+    public int getByte(int index) throws IOException
+    {
+        try {
+            return _reader.getByte(_makernoteOffset + index) & 0xFF;
+        } catch (BufferBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Determines whether the makernote begins with the specified ASCII signature.
+     *
+     * @param signature the expected leading characters, which may include <code>\0</code>
+     * @param ignoreCase whether ASCII letters are compared case-insensitively
+     */
+    public boolean startsWith(@NotNull String signature, boolean ignoreCase) throws IOException
+    {
+        for (int i = 0; i < signature.length(); i++) {
+            int b = getByte(i);
+            if (b == -1)
+                return false;
+            char expected = signature.charAt(i);
+            if (ignoreCase ? MakernoteSignatureTable.fold(b) != MakernoteSignatureTable.fold(expected) : b != expected)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads an IFD-formatted makernote into <code>directory</code>, which is added to the metadata as a child of
+     * {@link #getParentDirectory()}. Depending upon the metadata's {@link com.drew.metadata.MakernotePolicy}, reading
+     * may be deferred until the directory is requested.
+     *
+     * @param ifdOffset the offset of the IFD within {@link #getReader()}
+     * @param tiffHeaderOffset the offset against which the IFD's value offsets are resolved
+     */
+    public void processIfd(@NotNull Directory directory, int ifdOffset, int tiffHeaderOffset) throws IOException
+    {
+        _handler.processMakernoteIfd(directory, _reader, _processedIfdOffsets, ifdOffset, tiffHeaderOffset);
+    }
+
+    /**
+     * Adds a directory populated directly by the parser, such as one read from a makernote with a fixed binary layout.
+     */
+    public void addDirectory(@NotNull Directory directory)
+    {
+        _handler.getMetadata().addDirectory(directory);
+    }
+}
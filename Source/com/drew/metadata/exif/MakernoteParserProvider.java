@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.annotations.NotNull;
+
+/**
+ * Adds {@link MakernoteParser}s to a {@link MakernoteSignatureTable}.
+ * <p>
+ * Implementations are discovered via {@link java.util.ServiceLoader} when the
+ * {@link MakernoteSignatureTable#getDefault() default table} is first used. To add one, list its fully qualified class
+ * name in a <code>META-INF/services/com.drew.metadata.exif.MakernoteParserProvider</code> resource. Providers are
+ * consulted after this library's own parsers.
+ * <p>
+ * Providers are instantiated eagerly, so should be small. To avoid loading a vendor's classes until one of its
+ * makernotes is encountered, register a small anonymous {@link MakernoteParser} that creates the vendor's parser
+ * within its {@link MakernoteParser#parse parse} method.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public interface MakernoteParserProvider
+{
+    void register(@NotNull MakernoteSignatureTable table);
+}
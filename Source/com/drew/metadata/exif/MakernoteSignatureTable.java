@@ -0,0 +1,310 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Selects the {@link MakernoteParser} for a makernote using its leading bytes and the camera's make.
+ * <p>
+ * Signatures are held in a prefix tree that is walked one byte at a time, and makes are compared in place ignoring
+ * case and surrounding whitespace, so selecting a parser allocates nothing. When several entries match, they are
+ * tried in the order they were added until one parser accepts the makernote.
+ * <p>
+ * Parsers may be added to the {@link #getDefault() default table}, either directly or via a
+ * {@link MakernoteParserProvider}, to support makernotes this library does not understand. Entries added after the
+ * built-in ones are only consulted when no built-in parser accepts the makernote.
+ * This class is thread-safe.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class MakernoteSignatureTable
+{
+    @NotNull
+    private static final MakernoteSignatureTable DEFAULT = new MakernoteSignatureTable();
+
+    static {
+        new BuiltInMakernoteParsers().register(DEFAULT);
+        for (MakernoteParserProvider provider : ServiceLoader.load(MakernoteParserProvider.class))
+            provider.register(DEFAULT);
+    }
+
+    /**
+     * Gets the table used when reading Exif data. It contains this library's own parsers, followed by those of any
+     * {@link MakernoteParserProvider}s found on the class path.
+     */
+    @NotNull
+    public static MakernoteSignatureTable getDefault()
+    {
+        return DEFAULT;
+    }
+
+    @NotNull
+    private final List<Entry> _entries = new ArrayList<Entry>();
+    @NotNull
+    private volatile Table _table = new Table(_entries);
+
+    /**
+     * Selects parsers whose makernotes begin with <code>signature</code>. Letters are matched exactly.
+     *
+     * @param signature the leading characters of the makernote, which may include <code>\0</code>
+     */
+    public void addSignature(@NotNull String signature, @NotNull MakernoteParser parser)
+    {
+        addSignature(signature, false, parser);
+    }
+
+    /**
+     * Selects parsers whose makernotes begin with <code>signature</code>.
+     *
+     * @param signature the leading characters of the makernote, which may include <code>\0</code>
+     * @param ignoreCase whether ASCII letters are compared case-insensitively
+     */
+    public void addSignature(@NotNull String signature, boolean ignoreCase, @NotNull MakernoteParser parser)
+    {
+        if (signature.length() == 0)
+            throw new IllegalArgumentException("Signature must contain at least one character.");
+        for (int i = 0; i < signature.length(); i++) {
+            if (signature.charAt(i) > 0x7F)
+                throw new IllegalArgumentException("Signature must contain only ASCII characters.");
+        }
+        add(new Entry(parser, signature, ignoreCase, null, false));
+    }
+
+    /**
+     * Selects parsers for cameras whose Exif <code>Make</code> begins with <code>make</code>, ignoring case and
+     * surrounding whitespace.
+     */
+    public void addMake(@NotNull String make, @NotNull MakernoteParser parser)
+    {
+        addMake(make, false, parser);
+    }
+
+    /**
+     * Selects parsers for cameras by their Exif <code>Make</code>, ignoring case and surrounding whitespace.
+     *
+     * @param exact <code>true</code> if the whole make must match, or <code>false</code> to match it as a prefix
+     */
+    public void addMake(@NotNull String make, boolean exact, @NotNull MakernoteParser parser)
+    {
+        if (make.trim().length() == 0)
+            throw new IllegalArgumentException("Make must contain at least one non-whitespace character.");
+        add(new Entry(parser, null, false, make.trim(), exact));
+    }
+
+    /**
+     * Adds a parser that is offered every makernote not accepted by a previously added entry. Such parsers must
+     * recognise their own data.
+     */
+    public void addFallback(@NotNull MakernoteParser parser)
+    {
+        add(new Entry(parser, null, false, null, false));
+    }
+
+    private synchronized void add(@NotNull Entry entry)
+    {
+        entry._priority = _entries.size();
+        _entries.add(entry);
+        // Readers never observe a partially built table
+        _table = new Table(_entries);
+    }
+
+    /**
+     * Offers the makernote to each matching parser in turn.
+     *
+     * @return <code>true</code> if a parser accepted the makernote, otherwise <code>false</code>
+     */
+    boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        Table table = _table;
+        int after = -1;
+        while (true) {
+            Entry entry = table.findNext(context, after);
+            if (entry == null)
+                return false;
+            if (entry._parser.parse(context))
+                return true;
+            after = entry._priority;
+        }
+    }
+
+    /** Folds ASCII letters to upper case. */
+    static int fold(int c)
+    {
+        return c >= 'a' && c <= 'z' ? c - ('a' - 'A') : c;
+    }
+
+    private static boolean makeMatches(@NotNull String cameraMake, @NotNull String make, boolean exact)
+    {
+        int start = 0;
+        int end = cameraMake.length();
+        while (start < end && cameraMake.charAt(start) <= ' ')
+            start++;
+        while (end > start && cameraMake.charAt(end - 1) <= ' ')
+            end--;
+
+        if (exact ? end - start != make.length() : end - start < make.length())
+            return false;
+
+        return cameraMake.regionMatches(true, start, make, 0, make.length());
+    }
+
+    private static final class Entry
+    {
+        @NotNull private final MakernoteParser _parser;
+        @Nullable private final String _signature;
+        private final boolean _ignoreCase;
+        @Nullable private final String _make;
+        private final boolean _exactMake;
+        private int _priority;
+
+        Entry(@NotNull MakernoteParser parser, @Nullable String signature, boolean ignoreCase, @Nullable String make, boolean exactMake)
+        {
+            _parser = parser;
+            _signature = signature;
+            _ignoreCase = ignoreCase;
+            _make = make;
+            _exactMake = exactMake;
+        }
+    }
+
+    /** A node in the signature tree, keyed by case-folded bytes. Children are few, so are searched linearly. */
+    private static final class Node
+    {
+        @NotNull private byte[] _keys = new byte[0];
+        @NotNull private Node[] _children = new Node[0];
+        @NotNull private Entry[] _entries = new Entry[0];
+
+        @Nullable
+        Node getChild(int key)
+        {
+            for (int i = 0; i < _keys.length; i++) {
+                if ((_keys[i] & 0xFF) == key)
+                    return _children[i];
+            }
+            return null;
+        }
+
+        @NotNull
+        Node getOrAddChild(int key)
+        {
+            Node child = getChild(key);
+            if (child == null) {
+                child = new Node();
+                int count = _keys.length;
+                byte[] keys = new byte[count + 1];
+                Node[] children = new Node[count + 1];
+                System.arraycopy(_keys, 0, keys, 0, count);
+                System.arraycopy(_children, 0, children, 0, count);
+                keys[count] = (byte)key;
+                children[count] = child;
+                _keys = keys;
+                _children = children;
+            }
+            return child;
+        }
+
+        void addEntry(@NotNull Entry entry)
+        {
+            Entry[] entries = new Entry[_entries.length + 1];
+            System.arraycopy(_entries, 0, entries, 0, _entries.length);
+            entries[_entries.length] = entry;
+            _entries = entries;
+        }
+    }
+
+    /** An immutable snapshot of the table's entries. */
+    private static final class Table
+    {
+        @NotNull private final Node _root = new Node();
+        @NotNull private final Entry[] _makeEntries;
+        @NotNull private final Entry[] _fallbackEntries;
+
+        Table(@NotNull List<Entry> entries)
+        {
+            List<Entry> makeEntries = new ArrayList<Entry>();
+            List<Entry> fallbackEntries = new ArrayList<Entry>();
+
+            for (Entry entry : entries) {
+                if (entry._signature != null) {
+                    Node node = _root;
+                    for (int i = 0; i < entry._signature.length(); i++)
+                        node = node.getOrAddChild(fold(entry._signature.charAt(i)));
+                    node.addEntry(entry);
+                } else if (entry._make != null) {
+                    makeEntries.add(entry);
+                } else {
+                    fallbackEntries.add(entry);
+                }
+            }
+
+            _makeEntries = makeEntries.toArray(new Entry[makeEntries.size()]);
+            _fallbackEntries = fallbackEntries.toArray(new Entry[fallbackEntries.size()]);
+        }
+
+        /** Finds the earliest-added matching entry that was added after the entry with priority <code>after</code>. */
+        @Nullable
+        Entry findNext(@NotNull MakernoteContext context, int after) throws IOException
+        {
+            Entry best = null;
+
+            Node node = _root;
+            for (int i = 0; ; i++) {
+                int b = context.getByte(i);
+                if (b == -1)
+                    break;
+                node = node.getChild(fold(b));
+                if (node == null)
+                    break;
+                for (Entry entry : node._entries) {
+                    if (isCandidate(entry, best, after) && (entry._ignoreCase || context.startsWith(entry._signature, false)))
+                        best = entry;
+                }
+            }
+
+            String cameraMake = context.getCameraMake();
+            if (cameraMake != null) {
+                for (Entry entry : _makeEntries) {
+                    if (isCandidate(entry, best, after) && makeMatches(cameraMake, entry._make, entry._exactMake))
+                        best = entry;
+                }
+            }
+
+            for (Entry entry : _fallbackEntries) {
+                if (isCandidate(entry, best, after))
+                    best = entry;
+            }
+
+            return best;
+        }
+
+        private static boolean isCandidate(@NotNull Entry entry, @Nullable Entry best, int after)
+        {
+            return entry._priority > after && (best == null || entry._priority < best._priority);
+        }
+    }
+}
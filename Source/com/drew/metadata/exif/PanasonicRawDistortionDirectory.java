@@ -22,6 +22,7 @@
 package com.drew.metadata.exif;
 
 import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.BinaryLayout;
 import com.drew.metadata.Directory;
 
 import java.util.HashMap;
@@ -50,6 +51,20 @@ public class PanasonicRawDistortionDirectory extends Directory
     public static final int TagDistortionParam11 = 11;
     public static final int TagDistortionN = 12;
 
+    /** Each tag's value is at twice its index, as the data is a sequence of 16-bit values. */
+    @NotNull
+    static final BinaryLayout LAYOUT = new BinaryLayout();
+
+    static
+    {
+        int[] tagTypes = {
+            TagDistortionParam02, TagDistortionParam04, TagDistortionScale, TagDistortionCorrection,
+            TagDistortionParam08, TagDistortionParam09, TagDistortionParam11, TagDistortionN
+        };
+        for (int tagType : tagTypes)
+            LAYOUT.add(tagType, tagType * 2, BinaryLayout.FieldType.Int16);
+    }
+
     @NotNull
     private static final HashMap<Integer, String> _tagNameMap = new HashMap<Integer, String>();
 
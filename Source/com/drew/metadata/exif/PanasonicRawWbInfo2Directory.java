@@ -22,6 +22,7 @@
 package com.drew.metadata.exif;
 
 import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.BinaryLayout;
 import com.drew.metadata.Directory;
 
 import java.util.HashMap;
@@ -59,6 +60,19 @@ public class PanasonicRawWbInfo2Directory extends Directory
     public static final int TagWbType7 = 25;
     public static final int TagWbRgbLevels7 = 26;
 
+    /** Each tag's value is at twice its index, as the data is a sequence of 16-bit values. */
+    @NotNull
+    static final BinaryLayout LAYOUT = new BinaryLayout();
+
+    static
+    {
+        LAYOUT.add(TagNumWbEntries, 0, BinaryLayout.FieldType.UInt16);
+        for (int tagType = TagWbType1; tagType <= TagWbType7; tagType += 4) {
+            LAYOUT.add(tagType, tagType * 2, BinaryLayout.FieldType.UInt16);
+            LAYOUT.add(tagType + 1, (tagType + 1) * 2, BinaryLayout.FieldType.UInt16, 3);
+        }
+    }
+
     @NotNull
     private static final HashMap<Integer, String> _tagNameMap = new HashMap<Integer, String>();
 
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A view over Canon auto focus information (makernote tag <code>0x0012</code>).
+ * <p>
+ * Notes from Exiftool 10.10 by Phil Harvey, lib\Image\Exiftool\Canon.pm:
+ * Auto-focus information used by many older Canon models. The values in this
+ * record are sequential, and some have variable sizes based on the value of
+ * numafpoints (which may be 1,5,7,9,15,45, or 53). The AFArea coordinates are
+ * given in a system where the image has dimensions given by AFImageWidth and
+ * AFImageHeight, and 0,0 is the image center. The direction of the Y axis
+ * depends on the camera model, with positive Y upwards for EOS models, but
+ * apparently downwards for PowerShot models.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class CanonAFInfo extends CanonRecord
+{
+    private static final int AF_AREA_X_POSITIONS = CanonMakernoteDirectory.AFInfo.TAG_AF_AREA_X_POSITIONS - CanonMakernoteDirectory.AFInfo.OFFSET;
+    private static final int AF_AREA_Y_POSITIONS = CanonMakernoteDirectory.AFInfo.TAG_AF_AREA_Y_POSITIONS - CanonMakernoteDirectory.AFInfo.OFFSET;
+    private static final int AF_POINTS_IN_FOCUS = CanonMakernoteDirectory.AFInfo.TAG_AF_POINTS_IN_FOCUS - CanonMakernoteDirectory.AFInfo.OFFSET;
+
+    public CanonAFInfo(@NotNull int[] values)
+    {
+        super(values);
+    }
+
+    @Override
+    int getOffset()
+    {
+        return CanonMakernoteDirectory.AFInfo.OFFSET;
+    }
+
+    /** Gets the number of auto focus points, which determines the size of the variable length values. */
+    @Nullable
+    public Integer getNumAfPoints()
+    {
+        return getValue(0);
+    }
+
+    @Nullable
+    public Integer getValidAfPoints()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_VALID_AF_POINTS);
+    }
+
+    @Nullable
+    public Integer getImageWidth()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_IMAGE_WIDTH);
+    }
+
+    @Nullable
+    public Integer getImageHeight()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_IMAGE_HEIGHT);
+    }
+
+    @Nullable
+    public Integer getAfImageWidth()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_AF_IMAGE_WIDTH);
+    }
+
+    @Nullable
+    public Integer getAfImageHeight()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_AF_IMAGE_HEIGHT);
+    }
+
+    @Nullable
+    public Integer getAfAreaWidth()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_AF_AREA_WIDTH);
+    }
+
+    @Nullable
+    public Integer getAfAreaHeight()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_AF_AREA_HEIGHT);
+    }
+
+    /** Gets the X coordinate of each auto focus area, or <code>null</code> if not recorded. */
+    @Nullable
+    public short[] getAfAreaXPositions()
+    {
+        return (short[])getTagValueByNumber(AF_AREA_X_POSITIONS);
+    }
+
+    /** Gets the Y coordinate of each auto focus area, or <code>null</code> if not recorded. */
+    @Nullable
+    public short[] getAfAreaYPositions()
+    {
+        return (short[])getTagValueByNumber(AF_AREA_Y_POSITIONS);
+    }
+
+    /** Gets a bit field indicating which auto focus points were in focus, or <code>null</code> if not recorded. */
+    @Nullable
+    public short[] getAfPointsInFocus()
+    {
+        return (short[])getTagValueByNumber(AF_POINTS_IN_FOCUS);
+    }
+
+    @Nullable
+    public Integer getPrimaryAfPoint1()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_PRIMARY_AF_POINT_1);
+    }
+
+    @Nullable
+    public Integer getPrimaryAfPoint2()
+    {
+        return getIntegerTag(CanonMakernoteDirectory.AFInfo.TAG_PRIMARY_AF_POINT_2);
+    }
+
+    @Nullable
+    private Integer getIntegerTag(int tagType)
+    {
+        return (Integer)getTagValueByNumber(tagType - getOffset());
+    }
+
+    @Nullable
+    @Override
+    Integer getTagValue(int tagType)
+    {
+        Object value = getTagValueByNumber(tagType - getOffset());
+        return value instanceof Integer ? (Integer)value : null;
+    }
+
+    private int getNumAfPointsOrZero()
+    {
+        // A negative count would otherwise move backwards through the array
+        return _values.length == 0 ? 0 : Math.max(0, _values[0]);
+    }
+
+    /** Gets the array index at which the value of the given tag number begins. */
+    private int getStartIndex(int tagNumber)
+    {
+        int numAfPoints = getNumAfPointsOrZero();
+        if (tagNumber <= AF_AREA_X_POSITIONS)
+            return tagNumber;
+        if (tagNumber == AF_AREA_Y_POSITIONS)
+            return AF_AREA_X_POSITIONS + numAfPoints;
+        if (tagNumber == AF_POINTS_IN_FOCUS)
+            return AF_AREA_X_POSITIONS + 2 * numAfPoints;
+        return AF_AREA_X_POSITIONS + 2 * numAfPoints + getPointsInFocusLength(numAfPoints) + tagNumber - AF_POINTS_IN_FOCUS - 1;
+    }
+
+    private static int getPointsInFocusLength(int numAfPoints)
+    {
+        return (numAfPoints + 15) / 16;
+    }
+
+    @Override
+    boolean hasTagNumber(int tagNumber)
+    {
+        return tagNumber >= 0 && getStartIndex(tagNumber) < _values.length;
+    }
+
+    @Nullable
+    @Override
+    Object getTagValueByNumber(int tagNumber)
+    {
+        if (!hasTagNumber(tagNumber))
+            return null;
+
+        int start = getStartIndex(tagNumber);
+
+        // These tags store a number of values that depends upon the number of AF points
+        int length;
+        if (tagNumber == AF_AREA_X_POSITIONS || tagNumber == AF_AREA_Y_POSITIONS)
+            length = getNumAfPointsOrZero();
+        else if (tagNumber == AF_POINTS_IN_FOCUS)
+            length = getPointsInFocusLength(getNumAfPointsOrZero());
+        else
+            return _values[start];
+
+        // There could be incorrect data in the array, so boundary check
+        if (start + length > _values.length)
+            return null;
+
+        short[] values = new short[length];
+        for (int i = 0; i < length; i++)
+            values[i] = (short)_values[start + i];
+        return values;
+    }
+}
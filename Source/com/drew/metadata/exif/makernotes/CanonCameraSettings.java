@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A view over Canon camera settings (makernote tag <code>0x0001</code>).
+ * <p>
+ * Values are raw, as described for the corresponding {@link CanonMakernoteDirectory.CameraSettings} tags.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class CanonCameraSettings extends CanonRecord
+{
+    public CanonCameraSettings(@NotNull int[] values)
+    {
+        super(values);
+    }
+
+    @Override
+    int getOffset()
+    {
+        return CanonMakernoteDirectory.CameraSettings.OFFSET;
+    }
+
+    /** Gets the macro mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getMacroMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_MACRO_MODE);
+    }
+
+    /** Gets the self timer delay, in tenths of a second, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSelfTimerDelay()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_SELF_TIMER_DELAY);
+    }
+
+    /** Gets the image quality, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getQuality()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_QUALITY);
+    }
+
+    /** Gets the flash mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FLASH_MODE);
+    }
+
+    /** Gets the continuous drive mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getContinuousDriveMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_CONTINUOUS_DRIVE_MODE);
+    }
+
+    /** Gets the focus mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFocusMode1()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FOCUS_MODE_1);
+    }
+
+    /** Gets the record mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getRecordMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_RECORD_MODE);
+    }
+
+    /** Gets the image size, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getImageSize()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_IMAGE_SIZE);
+    }
+
+    /** Gets the easy shooting mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getEasyShootingMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_EASY_SHOOTING_MODE);
+    }
+
+    /** Gets the digital zoom, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getDigitalZoom()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_DIGITAL_ZOOM);
+    }
+
+    /** Gets the contrast, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getContrast()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_CONTRAST);
+    }
+
+    /** Gets the saturation, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSaturation()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_SATURATION);
+    }
+
+    /** Gets the sharpness, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSharpness()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_SHARPNESS);
+    }
+
+    /** Gets the ISO setting, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getIso()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_ISO);
+    }
+
+    /** Gets the metering mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getMeteringMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_METERING_MODE);
+    }
+
+    /** Gets the focus type, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFocusType()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FOCUS_TYPE);
+    }
+
+    /** Gets the selected auto focus point, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAfPointSelected()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_AF_POINT_SELECTED);
+    }
+
+    /** Gets the exposure mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getExposureMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_EXPOSURE_MODE);
+    }
+
+    /** Gets the lens type, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getLensType()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE);
+    }
+
+    /** Gets the long focal length, in focal units, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getLongFocalLength()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_LONG_FOCAL_LENGTH);
+    }
+
+    /** Gets the short focal length, in focal units, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getShortFocalLength()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_SHORT_FOCAL_LENGTH);
+    }
+
+    /** Gets the number of focal units per millimetre, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFocalUnitsPerMm()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FOCAL_UNITS_PER_MM);
+    }
+
+    /** Gets the maximum aperture, in Canon APEX units, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getMaxAperture()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_MAX_APERTURE);
+    }
+
+    /** Gets the minimum aperture, in Canon APEX units, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getMinAperture()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_MIN_APERTURE);
+    }
+
+    /** Gets the flash activity, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashActivity()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FLASH_ACTIVITY);
+    }
+
+    /** Gets the flash details bit field, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashDetails()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FLASH_DETAILS);
+    }
+
+    /** Gets the secondary focus mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFocusMode2()
+    {
+        return getTagValue(CanonMakernoteDirectory.CameraSettings.TAG_FOCUS_MODE_2);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A view over Canon focal length information (makernote tag <code>0x0002</code>), which also holds several other shot values.
+ * <p>
+ * Values are raw, as described for the corresponding {@link CanonMakernoteDirectory.FocalLength} tags.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class CanonFocalLength extends CanonRecord
+{
+    public CanonFocalLength(@NotNull int[] values)
+    {
+        super(values);
+    }
+
+    @Override
+    int getOffset()
+    {
+        return CanonMakernoteDirectory.FocalLength.OFFSET;
+    }
+
+    /** Gets the white balance, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getWhiteBalance()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_WHITE_BALANCE);
+    }
+
+    /** Gets the sequence number, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSequenceNumber()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_SEQUENCE_NUMBER);
+    }
+
+    /** Gets the auto focus point used, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAfPointUsed()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_AF_POINT_USED);
+    }
+
+    /** Gets the flash bias, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashBias()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_FLASH_BIAS);
+    }
+
+    /** Gets the auto exposure bracketing, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAutoExposureBracketing()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_AUTO_EXPOSURE_BRACKETING);
+    }
+
+    /** Gets the auto exposure bracketing value, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAebBracketValue()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_AEB_BRACKET_VALUE);
+    }
+
+    /** Gets the subject distance, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSubjectDistance()
+    {
+        return getTagValue(CanonMakernoteDirectory.FocalLength.TAG_SUBJECT_DISTANCE);
+    }
+}
@@ -21,9 +21,14 @@
 package com.drew.metadata.exif.makernotes;
 
 import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.Directory;
+import com.drew.metadata.Tag;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Describes tags specific to Canon cameras.
@@ -117,7 +122,7 @@ public class CanonMakernoteDirectory extends Directory
     public final static class CameraSettings
     {
         // These 'sub'-tag values have been created for consistency -- they don't exist within the exif segment
-        private static final int OFFSET = 0xC100;
+        static final int OFFSET = 0xC100;
 
         /**
          * 1 = Macro
@@ -281,7 +286,7 @@ public class CanonMakernoteDirectory extends Directory
     {
         // These 'sub'-tag values have been created for consistency -- they don't exist within the exif segment
 
-        private static final int OFFSET = 0xC200;
+        static final int OFFSET = 0xC200;
 
         /**
          * 0 = Auto
@@ -326,7 +331,7 @@ public class CanonMakernoteDirectory extends Directory
     {
         // These 'sub'-tag values have been created for consistency -- they don't exist within the exif segment
 
-        private static final int OFFSET = 0xC400;
+        static final int OFFSET = 0xC400;
 
         public static final int TAG_AUTO_ISO = OFFSET + 1;
         public static final int TAG_BASE_ISO = OFFSET + 2;
@@ -362,7 +367,7 @@ public class CanonMakernoteDirectory extends Directory
     {
         // These 'sub'-tag values have been created for consistency -- they don't exist within the exif segment
 
-        private static final int OFFSET = 0xC500;
+        static final int OFFSET = 0xC500;
 
         public static final int TAG_PANORAMA_FRAME_NUMBER = OFFSET + 2;
         public static final int TAG_PANORAMA_DIRECTION = OFFSET + 5;
@@ -372,7 +377,7 @@ public class CanonMakernoteDirectory extends Directory
     {
         // These 'sub'-tag values have been created for consistency -- they don't exist within the exif segment
 
-        private static final int OFFSET = 0xD200;
+        static final int OFFSET = 0xD200;
 
         public static final int TAG_NUM_AF_POINTS = OFFSET;
         public static final int TAG_VALID_AF_POINTS = OFFSET + 1;
@@ -667,6 +672,17 @@ public class CanonMakernoteDirectory extends Directory
         _tagNameMap.put(TAG_FILTER_INFO_ARRAY, "Filter Info Array");
     }
 
+    @Nullable private CanonCameraSettings _cameraSettings;
+    @Nullable private CanonFocalLength _focalLength;
+    @Nullable private CanonShotInfo _shotInfo;
+    @Nullable private CanonPanorama _panorama;
+    @Nullable private CanonAFInfo _afInfo;
+
+    /**
+     * Records whose values have not yet been stored as individual tags, in the order they were set.
+     */
+    @Nullable private List<UnexpandedRecord> _unexpandedRecords;
+
     public CanonMakernoteDirectory()
     {
         this.setDescriptor(new CanonMakernoteDescriptor(this));
@@ -686,6 +702,162 @@ public class CanonMakernoteDirectory extends Directory
         return _tagNameMap;
     }
 
+    /**
+     * Gets the camera settings recorded by the camera, or <code>null</code> if absent.
+     */
+    @Nullable
+    public CanonCameraSettings getCameraSettings()
+    {
+        return _cameraSettings;
+    }
+
+    /**
+     * Gets the focal length information recorded by the camera, or <code>null</code> if absent.
+     */
+    @Nullable
+    public CanonFocalLength getFocalLength()
+    {
+        return _focalLength;
+    }
+
+    /**
+     * Gets the shot information recorded by the camera, or <code>null</code> if absent.
+     */
+    @Nullable
+    public CanonShotInfo getShotInfo()
+    {
+        return _shotInfo;
+    }
+
+    /**
+     * Gets the panorama information recorded by the camera, or <code>null</code> if absent.
+     */
+    @Nullable
+    public CanonPanorama getPanorama()
+    {
+        return _panorama;
+    }
+
+    /**
+     * Gets the auto focus information recorded by the camera, or <code>null</code> if absent.
+     */
+    @Nullable
+    public CanonAFInfo getAFInfo()
+    {
+        return _afInfo;
+    }
+
+    @Override
+    public boolean containsTag(int tagType)
+    {
+        return super.containsTag(tagType) || getRecordTagValue(tagType) != null;
+    }
+
+    @Nullable
+    @Override
+    public Object getObject(int tagType)
+    {
+        Object value = super.getObject(tagType);
+        return value != null ? value : getRecordTagValue(tagType);
+    }
+
+    @NotNull
+    @Override
+    public Collection<Tag> getTags()
+    {
+        expandRecords();
+        return super.getTags();
+    }
+
+    @Override
+    public int getTagCount()
+    {
+        expandRecords();
+        return super.getTagCount();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        expandRecords();
+        return super.isEmpty();
+    }
+
+    @Override
+    protected void freeze()
+    {
+        // Expansion modifies the directory, so must happen before it is frozen
+        expandRecords();
+        super.freeze();
+    }
+
+    @Nullable
+    private Object getRecordTagValue(int tagType)
+    {
+        if (_unexpandedRecords == null)
+            return null;
+
+        // Later records take precedence, as if each had overwritten the tags of those before it
+        for (int i = _unexpandedRecords.size() - 1; i >= 0; i--) {
+            CanonRecord record = _unexpandedRecords.get(i).record;
+            int tagNumber = tagType - record.getOffset();
+            // Tag numbers beyond the record's data belong to other records (or to none)
+            if (tagNumber >= 0 && record.hasTagNumber(tagNumber)) {
+                Object value = record.getTagValueByNumber(tagNumber);
+                if (value != null)
+                    return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the values of unexpanded records as regular tags, positioned as if they had been set when the record was.
+     */
+    private void expandRecords()
+    {
+        if (_unexpandedRecords == null)
+            return;
+
+        List<UnexpandedRecord> records = _unexpandedRecords;
+        _unexpandedRecords = null;
+
+        int insertedCount = 0;
+        for (UnexpandedRecord unexpanded : records) {
+            int tagCount = super.getTagCount();
+
+            CanonRecord record = unexpanded.record;
+            for (int tagNumber = 0; record.hasTagNumber(tagNumber); tagNumber++) {
+                Object value = record.getTagValueByNumber(tagNumber);
+                if (value != null)
+                    super.setObject(record.getOffset() + tagNumber, value);
+            }
+
+            // Newly added tags are appended, so move them to where the record was set
+            moveTags(tagCount, unexpanded.position + insertedCount);
+            insertedCount += super.getTagCount() - tagCount;
+        }
+    }
+
+    private void addRecord(@NotNull CanonRecord record)
+    {
+        if (_unexpandedRecords == null)
+            _unexpandedRecords = new ArrayList<UnexpandedRecord>(4);
+        _unexpandedRecords.add(new UnexpandedRecord(record, super.getTagCount()));
+    }
+
+    private static final class UnexpandedRecord
+    {
+        @NotNull final CanonRecord record;
+        final int position;
+
+        UnexpandedRecord(@NotNull CanonRecord record, int position)
+        {
+            this.record = record;
+            this.position = position;
+        }
+    }
+
     @Override
     public void setObjectArray(int tagType, @NotNull Object array)
     {
@@ -699,33 +871,26 @@ public class CanonMakernoteDirectory extends Directory
 
         // Certain Canon tags contain arrays of values that we split into 'fake' tags as each
         // index in the array has its own meaning and decoding.
-        // Pick those tags out here and throw away the original array.
+        // Pick those tags out here and keep them as typed records, which are only split into
+        // individual tags when the full set of tags is requested.
         // Otherwise just add as usual.
         switch (tagType) {
-            case TAG_CAMERA_SETTINGS_ARRAY: {
-                int[] ints = (int[])array;
-                for (int i = 0; i < ints.length; i++)
-                    setInt(CameraSettings.OFFSET + i, ints[i]);
+            case TAG_CAMERA_SETTINGS_ARRAY:
+                _cameraSettings = new CanonCameraSettings((int[])array);
+                addRecord(_cameraSettings);
                 break;
-            }
-            case TAG_FOCAL_LENGTH_ARRAY: {
-                int[] ints = (int[])array;
-                for (int i = 0; i < ints.length; i++)
-                    setInt(FocalLength.OFFSET + i, ints[i]);
+            case TAG_FOCAL_LENGTH_ARRAY:
+                _focalLength = new CanonFocalLength((int[])array);
+                addRecord(_focalLength);
                 break;
-            }
-            case TAG_SHOT_INFO_ARRAY: {
-                int[] ints = (int[])array;
-                for (int i = 0; i < ints.length; i++)
-                    setInt(ShotInfo.OFFSET + i, ints[i]);
+            case TAG_SHOT_INFO_ARRAY:
+                _shotInfo = new CanonShotInfo((int[])array);
+                addRecord(_shotInfo);
                 break;
-            }
-            case TAG_PANORAMA_ARRAY: {
-                int[] ints = (int[])array;
-                for (int i = 0; i < ints.length; i++)
-                    setInt(Panorama.OFFSET + i, ints[i]);
+            case TAG_PANORAMA_ARRAY:
+                _panorama = new CanonPanorama((int[])array);
+                addRecord(_panorama);
                 break;
-            }
             // TODO the interpretation of the custom functions tag depends upon the camera model
 //            case TAG_CANON_CUSTOM_FUNCTIONS_ARRAY:
 //                int subTagTypeBase = 0xC300;
@@ -733,62 +898,11 @@ public class CanonMakernoteDirectory extends Directory
 //                for (int i = 1; i < ints.length; i++)
 //                    setInt(subTagTypeBase + i + 1, ints[i] & 0x0F);
 //                break;
-            case TAG_AF_INFO_ARRAY: {
-                // Notes from Exiftool 10.10 by Phil Harvey, lib\Image\Exiftool\Canon.pm:
-                // Auto-focus information used by many older Canon models. The values in this
-                // record are sequential, and some have variable sizes based on the value of
-                // numafpoints (which may be 1,5,7,9,15,45, or 53). The AFArea coordinates are
-                // given in a system where the image has dimensions given by AFImageWidth and
-                // AFImageHeight, and 0,0 is the image center. The direction of the Y axis
-                // depends on the camera model, with positive Y upwards for EOS models, but
-                // apparently downwards for PowerShot models.
-
-                // AFInfo is another array with 'fake' tags. The first int of the array contains
-                // the number of AF points. Iterate through the array one byte at a time, generally
-                // assuming one byte corresponds to one tag UNLESS certain tag numbers are encountered.
-                // For these, read specific subsequent bytes from the array based on the tag type. The
-                // number of bytes read can vary.
-
-                int[] values = (int[])array;
-                int numafpoints = values[0];
-                int tagnumber = 0;
-                for (int i = 0; i < values.length; i++)
-                {
-                    // These two tags store 'numafpoints' bytes of data in the array
-                    if (AFInfo.OFFSET + tagnumber == AFInfo.TAG_AF_AREA_X_POSITIONS ||
-                        AFInfo.OFFSET + tagnumber == AFInfo.TAG_AF_AREA_Y_POSITIONS)
-                    {
-                        // There could be incorrect data in the array, so boundary check
-                        if (values.length - 1 >= (i + numafpoints))
-                        {
-                            short[] areaPositions = new short[numafpoints];
-                            for (int j = 0; j < areaPositions.length; j++)
-                                areaPositions[j] = (short)values[i + j];
-
-                            super.setObjectArray(AFInfo.OFFSET + tagnumber, areaPositions);
-                        }
-                        i += numafpoints - 1;   // assume these bytes are processed and skip
-                    }
-                    else if (AFInfo.OFFSET + tagnumber == AFInfo.TAG_AF_POINTS_IN_FOCUS)
-                    {
-                        short[] pointsInFocus = new short[((numafpoints + 15) / 16)];
-
-                        // There could be incorrect data in the array, so boundary check
-                        if (values.length - 1 >= (i + pointsInFocus.length))
-                        {
-                            for (int j = 0; j < pointsInFocus.length; j++)
-                                pointsInFocus[j] = (short)values[i + j];
-
-                            super.setObjectArray(AFInfo.OFFSET + tagnumber, pointsInFocus);
-                        }
-                        i += pointsInFocus.length - 1;  // assume these bytes are processed and skip
-                    }
-                    else
-                        super.setObjectArray(AFInfo.OFFSET + tagnumber, values[i]);
-                    tagnumber++;
-                }
+            case TAG_AF_INFO_ARRAY:
+                // AFInfo is another array with 'fake' tags, some of which have variable sizes
+                _afInfo = new CanonAFInfo((int[])array);
+                addRecord(_afInfo);
                 break;
-            }
             default: {
                 // no special handling...
                 super.setObjectArray(tagType, array);
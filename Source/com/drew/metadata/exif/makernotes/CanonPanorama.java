@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A view over Canon panorama information (makernote tag <code>0x0005</code>).
+ * <p>
+ * Values are raw, as described for the corresponding {@link CanonMakernoteDirectory.Panorama} tags.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class CanonPanorama extends CanonRecord
+{
+    public CanonPanorama(@NotNull int[] values)
+    {
+        super(values);
+    }
+
+    @Override
+    int getOffset()
+    {
+        return CanonMakernoteDirectory.Panorama.OFFSET;
+    }
+
+    /** Gets the panorama frame number, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFrameNumber()
+    {
+        return getTagValue(CanonMakernoteDirectory.Panorama.TAG_PANORAMA_FRAME_NUMBER);
+    }
+
+    /** Gets the panorama direction, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getDirection()
+    {
+        return getTagValue(CanonMakernoteDirectory.Panorama.TAG_PANORAMA_DIRECTION);
+    }
+}
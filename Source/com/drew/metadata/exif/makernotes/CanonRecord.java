@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A read-only view over one of the arrays of int16 values that Canon stores in a single makernote tag, such as
+ * camera settings or shot information.
+ * <p>
+ * Each position in the array has its own meaning, and is also exposed by {@link CanonMakernoteDirectory} as a
+ * synthetic tag. Views read straight from the array, so values are only boxed when requested.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public abstract class CanonRecord
+{
+    @NotNull
+    final int[] _values;
+
+    CanonRecord(@NotNull int[] values)
+    {
+        _values = values;
+    }
+
+    /** Gets the number of values in the underlying array. */
+    public int getLength()
+    {
+        return _values.length;
+    }
+
+    /**
+     * Gets the value at <code>index</code> within the underlying array.
+     *
+     * @return the value, or <code>null</code> if the array is too short
+     */
+    @Nullable
+    public Integer getValue(int index)
+    {
+        return index >= 0 && index < _values.length ? _values[index] : null;
+    }
+
+    /** Gets the value of the synthetic tag with number <code>tagType - offset</code>, or <code>null</code> if absent. */
+    @Nullable
+    Integer getTagValue(int tagType)
+    {
+        return getValue(tagType - getOffset());
+    }
+
+    /** Gets the tag type of the first synthetic tag produced by this record. */
+    abstract int getOffset();
+
+    /**
+     * Gets the value of the synthetic tag with the given number (relative to {@link #getOffset()}), or
+     * <code>null</code> if the record has no such tag.
+     */
+    @Nullable
+    Object getTagValueByNumber(int tagNumber)
+    {
+        return getValue(tagNumber);
+    }
+
+    /** Gets whether the record contains data at or beyond the given tag number. */
+    boolean hasTagNumber(int tagNumber)
+    {
+        return tagNumber < _values.length;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A view over Canon shot information (makernote tag <code>0x0004</code>).
+ * <p>
+ * Values are raw, as described for the corresponding {@link CanonMakernoteDirectory.ShotInfo} tags.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class CanonShotInfo extends CanonRecord
+{
+    public CanonShotInfo(@NotNull int[] values)
+    {
+        super(values);
+    }
+
+    @Override
+    int getOffset()
+    {
+        return CanonMakernoteDirectory.ShotInfo.OFFSET;
+    }
+
+    /** Gets the auto ISO, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAutoIso()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_AUTO_ISO);
+    }
+
+    /** Gets the base ISO, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getBaseIso()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_BASE_ISO);
+    }
+
+    /** Gets the measured exposure value, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getMeasuredEv()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_MEASURED_EV);
+    }
+
+    /** Gets the target aperture, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getTargetAperture()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_TARGET_APERTURE);
+    }
+
+    /** Gets the target exposure time, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getTargetExposureTime()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_TARGET_EXPOSURE_TIME);
+    }
+
+    /** Gets the exposure compensation, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getExposureCompensation()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_EXPOSURE_COMPENSATION);
+    }
+
+    /** Gets the white balance, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getWhiteBalance()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_WHITE_BALANCE);
+    }
+
+    /** Gets the slow shutter, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSlowShutter()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_SLOW_SHUTTER);
+    }
+
+    /** Gets the sequence number, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSequenceNumber()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_SEQUENCE_NUMBER);
+    }
+
+    /** Gets the optical zoom code, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getOpticalZoomCode()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_OPTICAL_ZOOM_CODE);
+    }
+
+    /** Gets the camera temperature, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getCameraTemperature()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_CAMERA_TEMPERATURE);
+    }
+
+    /** Gets the flash guide number, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashGuideNumber()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_FLASH_GUIDE_NUMBER);
+    }
+
+    /** Gets the auto focus points in focus, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAfPointsInFocus()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_AF_POINTS_IN_FOCUS);
+    }
+
+    /** Gets the flash exposure bracketing, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashExposureBracketing()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_FLASH_EXPOSURE_BRACKETING);
+    }
+
+    /** Gets the auto exposure bracketing, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAutoExposureBracketing()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_AUTO_EXPOSURE_BRACKETING);
+    }
+
+    /** Gets the auto exposure bracketing value, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAebBracketValue()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_AEB_BRACKET_VALUE);
+    }
+
+    /** Gets the control mode, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getControlMode()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_CONTROL_MODE);
+    }
+
+    /** Gets the upper focus distance, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFocusDistanceUpper()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_FOCUS_DISTANCE_UPPER);
+    }
+
+    /** Gets the lower focus distance, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFocusDistanceLower()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_FOCUS_DISTANCE_LOWER);
+    }
+
+    /** Gets the F number, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFNumber()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_F_NUMBER);
+    }
+
+    /** Gets the exposure time, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getExposureTime()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_EXPOSURE_TIME);
+    }
+
+    /** Gets the bulb duration, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getBulbDuration()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_BULB_DURATION);
+    }
+
+    /** Gets the camera type, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getCameraType()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_CAMERA_TYPE);
+    }
+
+    /** Gets the auto rotation, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getAutoRotate()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_AUTO_ROTATE);
+    }
+
+    /** Gets the neutral density filter, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getNdFilter()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_ND_FILTER);
+    }
+
+    /** Gets the secondary self timer value, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getSelfTimer2()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_SELF_TIMER_2);
+    }
+
+    /** Gets the flash output, or <code>null</code> if not recorded. */
+    @Nullable
+    public Integer getFlashOutput()
+    {
+        return getTagValue(CanonMakernoteDirectory.ShotInfo.TAG_FLASH_OUTPUT);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Casio type 1 and type 2 makernotes.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class CasioMakernoteParser implements MakernoteParser
+{
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        if (context.startsWith("QVC\0\0\0", false)) {
+            context.processIfd(new CasioType2MakernoteDirectory(), context.getMakernoteOffset() + 6, context.getTiffHeaderOffset());
+        } else {
+            context.processIfd(new CasioType1MakernoteDirectory(), context.getMakernoteOffset(), context.getTiffHeaderOffset());
+        }
+        return true;
+    }
+}
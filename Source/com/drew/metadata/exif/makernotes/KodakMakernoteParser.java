@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.Charsets;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.BinaryLayout;
+import com.drew.metadata.BinaryLayout.FieldType;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Kodak makernotes, which have values at fixed offsets rather than an IFD.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class KodakMakernoteParser implements MakernoteParser
+{
+    /** Offsets are relative to the start of the data, which follows an eight byte header. */
+    private static final BinaryLayout LAYOUT = new BinaryLayout();
+
+    static
+    {
+        LAYOUT.add(KodakMakernoteDirectory.TAG_KODAK_MODEL, 0, FieldType.RawText, 8, Charsets.UTF_8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_QUALITY, 9, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_BURST_MODE, 10, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_IMAGE_WIDTH, 12, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_IMAGE_HEIGHT, 14, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_YEAR_CREATED, 16, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_MONTH_DAY_CREATED, 18, FieldType.Int8, 2);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_TIME_CREATED, 20, FieldType.Int8, 4);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_BURST_MODE_2, 24, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_SHUTTER_MODE, 27, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_METERING_MODE, 28, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_SEQUENCE_NUMBER, 29, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_F_NUMBER, 30, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_EXPOSURE_TIME, 32, FieldType.UInt32);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_EXPOSURE_COMPENSATION, 36, FieldType.Int16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_FOCUS_MODE, 56, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_WHITE_BALANCE, 64, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_FLASH_MODE, 92, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_FLASH_FIRED, 93, FieldType.UInt8);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_ISO_SETTING, 94, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_ISO, 96, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_TOTAL_ZOOM, 98, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_DATE_TIME_STAMP, 100, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_COLOR_MODE, 102, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_DIGITAL_ZOOM, 104, FieldType.UInt16);
+        LAYOUT.add(KodakMakernoteDirectory.TAG_SHARPNESS, 107, FieldType.Int8);
+    }
+
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        context.getReader().setMotorolaByteOrder(context.startsWith("KDK INFO", false));
+        KodakMakernoteDirectory directory = new KodakMakernoteDirectory();
+        context.addDirectory(directory);
+
+        // Kodak's makernote is not in IFD format. It has values at fixed offsets.
+        try {
+            LAYOUT.read(context.getReader(), context.getMakernoteOffset() + 8, directory);
+        } catch (IOException ex) {
+            directory.addError("Error processing Kodak makernote data: " + ex.getMessage());
+        }
+        return true;
+    }
+}
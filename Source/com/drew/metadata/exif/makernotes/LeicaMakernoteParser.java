@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Leica makernotes.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class LeicaMakernoteParser implements MakernoteParser
+{
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        context.getReader().setMotorolaByteOrder(false);
+
+        // used by the X1/X2/X VARIO/T
+        // (X1 starts with "LEICA\0\x01\0", Make is "LEICA CAMERA AG")
+        // (X2 starts with "LEICA\0\x05\0", Make is "LEICA CAMERA AG")
+        // (X VARIO starts with "LEICA\0\x04\0", Make is "LEICA CAMERA AG")
+        // (T (Typ 701) starts with "LEICA\0\0x6", Make is "LEICA CAMERA AG")
+        // (X (Typ 113) starts with "LEICA\0\0x7", Make is "LEICA CAMERA AG")
+
+        int makernoteOffset = context.getMakernoteOffset();
+        String cameraMake = context.getCameraMake();
+        int version = context.getByte(6);
+
+        if (context.startsWith("LEICA\0", false) && context.getByte(7) == 0 &&
+            (version == 1 || version == 4 || version == 5 || version == 6 || version == 7))
+        {
+            context.processIfd(new LeicaType5MakernoteDirectory(), makernoteOffset + 8, makernoteOffset);
+        } else if ("Leica Camera AG".equals(cameraMake)) {
+            context.processIfd(new LeicaMakernoteDirectory(), makernoteOffset + 8, context.getTiffHeaderOffset());
+        } else if ("LEICA".equals(cameraMake)) {
+            // Some Leica cameras use Panasonic makernote tags
+            context.processIfd(new PanasonicMakernoteDirectory(), makernoteOffset + 8, context.getTiffHeaderOffset());
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
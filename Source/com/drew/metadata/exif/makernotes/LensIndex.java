@@ -0,0 +1,689 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.Rational;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * An index of lens names keyed by the lens identifiers that cameras record in their makernotes.
+ * <p>
+ * The built-in index is created once and shared.  Canon and Olympus lenses are listed in code, and Nikon and Sony
+ * lenses are read from the <code>LensIndex.txt</code> resource alongside this class.  Further entries, such as those
+ * for third party lenses, may be read from a text resource via {@link #read(InputStream, LensIndex)}, and the
+ * resulting index installed as the default via {@link #setDefault(LensIndex)}.  Lookups are made against
+ * primitive-keyed tables and do not allocate.
+ * <p>
+ * Lens data sourced from exiftool, created by Phil Harvey http://www.sno.phy.queensu.ca/~phil/exiftool/
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class LensIndex
+{
+    /**
+     * The vendors whose makernote lens identifiers are indexed.
+     */
+    public enum Vendor
+    {
+        /** Keyed by {@link CanonMakernoteDirectory.CameraSettings#TAG_LENS_TYPE}. */
+        Canon,
+        /** Keyed by the eight bytes of {@link #getNikonLensId(NikonLensDataDirectory, int)}. */
+        Nikon,
+        /** Keyed by {@link #getOlympusLensId(int, int, int)}. */
+        Olympus,
+        /** Keyed by {@link SonyType1MakernoteDirectory#TAG_LENS_ID}. */
+        Sony
+    }
+
+    /** The resource, relative to this class, from which Nikon and Sony lenses are read. */
+    private static final String RESOURCE_NAME = "LensIndex.txt";
+
+    @NotNull
+    private static final LensIndex BUILT_IN = createDefault();
+
+    @NotNull
+    private static volatile LensIndex _default = BUILT_IN;
+
+    @NotNull
+    private final LensTable[] _tables;
+
+    private LensIndex(@NotNull LensTable[] tables)
+    {
+        _tables = tables;
+    }
+
+    /**
+     * Gets the index used by descriptors to name lenses.  Unless replaced via {@link #setDefault(LensIndex)}, this is
+     * the built-in index.
+     */
+    @NotNull
+    public static LensIndex getDefault()
+    {
+        return _default;
+    }
+
+    /**
+     * Sets the index used by descriptors to name lenses, such as one extending the built-in index with entries
+     * obtained via {@link #read(InputStream, LensIndex)}.
+     *
+     * @param index the index to use, or <code>null</code> to restore the built-in index
+     */
+    public static void setDefault(@Nullable LensIndex index)
+    {
+        _default = index == null ? BUILT_IN : index;
+    }
+
+    /**
+     * Creates an index from a text resource, optionally extending an existing index.
+     * <p>
+     * Each line holds a vendor name (see {@link Vendor}), a lens identifier and a lens name, separated by tabs.
+     * Identifiers are decimal, or hexadecimal of up to sixteen digits when prefixed with <code>0x</code>.  Blank
+     * lines and lines starting with <code>#</code> are ignored.  Entries replace those of <code>base</code> having the
+     * same identifier.
+     *
+     * @param stream the UTF-8 encoded resource
+     * @param base an index whose entries are to be included, or <code>null</code>
+     * @return the new index
+     * @throws IOException if the stream could not be read, or a line is malformed
+     */
+    @NotNull
+    public static LensIndex read(@NotNull InputStream stream, @Nullable LensIndex base) throws IOException
+    {
+        LensTable[] tables = new LensTable[Vendor.values().length];
+        for (int i = 0; i < tables.length; i++)
+            tables[i] = base == null ? new LensTable(16) : new LensTable(base._tables[i]);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.length() == 0 || line.charAt(0) == '#')
+                continue;
+
+            String[] parts = line.split("\t", 3);
+            if (parts.length != 3)
+                throw new IOException("Expected three tab-separated values on line " + lineNumber);
+
+            Vendor vendor;
+            long lensId;
+            try {
+                vendor = Vendor.valueOf(parts[0].trim());
+                lensId = parseLensId(parts[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid vendor or lens identifier on line " + lineNumber);
+            }
+
+            tables[vendor.ordinal()].put(lensId, parts[2].trim());
+        }
+
+        return new LensIndex(tables);
+    }
+
+    /**
+     * Parses a decimal identifier, or a hexadecimal one of up to sixteen digits.  Nikon identifiers use all eight
+     * bytes, so the hexadecimal form is read as unsigned.
+     */
+    private static long parseLensId(@NotNull String id)
+    {
+        if (!id.startsWith("0x"))
+            return Long.parseLong(id);
+
+        if (id.length() < 3 || id.length() > 18)
+            throw new NumberFormatException(id);
+        long value = 0;
+        for (int i = 2; i < id.length(); i++) {
+            int digit = Character.digit(id.charAt(i), 16);
+            if (digit < 0)
+                throw new NumberFormatException(id);
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the name of a lens from its vendor-specific identifier.
+     *
+     * @return the lens name, or <code>null</code> if the identifier is not indexed
+     */
+    @Nullable
+    public String getLensName(@NotNull Vendor vendor, long lensId)
+    {
+        return _tables[vendor.ordinal()].get(lensId);
+    }
+
+    /**
+     * Gets the number of lenses indexed for a vendor.
+     */
+    public int getLensCount(@NotNull Vendor vendor)
+    {
+        return _tables[vendor.ordinal()].size();
+    }
+
+    /**
+     * Resolves the lens used for an image from its makernote lens identifier, as found in Canon, Nikon, Olympus or
+     * Sony makernotes, and from Exif <code>LensMake</code>, <code>LensModel</code> and
+     * <code>LensSpecification</code> tags.
+     * <p>
+     * A model name recorded as text by the camera is preferred over one found in this index, as some identifiers are
+     * shared by several lenses.
+     *
+     * @param metadata the metadata of the image
+     * @return the lens, or <code>null</code> if the metadata does not describe one
+     */
+    @Nullable
+    public LensInfo resolveLens(@NotNull Metadata metadata)
+    {
+        Vendor vendor = null;
+        Long lensId = null;
+        String makernoteModel = null;
+        Rational[] specification = null;
+
+        CanonMakernoteDirectory canon = metadata.getFirstDirectoryOfType(CanonMakernoteDirectory.class);
+        if (canon != null) {
+            Integer lensType = canon.getInteger(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE);
+            if (lensType != null) {
+                vendor = Vendor.Canon;
+                lensId = (long)lensType;
+            }
+            makernoteModel = canon.getString(CanonMakernoteDirectory.TAG_LENS_MODEL);
+        }
+
+        if (vendor == null) {
+            NikonType2MakernoteDirectory nikon = metadata.getFirstDirectoryOfType(NikonType2MakernoteDirectory.class);
+            if (nikon != null) {
+                specification = getSpecification(nikon.getRationalArray(NikonType2MakernoteDirectory.TAG_LENS));
+                Integer lensType = nikon.getInteger(NikonType2MakernoteDirectory.TAG_LENS_TYPE);
+                NikonLensDataDirectory lensData = metadata.getFirstDirectoryOfType(NikonLensDataDirectory.class);
+                if (lensType != null && lensData != null) {
+                    long id = getNikonLensId(lensData, lensType);
+                    if (id != -1) {
+                        vendor = Vendor.Nikon;
+                        lensId = id;
+                    }
+                }
+            }
+        }
+
+        if (vendor == null) {
+            OlympusEquipmentMakernoteDirectory olympus = metadata.getFirstDirectoryOfType(OlympusEquipmentMakernoteDirectory.class);
+            if (olympus != null) {
+                int[] values = olympus.getIntArray(OlympusEquipmentMakernoteDirectory.TAG_LENS_TYPE);
+                if (values != null && values.length >= 4) {
+                    vendor = Vendor.Olympus;
+                    lensId = (long)getOlympusLensId(values[0], values[2], values[3]);
+                }
+                makernoteModel = olympus.getString(OlympusEquipmentMakernoteDirectory.TAG_LENS_MODEL);
+            }
+        }
+
+        if (vendor == null) {
+            SonyType1MakernoteDirectory sony = metadata.getFirstDirectoryOfType(SonyType1MakernoteDirectory.class);
+            if (sony != null) {
+                Integer value = sony.getInteger(SonyType1MakernoteDirectory.TAG_LENS_ID);
+                if (value != null) {
+                    vendor = Vendor.Sony;
+                    lensId = (long)value;
+                }
+            }
+        }
+
+        String make = null;
+        String model = null;
+        ExifSubIFDDirectory exif = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        if (exif != null) {
+            make = trimToNull(exif.getString(ExifSubIFDDirectory.TAG_LENS_MAKE));
+            model = trimToNull(exif.getString(ExifSubIFDDirectory.TAG_LENS_MODEL));
+            if (specification == null)
+                specification = getSpecification(exif.getRationalArray(ExifSubIFDDirectory.TAG_LENS_SPECIFICATION));
+        }
+
+        if (model == null)
+            model = trimToNull(makernoteModel);
+        if (model == null && vendor != null)
+            model = getLensName(vendor, lensId);
+
+        if (vendor == null && make == null && model == null && specification == null)
+            return null;
+
+        return new LensInfo(vendor, lensId, make, model, specification);
+    }
+
+    /**
+     * Combines lens data values and the lens type into the identifier exiftool uses for Nikon lenses, being the
+     * bytes <code>LensIDNumber LensFStops MinFocalLength MaxFocalLength MaxApertureAtMinFocal MaxApertureAtMaxFocal
+     * MCUVersion LensType</code> in that order, most significant first.
+     *
+     * @return the identifier, or <code>-1</code> if <code>lensData</code> lacks any of the required values
+     */
+    public static long getNikonLensId(@NotNull NikonLensDataDirectory lensData, int lensType)
+    {
+        int[] tags = {
+            NikonLensDataDirectory.TAG_LENS_ID_NUMBER,
+            NikonLensDataDirectory.TAG_LENS_F_STOPS,
+            NikonLensDataDirectory.TAG_MIN_FOCAL_LENGTH,
+            NikonLensDataDirectory.TAG_MAX_FOCAL_LENGTH,
+            NikonLensDataDirectory.TAG_MAX_APERTURE_AT_MIN_FOCAL,
+            NikonLensDataDirectory.TAG_MAX_APERTURE_AT_MAX_FOCAL,
+            NikonLensDataDirectory.TAG_MCU_VERSION
+        };
+
+        long id = 0;
+        for (int tag : tags) {
+            Integer value = lensData.getInteger(tag);
+            if (value == null)
+                return -1;
+            id = (id << 8) | (value & 0xff);
+        }
+        return (id << 8) | (lensType & 0xff);
+    }
+
+    /**
+     * Combines the make, model and sub-model values of {@link OlympusEquipmentMakernoteDirectory#TAG_LENS_TYPE} into
+     * a single identifier.
+     */
+    public static int getOlympusLensId(int make, int model, int subModel)
+    {
+        return ((make & 0xff) << 16) | ((model & 0xff) << 8) | (subModel & 0xff);
+    }
+
+    @Nullable
+    private static Rational[] getSpecification(@Nullable Rational[] values)
+    {
+        if (values == null || values.length != 4 || values[0].isZero())
+            return null;
+        return values;
+    }
+
+    @Nullable
+    private static String trimToNull(@Nullable String value)
+    {
+        if (value == null)
+            return null;
+        value = value.trim();
+        return value.length() == 0 ? null : value;
+    }
+
+    @NotNull
+    private static LensIndex createDefault()
+    {
+        LensTable[] tables = new LensTable[Vendor.values().length];
+        for (int i = 0; i < tables.length; i++)
+            tables[i] = new LensTable(16);
+
+        addCanonLenses(tables[Vendor.Canon.ordinal()]);
+        addOlympusLenses(tables[Vendor.Olympus.ordinal()]);
+
+        LensIndex index = new LensIndex(tables);
+
+        // Nikon and Sony identifiers are many and sparse, so are listed in a resource rather than in code
+        InputStream stream = LensIndex.class.getResourceAsStream(RESOURCE_NAME);
+        if (stream == null)
+            return index;
+        try {
+            return read(stream, index);
+        } catch (IOException e) {
+            return index;
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Adds names for values of {@link CanonMakernoteDirectory.CameraSettings#TAG_LENS_TYPE}.
+     * <p>
+     * Note that only Canon lenses are listed. Lenses from other manufacturers may identify themselves to the camera
+     * as being from this set, but in fact may be quite different.
+     */
+    private static void addCanonLenses(@NotNull LensTable canon)
+    {
+        canon.put(1, "Canon EF 50mm f/1.8");
+        canon.put(2, "Canon EF 28mm f/2.8");
+        canon.put(3, "Canon EF 135mm f/2.8 Soft");
+        canon.put(4, "Canon EF 35-105mm f/3.5-4.5 or Sigma Lens");
+        canon.put(5, "Canon EF 35-70mm f/3.5-4.5");
+        canon.put(6, "Canon EF 28-70mm f/3.5-4.5 or Sigma or Tokina Lens");
+        canon.put(7, "Canon EF 100-300mm f/5.6L");
+        canon.put(8, "Canon EF 100-300mm f/5.6 or Sigma or Tokina Lens");
+        canon.put(9, "Canon EF 70-210mm f/4");
+        canon.put(10, "Canon EF 50mm f/2.5 Macro or Sigma Lens");
+        canon.put(11, "Canon EF 35mm f/2");
+        canon.put(13, "Canon EF 15mm f/2.8 Fisheye");
+        canon.put(14, "Canon EF 50-200mm f/3.5-4.5L");
+        canon.put(15, "Canon EF 50-200mm f/3.5-4.5");
+        canon.put(16, "Canon EF 35-135mm f/3.5-4.5");
+        canon.put(17, "Canon EF 35-70mm f/3.5-4.5A");
+        canon.put(18, "Canon EF 28-70mm f/3.5-4.5");
+        canon.put(20, "Canon EF 100-200mm f/4.5A");
+        canon.put(21, "Canon EF 80-200mm f/2.8L");
+        canon.put(22, "Canon EF 20-35mm f/2.8L or Tokina Lens");
+        canon.put(23, "Canon EF 35-105mm f/3.5-4.5");
+        canon.put(24, "Canon EF 35-80mm f/4-5.6 Power Zoom");
+        canon.put(25, "Canon EF 35-80mm f/4-5.6 Power Zoom");
+        canon.put(26, "Canon EF 100mm f/2.8 Macro or Other Lens");
+        canon.put(27, "Canon EF 35-80mm f/4-5.6");
+        canon.put(28, "Canon EF 80-200mm f/4.5-5.6 or Tamron Lens");
+        canon.put(29, "Canon EF 50mm f/1.8 II");
+        canon.put(30, "Canon EF 35-105mm f/4.5-5.6");
+        canon.put(31, "Canon EF 75-300mm f/4-5.6 or Tamron Lens");
+        canon.put(32, "Canon EF 24mm f/2.8 or Sigma Lens");
+        canon.put(33, "Voigtlander or Carl Zeiss Lens");
+        canon.put(35, "Canon EF 35-80mm f/4-5.6");
+        canon.put(36, "Canon EF 38-76mm f/4.5-5.6");
+        canon.put(37, "Canon EF 35-80mm f/4-5.6 or Tamron Lens");
+        canon.put(38, "Canon EF 80-200mm f/4.5-5.6");
+        canon.put(39, "Canon EF 75-300mm f/4-5.6");
+        canon.put(40, "Canon EF 28-80mm f/3.5-5.6");
+        canon.put(41, "Canon EF 28-90mm f/4-5.6");
+        canon.put(42, "Canon EF 28-200mm f/3.5-5.6 or Tamron Lens");
+        canon.put(43, "Canon EF 28-105mm f/4-5.6");
+        canon.put(44, "Canon EF 90-300mm f/4.5-5.6");
+        canon.put(45, "Canon EF-S 18-55mm f/3.5-5.6 [II]");
+        canon.put(46, "Canon EF 28-90mm f/4-5.6");
+        canon.put(47, "Zeiss Milvus 35mm f/2 or 50mm f/2");
+        canon.put(48, "Canon EF-S 18-55mm f/3.5-5.6 IS");
+        canon.put(49, "Canon EF-S 55-250mm f/4-5.6 IS");
+        canon.put(50, "Canon EF-S 18-200mm f/3.5-5.6 IS");
+        canon.put(51, "Canon EF-S 18-135mm f/3.5-5.6 IS");
+        canon.put(52, "Canon EF-S 18-55mm f/3.5-5.6 IS II");
+        canon.put(53, "Canon EF-S 18-55mm f/3.5-5.6 III");
+        canon.put(54, "Canon EF-S 55-250mm f/4-5.6 IS II");
+        canon.put(94, "Canon TS-E 17mm f/4L");
+        canon.put(95, "Canon TS-E 24.0mm f/3.5 L II");
+        canon.put(124, "Canon MP-E 65mm f/2.8 1-5x Macro Photo");
+        canon.put(125, "Canon TS-E 24mm f/3.5L");
+        canon.put(126, "Canon TS-E 45mm f/2.8");
+        canon.put(127, "Canon TS-E 90mm f/2.8");
+        canon.put(129, "Canon EF 300mm f/2.8L");
+        canon.put(130, "Canon EF 50mm f/1.0L");
+        canon.put(131, "Canon EF 28-80mm f/2.8-4L or Sigma Lens");
+        canon.put(132, "Canon EF 1200mm f/5.6L");
+        canon.put(134, "Canon EF 600mm f/4L IS");
+        canon.put(135, "Canon EF 200mm f/1.8L");
+        canon.put(136, "Canon EF 300mm f/2.8L");
+        canon.put(137, "Canon EF 85mm f/1.2L or Sigma or Tamron Lens");
+        canon.put(138, "Canon EF 28-80mm f/2.8-4L");
+        canon.put(139, "Canon EF 400mm f/2.8L");
+        canon.put(140, "Canon EF 500mm f/4.5L");
+        canon.put(141, "Canon EF 500mm f/4.5L");
+        canon.put(142, "Canon EF 300mm f/2.8L IS");
+        canon.put(143, "Canon EF 500mm f/4L IS or Sigma Lens");
+        canon.put(144, "Canon EF 35-135mm f/4-5.6 USM");
+        canon.put(145, "Canon EF 100-300mm f/4.5-5.6 USM");
+        canon.put(146, "Canon EF 70-210mm f/3.5-4.5 USM");
+        canon.put(147, "Canon EF 35-135mm f/4-5.6 USM");
+        canon.put(148, "Canon EF 28-80mm f/3.5-5.6 USM");
+        canon.put(149, "Canon EF 100mm f/2 USM");
+        canon.put(150, "Canon EF 14mm f/2.8L or Sigma Lens");
+        canon.put(151, "Canon EF 200mm f/2.8L");
+        canon.put(152, "Canon EF 300mm f/4L IS or Sigma Lens");
+        canon.put(153, "Canon EF 35-350mm f/3.5-5.6L or Sigma or Tamron Lens");
+        canon.put(154, "Canon EF 20mm f/2.8 USM or Zeiss Lens");
+        canon.put(155, "Canon EF 85mm f/1.8 USM");
+        canon.put(156, "Canon EF 28-105mm f/3.5-4.5 USM or Tamron Lens");
+        canon.put(160, "Canon EF 20-35mm f/3.5-4.5 USM or Tamron or Tokina Lens");
+        canon.put(161, "Canon EF 28-70mm f/2.8L or Sigma or Tamron Lens");
+        canon.put(162, "Canon EF 200mm f/2.8L");
+        canon.put(163, "Canon EF 300mm f/4L");
+        canon.put(164, "Canon EF 400mm f/5.6L");
+        canon.put(165, "Canon EF 70-200mm f/2.8 L");
+        canon.put(166, "Canon EF 70-200mm f/2.8 L + 1.4x");
+        canon.put(167, "Canon EF 70-200mm f/2.8 L + 2x");
+        canon.put(168, "Canon EF 28mm f/1.8 USM or Sigma Lens");
+        canon.put(169, "Canon EF 17-35mm f/2.8L or Sigma Lens");
+        canon.put(170, "Canon EF 200mm f/2.8L II");
+        canon.put(171, "Canon EF 300mm f/4L");
+        canon.put(172, "Canon EF 400mm f/5.6L or Sigma Lens");
+        canon.put(173, "Canon EF 180mm Macro f/3.5L or Sigma Lens");
+        canon.put(174, "Canon EF 135mm f/2L or Other Lens");
+        canon.put(175, "Canon EF 400mm f/2.8L");
+        canon.put(176, "Canon EF 24-85mm f/3.5-4.5 USM");
+        canon.put(177, "Canon EF 300mm f/4L IS");
+        canon.put(178, "Canon EF 28-135mm f/3.5-5.6 IS");
+        canon.put(179, "Canon EF 24mm f/1.4L");
+        canon.put(180, "Canon EF 35mm f/1.4L or Other Lens");
+        canon.put(181, "Canon EF 100-400mm f/4.5-5.6L IS + 1.4x or Sigma Lens");
+        canon.put(182, "Canon EF 100-400mm f/4.5-5.6L IS + 2x or Sigma Lens");
+        canon.put(183, "Canon EF 100-400mm f/4.5-5.6L IS or Sigma Lens");
+        canon.put(184, "Canon EF 400mm f/2.8L + 2x");
+        canon.put(185, "Canon EF 600mm f/4L IS");
+        canon.put(186, "Canon EF 70-200mm f/4L");
+        canon.put(187, "Canon EF 70-200mm f/4L + 1.4x");
+        canon.put(188, "Canon EF 70-200mm f/4L + 2x");
+        canon.put(189, "Canon EF 70-200mm f/4L + 2.8x");
+        canon.put(190, "Canon EF 100mm f/2.8 Macro USM");
+        canon.put(191, "Canon EF 400mm f/4 DO IS");
+        canon.put(193, "Canon EF 35-80mm f/4-5.6 USM");
+        canon.put(194, "Canon EF 80-200mm f/4.5-5.6 USM");
+        canon.put(195, "Canon EF 35-105mm f/4.5-5.6 USM");
+        canon.put(196, "Canon EF 75-300mm f/4-5.6 USM");
+        canon.put(197, "Canon EF 75-300mm f/4-5.6 IS USM");
+        canon.put(198, "Canon EF 50mm f/1.4 USM or Zeiss Lens");
+        canon.put(199, "Canon EF 28-80mm f/3.5-5.6 USM");
+        canon.put(200, "Canon EF 75-300mm f/4-5.6 USM");
+        canon.put(201, "Canon EF 28-80mm f/3.5-5.6 USM");
+        canon.put(202, "Canon EF 28-80mm f/3.5-5.6 USM IV");
+        canon.put(208, "Canon EF 22-55mm f/4-5.6 USM");
+        canon.put(209, "Canon EF 55-200mm f/4.5-5.6");
+        canon.put(210, "Canon EF 28-90mm f/4-5.6 USM");
+        canon.put(211, "Canon EF 28-200mm f/3.5-5.6 USM");
+        canon.put(212, "Canon EF 28-105mm f/4-5.6 USM");
+        canon.put(213, "Canon EF 90-300mm f/4.5-5.6 USM or Tamron Lens");
+        canon.put(214, "Canon EF-S 18-55mm f/3.5-5.6 USM");
+        canon.put(215, "Canon EF 55-200mm f/4.5-5.6 II USM");
+        canon.put(217, "Tamron AF 18-270mm f/3.5-6.3 Di II VC PZD");
+        canon.put(224, "Canon EF 70-200mm f/2.8L IS");
+        canon.put(225, "Canon EF 70-200mm f/2.8L IS + 1.4x");
+        canon.put(226, "Canon EF 70-200mm f/2.8L IS + 2x");
+        canon.put(227, "Canon EF 70-200mm f/2.8L IS + 2.8x");
+        canon.put(228, "Canon EF 28-105mm f/3.5-4.5 USM");
+        canon.put(229, "Canon EF 16-35mm f/2.8L");
+        canon.put(230, "Canon EF 24-70mm f/2.8L");
+        canon.put(231, "Canon EF 17-40mm f/4L");
+        canon.put(232, "Canon EF 70-300mm f/4.5-5.6 DO IS USM");
+        canon.put(233, "Canon EF 28-300mm f/3.5-5.6L IS");
+        canon.put(234, "Canon EF-S 17-85mm f/4-5.6 IS USM or Tokina Lens");
+        canon.put(235, "Canon EF-S 10-22mm f/3.5-4.5 USM");
+        canon.put(236, "Canon EF-S 60mm f/2.8 Macro USM");
+        canon.put(237, "Canon EF 24-105mm f/4L IS");
+        canon.put(238, "Canon EF 70-300mm f/4-5.6 IS USM");
+        canon.put(239, "Canon EF 85mm f/1.2L II");
+        canon.put(240, "Canon EF-S 17-55mm f/2.8 IS USM");
+        canon.put(241, "Canon EF 50mm f/1.2L");
+        canon.put(242, "Canon EF 70-200mm f/4L IS");
+        canon.put(243, "Canon EF 70-200mm f/4L IS + 1.4x");
+        canon.put(244, "Canon EF 70-200mm f/4L IS + 2x");
+        canon.put(245, "Canon EF 70-200mm f/4L IS + 2.8x");
+        canon.put(246, "Canon EF 16-35mm f/2.8L II");
+        canon.put(247, "Canon EF 14mm f/2.8L II USM");
+        canon.put(248, "Canon EF 200mm f/2L IS or Sigma Lens");
+        canon.put(249, "Canon EF 800mm f/5.6L IS");
+        canon.put(250, "Canon EF 24mm f/1.4L II or Sigma Lens");
+        canon.put(251, "Canon EF 70-200mm f/2.8L IS II USM");
+        canon.put(252, "Canon EF 70-200mm f/2.8L IS II USM + 1.4x");
+        canon.put(253, "Canon EF 70-200mm f/2.8L IS II USM + 2x");
+        canon.put(254, "Canon EF 100mm f/2.8L Macro IS USM");
+        canon.put(255, "Sigma 24-105mm f/4 DG OS HSM | A or Other Sigma Lens");
+        canon.put(488, "Canon EF-S 15-85mm f/3.5-5.6 IS USM");
+        canon.put(489, "Canon EF 70-300mm f/4-5.6L IS USM");
+        canon.put(490, "Canon EF 8-15mm f/4L Fisheye USM");
+        canon.put(491, "Canon EF 300mm f/2.8L IS II USM");
+        canon.put(492, "Canon EF 400mm f/2.8L IS II USM");
+        canon.put(493, "Canon EF 500mm f/4L IS II USM or EF 24-105mm f4L IS USM");
+        canon.put(494, "Canon EF 600mm f/4.0L IS II USM");
+        canon.put(495, "Canon EF 24-70mm f/2.8L II USM");
+        canon.put(496, "Canon EF 200-400mm f/4L IS USM");
+        canon.put(499, "Canon EF 200-400mm f/4L IS USM + 1.4x");
+        canon.put(502, "Canon EF 28mm f/2.8 IS USM");
+        canon.put(503, "Canon EF 24mm f/2.8 IS USM");
+        canon.put(504, "Canon EF 24-70mm f/4L IS USM");
+        canon.put(505, "Canon EF 35mm f/2 IS USM");
+        canon.put(506, "Canon EF 400mm f/4 DO IS II USM");
+        canon.put(507, "Canon EF 16-35mm f/4L IS USM");
+        canon.put(508, "Canon EF 11-24mm f/4L USM");
+        canon.put(747, "Canon EF 100-400mm f/4.5-5.6L IS II USM");
+        canon.put(750, "Canon EF 35mm f/1.4L II USM");
+        canon.put(4142, "Canon EF-S 18-135mm f/3.5-5.6 IS STM");
+        canon.put(4143, "Canon EF-M 18-55mm f/3.5-5.6 IS STM or Tamron Lens");
+        canon.put(4144, "Canon EF 40mm f/2.8 STM");
+        canon.put(4145, "Canon EF-M 22mm f/2 STM");
+        canon.put(4146, "Canon EF-S 18-55mm f/3.5-5.6 IS STM");
+        canon.put(4147, "Canon EF-M 11-22mm f/4-5.6 IS STM");
+        canon.put(4148, "Canon EF-S 55-250mm f/4-5.6 IS STM");
+        canon.put(4149, "Canon EF-M 55-200mm f/4.5-6.3 IS STM");
+        canon.put(4150, "Canon EF-S 10-18mm f/4.5-5.6 IS STM");
+        canon.put(4152, "Canon EF 24-105mm f/3.5-5.6 IS STM");
+        canon.put(4153, "Canon EF-M 15-45mm f/3.5-6.3 IS STM");
+        canon.put(4154, "Canon EF-S 24mm f/2.8 STM");
+        canon.put(4156, "Canon EF 50mm f/1.8 STM");
+        canon.put(36912, "Canon EF-S 18-135mm f/3.5-5.6 IS USM");
+        canon.put(65535, "N/A");
+    }
+
+    /**
+     * Adds names for Olympus lens types, keyed by {@link #getOlympusLensId(int, int, int)}.
+     */
+    private static void addOlympusLenses(@NotNull LensTable olympus)
+    {
+        olympus.put(0x000000, "None");
+        // Olympus lenses (also Kenko Tokina)
+        olympus.put(0x000100, "Olympus Zuiko Digital ED 50mm F2.0 Macro");
+        olympus.put(0x000101, "Olympus Zuiko Digital 40-150mm F3.5-4.5"); //8
+        olympus.put(0x000110, "Olympus M.Zuiko Digital ED 14-42mm F3.5-5.6"); //PH (E-P1 pre-production)
+        olympus.put(0x000200, "Olympus Zuiko Digital ED 150mm F2.0");
+        olympus.put(0x000210, "Olympus M.Zuiko Digital 17mm F2.8 Pancake"); //PH (E-P1 pre-production)
+        olympus.put(0x000300, "Olympus Zuiko Digital ED 300mm F2.8");
+        olympus.put(0x000310, "Olympus M.Zuiko Digital ED 14-150mm F4.0-5.6 [II]"); //11 (The second version of this lens seems to have the same lens ID number as the first version #20)
+        olympus.put(0x000410, "Olympus M.Zuiko Digital ED 9-18mm F4.0-5.6"); //11
+        olympus.put(0x000500, "Olympus Zuiko Digital 14-54mm F2.8-3.5");
+        olympus.put(0x000501, "Olympus Zuiko Digital Pro ED 90-250mm F2.8"); //9
+        olympus.put(0x000510, "Olympus M.Zuiko Digital ED 14-42mm F3.5-5.6 L"); //11 (E-PL1)
+        olympus.put(0x000600, "Olympus Zuiko Digital ED 50-200mm F2.8-3.5");
+        olympus.put(0x000601, "Olympus Zuiko Digital ED 8mm F3.5 Fisheye"); //9
+        olympus.put(0x000610, "Olympus M.Zuiko Digital ED 40-150mm F4.0-5.6"); //PH
+        olympus.put(0x000700, "Olympus Zuiko Digital 11-22mm F2.8-3.5");
+        olympus.put(0x000701, "Olympus Zuiko Digital 18-180mm F3.5-6.3"); //6
+        olympus.put(0x000710, "Olympus M.Zuiko Digital ED 12mm F2.0"); //PH
+        olympus.put(0x000801, "Olympus Zuiko Digital 70-300mm F4.0-5.6"); //7 (seen as release 1 - PH)
+        olympus.put(0x000810, "Olympus M.Zuiko Digital ED 75-300mm F4.8-6.7"); //PH
+        olympus.put(0x000910, "Olympus M.Zuiko Digital 14-42mm F3.5-5.6 II"); //PH (E-PL2)
+        olympus.put(0x001001, "Kenko Tokina Reflex 300mm F6.3 MF Macro"); //20
+        olympus.put(0x001010, "Olympus M.Zuiko Digital ED 12-50mm F3.5-6.3 EZ"); //PH
+        olympus.put(0x001110, "Olympus M.Zuiko Digital 45mm F1.8"); //17
+        olympus.put(0x001210, "Olympus M.Zuiko Digital ED 60mm F2.8 Macro"); //20
+        olympus.put(0x001310, "Olympus M.Zuiko Digital 14-42mm F3.5-5.6 II R"); //PH/20
+        olympus.put(0x001410, "Olympus M.Zuiko Digital ED 40-150mm F4.0-5.6 R"); //19
+        // '0 14 10.1", "Olympus M.Zuiko Digital ED 14-150mm F4.0-5.6 II"); //11 (questionable & unconfirmed -- all samples I can find are '0 3 10' - PH)
+        olympus.put(0x001500, "Olympus Zuiko Digital ED 7-14mm F4.0");
+        olympus.put(0x001510, "Olympus M.Zuiko Digital ED 75mm F1.8"); //PH
+        olympus.put(0x001610, "Olympus M.Zuiko Digital 17mm F1.8"); //20
+        olympus.put(0x001700, "Olympus Zuiko Digital Pro ED 35-100mm F2.0"); //7
+        olympus.put(0x001800, "Olympus Zuiko Digital 14-45mm F3.5-5.6");
+        olympus.put(0x001810, "Olympus M.Zuiko Digital ED 75-300mm F4.8-6.7 II"); //20
+        olympus.put(0x001910, "Olympus M.Zuiko Digital ED 12-40mm F2.8 Pro"); //PH
+        olympus.put(0x002000, "Olympus Zuiko Digital 35mm F3.5 Macro"); //9
+        olympus.put(0x002010, "Olympus M.Zuiko Digital ED 40-150mm F2.8 Pro"); //20
+        olympus.put(0x002110, "Olympus M.Zuiko Digital ED 14-42mm F3.5-5.6 EZ"); //20
+        olympus.put(0x002200, "Olympus Zuiko Digital 17.5-45mm F3.5-5.6"); //9
+        olympus.put(0x002210, "Olympus M.Zuiko Digital 25mm F1.8"); //20
+        olympus.put(0x002300, "Olympus Zuiko Digital ED 14-42mm F3.5-5.6"); //PH
+        olympus.put(0x002310, "Olympus M.Zuiko Digital ED 7-14mm F2.8 Pro"); //20
+        olympus.put(0x002400, "Olympus Zuiko Digital ED 40-150mm F4.0-5.6"); //PH
+        olympus.put(0x002410, "Olympus M.Zuiko Digital ED 300mm F4.0 IS Pro"); //20
+        olympus.put(0x002510, "Olympus M.Zuiko Digital ED 8mm F1.8 Fisheye Pro"); //20
+        olympus.put(0x003000, "Olympus Zuiko Digital ED 50-200mm F2.8-3.5 SWD"); //7
+        olympus.put(0x003100, "Olympus Zuiko Digital ED 12-60mm F2.8-4.0 SWD"); //7
+        olympus.put(0x003200, "Olympus Zuiko Digital ED 14-35mm F2.0 SWD"); //PH
+        olympus.put(0x003300, "Olympus Zuiko Digital 25mm F2.8"); //PH
+        olympus.put(0x003400, "Olympus Zuiko Digital ED 9-18mm F4.0-5.6"); //7
+        olympus.put(0x003500, "Olympus Zuiko Digital 14-54mm F2.8-3.5 II"); //PH
+        // Sigma lenses
+        olympus.put(0x010100, "Sigma 18-50mm F3.5-5.6 DC"); //8
+        olympus.put(0x010110, "Sigma 30mm F2.8 EX DN"); //20
+        olympus.put(0x010200, "Sigma 55-200mm F4.0-5.6 DC");
+        olympus.put(0x010210, "Sigma 19mm F2.8 EX DN"); //20
+        olympus.put(0x010300, "Sigma 18-125mm F3.5-5.6 DC");
+        olympus.put(0x010310, "Sigma 30mm F2.8 DN | A"); //20
+        olympus.put(0x010400, "Sigma 18-125mm F3.5-5.6 DC"); //7
+        olympus.put(0x010410, "Sigma 19mm F2.8 DN | A"); //20
+        olympus.put(0x010500, "Sigma 30mm F1.4 EX DC HSM"); //10
+        olympus.put(0x010510, "Sigma 60mm F2.8 DN | A"); //20
+        olympus.put(0x010600, "Sigma APO 50-500mm F4.0-6.3 EX DG HSM"); //6
+        olympus.put(0x010700, "Sigma Macro 105mm F2.8 EX DG"); //PH
+        olympus.put(0x010800, "Sigma APO Macro 150mm F2.8 EX DG HSM"); //PH
+        olympus.put(0x010900, "Sigma 18-50mm F2.8 EX DC Macro"); //20
+        olympus.put(0x011000, "Sigma 24mm F1.8 EX DG Aspherical Macro"); //PH
+        olympus.put(0x011100, "Sigma APO 135-400mm F4.5-5.6 DG"); //11
+        olympus.put(0x011200, "Sigma APO 300-800mm F5.6 EX DG HSM"); //11
+        olympus.put(0x011300, "Sigma 30mm F1.4 EX DC HSM"); //11
+        olympus.put(0x011400, "Sigma APO 50-500mm F4.0-6.3 EX DG HSM"); //11
+        olympus.put(0x011500, "Sigma 10-20mm F4.0-5.6 EX DC HSM"); //11
+        olympus.put(0x011600, "Sigma APO 70-200mm F2.8 II EX DG Macro HSM"); //11
+        olympus.put(0x011700, "Sigma 50mm F1.4 EX DG HSM"); //11
+        // Panasonic/Leica lenses
+        olympus.put(0x020100, "Leica D Vario Elmarit 14-50mm F2.8-3.5 Asph."); //11
+        olympus.put(0x020110, "Lumix G Vario 14-45mm F3.5-5.6 Asph. Mega OIS"); //16
+        olympus.put(0x020200, "Leica D Summilux 25mm F1.4 Asph."); //11
+        olympus.put(0x020210, "Lumix G Vario 45-200mm F4.0-5.6 Mega OIS"); //16
+        olympus.put(0x020300, "Leica D Vario Elmar 14-50mm F3.8-5.6 Asph. Mega OIS"); //11
+        olympus.put(0x020301, "Leica D Vario Elmar 14-50mm F3.8-5.6 Asph."); //14 (L10 kit)
+        olympus.put(0x020310, "Lumix G Vario HD 14-140mm F4.0-5.8 Asph. Mega OIS"); //16
+        olympus.put(0x020400, "Leica D Vario Elmar 14-150mm F3.5-5.6"); //13
+        olympus.put(0x020410, "Lumix G Vario 7-14mm F4.0 Asph."); //PH (E-P1 pre-production)
+        olympus.put(0x020510, "Lumix G 20mm F1.7 Asph."); //16
+        olympus.put(0x020610, "Leica DG Macro-Elmarit 45mm F2.8 Asph. Mega OIS"); //PH
+        olympus.put(0x020710, "Lumix G Vario 14-42mm F3.5-5.6 Asph. Mega OIS"); //20
+        olympus.put(0x020810, "Lumix G Fisheye 8mm F3.5"); //PH
+        olympus.put(0x020910, "Lumix G Vario 100-300mm F4.0-5.6 Mega OIS"); //11
+        olympus.put(0x021010, "Lumix G 14mm F2.5 Asph."); //17
+        olympus.put(0x021110, "Lumix G 12.5mm F12 3D"); //20 (H-FT012)
+        olympus.put(0x021210, "Leica DG Summilux 25mm F1.4 Asph."); //20
+        olympus.put(0x021310, "Lumix G X Vario PZ 45-175mm F4.0-5.6 Asph. Power OIS"); //20
+        olympus.put(0x021410, "Lumix G X Vario PZ 14-42mm F3.5-5.6 Asph. Power OIS"); //20
+        olympus.put(0x021510, "Lumix G X Vario 12-35mm F2.8 Asph. Power OIS"); //PH
+        olympus.put(0x021610, "Lumix G Vario 45-150mm F4.0-5.6 Asph. Mega OIS"); //20
+        olympus.put(0x021710, "Lumix G X Vario 35-100mm F2.8 Power OIS"); //PH
+        olympus.put(0x021810, "Lumix G Vario 14-42mm F3.5-5.6 II Asph. Mega OIS"); //20
+        olympus.put(0x021910, "Lumix G Vario 14-140mm F3.5-5.6 Asph. Power OIS"); //20
+        olympus.put(0x022010, "Lumix G Vario 12-32mm F3.5-5.6 Asph. Mega OIS"); //20
+        olympus.put(0x022110, "Leica DG Nocticron 42.5mm F1.2 Asph. Power OIS"); //20
+        olympus.put(0x022210, "Leica DG Summilux 15mm F1.7 Asph."); //20
+        // '2 23 10", "Lumix G Vario 35-100mm F4.0-5.6 Asph. Mega OIS"); //20 (guess)
+        olympus.put(0x022410, "Lumix G Macro 30mm F2.8 Asph. Mega OIS"); //20
+        olympus.put(0x022510, "Lumix G 42.5mm F1.7 Asph. Power OIS"); //20
+        olympus.put(0x030100, "Leica D Vario Elmarit 14-50mm F2.8-3.5 Asph."); //11
+        olympus.put(0x030200, "Leica D Summilux 25mm F1.4 Asph."); //11
+        // Tamron lenses
+        olympus.put(0x050110, "Tamron 14-150mm F3.5-5.8 Di III"); //20 (model C001)
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.DecimalFormatter;
+import com.drew.lang.Rational;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+import java.math.RoundingMode;
+
+/**
+ * Describes the lens used to capture an image, as resolved from makernote and Exif data by
+ * {@link LensIndex#resolveLens(com.drew.metadata.Metadata)}.  Immutable.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class LensInfo
+{
+    private static final DecimalFormatter EXACTLY_1DP_HALF_UP = new DecimalFormatter("0.0", RoundingMode.HALF_UP);
+
+    @Nullable private final LensIndex.Vendor _vendor;
+    @Nullable private final Long _lensId;
+    @Nullable private final String _make;
+    @Nullable private final String _model;
+    @Nullable private final Rational[] _specification;
+
+    LensInfo(@Nullable LensIndex.Vendor vendor, @Nullable Long lensId, @Nullable String make, @Nullable String model, @Nullable Rational[] specification)
+    {
+        _vendor = vendor;
+        _lensId = lensId;
+        _make = make;
+        _model = model;
+        _specification = specification;
+    }
+
+    /**
+     * Gets the vendor whose makernote identified the lens, or <code>null</code> if no makernote identifier was found.
+     */
+    @Nullable
+    public LensIndex.Vendor getVendor()
+    {
+        return _vendor;
+    }
+
+    /**
+     * Gets the vendor-specific lens identifier, as used to key {@link LensIndex}, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Long getLensId()
+    {
+        return _lensId;
+    }
+
+    /**
+     * Gets the lens manufacturer, as recorded in Exif data, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public String getMake()
+    {
+        return _make;
+    }
+
+    /**
+     * Gets the lens model name, such as <code>Canon EF 50mm f/1.8</code>, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public String getModel()
+    {
+        return _model;
+    }
+
+    /**
+     * Gets the minimum focal length in millimetres, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Double getMinFocalLength()
+    {
+        return getSpecificationValue(0);
+    }
+
+    /**
+     * Gets the maximum focal length in millimetres, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Double getMaxFocalLength()
+    {
+        return getSpecificationValue(1);
+    }
+
+    /**
+     * Gets the minimum F number at the minimum focal length, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Double getMaxApertureAtMinFocalLength()
+    {
+        return getSpecificationValue(2);
+    }
+
+    /**
+     * Gets the minimum F number at the maximum focal length, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Double getMaxApertureAtMaxFocalLength()
+    {
+        return getSpecificationValue(3);
+    }
+
+    @Nullable
+    private Double getSpecificationValue(int index)
+    {
+        if (_specification == null || _specification[index].isZero())
+            return null;
+        return _specification[index].doubleValue();
+    }
+
+    /**
+     * Gets a description of the lens, being its model name if known, otherwise its focal length and aperture range
+     * such as <code>24-85mm f/3.5-4.5</code>.
+     *
+     * @return a description of the lens, or <code>null</code> if neither its name nor its specification are known
+     */
+    @Nullable
+    public String getDescription()
+    {
+        if (_model != null)
+            return _model;
+        if (_specification == null)
+            return null;
+
+        Rational[] values = _specification;
+        StringBuilder sb = new StringBuilder();
+
+        if (values[0].equals(values[1]))
+            sb.append(values[0].toSimpleString(true)).append("mm");
+        else
+            sb.append(values[0].toSimpleString(true)).append('-').append(values[1].toSimpleString(true)).append("mm");
+
+        if (!values[2].isZero()) {
+            sb.append(" f/").append(EXACTLY_1DP_HALF_UP.format(values[2].doubleValue()));
+            if (!values[2].equals(values[3]) && !values[3].isZero())
+                sb.append('-').append(EXACTLY_1DP_HALF_UP.format(values[3].doubleValue()));
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    @NotNull
+    public String toString()
+    {
+        String description = getDescription();
+        return description == null ? "Unknown lens" : description;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+
+/**
+ * A map from <code>long</code> lens identifiers to lens names, using open addressing over primitive arrays so that
+ * lookups neither box keys nor allocate.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class LensTable
+{
+    @NotNull private long[] _keys;
+    @NotNull private String[] _names;
+    private int _size;
+
+    LensTable(int expectedSize)
+    {
+        int capacity = 16;
+        while (capacity < expectedSize * 2)
+            capacity <<= 1;
+        _keys = new long[capacity];
+        _names = new String[capacity];
+    }
+
+    LensTable(@NotNull LensTable other)
+    {
+        _keys = other._keys.clone();
+        _names = other._names.clone();
+        _size = other._size;
+    }
+
+    int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Adds an entry, replacing any existing entry for the same key.
+     */
+    void put(long key, @NotNull String name)
+    {
+        if ((_size + 1) * 2 > _keys.length)
+            resize(_keys.length * 2);
+
+        int mask = _keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (_names[i] == null) {
+                _keys[i] = key;
+                _names[i] = name;
+                _size++;
+                return;
+            }
+            if (_keys[i] == key) {
+                _names[i] = name;
+                return;
+            }
+        }
+    }
+
+    @Nullable
+    String get(long key)
+    {
+        int mask = _keys.length - 1;
+        for (int i = hash(key) & mask; _names[i] != null; i = (i + 1) & mask) {
+            if (_keys[i] == key)
+                return _names[i];
+        }
+        return null;
+    }
+
+    private void resize(int capacity)
+    {
+        long[] keys = _keys;
+        String[] names = _names;
+        _keys = new long[capacity];
+        _names = new String[capacity];
+        _size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (names[i] != null)
+                put(keys[i], names[i]);
+        }
+    }
+
+    private static int hash(long key)
+    {
+        int h = (int)(key ^ (key >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
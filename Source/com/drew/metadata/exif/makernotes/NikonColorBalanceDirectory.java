@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.TagDescriptor;
+
+import java.util.HashMap;
+
+/**
+ * Holds the colour balance block of Nikon makernotes ({@link NikonType2MakernoteDirectory#TAG_COLOR_BALANCE}), decrypted where the camera
+ * encrypted it.
+ * <p>
+ * The layout of this block varies by camera model, so only its version is decoded.  The remaining bytes are exposed
+ * in plain form via {@link #TAG_DATA}.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+@SuppressWarnings("WeakerAccess")
+public class NikonColorBalanceDirectory extends Directory
+{
+    public static final int TAG_VERSION = 0x00;
+    public static final int TAG_DATA = 0x04;
+
+    @NotNull
+    private static final HashMap<Integer, String> _tagNameMap = new HashMap<Integer, String>();
+
+    static {
+        _tagNameMap.put(TAG_VERSION, "Color Balance Version");
+        _tagNameMap.put(TAG_DATA, "Color Balance Data");
+    }
+
+    public NikonColorBalanceDirectory()
+    {
+        this.setDescriptor(new TagDescriptor<NikonColorBalanceDirectory>(this));
+    }
+
+    @Override
+    @NotNull
+    public String getName()
+    {
+        return "Nikon Color Balance";
+    }
+
+    @Override
+    @NotNull
+    protected HashMap<Integer, String> getTagNameMap()
+    {
+        return _tagNameMap;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.Charsets;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.DeferredDirectoryLoader;
+import com.drew.metadata.Directory;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+
+import java.util.Arrays;
+
+import static com.drew.metadata.exif.makernotes.NikonLensDataDirectory.*;
+
+/**
+ * Decodes the shot information, lens data and colour balance blocks of a {@link NikonType2MakernoteDirectory} into
+ * their own directories, the first time any of them is requested.  Decryption is relatively costly and the decoded
+ * values are rarely needed, so this work is never done up front.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class NikonEncryptedDataLoader implements DeferredDirectoryLoader
+{
+    /** Pairs of tag identifiers and byte offsets for lens data version 0100. */
+    private static final int[] LENS_DATA_0100 = {
+        TAG_LENS_ID_NUMBER, 0x06,
+        TAG_LENS_F_STOPS, 0x07,
+        TAG_MIN_FOCAL_LENGTH, 0x08,
+        TAG_MAX_FOCAL_LENGTH, 0x09,
+        TAG_MAX_APERTURE_AT_MIN_FOCAL, 0x0a,
+        TAG_MAX_APERTURE_AT_MAX_FOCAL, 0x0b,
+        TAG_MCU_VERSION, 0x0c
+    };
+
+    /** Pairs of tag identifiers and byte offsets for lens data versions 0101, 0201, 0202 and 0203. */
+    private static final int[] LENS_DATA_0101 = {
+        TAG_EXIT_PUPIL_POSITION, 0x04,
+        TAG_AF_APERTURE, 0x05,
+        TAG_FOCUS_POSITION, 0x08,
+        TAG_FOCUS_DISTANCE, 0x09,
+        TAG_FOCAL_LENGTH, 0x0a,
+        TAG_LENS_ID_NUMBER, 0x0b,
+        TAG_LENS_F_STOPS, 0x0c,
+        TAG_MIN_FOCAL_LENGTH, 0x0d,
+        TAG_MAX_FOCAL_LENGTH, 0x0e,
+        TAG_MAX_APERTURE_AT_MIN_FOCAL, 0x0f,
+        TAG_MAX_APERTURE_AT_MAX_FOCAL, 0x10,
+        TAG_MCU_VERSION, 0x11,
+        TAG_EFFECTIVE_MAX_APERTURE, 0x12
+    };
+
+    /** Pairs of tag identifiers and byte offsets for lens data version 0204. */
+    private static final int[] LENS_DATA_0204 = {
+        TAG_EXIT_PUPIL_POSITION, 0x04,
+        TAG_AF_APERTURE, 0x05,
+        TAG_FOCUS_POSITION, 0x08,
+        TAG_FOCUS_DISTANCE, 0x0a,
+        TAG_FOCAL_LENGTH, 0x0b,
+        TAG_LENS_ID_NUMBER, 0x0c,
+        TAG_LENS_F_STOPS, 0x0d,
+        TAG_MIN_FOCAL_LENGTH, 0x0e,
+        TAG_MAX_FOCAL_LENGTH, 0x0f,
+        TAG_MAX_APERTURE_AT_MIN_FOCAL, 0x10,
+        TAG_MAX_APERTURE_AT_MAX_FOCAL, 0x11,
+        TAG_MCU_VERSION, 0x12,
+        TAG_EFFECTIVE_MAX_APERTURE, 0x13
+    };
+
+    @NotNull
+    private final NikonType2MakernoteDirectory _directory;
+
+    NikonEncryptedDataLoader(@NotNull NikonType2MakernoteDirectory directory)
+    {
+        _directory = directory;
+    }
+
+    /**
+     * Registers a loader with <code>metadata</code> for the blocks of <code>directory</code>.  As the directory itself
+     * may not yet have been read, the blocks present are only determined when loading.
+     */
+    static void register(@NotNull Metadata metadata, @NotNull NikonType2MakernoteDirectory directory)
+    {
+        metadata.addDeferredDirectoryLoader(new NikonEncryptedDataLoader(directory));
+    }
+
+    public boolean mayProduce(@NotNull Class<? extends Directory> directoryType)
+    {
+        return directoryType.isAssignableFrom(NikonLensDataDirectory.class)
+            || directoryType.isAssignableFrom(NikonShotInfoDirectory.class)
+            || directoryType.isAssignableFrom(NikonColorBalanceDirectory.class);
+    }
+
+    public void load(@NotNull Metadata metadata)
+    {
+        ExifIFD0Directory ifd0Directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        String cameraModel = ifd0Directory == null ? null : ifd0Directory.getString(ExifIFD0Directory.TAG_MODEL);
+
+        if (_directory.containsTag(NikonType2MakernoteDirectory.TAG_SHOT_INFO)) {
+            NikonShotInfoDirectory directory = new NikonShotInfoDirectory();
+            byte[] data = readBlock(directory, NikonType2MakernoteDirectory.TAG_SHOT_INFO, cameraModel);
+            if (data != null) {
+                directory.setString(NikonShotInfoDirectory.TAG_VERSION, readVersion(data));
+                directory.setByteArray(NikonShotInfoDirectory.TAG_DATA, Arrays.copyOfRange(data, 4, data.length));
+            }
+            metadata.addDirectory(directory);
+        }
+
+        if (_directory.containsTag(NikonType2MakernoteDirectory.TAG_LENS_DATA)) {
+            NikonLensDataDirectory directory = new NikonLensDataDirectory();
+            byte[] data = readBlock(directory, NikonType2MakernoteDirectory.TAG_LENS_DATA, cameraModel);
+            if (data != null)
+                readLensData(directory, data);
+            metadata.addDirectory(directory);
+        }
+
+        if (_directory.containsTag(NikonType2MakernoteDirectory.TAG_COLOR_BALANCE)) {
+            NikonColorBalanceDirectory directory = new NikonColorBalanceDirectory();
+            byte[] data = readBlock(directory, NikonType2MakernoteDirectory.TAG_COLOR_BALANCE, cameraModel);
+            if (data != null) {
+                directory.setString(NikonColorBalanceDirectory.TAG_VERSION, readVersion(data));
+                directory.setByteArray(NikonColorBalanceDirectory.TAG_DATA, Arrays.copyOfRange(data, 4, data.length));
+            }
+            metadata.addDirectory(directory);
+        }
+    }
+
+    @Nullable
+    private byte[] readBlock(@NotNull Directory directory, int tagType, @Nullable String cameraModel)
+    {
+        directory.setParent(_directory);
+
+        byte[] data = _directory.getDecryptedByteArray(tagType, cameraModel);
+        if (data == null) {
+            directory.addError("Unable to decrypt data, as the shutter count is missing");
+            return null;
+        }
+        if (data.length < 4) {
+            directory.addError("Data is too short to contain a version");
+            return null;
+        }
+        return data;
+    }
+
+    static void readLensData(@NotNull NikonLensDataDirectory directory, @NotNull byte[] data)
+    {
+        String version = readVersion(data);
+        directory.setString(TAG_LENS_DATA_VERSION, version);
+
+        int[] layout;
+        if (version.equals("0100")) {
+            layout = LENS_DATA_0100;
+        } else if (version.equals("0101") || version.equals("0201") || version.equals("0202") || version.equals("0203")) {
+            layout = LENS_DATA_0101;
+        } else if (version.equals("0204")) {
+            layout = LENS_DATA_0204;
+        } else {
+            directory.addError("Unsupported lens data version: " + version);
+            return;
+        }
+
+        for (int i = 0; i < layout.length; i += 2) {
+            int offset = layout[i + 1];
+            if (offset < data.length)
+                directory.setInt(layout[i], data[offset] & 0xff);
+        }
+    }
+
+    @NotNull
+    private static String readVersion(@NotNull byte[] data)
+    {
+        return new String(data, 0, 4, Charsets.ASCII);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.TagDescriptor;
+
+import static com.drew.metadata.exif.makernotes.NikonLensDataDirectory.*;
+
+/**
+ * Provides human-readable String representations of tag values stored in a {@link NikonLensDataDirectory}.
+ * <p>
+ * Conversions taken from exiftool, created by Phil Harvey http://www.sno.phy.queensu.ca/~phil/exiftool/
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+@SuppressWarnings("WeakerAccess")
+public class NikonLensDataDescriptor extends TagDescriptor<NikonLensDataDirectory>
+{
+    public NikonLensDataDescriptor(@NotNull NikonLensDataDirectory directory)
+    {
+        super(directory);
+    }
+
+    @Override
+    @Nullable
+    public String getDescription(int tagType)
+    {
+        switch (tagType) {
+            case TAG_EXIT_PUPIL_POSITION:
+                return getExitPupilPositionDescription();
+            case TAG_AF_APERTURE:
+                return getApertureDescription(TAG_AF_APERTURE);
+            case TAG_FOCUS_POSITION:
+                return getFocusPositionDescription();
+            case TAG_FOCUS_DISTANCE:
+                return getFocusDistanceDescription();
+            case TAG_FOCAL_LENGTH:
+                return getFocalLengthDescription(TAG_FOCAL_LENGTH);
+            case TAG_LENS_F_STOPS:
+                return getLensFStopsDescription();
+            case TAG_MIN_FOCAL_LENGTH:
+                return getFocalLengthDescription(TAG_MIN_FOCAL_LENGTH);
+            case TAG_MAX_FOCAL_LENGTH:
+                return getFocalLengthDescription(TAG_MAX_FOCAL_LENGTH);
+            case TAG_MAX_APERTURE_AT_MIN_FOCAL:
+                return getApertureDescription(TAG_MAX_APERTURE_AT_MIN_FOCAL);
+            case TAG_MAX_APERTURE_AT_MAX_FOCAL:
+                return getApertureDescription(TAG_MAX_APERTURE_AT_MAX_FOCAL);
+            case TAG_EFFECTIVE_MAX_APERTURE:
+                return getApertureDescription(TAG_EFFECTIVE_MAX_APERTURE);
+            default:
+                return super.getDescription(tagType);
+        }
+    }
+
+    @Nullable
+    public String getExitPupilPositionDescription()
+    {
+        Integer value = _directory.getInteger(TAG_EXIT_PUPIL_POSITION);
+        if (value == null)
+            return null;
+        if (value == 0)
+            return "0 mm";
+        return String.format("%.1f mm", 2048.0 / value);
+    }
+
+    @Nullable
+    public String getFocusPositionDescription()
+    {
+        Integer value = _directory.getInteger(TAG_FOCUS_POSITION);
+        return value == null ? null : String.format("0x%02x", value);
+    }
+
+    @Nullable
+    public String getFocusDistanceDescription()
+    {
+        Integer value = _directory.getInteger(TAG_FOCUS_DISTANCE);
+        return value == null ? null : String.format("%.2f m", 0.01 * Math.pow(10, value / 40.0));
+    }
+
+    @Nullable
+    public String getLensFStopsDescription()
+    {
+        Integer value = _directory.getInteger(TAG_LENS_F_STOPS);
+        return value == null ? null : String.format("%.2f", value / 12.0);
+    }
+
+    @Nullable
+    public String getFocalLengthDescription(int tagType)
+    {
+        Integer value = _directory.getInteger(tagType);
+        return value == null ? null : String.format("%.1f mm", 5 * Math.pow(2, value / 24.0));
+    }
+
+    @Nullable
+    public String getApertureDescription(int tagType)
+    {
+        Integer value = _directory.getInteger(tagType);
+        return value == null ? null : String.format("f/%.1f", Math.pow(2, value / 24.0));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+
+import java.util.HashMap;
+
+/**
+ * Describes tags decoded from the lens data block of Nikon makernotes ({@link NikonType2MakernoteDirectory#TAG_LENS_DATA}),
+ * which later cameras encrypt.
+ * <p>
+ * Tag identifiers match the byte offsets of version <code>0101</code> data.  Values are stored as recorded, and
+ * converted to physical units by {@link NikonLensDataDescriptor}.
+ * <p>
+ * Layouts taken from exiftool, created by Phil Harvey http://www.sno.phy.queensu.ca/~phil/exiftool/
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+@SuppressWarnings("WeakerAccess")
+public class NikonLensDataDirectory extends Directory
+{
+    public static final int TAG_LENS_DATA_VERSION = 0x00;
+    public static final int TAG_EXIT_PUPIL_POSITION = 0x04;
+    public static final int TAG_AF_APERTURE = 0x05;
+    public static final int TAG_FOCUS_POSITION = 0x08;
+    public static final int TAG_FOCUS_DISTANCE = 0x09;
+    public static final int TAG_FOCAL_LENGTH = 0x0a;
+    public static final int TAG_LENS_ID_NUMBER = 0x0b;
+    public static final int TAG_LENS_F_STOPS = 0x0c;
+    public static final int TAG_MIN_FOCAL_LENGTH = 0x0d;
+    public static final int TAG_MAX_FOCAL_LENGTH = 0x0e;
+    public static final int TAG_MAX_APERTURE_AT_MIN_FOCAL = 0x0f;
+    public static final int TAG_MAX_APERTURE_AT_MAX_FOCAL = 0x10;
+    public static final int TAG_MCU_VERSION = 0x11;
+    public static final int TAG_EFFECTIVE_MAX_APERTURE = 0x12;
+
+    @NotNull
+    private static final HashMap<Integer, String> _tagNameMap = new HashMap<Integer, String>();
+
+    static {
+        _tagNameMap.put(TAG_LENS_DATA_VERSION, "Lens Data Version");
+        _tagNameMap.put(TAG_EXIT_PUPIL_POSITION, "Exit Pupil Position");
+        _tagNameMap.put(TAG_AF_APERTURE, "AF Aperture");
+        _tagNameMap.put(TAG_FOCUS_POSITION, "Focus Position");
+        _tagNameMap.put(TAG_FOCUS_DISTANCE, "Focus Distance");
+        _tagNameMap.put(TAG_FOCAL_LENGTH, "Focal Length");
+        _tagNameMap.put(TAG_LENS_ID_NUMBER, "Lens ID Number");
+        _tagNameMap.put(TAG_LENS_F_STOPS, "Lens F Stops");
+        _tagNameMap.put(TAG_MIN_FOCAL_LENGTH, "Min Focal Length");
+        _tagNameMap.put(TAG_MAX_FOCAL_LENGTH, "Max Focal Length");
+        _tagNameMap.put(TAG_MAX_APERTURE_AT_MIN_FOCAL, "Max Aperture At Min Focal");
+        _tagNameMap.put(TAG_MAX_APERTURE_AT_MAX_FOCAL, "Max Aperture At Max Focal");
+        _tagNameMap.put(TAG_MCU_VERSION, "MCU Version");
+        _tagNameMap.put(TAG_EFFECTIVE_MAX_APERTURE, "Effective Max Aperture");
+    }
+
+    public NikonLensDataDirectory()
+    {
+        this.setDescriptor(new NikonLensDataDescriptor(this));
+    }
+
+    @Override
+    @NotNull
+    public String getName()
+    {
+        return "Nikon Lens Data";
+    }
+
+    @Override
+    @NotNull
+    protected HashMap<Integer, String> getTagNameMap()
+    {
+        return _tagNameMap;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Nikon type 1 and type 2 makernotes.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class NikonMakernoteParser implements MakernoteParser
+{
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        int makernoteOffset = context.getMakernoteOffset();
+        if (context.startsWith("Nikon", false)) {
+            /* There are two scenarios here:
+             * Type 1:                  **
+             * :0000: 4E 69 6B 6F 6E 00 01 00-05 00 02 00 02 00 06 00 Nikon...........
+             * :0010: 00 00 EC 02 00 00 03 00-03 00 01 00 00 00 06 00 ................
+             * Type 3:                  **
+             * :0000: 4E 69 6B 6F 6E 00 02 00-00 00 4D 4D 00 2A 00 00 Nikon....MM.*...
+             * :0010: 00 08 00 1E 00 01 00 07-00 00 00 04 30 32 30 30 ............0200
+             */
+            switch (context.getByte(6)) {
+                case 1:
+                    context.processIfd(new NikonType1MakernoteDirectory(), makernoteOffset + 8, context.getTiffHeaderOffset());
+                    break;
+                case 2:
+                    processType2(context, makernoteOffset + 18, makernoteOffset + 10);
+                    break;
+                default:
+                    context.getParentDirectory().addError("Unsupported Nikon makernote data ignored.");
+                    break;
+            }
+        } else {
+            // The IFD begins with the first Makernote byte (no ASCII name).  This occurs with CoolPix 775, E990 and D1 models.
+            processType2(context, makernoteOffset, context.getTiffHeaderOffset());
+        }
+        return true;
+    }
+
+    private static void processType2(@NotNull MakernoteContext context, int ifdOffset, int tiffHeaderOffset) throws IOException
+    {
+        NikonType2MakernoteDirectory directory = new NikonType2MakernoteDirectory();
+        context.processIfd(directory, ifdOffset, tiffHeaderOffset);
+        NikonEncryptedDataLoader.register(context.getMetadata(), directory);
+    }
+}
@@ -20,13 +20,13 @@
  */
 package com.drew.metadata.exif.makernotes;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.Rational;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.TagDescriptor;
 
 import java.nio.ByteBuffer;
-import java.text.DecimalFormat;
 
 import static com.drew.metadata.exif.makernotes.NikonType2MakernoteDirectory.*;
 
@@ -40,6 +40,8 @@ import static com.drew.metadata.exif.makernotes.NikonType2MakernoteDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class NikonType2MakernoteDescriptor extends TagDescriptor<NikonType2MakernoteDirectory>
 {
+    private static final DecimalFormatter UP_TO_2DP = new DecimalFormatter("0.##");
+
     public NikonType2MakernoteDescriptor(@NotNull NikonType2MakernoteDirectory directory)
     {
         super(directory);
@@ -319,9 +321,8 @@ public class NikonType2MakernoteDescriptor extends TagDescriptor<NikonType2Maker
             return null;
         if (values.length < 3 || values[2] == 0)
             return null;
-        final DecimalFormat decimalFormat = new DecimalFormat("0.##");
         double ev = values[0] * values[1] / (double)values[2];
-        return decimalFormat.format(ev) + " EV";
+        return UP_TO_2DP.format(ev) + " EV";
     }
 
     @Nullable
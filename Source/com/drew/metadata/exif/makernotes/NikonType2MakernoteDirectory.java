@@ -959,32 +959,104 @@ public class NikonType2MakernoteDirectory extends Directory
                                                0xc6,0x67,0x4a,0xf5,0xa5,0x12,0x65,0x7e,0xb0,0xdf,0xaf,0x4e,0xb3,0x61,0x7f,0x2f };
 
 
-    /** decryption algorithm adapted from exiftool */
+    /**
+     * Gets the values of an encrypted binary block, decrypted using the camera's serial number and shutter count.
+     * Each value is a single (signed) byte, as returned by {@link #getIntArray(int)}.
+     *
+     * @return the decrypted values, or <code>null</code> if absent or if the data required to decrypt them is missing
+     */
     @Nullable
     public int[] getDecryptedIntArray(int tagType)
     {
-        int[] data = getIntArray(tagType);
+        int[] values = getIntArray(tagType);
         Integer serial = getInteger(TAG_CAMERA_SERIAL_NUMBER);
-        Integer count = getInteger(TAG_EXPOSURE_SEQUENCE_NUMBER);
+        Long count = getLongObject(TAG_EXPOSURE_SEQUENCE_NUMBER);
+
+        if (values == null || serial == null || count == null)
+            return null;
+
+        byte[] data = new byte[values.length];
+        for (int i = 0; i < values.length; i++)
+            data[i] = (byte)values[i];
+
+        decrypt(data, 4, serial, count);
+
+        int[] decrypted = new int[data.length];
+        for (int i = 0; i < data.length; i++)
+            decrypted[i] = data[i];
+        return decrypted;
+    }
+
+    /**
+     * Gets the bytes of a versioned binary block such as {@link #TAG_LENS_DATA}, {@link #TAG_SHOT_INFO} or
+     * {@link #TAG_COLOR_BALANCE}, decrypted if required.
+     * <p>
+     * Blocks begin with a four character version.  Those with versions beginning <code>01</code> are stored in
+     * plain form, while later versions are encrypted after the version using a key derived from the camera's serial
+     * number and shutter count.  The returned array is a copy, so may be modified by the caller.
+     *
+     * @param tagType the tag holding the block
+     * @param cameraModel the camera model from IFD0, used to select the key of cameras with non-numeric serial numbers
+     * @return the decrypted block, or <code>null</code> if absent or if the data required to decrypt it is missing
+     */
+    @Nullable
+    public byte[] getDecryptedByteArray(int tagType, @Nullable String cameraModel)
+    {
+        byte[] data = getByteArray(tagType);
+        if (data == null)
+            return null;
 
-        if (data == null || serial == null || count == null)
+        data = data.clone();
+
+        if (data.length <= 4 || (data[0] == '0' && data[1] == '1'))
+            return data;
+
+        Long count = getLongObject(TAG_EXPOSURE_SEQUENCE_NUMBER);
+        if (count == null)
             return null;
 
+        decrypt(data, 4, getSerialKey(getString(TAG_CAMERA_SERIAL_NUMBER), cameraModel), count);
+        return data;
+    }
+
+    /**
+     * Gets the byte that seeds decryption for the given serial number.  As with exiftool, cameras reporting a
+     * non-numeric serial number use a fixed value that depends only on the model.
+     */
+    static int getSerialKey(@Nullable String serialNumber, @Nullable String cameraModel)
+    {
+        if (serialNumber != null) {
+            serialNumber = serialNumber.trim();
+            if (serialNumber.length() != 0 && serialNumber.length() <= 18) {
+                boolean isNumeric = true;
+                for (int i = 0; i < serialNumber.length() && isNumeric; i++)
+                    isNumeric = serialNumber.charAt(i) >= '0' && serialNumber.charAt(i) <= '9';
+                if (isNumeric)
+                    return (int)(Long.parseLong(serialNumber) & 0xff);
+            }
+        }
+
+        return cameraModel != null && cameraModel.trim().endsWith(" D50") ? 0x22 : 0x60;
+    }
+
+    /**
+     * Applies Nikon's XOR stream cipher in place from <code>start</code> to the end of <code>data</code>.  As XOR is
+     * symmetric, this both encrypts and decrypts.
+     */
+    static void decrypt(@NotNull byte[] data, int start, int serialKey, long count)
+    {
         int key = 0;
         for (int i = 0; i < 4; i++)
-            key ^= (count >> (i * 8)) & 0xff;
+            key ^= (int)(count >> (i * 8)) & 0xff;
 
-        int ci = _decTable1[serial & 0xff];
+        int ci = _decTable1[serialKey & 0xff];
         int cj = _decTable2[key];
         int ck = 0x60;
 
-        for (int i = 4; i < data.length; i++)
-        {
+        for (int i = start; i < data.length; i++) {
             cj = (cj + ci * ck) & 0xff;
             ck = (ck + 1) & 0xff;
             data[i] ^= cj;
         }
-
-        return data;
     }
 }
@@ -20,12 +20,12 @@
  */
 package com.drew.metadata.exif.makernotes;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.Rational;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.TagDescriptor;
 
-import java.text.DecimalFormat;
 import java.util.HashMap;
 
 import static com.drew.metadata.exif.makernotes.OlympusCameraSettingsMakernoteDirectory.*;
@@ -43,6 +43,8 @@ import static com.drew.metadata.exif.makernotes.OlympusCameraSettingsMakernoteDi
 @SuppressWarnings("WeakerAccess")
 public class OlympusCameraSettingsMakernoteDescriptor extends TagDescriptor<OlympusCameraSettingsMakernoteDirectory>
 {
+    private static final DecimalFormatter OPTIONAL_INTEGER_2DP = new DecimalFormatter("#.##");
+
     public OlympusCameraSettingsMakernoteDescriptor(@NotNull OlympusCameraSettingsMakernoteDirectory directory)
     {
         super(directory);
@@ -1253,7 +1255,7 @@ public class OlympusCameraSettingsMakernoteDescriptor extends TagDescriptor<Olym
         if (value == null)
             return null;
 
-        return String.format("%s kPa", new DecimalFormat("#.##").format(value / 10.0));
+        return String.format("%s kPa", OPTIONAL_INTEGER_2DP.format(value / 10.0));
     }
 
     /// <remarks>
@@ -1267,10 +1269,9 @@ public class OlympusCameraSettingsMakernoteDescriptor extends TagDescriptor<Olym
         if (values == null || values.length < 2)
             return null;
 
-        DecimalFormat format = new DecimalFormat("#.##");
         return String.format("%s m, %s ft",
-            format.format(values[0] / 10.0),
-            format.format(values[1] / 10.0));
+            OPTIONAL_INTEGER_2DP.format(values[0] / 10.0),
+            OPTIONAL_INTEGER_2DP.format(values[1] / 10.0));
     }
 
     @Nullable
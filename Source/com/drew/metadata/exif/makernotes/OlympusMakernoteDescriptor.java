@@ -21,6 +21,7 @@
 package com.drew.metadata.exif.makernotes;
 
 import com.drew.imaging.PhotographicConversions;
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.Rational;
 import com.drew.lang.DateUtil;
 import com.drew.lang.annotations.NotNull;
@@ -28,7 +29,6 @@ import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.TagDescriptor;
 
 import java.math.RoundingMode;
-import java.text.DecimalFormat;
 
 import static com.drew.metadata.exif.makernotes.OlympusMakernoteDirectory.*;
 
@@ -40,6 +40,11 @@ import static com.drew.metadata.exif.makernotes.OlympusMakernoteDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDirectory>
 {
+    private static final DecimalFormatter UP_TO_2DP = new DecimalFormatter("0.##");
+    private static final DecimalFormatter UP_TO_2DP_HALF_UP = new DecimalFormatter("0.##", RoundingMode.HALF_UP);
+    private static final DecimalFormatter UP_TO_3DP = new DecimalFormatter("0.###");
+    private static final DecimalFormatter UP_TO_3DP_HALF_UP = new DecimalFormatter("0.###", RoundingMode.HALF_UP);
+
     // TODO extend support for some offset-encoded byte[] tags: http://www.ozhiker.com/electronics/pjmt/jpeg_info/olympus_mn.html
 
     public OlympusMakernoteDescriptor(@NotNull OlympusMakernoteDirectory directory)
@@ -286,9 +291,7 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
             return null;
 
         double iso = Math.pow((value / 8d) - 1, 2) * 3.125;
-        DecimalFormat format = new DecimalFormat("0.##");
-        format.setRoundingMode(RoundingMode.HALF_UP);
-        return format.format(iso);
+        return UP_TO_2DP_HALF_UP.format(iso);
     }
 
     @Nullable
@@ -304,9 +307,7 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
             return null;
 
         double shutterSpeed = Math.pow((49-value) / 8d, 2);
-        DecimalFormat format = new DecimalFormat("0.###");
-        format.setRoundingMode(RoundingMode.HALF_UP);
-        return format.format(shutterSpeed) + " sec";
+        return UP_TO_3DP_HALF_UP.format(shutterSpeed) + " sec";
     }
 
     @Nullable
@@ -340,8 +341,7 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
     public String getExposureCompensationDescription()
     {
         Long value = _directory.getLongObject(CameraSettings.TAG_EXPOSURE_COMPENSATION);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return value == null ? null : format.format((value / 3d) - 2) + " EV";
+        return value == null ? null : UP_TO_2DP.format((value / 3d) - 2) + " EV";
     }
 
     @Nullable
@@ -466,24 +466,21 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
     public String getWhiteBalanceRedDescription()
     {
         Long value = _directory.getLongObject(CameraSettings.TAG_WHITE_BALANCE_RED);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return value == null ? null : format.format(value/256d);
+        return value == null ? null : UP_TO_2DP.format(value/256d);
     }
 
     @Nullable
     public String getWhiteBalanceGreenDescription()
     {
         Long value = _directory.getLongObject(CameraSettings.TAG_WHITE_BALANCE_GREEN);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return value == null ? null : format.format(value/256d);
+        return value == null ? null : UP_TO_2DP.format(value/256d);
     }
 
     @Nullable
     public String getWhiteBalanceBlueDescription()
     {
         Long value = _directory.getLongObject(CameraSettings.TAG_WHITE_BALANCE_BLUE);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return value == null ? null : format.format(value / 256d);
+        return value == null ? null : UP_TO_2DP.format(value / 256d);
     }
 
     @Nullable
@@ -516,8 +513,7 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
     public String getFlashCompensationDescription()
     {
         Long value = _directory.getLongObject(CameraSettings.TAG_FLASH_COMPENSATION);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return value == null ? null : format.format((value-6)/3d) + " EV";
+        return value == null ? null : UP_TO_2DP.format((value-6)/3d) + " EV";
     }
 
     @Nullable
@@ -581,8 +577,7 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
     public String getApexBrightnessDescription()
     {
         Long value = _directory.getLongObject(CameraSettings.TAG_APEX_BRIGHTNESS_VALUE);
-        DecimalFormat format = new DecimalFormat("0.##");
-        return value == null ? null : format.format((value/8d)-6);
+        return value == null ? null : UP_TO_2DP.format((value/8d)-6);
     }
 
     @Nullable
@@ -793,8 +788,7 @@ public class OlympusMakernoteDescriptor extends TagDescriptor<OlympusMakernoteDi
         if (value == null)
             return null;
 
-        DecimalFormat format = new DecimalFormat("0.###");
-        return format.format(value.doubleValue()) + " mm";
+        return UP_TO_3DP.format(value.doubleValue()) + " mm";
     }
 
     @Nullable
@@ -22,6 +22,7 @@ package com.drew.metadata.exif.makernotes;
 
 import com.drew.lang.SequentialByteArrayReader;
 import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.Directory;
 
 import java.io.IOException;
@@ -452,6 +453,12 @@ public class OlympusMakernoteDirectory extends Directory
         _tagNameMap.put(CameraSettings.TAG_DEC_SWITCH_POSITION, "DEC Switch Position");
     }
 
+    /**
+     * The offsets of sub-IFDs referenced by this directory, keyed by tag, or <code>null</code> if there are none.
+     */
+    @Nullable
+    private HashMap<Integer, Integer> _subIfdOffsets;
+
     public OlympusMakernoteDirectory()
     {
         this.setDescriptor(new OlympusMakernoteDescriptor(this));
@@ -834,4 +841,32 @@ public class OlympusMakernoteDirectory extends Directory
         //    SLIMLI", "Supra Slimline X6" },
         //    V8300s", "Vivitar V8300s" },
     }
+
+    /**
+     * Records the offset of the sub-IFD referenced by one of this directory's tags, such as {@link #TAG_EQUIPMENT}.
+     *
+     * @param tagType the tag referencing the sub-IFD
+     * @param offset the offset of the sub-IFD within the data from which this directory was read
+     */
+    public void setSubIfdOffset(int tagType, int offset)
+    {
+        if (_subIfdOffsets == null)
+            _subIfdOffsets = new HashMap<Integer, Integer>(8);
+        _subIfdOffsets.put(tagType, offset);
+    }
+
+    /**
+     * Gets the offset of the sub-IFD referenced by one of this directory's tags, such as {@link #TAG_EQUIPMENT}.
+     * Offsets are recorded whether or not the sub-IFD has been read, as reading may be deferred until its directory
+     * is requested.
+     *
+     * @param tagType the tag referencing the sub-IFD
+     * @return the offset of the sub-IFD within the data from which this directory was read, or <code>null</code> if
+     *         this directory doesn't reference such a sub-IFD
+     */
+    @Nullable
+    public Integer getSubIfdOffset(int tagType)
+    {
+        return _subIfdOffsets == null ? null : _subIfdOffsets.get(tagType);
+    }
 }
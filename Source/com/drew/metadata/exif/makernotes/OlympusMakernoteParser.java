@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Olympus makernotes, which are also written by some Epson, Agfa and Minolta cameras.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class OlympusMakernoteParser implements MakernoteParser
+{
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        int makernoteOffset = context.getMakernoteOffset();
+        if (context.startsWith("OLYMPUS\0II", false)) {
+            // Olympus Makernote (alternate)
+            // Note that data is relative to the beginning of the makernote
+            // http://exiv2.org/makernote.html
+            context.processIfd(new OlympusMakernoteDirectory(), makernoteOffset + 12, makernoteOffset);
+        } else if (context.startsWith("OLYMP\0", false) || context.startsWith("EPSON", false) || context.startsWith("AGFA", false)) {
+            // Epson and Agfa use Olympus makernote standard: http://www.ozhiker.com/electronics/pjmt/jpeg_info/
+            context.processIfd(new OlympusMakernoteDirectory(), makernoteOffset + 8, context.getTiffHeaderOffset());
+        } else {
+            // Cases seen with the model starting with MINOLTA in capitals seem to have a valid Olympus makernote
+            // area that commences immediately.
+            context.processIfd(new OlympusMakernoteDirectory(), makernoteOffset, context.getTiffHeaderOffset());
+        }
+        return true;
+    }
+
+    /**
+     * Creates the directory for a sub-IFD referenced by <code>tagId</code> within an {@link OlympusMakernoteDirectory}.
+     *
+     * @throws IllegalArgumentException if the tag does not reference a sub-IFD
+     */
+    @NotNull
+    public static Directory createSubIfdDirectory(int tagId)
+    {
+        switch (tagId) {
+            case OlympusMakernoteDirectory.TAG_EQUIPMENT:
+                return new OlympusEquipmentMakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_CAMERA_SETTINGS:
+                return new OlympusCameraSettingsMakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT:
+                return new OlympusRawDevelopmentMakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_RAW_DEVELOPMENT_2:
+                return new OlympusRawDevelopment2MakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_IMAGE_PROCESSING:
+                return new OlympusImageProcessingMakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_FOCUS_INFO:
+                return new OlympusFocusInfoMakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_RAW_INFO:
+                return new OlympusRawInfoMakernoteDirectory();
+            case OlympusMakernoteDirectory.TAG_MAIN_INFO:
+                return new OlympusMakernoteDirectory();
+            default:
+                throw new IllegalArgumentException("Tag " + tagId + " does not reference an Olympus sub-IFD");
+        }
+    }
+}
@@ -22,6 +22,7 @@ package com.drew.metadata.exif.makernotes;
 
 import com.drew.lang.ByteArrayReader;
 import com.drew.lang.Charsets;
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.RandomAccessReader;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
@@ -29,7 +30,6 @@ import com.drew.metadata.Age;
 import com.drew.metadata.Face;
 import com.drew.metadata.TagDescriptor;
 
-import java.text.DecimalFormat;
 import java.io.IOException;
 
 import static com.drew.metadata.exif.makernotes.PanasonicMakernoteDirectory.*;
@@ -49,6 +49,8 @@ import static com.drew.metadata.exif.makernotes.PanasonicMakernoteDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class PanasonicMakernoteDescriptor extends TagDescriptor<PanasonicMakernoteDirectory>
 {
+    private static final DecimalFormatter UP_TO_1DP = new DecimalFormatter("0.#");
+
     public PanasonicMakernoteDescriptor(@NotNull PanasonicMakernoteDirectory directory)
     {
         super(directory);
@@ -465,9 +467,8 @@ public class PanasonicMakernoteDescriptor extends TagDescriptor<PanasonicMakerno
         if (value == null)
             return null;
 
-        DecimalFormat format = new DecimalFormat("0.#");
         // converted to degrees of clockwise camera rotation
-        return format.format(value.shortValue() / 10.0);
+        return UP_TO_1DP.format(value.shortValue() / 10.0);
     }
 
     @Nullable
@@ -477,9 +478,8 @@ public class PanasonicMakernoteDescriptor extends TagDescriptor<PanasonicMakerno
         if (value == null)
             return null;
 
-        DecimalFormat format = new DecimalFormat("0.#");
         // converted to degrees of upward camera tilt
-        return format.format(-value.shortValue() / 10.0);
+        return UP_TO_1DP.format(-value.shortValue() / 10.0);
     }
 
     @Nullable
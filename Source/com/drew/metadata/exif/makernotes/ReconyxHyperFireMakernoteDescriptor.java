@@ -21,13 +21,13 @@
 
 package com.drew.metadata.exif.makernotes;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.StringValue;
 import com.drew.metadata.TagDescriptor;
 
 import java.text.DateFormat;
-import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 
@@ -41,6 +41,8 @@ import static com.drew.metadata.exif.makernotes.ReconyxHyperFireMakernoteDirecto
 @SuppressWarnings("WeakerAccess")
 public class ReconyxHyperFireMakernoteDescriptor extends TagDescriptor<ReconyxHyperFireMakernoteDirectory>
 {
+    private static final DecimalFormatter EXACTLY_3DP = new DecimalFormatter("0.000");
+
     public ReconyxHyperFireMakernoteDescriptor(@NotNull ReconyxHyperFireMakernoteDirectory directory)
     {
         super(directory);
@@ -68,8 +70,7 @@ public class ReconyxHyperFireMakernoteDescriptor extends TagDescriptor<ReconyxHy
                 return String.format("%d", _directory.getInteger(tagType));
             case TAG_BATTERY_VOLTAGE:
                 Double value = _directory.getDoubleObject(tagType);
-                DecimalFormat formatter = new DecimalFormat("0.000");
-                return value == null ? null : formatter.format(value);
+                return value == null ? null : EXACTLY_3DP.format(value);
             case TAG_DATE_TIME_ORIGINAL:
                 String date = _directory.getString(tagType);
                 try {
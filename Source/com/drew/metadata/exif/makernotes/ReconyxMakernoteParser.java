@@ -0,0 +1,241 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.Charsets;
+import com.drew.lang.RandomAccessReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.BinaryLayout;
+import com.drew.metadata.BinaryLayout.FieldType;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Reconyx HyperFire and UltraFire makernotes, which have values at fixed offsets rather than an IFD.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class ReconyxMakernoteParser implements MakernoteParser
+{
+    /** Values of HyperFire makernotes which need no interpretation, at offsets equal to their tag identifiers. */
+    private static final BinaryLayout HYPERFIRE_LAYOUT = new BinaryLayout();
+
+    /**
+     * Values of UltraFire makernotes which need no interpretation, at offsets equal to their tag identifiers.  These
+     * are big-endian whatever the byte order of the enclosing Exif data.
+     */
+    private static final BinaryLayout ULTRAFIRE_LAYOUT = new BinaryLayout();
+
+    static
+    {
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_MAKERNOTE_VERSION, ReconyxHyperFireMakernoteDirectory.TAG_MAKERNOTE_VERSION, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE, ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE, FieldType.UInt16, 2);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE, ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, FieldType.Int16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, FieldType.Int16);
+        // two unread bytes follow: the serial number's terminating null
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, FieldType.RawText, 28, Charsets.UTF_16LE);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_CONTRAST, ReconyxHyperFireMakernoteDirectory.TAG_CONTRAST, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_BRIGHTNESS, ReconyxHyperFireMakernoteDirectory.TAG_BRIGHTNESS, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_SHARPNESS, ReconyxHyperFireMakernoteDirectory.TAG_SHARPNESS, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_SATURATION, ReconyxHyperFireMakernoteDirectory.TAG_SATURATION, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_INFRARED_ILLUMINATOR, ReconyxHyperFireMakernoteDirectory.TAG_INFRARED_ILLUMINATOR, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_MOTION_SENSITIVITY, ReconyxHyperFireMakernoteDirectory.TAG_MOTION_SENSITIVITY, FieldType.UInt16);
+        HYPERFIRE_LAYOUT.add(ReconyxHyperFireMakernoteDirectory.TAG_USER_LABEL, ReconyxHyperFireMakernoteDirectory.TAG_USER_LABEL, FieldType.NullTerminatedText, 44, Charsets.UTF_8);
+
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_LABEL, ReconyxUltraFireMakernoteDirectory.TAG_LABEL, FieldType.Text, 9, Charsets.UTF_8);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_ID, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_ID, FieldType.UInt32);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_SIZE, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_SIZE, FieldType.UInt32);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_ID, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_ID, FieldType.UInt32);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_SIZE, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_SIZE, FieldType.UInt16);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_EVENT_TYPE, ReconyxUltraFireMakernoteDirectory.TAG_EVENT_TYPE, FieldType.Text, 1, Charsets.UTF_8);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE, ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE, FieldType.UInt8, 2);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_EVENT_NUMBER, ReconyxUltraFireMakernoteDirectory.TAG_EVENT_NUMBER, FieldType.UInt32);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_DAY_OF_WEEK, ReconyxUltraFireMakernoteDirectory.TAG_DAY_OF_WEEK, FieldType.UInt8);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_MOON_PHASE, ReconyxUltraFireMakernoteDirectory.TAG_MOON_PHASE, FieldType.Int8);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, FieldType.Int16);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, FieldType.Int16);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_FLASH, ReconyxUltraFireMakernoteDirectory.TAG_FLASH, FieldType.Int8);
+        // unread byte follows: the serial number's terminating null
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_SERIAL_NUMBER, ReconyxUltraFireMakernoteDirectory.TAG_SERIAL_NUMBER, FieldType.RawText, 14, Charsets.UTF_8);
+        ULTRAFIRE_LAYOUT.add(ReconyxUltraFireMakernoteDirectory.TAG_USER_LABEL, ReconyxUltraFireMakernoteDirectory.TAG_USER_LABEL, FieldType.NullTerminatedText, 20, Charsets.UTF_8);
+    }
+
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        int makernoteOffset = context.getMakernoteOffset();
+        if (context.startsWith("RECONYXUF", true)) {
+            ReconyxUltraFireMakernoteDirectory directory = new ReconyxUltraFireMakernoteDirectory();
+            context.addDirectory(directory);
+            processReconyxUltraFireMakernote(directory, makernoteOffset, context.getReader());
+            return true;
+        }
+
+        // HyperFire makernotes have no signature, but begin with a version number
+        int b0 = context.getByte(0);
+        int b1 = context.getByte(1);
+        if (b0 == -1 || b1 == -1)
+            return false;
+        int version = context.getReader().isMotorolaByteOrder() ? b0 << 8 | b1 : b1 << 8 | b0;
+        if (version != ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION)
+            return false;
+
+        ReconyxHyperFireMakernoteDirectory directory = new ReconyxHyperFireMakernoteDirectory();
+        context.addDirectory(directory);
+        processReconyxHyperFireMakernote(directory, makernoteOffset, context.getReader());
+        return true;
+    }
+
+    private static void processReconyxHyperFireMakernote(@NotNull final ReconyxHyperFireMakernoteDirectory directory, final int makernoteOffset, @NotNull final RandomAccessReader reader) throws IOException
+    {
+        // A truncated makernote yields a shorter block, from which the values present are still decoded
+        byte[] block = HYPERFIRE_LAYOUT.readBlock(reader, makernoteOffset);
+        HYPERFIRE_LAYOUT.read(block, reader.isMotorolaByteOrder(), directory);
+
+        ByteArrayReader blockReader = new ByteArrayReader(block);
+        blockReader.setMotorolaByteOrder(reader.isMotorolaByteOrder());
+
+        if (block.length < ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 10)
+            return;
+        int major = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION);
+        int minor = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 2);
+        int revision = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 4);
+        String buildYear = String.format("%04X", blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 6));
+        String buildDate = String.format("%04X", blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + 8));
+        String buildYearAndDate = buildYear + buildDate;
+        Integer build;
+        try {
+            build = Integer.parseInt(buildYearAndDate);
+        } catch (NumberFormatException e) {
+            build = null;
+        }
+
+        if (build != null) {
+            directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION, String.format("%d.%d.%d.%s", major, minor, revision, build));
+        } else {
+            directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION, String.format("%d.%d.%d", major, minor, revision));
+            directory.addError("Error processing Reconyx HyperFire makernote data: build '" + buildYearAndDate + "' is not in the expected format and will be omitted from Firmware Version.");
+        }
+
+        if (block.length < ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE + 2)
+            return;
+        directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE, String.valueOf((char)blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE)));
+
+        if (block.length < ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER + 4)
+            return;
+        int eventNumberHigh = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER);
+        int eventNumberLow = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER + 2);
+        directory.setInt(ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER, (eventNumberHigh << 16) + eventNumberLow);
+
+        if (block.length < ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 12)
+            return;
+        int seconds = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL);
+        int minutes = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 2);
+        int hour = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 4);
+        int month = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 6);
+        int day = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 8);
+        int year = blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 10);
+
+        if ((seconds >= 0 && seconds < 60) &&
+            (minutes >= 0 && minutes < 60) &&
+            (hour >= 0 && hour < 24) &&
+            (month >= 1 && month < 13) &&
+            (day >= 1 && day < 32) &&
+            (year >= 1 && year <= 9999)) {
+            directory.setString(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL,
+                    String.format("%4d:%2d:%2d %2d:%2d:%2d", year, month, day, hour, minutes, seconds));
+        } else {
+            directory.addError("Error processing Reconyx HyperFire makernote data: Date/Time Original " + year + "-" + month + "-" + day + " " + hour + ":" + minutes + ":" + seconds + " is not a valid date/time.");
+        }
+
+        if (block.length < ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE + 2)
+            return;
+        directory.setDouble(ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE, blockReader.getUInt16(ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE) / 1000.0);
+    }
+
+    private static void processReconyxUltraFireMakernote(@NotNull final ReconyxUltraFireMakernoteDirectory directory, final int makernoteOffset, @NotNull final RandomAccessReader reader) throws IOException
+    {
+        // A truncated makernote yields a shorter block, from which the values present are still decoded
+        byte[] block = ULTRAFIRE_LAYOUT.readBlock(reader, makernoteOffset);
+        ULTRAFIRE_LAYOUT.read(block, true, directory);
+
+        ByteArrayReader blockReader = new ByteArrayReader(block);
+        blockReader.setMotorolaByteOrder(true);
+
+        Integer makernoteId = directory.getInteger(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_ID);
+        if (makernoteId != null && makernoteId != ReconyxUltraFireMakernoteDirectory.MAKERNOTE_ID)
+            directory.addError(String.format("Error processing Reconyx UltraFire makernote data: unknown Makernote ID 0x%08X", makernoteId));
+        Integer publicId = directory.getInteger(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_ID);
+        if (publicId != null && publicId != ReconyxUltraFireMakernoteDirectory.MAKERNOTE_PUBLIC_ID)
+            directory.addError(String.format("Error processing Reconyx UltraFire makernote data: unknown Makernote Public ID 0x%08X", publicId));
+
+        processReconyxUltraFireVersion(directory, ReconyxUltraFireMakernoteDirectory.TAG_CAMERA_VERSION, blockReader);
+        processReconyxUltraFireVersion(directory, ReconyxUltraFireMakernoteDirectory.TAG_UIB_VERSION, blockReader);
+        processReconyxUltraFireVersion(directory, ReconyxUltraFireMakernoteDirectory.TAG_BTL_VERSION, blockReader);
+        processReconyxUltraFireVersion(directory, ReconyxUltraFireMakernoteDirectory.TAG_PEX_VERSION, blockReader);
+
+        if (block.length >= ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 7) {
+            int seconds = blockReader.getUInt8(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL);
+            int minutes = blockReader.getUInt8(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 1);
+            int hour = blockReader.getUInt8(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 2);
+            int day = blockReader.getUInt8(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 3);
+            int month = blockReader.getUInt8(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 4);
+            int year = blockReader.getUInt16(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + 5);
+
+            if ((seconds >= 0 && seconds < 60) &&
+                (minutes >= 0 && minutes < 60) &&
+                (hour >= 0 && hour < 24) &&
+                (month >= 1 && month < 13) &&
+                (day >= 1 && day < 32) &&
+                (year >= 1 && year <= 9999)) {
+                directory.setString(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL,
+                        String.format("%04d:%02d:%02d %02d:%02d:%02d", year, month, day, hour, minutes, seconds));
+            } else {
+                directory.addError("Error processing Reconyx UltraFire makernote data: Date/Time Original " + year + "-" + month + "-" + day + " " + hour + ":" + minutes + ":" + seconds + " is not a valid date/time.");
+            }
+        }
+
+        if (block.length >= ReconyxUltraFireMakernoteDirectory.TAG_BATTERY_VOLTAGE + 2)
+            directory.setDouble(ReconyxUltraFireMakernoteDirectory.TAG_BATTERY_VOLTAGE, blockReader.getUInt16(ReconyxUltraFireMakernoteDirectory.TAG_BATTERY_VOLTAGE) / 1000.0);
+    }
+
+    /**
+     * Reads a seven byte UltraFire version, being major and minor numbers, a build date with its year, month and day
+     * written in hexadecimal digits, and a revision letter.
+     */
+    private static void processReconyxUltraFireVersion(@NotNull final ReconyxUltraFireMakernoteDirectory directory, final int tagType, @NotNull final ByteArrayReader blockReader) throws IOException
+    {
+        if (blockReader.getLength() < tagType + 7)
+            return;
+
+        int major = blockReader.getUInt8(tagType);
+        int minor = blockReader.getUInt8(tagType + 1);
+        int year = blockReader.getUInt16(tagType + 2);
+        int month = blockReader.getUInt8(tagType + 4);
+        int day = blockReader.getUInt8(tagType + 5);
+        char revision = (char)blockReader.getUInt8(tagType + 6);
+
+        directory.setString(tagType, String.format("%d.%d.%04X.%02X.%02X%s", major, minor, year, month, day, revision == 0 ? "" : String.valueOf(revision)));
+    }
+}
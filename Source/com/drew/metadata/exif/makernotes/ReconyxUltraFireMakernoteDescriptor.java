@@ -21,13 +21,13 @@
 
 package com.drew.metadata.exif.makernotes;
 
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.StringValue;
 import com.drew.metadata.TagDescriptor;
 
 import java.text.DateFormat;
-import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 
@@ -41,6 +41,8 @@ import static com.drew.metadata.exif.makernotes.ReconyxUltraFireMakernoteDirecto
 @SuppressWarnings("WeakerAccess")
 public class ReconyxUltraFireMakernoteDescriptor extends TagDescriptor<ReconyxUltraFireMakernoteDirectory>
 {
+    private static final DecimalFormatter EXACTLY_3DP = new DecimalFormatter("0.000");
+
     public ReconyxUltraFireMakernoteDescriptor(@NotNull ReconyxUltraFireMakernoteDirectory directory)
     {
         super(directory);
@@ -93,8 +95,7 @@ public class ReconyxUltraFireMakernoteDescriptor extends TagDescriptor<ReconyxUl
                 return getIndexedDescription(tagType, "Off", "On");
             case TAG_BATTERY_VOLTAGE:
                 Double value = _directory.getDoubleObject(tagType);
-                DecimalFormat formatter = new DecimalFormat("0.000");
-                return value == null ? null : formatter.format(value);
+                return value == null ? null : EXACTLY_3DP.format(value);
             case TAG_SERIAL_NUMBER:
                 // default is UTF_8
                 StringValue svalue = _directory.getStringValue(tagType);
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+
+/**
+ * The substitution cipher Sony applies to some makernote blocks, in which each byte <code>b</code> below 249 is
+ * replaced by <code>b<sup>3</sup> mod 249</code> and bytes 249 to 255 are unchanged.
+ * <p>
+ * Both directions are precomputed into tables, so that deciphering costs one lookup per byte.
+ * <p>
+ * Algorithm from exiftool, created by Phil Harvey http://www.sno.phy.queensu.ca/~phil/exiftool/
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class SonyCipher
+{
+    private static final byte[] ENCIPHER = new byte[256];
+    private static final byte[] DECIPHER = new byte[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            int c = b < 249 ? (b * b * b) % 249 : b;
+            ENCIPHER[b] = (byte)c;
+            DECIPHER[c] = (byte)b;
+        }
+    }
+
+    private SonyCipher()
+    {
+    }
+
+    /**
+     * Returns a deciphered copy of <code>data</code>.
+     */
+    @NotNull
+    static byte[] decipher(@NotNull byte[] data)
+    {
+        return translate(data, DECIPHER);
+    }
+
+    /**
+     * Returns an enciphered copy of <code>data</code>.
+     */
+    @NotNull
+    static byte[] encipher(@NotNull byte[] data)
+    {
+        return translate(data, ENCIPHER);
+    }
+
+    @NotNull
+    private static byte[] translate(@NotNull byte[] data, @NotNull byte[] table)
+    {
+        byte[] result = new byte[data.length];
+        for (int i = 0; i < data.length; i++)
+            result[i] = table[data[i] & 0xff];
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.DeferredDirectoryLoader;
+import com.drew.metadata.Directory;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+
+import java.util.regex.Pattern;
+
+/**
+ * Deciphers the enciphered blocks of a {@link SonyType1MakernoteDirectory} into their own directories, the first
+ * time any of them is requested.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+final class SonyEncipheredDataLoader implements DeferredDirectoryLoader
+{
+    /** Models using the later layout of tag 0x9050, as identified by exiftool. */
+    private static final Pattern TAG_9050_B_MODELS = Pattern.compile("^(ILCE-(6300|6500|7M3|7RM2|7RM3|7SM2|9)|ILCA-99M2)\\b");
+
+    /** Models using the earlier layout of tag 0x9050. */
+    private static final Pattern TAG_9050_A_MODELS = Pattern.compile("^(SLT-|ILCA-|NEX-|ILCE-)");
+
+    @NotNull
+    private final SonyType1MakernoteDirectory _directory;
+
+    SonyEncipheredDataLoader(@NotNull SonyType1MakernoteDirectory directory)
+    {
+        _directory = directory;
+    }
+
+    /**
+     * Registers a loader with <code>metadata</code> for the enciphered blocks of <code>directory</code>.  As the
+     * directory itself may not yet have been read, the blocks present are only determined when loading.
+     */
+    static void register(@NotNull Metadata metadata, @NotNull SonyType1MakernoteDirectory directory)
+    {
+        metadata.addDeferredDirectoryLoader(new SonyEncipheredDataLoader(directory));
+    }
+
+    public boolean mayProduce(@NotNull Class<? extends Directory> directoryType)
+    {
+        return directoryType.isAssignableFrom(SonyTag9050Directory.class)
+            || directoryType.isAssignableFrom(SonyTag2010Directory.class);
+    }
+
+    public void load(@NotNull Metadata metadata)
+    {
+        byte[] data = _directory.getByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_9050);
+        if (data != null) {
+            ExifIFD0Directory ifd0Directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            String cameraModel = ifd0Directory == null ? null : ifd0Directory.getString(ExifIFD0Directory.TAG_MODEL);
+
+            SonyTag9050Directory directory = new SonyTag9050Directory();
+            directory.setParent(_directory);
+            readTag9050(directory, SonyCipher.decipher(data), cameraModel);
+            metadata.addDirectory(directory);
+        }
+
+        data = _directory.getByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_2010);
+        if (data != null) {
+            SonyTag2010Directory directory = new SonyTag2010Directory();
+            directory.setParent(_directory);
+            directory.setByteArray(SonyTag2010Directory.TAG_DATA, SonyCipher.decipher(data));
+            metadata.addDirectory(directory);
+        }
+    }
+
+    static void readTag9050(@NotNull SonyTag9050Directory directory, @NotNull byte[] data, @Nullable String cameraModel)
+    {
+        directory.setByteArray(SonyTag9050Directory.TAG_DATA, data);
+
+        if (cameraModel == null)
+            return;
+
+        int shutterCountOffset;
+        int serialNumberOffset;
+        int serialNumberLength;
+        if (TAG_9050_B_MODELS.matcher(cameraModel).find()) {
+            shutterCountOffset = 0x3a;
+            serialNumberOffset = 0x88;
+            serialNumberLength = 6;
+        } else if (TAG_9050_A_MODELS.matcher(cameraModel).find()) {
+            shutterCountOffset = 0x32;
+            serialNumberOffset = 0x7c;
+            serialNumberLength = 4;
+        } else {
+            return;
+        }
+
+        // The shutter count is stored little-endian in the low three bytes of a 32-bit value
+        if (shutterCountOffset + 4 <= data.length) {
+            directory.setInt(SonyTag9050Directory.TAG_SHUTTER_COUNT,
+                (data[shutterCountOffset] & 0xff) |
+                (data[shutterCountOffset + 1] & 0xff) << 8 |
+                (data[shutterCountOffset + 2] & 0xff) << 16);
+        }
+
+        if (serialNumberOffset + serialNumberLength <= data.length) {
+            StringBuilder serialNumber = new StringBuilder(serialNumberLength * 2);
+            for (int i = serialNumberOffset; i < serialNumberOffset + serialNumberLength; i++)
+                serialNumber.append(String.format("%02x", data[i] & 0xff));
+            directory.setString(SonyTag9050Directory.TAG_INTERNAL_SERIAL_NUMBER, serialNumber.toString());
+        }
+    }
+}
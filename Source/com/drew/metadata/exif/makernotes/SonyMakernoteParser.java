@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.exif.MakernoteContext;
+import com.drew.metadata.exif.MakernoteParser;
+
+import java.io.IOException;
+
+/**
+ * Reads Sony type 1 makernotes, and the type 6 makernotes written by Sony Ericsson phones.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class SonyMakernoteParser implements MakernoteParser
+{
+    public boolean parse(@NotNull MakernoteContext context) throws IOException
+    {
+        int makernoteOffset = context.getMakernoteOffset();
+        if (context.startsWith("SONY CAM", false) || context.startsWith("SONY DSC", false)) {
+            processType1(context, makernoteOffset + 12);
+        } else if (context.startsWith("SEMC MS\0\0\0\0\0", false)) {
+            // force MM for this directory
+            context.getReader().setMotorolaByteOrder(true);
+            // skip 12 byte header + 2 for "MM" + 6
+            context.processIfd(new SonyType6MakernoteDirectory(), makernoteOffset + 20, context.getTiffHeaderOffset());
+        } else {
+            String cameraMake = context.getCameraMake();
+            if (cameraMake == null || !cameraMake.startsWith("SONY") || (context.getByte(0) == 0x01 && context.getByte(1) == 0x00))
+                return false;
+            // The IFD begins with the first Makernote byte (no ASCII name). Used in SR2 and ARW images
+            processType1(context, makernoteOffset);
+        }
+        return true;
+    }
+
+    private static void processType1(@NotNull MakernoteContext context, int ifdOffset) throws IOException
+    {
+        SonyType1MakernoteDirectory directory = new SonyType1MakernoteDirectory();
+        context.processIfd(directory, ifdOffset, context.getTiffHeaderOffset());
+        SonyEncipheredDataLoader.register(context.getMetadata(), directory);
+    }
+}
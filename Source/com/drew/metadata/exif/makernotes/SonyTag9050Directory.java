@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.TagDescriptor;
+
+import java.util.HashMap;
+
+/**
+ * Describes tags deciphered from {@link SonyType1MakernoteDirectory#TAG_ENCIPHERED_9050}.
+ * <p>
+ * The layout of this block varies by camera model.  The shutter count and internal serial number are decoded for
+ * the SLT, ILCA, NEX and ILCE models whose layouts are known, and the whole deciphered block is available via
+ * {@link #TAG_DATA}.
+ * <p>
+ * Layouts taken from exiftool, created by Phil Harvey http://www.sno.phy.queensu.ca/~phil/exiftool/
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+@SuppressWarnings("WeakerAccess")
+public class SonyTag9050Directory extends Directory
+{
+    public static final int TAG_SHUTTER_COUNT = 0x0001;
+    public static final int TAG_INTERNAL_SERIAL_NUMBER = 0x0002;
+    public static final int TAG_DATA = 0x0003;
+
+    @NotNull
+    private static final HashMap<Integer, String> _tagNameMap = new HashMap<Integer, String>();
+
+    static {
+        _tagNameMap.put(TAG_SHUTTER_COUNT, "Shutter Count");
+        _tagNameMap.put(TAG_INTERNAL_SERIAL_NUMBER, "Internal Serial Number");
+        _tagNameMap.put(TAG_DATA, "Tag 9050 Data");
+    }
+
+    public SonyTag9050Directory()
+    {
+        this.setDescriptor(new TagDescriptor<SonyTag9050Directory>(this));
+    }
+
+    @Override
+    @NotNull
+    public String getName()
+    {
+        return "Sony Tag 9050";
+    }
+
+    @Override
+    @NotNull
+    protected HashMap<Integer, String> getTagNameMap()
+    {
+        return _tagNameMap;
+    }
+}
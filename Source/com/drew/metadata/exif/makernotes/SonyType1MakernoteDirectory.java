@@ -73,8 +73,20 @@ public class SonyType1MakernoteDirectory extends Directory
     public static final int TAG_FOCUS_MODE = 0x201b;
     public static final int TAG_AF_POINT_SELECTED = 0x201e;
 
+    /**
+     * An enciphered block of camera settings and focus data, whose layout varies by model.  Deciphered on demand
+     * into a {@link SonyTag2010Directory}.
+     */
+    public static final int TAG_ENCIPHERED_2010 = 0x2010;
+
     public static final int TAG_SHOT_INFO = 0x3000;
 
+    /**
+     * An enciphered block holding the shutter count and internal serial number, among other values.  Deciphered on
+     * demand into a {@link SonyTag9050Directory}.
+     */
+    public static final int TAG_ENCIPHERED_9050 = 0x9050;
+
     public static final int TAG_FILE_FORMAT = 0xb000;
     public static final int TAG_SONY_MODEL_ID = 0xb001;
 
@@ -168,8 +180,10 @@ public class SonyType1MakernoteDirectory extends Directory
         _tagNameMap.put(TAG_AUTO_PORTRAIT_FRAMED, "Auto Portrait Framing");
         _tagNameMap.put(TAG_FOCUS_MODE, "Focus Mode");
         _tagNameMap.put(TAG_AF_POINT_SELECTED, "AF Point Selected");
+        _tagNameMap.put(TAG_ENCIPHERED_2010, "Tag 2010");
 
         _tagNameMap.put(TAG_SHOT_INFO, "Shot Info");
+        _tagNameMap.put(TAG_ENCIPHERED_9050, "Tag 9050");
 
         _tagNameMap.put(TAG_FILE_FORMAT, "File Format");
         _tagNameMap.put(TAG_SONY_MODEL_ID, "Sony Model ID");
@@ -22,6 +22,7 @@
 package com.drew.metadata.icc;
 
 import com.drew.lang.ByteArrayReader;
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.RandomAccessReader;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
@@ -29,7 +30,6 @@ import com.drew.metadata.TagDescriptor;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.text.DecimalFormat;
 
 import static com.drew.metadata.icc.IccDirectory.*;
 
@@ -40,6 +40,9 @@ import static com.drew.metadata.icc.IccDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class IccDescriptor extends TagDescriptor<IccDirectory>
 {
+    private static final DecimalFormatter UP_TO_3DP = new DecimalFormatter("0.###");
+    private static final DecimalFormatter UP_TO_4DP = new DecimalFormatter("0.####");
+
     public IccDescriptor(@NotNull IccDirectory directory)
     {
         super(directory);
@@ -163,13 +166,11 @@ public class IccDescriptor extends TagDescriptor<IccDirectory>
                             illuminantString = String.format("Unknown %d", illuminantType);
                             break;
                     }
-                    DecimalFormat format = new DecimalFormat("0.###");
                     return String.format("%s Observer, Backing (%s, %s, %s), Geometry %s, Flare %d%%, Illuminant %s",
-                            observerString, format.format(x), format.format(y), format.format(z), geometryString, Math.round(flare * 100), illuminantString);
+                            observerString, UP_TO_3DP.format(x), UP_TO_3DP.format(y), UP_TO_3DP.format(z), geometryString, Math.round(flare * 100), illuminantString);
                 }
                 case ICC_TAG_TYPE_XYZ_ARRAY: {
                     StringBuilder res = new StringBuilder();
-                    DecimalFormat format = new DecimalFormat("0.####");
                     int count = (bytes.length - 8) / 12;
                     for (int i = 0; i < count; i++) {
                         float x = reader.getS15Fixed16(8 + i * 12);
@@ -177,7 +178,7 @@ public class IccDescriptor extends TagDescriptor<IccDirectory>
                         float z = reader.getS15Fixed16(8 + i * 12 + 8);
                         if (i > 0)
                             res.append(", ");
-                        res.append("(").append(format.format(x)).append(", ").append(format.format(y)).append(", ").append(format.format(z)).append(")");
+                        res.append("(").append(UP_TO_4DP.format(x)).append(", ").append(UP_TO_4DP.format(y)).append(", ").append(UP_TO_4DP.format(z)).append(")");
                     }
                     return res.toString();
                 }
@@ -22,13 +22,13 @@ package com.drew.metadata.photoshop;
 
 import com.drew.lang.ByteArrayReader;
 import com.drew.lang.Charsets;
+import com.drew.lang.DecimalFormatter;
 import com.drew.lang.RandomAccessReader;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.TagDescriptor;
 
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 
 import static com.drew.metadata.photoshop.PhotoshopDirectory.*;
@@ -41,6 +41,8 @@ import static com.drew.metadata.photoshop.PhotoshopDirectory.*;
 @SuppressWarnings("WeakerAccess")
 public class PhotoshopDescriptor extends TagDescriptor<PhotoshopDirectory>
 {
+    private static final DecimalFormatter UP_TO_2DP = new DecimalFormatter("0.##");
+
     public PhotoshopDescriptor(@NotNull PhotoshopDirectory directory)
     {
         super(directory);
@@ -209,8 +211,7 @@ public class PhotoshopDescriptor extends TagDescriptor<PhotoshopDirectory>
             RandomAccessReader reader = new ByteArrayReader(bytes);
             float resX = reader.getS15Fixed16(0);
             float resY = reader.getS15Fixed16(8); // is this the correct offset? it's only reading 4 bytes each time
-            DecimalFormat format = new DecimalFormat("0.##");
-            return format.format(resX) + "x" + format.format(resY) + " DPI";
+            return UP_TO_2DP.format(resX) + "x" + UP_TO_2DP.format(resY) + " DPI";
         } catch (Exception e) {
             return null;
         }
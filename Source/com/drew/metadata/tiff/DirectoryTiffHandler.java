@@ -21,12 +21,15 @@
 package com.drew.metadata.tiff;
 
 import com.drew.imaging.tiff.TiffHandler;
+import com.drew.imaging.tiff.TiffReader;
+import com.drew.imaging.tiff.TiffSourceRangeHandler;
 import com.drew.lang.Rational;
 import com.drew.lang.annotations.NotNull;
 import com.drew.lang.annotations.Nullable;
 import com.drew.metadata.Directory;
 import com.drew.metadata.ErrorDirectory;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.StringValue;
 
 import java.util.Stack;
@@ -36,7 +39,7 @@ import java.util.Stack;
  *
  * @author Drew Noakes https://drewnoakes.com
  */
-public abstract class DirectoryTiffHandler implements TiffHandler
+public abstract class DirectoryTiffHandler implements TiffSourceRangeHandler
 {
     private final Stack<Directory> _directoryStack = new Stack<Directory>();
 
@@ -44,17 +47,77 @@ public abstract class DirectoryTiffHandler implements TiffHandler
     @Nullable protected Directory _currentDirectory;
     protected final Metadata _metadata;
 
+    /** The absolute file offset of the reader's first byte, or -1 if unknown. */
+    private long _sourceOffset = -1;
+
     protected DirectoryTiffHandler(Metadata metadata, @Nullable Directory parentDirectory)
     {
         _metadata = metadata;
         _rootParentDirectory = parentDirectory;
     }
 
+    /**
+     * Sets the absolute position within the source file of the first byte of the data passed to {@link TiffReader}.
+     * <p>
+     * Source ranges are only recorded when this is known and {@link Metadata#isSourceRangesEnabled()} is set.
+     *
+     * @param sourceOffset the absolute offset of the reader's first byte, or -1 if unknown
+     */
+    public void setSourceOffset(long sourceOffset)
+    {
+        _sourceOffset = sourceOffset;
+    }
+
+    /**
+     * Gets the absolute position within the source file of the first byte of the data passed to {@link TiffReader}.
+     *
+     * @return the absolute offset of the reader's first byte, or -1 if unknown
+     */
+    protected long getSourceOffset()
+    {
+        return _sourceOffset;
+    }
+
+    /**
+     * Converts a position within the reader's unshifted data into an absolute range within the source file.
+     *
+     * @return the absolute range, or <code>null</code> if the position of the reader's data is unknown
+     */
+    @Nullable
+    protected SourceRange toSourceRange(long unshiftedOffset, long length)
+    {
+        return _sourceOffset < 0 ? null : new SourceRange(_sourceOffset + unshiftedOffset, length);
+    }
+
+    public void setIfdSourceRange(long ifdOffset, long ifdLength)
+    {
+        if (_sourceOffset < 0 || _currentDirectory == null || !_metadata.isSourceRangesEnabled())
+            return;
+        // The first IFD read into a directory defines its position
+        if (_currentDirectory.getSourceRange() == null)
+            _currentDirectory.setSourceRange(new SourceRange(_sourceOffset + ifdOffset, ifdLength));
+    }
+
+    public void setTagSourceRange(int tagId, long valueOffset, long valueLength, int formatCode, long componentCount)
+    {
+        if (_sourceOffset < 0 || _currentDirectory == null || !_metadata.isSourceRangesEnabled())
+            return;
+        // Custom processing may consume a tag without storing it (makernotes, embedded IPTC/XMP, etc)
+        if (_currentDirectory.containsTag(tagId))
+            _currentDirectory.setTagSourceRange(tagId, new TiffSourceRange(_sourceOffset + valueOffset, valueLength, formatCode, componentCount));
+    }
+
     public void endingIFD()
     {
         _currentDirectory = _directoryStack.empty() ? null : _directoryStack.pop();
     }
 
+    /**
+     * Creates a directory of the given type and makes it current.
+     *
+     * @deprecated use {@link #pushDirectory(Directory)}, which avoids reflective instantiation
+     */
+    @Deprecated
     protected void pushDirectory(@NotNull Class<? extends Directory> directoryClass)
     {
         Directory newDirectory;
@@ -67,6 +130,17 @@ public abstract class DirectoryTiffHandler implements TiffHandler
             throw new RuntimeException(e);
         }
 
+        pushDirectory(newDirectory);
+    }
+
+    /**
+     * Makes <code>newDirectory</code> current and adds it to the metadata.  Any previously current directory is pushed
+     * onto the stack, and becomes the new directory's parent.
+     *
+     * @param newDirectory a newly constructed, empty directory
+     */
+    protected void pushDirectory(@NotNull Directory newDirectory)
+    {
         // If this is the first directory, don't add to the stack
         if (_currentDirectory == null) {
             // Apply any pending root parent to this new directory
@@ -103,7 +177,7 @@ public abstract class DirectoryTiffHandler implements TiffHandler
         ErrorDirectory error = _metadata.getFirstDirectoryOfType(ErrorDirectory.class);
         if (error != null)
             return error;
-        pushDirectory(ErrorDirectory.class);
+        pushDirectory(new ErrorDirectory());
         return _currentDirectory;
     }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.tiff;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.SourceRange;
+
+/**
+ * The range of bytes from which a TIFF tag value was read, along with the format code and component count of its IFD
+ * entry.  Those determine how the bytes are interpreted, which their length alone does not.
+ * <p>
+ * Immutable.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public final class TiffSourceRange extends SourceRange
+{
+    private final int _formatCode;
+    private final long _componentCount;
+
+    public TiffSourceRange(long offset, long length, int formatCode, long componentCount)
+    {
+        super(offset, length);
+        _formatCode = formatCode;
+        _componentCount = componentCount;
+    }
+
+    /**
+     * Gets the TIFF format code of the value, as given by the constants of {@link com.drew.imaging.tiff.TiffDataFormat}.
+     */
+    public int getFormatCode()
+    {
+        return _formatCode;
+    }
+
+    /** Gets the number of components in the value. */
+    public long getComponentCount()
+    {
+        return _componentCount;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o)
+    {
+        if (!super.equals(o))
+            return false;
+        TiffSourceRange that = (TiffSourceRange)o;
+        return _formatCode == that._formatCode && _componentCount == that._componentCount;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = super.hashCode();
+        result = 31 * result + _formatCode;
+        result = 31 * result + (int)(_componentCount ^ (_componentCount >>> 32));
+        return result;
+    }
+
+    @Override
+    @NotNull
+    public String toString()
+    {
+        return String.format("%s (format %d, %d components)", super.toString(), _formatCode, _componentCount);
+    }
+}
@@ -110,6 +110,7 @@ public class XmpDirectory extends Directory
 
     public void setXMPMeta(@NotNull XMPMeta xmpMeta)
     {
+        checkNotFrozen();
         _xmpMeta = xmpMeta;
 
         try {
@@ -137,4 +138,12 @@ public class XmpDirectory extends Directory
             _xmpMeta = new XMPMetaImpl();
         return _xmpMeta;
     }
+
+    @Override
+    protected void freeze()
+    {
+        // Create the XMPMeta now, so that reading a frozen directory never modifies it
+        getXMPMeta();
+        super.freeze();
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging;
+
+import com.drew.imaging.jpeg.JpegMetadataReader;
+import com.drew.imaging.png.PngMetadataReader;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.iptc.IptcDirectory;
+import com.drew.metadata.png.PngDirectory;
+import com.drew.metadata.xmp.XmpDirectory;
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MetadataStripperTest
+{
+    @Test
+    public void testStripJpegExif() throws Exception
+    {
+        byte[] bytes = FileUtil.readBytes("Tests/Data/withIptcExifGps.jpg");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        List<MetadataStripper.RemovedBlock> removed = new MetadataStripper(EnumSet.of(MetadataCategory.Exif))
+            .strip(new ByteArrayInputStream(bytes), output);
+
+        assertEquals(1, removed.size());
+        assertEquals("APP1", removed.get(0).getName());
+        assertEquals(MetadataCategory.Exif, removed.get(0).getCategory());
+        assertEquals(bytes.length - removed.get(0).getLength(), output.size());
+
+        // The removed block is the one identified
+        assertEquals((byte)0xFF, bytes[(int)removed.get(0).getOffset()]);
+        assertEquals((byte)0xE1, bytes[(int)removed.get(0).getOffset() + 1]);
+
+        Metadata metadata = JpegMetadataReader.readMetadata(new ByteArrayInputStream(output.toByteArray()));
+        assertNull(metadata.getFirstDirectoryOfType(ExifIFD0Directory.class));
+        assertNotNull(metadata.getFirstDirectoryOfType(IptcDirectory.class));
+    }
+
+    @Test
+    public void testStripNothingCopiesJpegUnchanged() throws Exception
+    {
+        byte[] bytes = FileUtil.readBytes("Tests/Data/withIptcExifGps.jpg");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        List<MetadataStripper.RemovedBlock> removed = new MetadataStripper(EnumSet.noneOf(MetadataCategory.class))
+            .strip(new ByteArrayInputStream(bytes), output);
+
+        assertTrue(removed.isEmpty());
+        assertArrayEquals(bytes, output.toByteArray());
+    }
+
+    @Test
+    public void testStripPngText() throws Exception
+    {
+        byte[] bytes = FileUtil.readBytes("Tests/Data/photoshop-8x12-rgb24-all-metadata.png");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        List<MetadataStripper.RemovedBlock> removed = MetadataStripper.removingAllButIcc()
+            .strip(new ByteArrayInputStream(bytes), output);
+
+        assertFalse(removed.isEmpty());
+        long removedLength = 0;
+        for (MetadataStripper.RemovedBlock block : removed)
+            removedLength += block.getLength();
+        assertEquals(bytes.length - removedLength, output.size());
+
+        Metadata metadata = PngMetadataReader.readMetadata(new ByteArrayInputStream(output.toByteArray()));
+        assertNull(metadata.getFirstDirectoryOfType(XmpDirectory.class));
+        assertNotNull(metadata.getFirstDirectoryOfType(PngDirectory.class));
+    }
+
+    @Test
+    public void testStripWebpExif() throws Exception
+    {
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        input.write("RIFF".getBytes());
+        input.write(new byte[] { 4 + 18 + 12 + 10, 0, 0, 0 });
+        input.write("WEBP".getBytes());
+        // VP8X with the Exif flag set
+        input.write("VP8X".getBytes());
+        input.write(new byte[] { 10, 0, 0, 0, 0x08, 0, 0, 0, 7, 0, 0, 11, 0, 0 });
+        // An odd-sized Exif chunk, followed by a padding byte
+        input.write("EXIF".getBytes());
+        input.write(new byte[] { 3, 0, 0, 0, 'M', 'M', 0, 0 });
+        input.write("VP8L".getBytes());
+        input.write(new byte[] { 2, 0, 0, 0, 0x2F, 0 });
+        byte[] bytes = input.toByteArray();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<MetadataStripper.RemovedBlock> removed = new MetadataStripper(EnumSet.of(MetadataCategory.Exif))
+            .strip(new ByteArrayInputStream(bytes), output);
+
+        assertEquals(1, removed.size());
+        assertEquals("EXIF", removed.get(0).getName());
+        assertEquals(30, removed.get(0).getOffset());
+        assertEquals(12, removed.get(0).getLength());
+
+        // Sizes are unchanged, but the chunk is neutralised and the feature flag cleared
+        byte[] result = output.toByteArray();
+        assertEquals(bytes.length, result.length);
+        assertEquals(0, result[20]);
+        assertEquals("JUNK", new String(result, 30, 4));
+        assertArrayEquals(new byte[4], new byte[] { result[38], result[39], result[40], result[41] });
+        assertEquals("VP8L", new String(result, 42, 4));
+    }
+
+    @Test(expected = ImageProcessingException.class)
+    public void testUnsupportedFormat() throws Exception
+    {
+        new MetadataStripper(EnumSet.allOf(MetadataCategory.class))
+            .strip(new ByteArrayInputStream(new byte[] { 'G', 'I', 'F', '8' }), new ByteArrayOutputStream());
+    }
+}
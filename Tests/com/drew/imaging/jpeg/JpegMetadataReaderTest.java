@@ -21,8 +21,13 @@
 package com.drew.imaging.jpeg;
 
 import com.drew.metadata.Directory;
+import com.drew.metadata.MakernotePolicy;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
+import com.drew.metadata.Tag;
+import com.drew.metadata.exif.ExifIFD0Directory;
 import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.drew.metadata.exif.makernotes.NikonType2MakernoteDirectory;
 import com.drew.metadata.jpeg.HuffmanTablesDirectory;
 import com.drew.metadata.jpeg.HuffmanTablesDirectory.HuffmanTable;
 import com.drew.metadata.xmp.XmpDirectory;
@@ -30,10 +35,12 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.RandomAccessFile;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -85,6 +92,91 @@ public class JpegMetadataReaderTest
         }
     }
 
+    @Test
+    public void testSourceRanges() throws Exception
+    {
+        File file = new File("Tests/Data/withExif.jpg");
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            JpegMetadataReader.process(metadata, stream);
+        } finally {
+            stream.close();
+        }
+
+        ExifIFD0Directory ifd0 = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        assertNotNull(ifd0);
+        assertNotNull(ifd0.getSourceRange());
+
+        // Re-reading a tag's range from the file yields the value's bytes
+        String make = ifd0.getString(ExifIFD0Directory.TAG_MAKE);
+        SourceRange makeRange = ifd0.getTagSourceRange(ExifIFD0Directory.TAG_MAKE);
+        assertNotNull(makeRange);
+        for (Tag tag : ifd0.getTags())
+            assertNotNull(tag.getSourceRange());
+        byte[] makeBytes = readRange(file, makeRange);
+        assertEquals(make, new String(makeBytes, 0, make.length(), "ASCII"));
+
+        ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        assertNotNull(subIfd);
+        SourceRange isoRange = subIfd.getTagSourceRange(ExifSubIFDDirectory.TAG_ISO_EQUIVALENT);
+        assertNotNull(isoRange);
+        assertEquals(2, isoRange.getLength());
+        byte[] isoBytes = readRange(file, isoRange);
+        // ISO 80 in either byte order
+        assertTrue((isoBytes[0] == 0 && isoBytes[1] == 80) || (isoBytes[0] == 80 && isoBytes[1] == 0));
+
+        // Values from other segments take the range of their segment
+        HuffmanTablesDirectory huffman = metadata.getFirstDirectoryOfType(HuffmanTablesDirectory.class);
+        assertNotNull(huffman);
+        assertNotNull(huffman.getSourceRange());
+    }
+
+    @Test
+    public void testSourceRangesLeaveMakernotesDeferred() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+        metadata.setMakernotePolicy(MakernotePolicy.Lazy);
+        FileInputStream stream = new FileInputStream(new File("Tests/Data/nikonMakernoteType2b.jpg"));
+        try {
+            JpegMetadataReader.process(metadata, stream);
+        } finally {
+            stream.close();
+        }
+
+        // The makernote is only loaded once its directory is requested
+        int loadedCount = metadata.getLoadedDirectoryCount();
+        NikonType2MakernoteDirectory nikon = metadata.getFirstDirectoryOfType(NikonType2MakernoteDirectory.class);
+        assertNotNull(nikon);
+        assertTrue(metadata.getLoadedDirectoryCount() > loadedCount);
+        assertNotNull(nikon.getTagSourceRange(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION));
+    }
+
+    @Test
+    public void testSourceRangesDisabledByDefault() throws Exception
+    {
+        Metadata metadata = JpegMetadataReader.readMetadata(new File("Tests/Data/withExif.jpg"));
+        ExifIFD0Directory ifd0 = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        assertNotNull(ifd0);
+        assertNull(ifd0.getSourceRange());
+        assertNull(ifd0.getTagSourceRange(ExifIFD0Directory.TAG_MAKE));
+    }
+
+    private static byte[] readRange(File file, SourceRange range) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            byte[] bytes = new byte[(int)range.getLength()];
+            raf.seek(range.getOffset());
+            raf.readFully(bytes);
+            return bytes;
+        } finally {
+            raf.close();
+        }
+    }
+
     private void validate(Metadata metadata)
     {
         Directory directory = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
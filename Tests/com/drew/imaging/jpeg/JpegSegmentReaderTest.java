@@ -164,6 +164,25 @@ public class JpegSegmentReaderTest
         assertNull(segmentData.getSegment(JpegSegmentType.APP1));
     }
 
+    @Test
+    public void testSegmentOffsets() throws Exception
+    {
+        File file = new File("Tests/Data/withExifAndIptc.jpg");
+        JpegSegmentData segmentData = JpegSegmentReader.readSegments(file, null);
+        byte[] fileBytes = FileUtil.readBytes(file);
+
+        for (JpegSegmentType segmentType : segmentData.getSegmentTypes()) {
+            for (int i = 0; i < segmentData.getSegmentCount(segmentType); i++) {
+                byte[] segmentBytes = segmentData.getSegment(segmentType, i);
+                long offset = segmentData.getSegmentOffset(segmentType, i);
+                assertNotNull(segmentBytes);
+                assertArrayEquals(segmentBytes, Arrays.copyOfRange(fileBytes, (int)offset, (int)offset + segmentBytes.length));
+            }
+        }
+
+        assertEquals(-1, segmentData.getSegmentOffset(JpegSegmentType.APP1, 2));
+    }
+
     @Test
     public void testWithNonJpegFile() throws Exception
     {
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.imaging.jpeg;
+
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class JpegSegmentRewriterTest
+{
+    @Test
+    public void testRemoveExifSegment() throws Exception
+    {
+        File source = new File("Tests/Data/withExif.jpg");
+        File target = File.createTempFile("JpegSegmentRewriterTest", ".jpg");
+        target.deleteOnExit();
+
+        byte[] exifSegment = JpegSegmentReader.readSegments(source, Collections.singletonList(JpegSegmentType.APP1)).getSegment(JpegSegmentType.APP1);
+        assertNotNull(exifSegment);
+
+        JpegSegmentRewriter.replaceExifSegment(source, target, null);
+
+        assertEquals(source.length() - exifSegment.length - 4, target.length());
+        Metadata metadata = JpegMetadataReader.readMetadata(target);
+        assertNull(metadata.getFirstDirectoryOfType(ExifIFD0Directory.class));
+
+        // Image data is copied verbatim
+        byte[] sourceBytes = FileUtil.readBytes(source);
+        byte[] targetBytes = FileUtil.readBytes(target);
+        assertArrayEquals(
+            Arrays.copyOfRange(sourceBytes, sourceBytes.length - 1000, sourceBytes.length),
+            Arrays.copyOfRange(targetBytes, targetBytes.length - 1000, targetBytes.length));
+    }
+
+    @Test
+    public void testRoundTripExifSegment() throws Exception
+    {
+        File source = new File("Tests/Data/withExif.jpg");
+        File stripped = File.createTempFile("JpegSegmentRewriterTest", ".jpg");
+        stripped.deleteOnExit();
+        File restored = File.createTempFile("JpegSegmentRewriterTest", ".jpg");
+        restored.deleteOnExit();
+
+        byte[] exifSegment = JpegSegmentReader.readSegments(source, Collections.singletonList(JpegSegmentType.APP1)).getSegment(JpegSegmentType.APP1);
+        assertNotNull(exifSegment);
+
+        JpegSegmentRewriter.replaceExifSegment(source, stripped, null);
+        JpegSegmentRewriter.replaceExifSegment(stripped, restored, exifSegment);
+
+        assertArrayEquals(FileUtil.readBytes(source), FileUtil.readBytes(restored));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsSegmentWithoutPreamble() throws Exception
+    {
+        File target = File.createTempFile("JpegSegmentRewriterTest", ".jpg");
+        target.deleteOnExit();
+        JpegSegmentRewriter.replaceExifSegment(new File("Tests/Data/withExif.jpg"), target, new byte[] { 1, 2, 3 });
+    }
+
+    @Test
+    public void testRejectsNonJpeg() throws Exception
+    {
+        File target = File.createTempFile("JpegSegmentRewriterTest", ".jpg");
+        target.deleteOnExit();
+        try {
+            JpegSegmentRewriter.replaceExifSegment(new File("Tests/Data/simple.jpg.app1"), target, null);
+            fail("Expected JpegProcessingException");
+        } catch (JpegProcessingException ignored) {
+        }
+    }
+}
@@ -23,6 +23,7 @@ package com.drew.imaging.png;
 import com.drew.lang.KeyValuePair;
 import com.drew.lang.annotations.NotNull;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
 import com.drew.metadata.png.PngDirectory;
 import org.junit.Test;
 
@@ -114,4 +115,25 @@ public class PngMetadataReaderTest
             TimeZone.setDefault(timeZone);
         }
     }
+
+    @Test
+    public void testSourceRanges() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+        FileInputStream inputStream = new FileInputStream("Tests/Data/gimp-8x12-greyscale-alpha-time-background.png");
+        try {
+            PngMetadataReader.process(metadata, inputStream);
+        } finally {
+            inputStream.close();
+        }
+
+        PngDirectory header = metadata.getFirstDirectoryOfType(PngDirectory.class);
+        assertNotNull(header);
+        assertEquals(PngChunkType.IHDR, header.getPngChunkType());
+
+        // IHDR data follows the 8 byte signature, 4 byte length and 4 byte chunk type
+        assertEquals(new SourceRange(16, 13), header.getSourceRange());
+        assertEquals(new SourceRange(16, 13), header.getTagSourceRange(PngDirectory.TAG_IMAGE_WIDTH));
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.lang;
+
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class ChannelUtilTest
+{
+    /** A channel that accepts no data on its first write, as a non-blocking channel might, then up to 5 bytes at a time. */
+    private static class StallingChannel implements WritableByteChannel
+    {
+        final ByteArrayOutputStream _bytes = new ByteArrayOutputStream();
+        private boolean _hasStalled;
+        private final boolean _stallsForever;
+
+        StallingChannel(boolean stallsForever)
+        {
+            _stallsForever = stallsForever;
+        }
+
+        public int write(ByteBuffer buffer)
+        {
+            if (!_hasStalled || _stallsForever) {
+                _hasStalled = true;
+                return 0;
+            }
+            int count = Math.min(5, buffer.remaining());
+            for (int i = 0; i < count; i++)
+                _bytes.write(buffer.get());
+            return count;
+        }
+
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        public void close()
+        {
+        }
+    }
+
+    private static File createFile(byte[] bytes) throws IOException
+    {
+        File file = File.createTempFile("ChannelUtilTest", ".bin");
+        file.deleteOnExit();
+        FileUtil.saveBytes(file, bytes);
+        return file;
+    }
+
+    private static byte[] createBytes(int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = (byte)i;
+        return bytes;
+    }
+
+    @Test
+    public void testTransferFully() throws Exception
+    {
+        byte[] bytes = createBytes(100);
+        RandomAccessFile file = new RandomAccessFile(createFile(bytes), "r");
+        try {
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            assertEquals(90, ChannelUtil.transferFully(file.getChannel(), 10, 90, Channels.newChannel(target)));
+            byte[] expected = new byte[90];
+            System.arraycopy(bytes, 10, expected, 0, 90);
+            assertArrayEquals(expected, target.toByteArray());
+            assertEquals(0, file.getChannel().position());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testTransferFullyFallsBackWhenTargetStalls() throws Exception
+    {
+        byte[] bytes = createBytes(20000);
+        RandomAccessFile file = new RandomAccessFile(createFile(bytes), "r");
+        try {
+            StallingChannel target = new StallingChannel(false);
+            assertEquals(bytes.length, ChannelUtil.transferFully(file.getChannel(), 0, bytes.length, target));
+            assertArrayEquals(bytes, target._bytes.toByteArray());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testTransferFullyPastEndOfFile() throws Exception
+    {
+        RandomAccessFile file = new RandomAccessFile(createFile(createBytes(10)), "r");
+        try {
+            ChannelUtil.transferFully(file.getChannel(), 5, 10, Channels.newChannel(new ByteArrayOutputStream()));
+            fail("Expected EOFException");
+        } catch (EOFException ignored) {
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testWriteFullyFailsWhenTargetAcceptsNoData() throws Exception
+    {
+        try {
+            ChannelUtil.writeFully(new StallingChannel(true), ByteBuffer.wrap(createBytes(10)));
+            fail("Expected IOException");
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Test
+    public void testTransferFullyFailsWhenTargetAcceptsNoData() throws Exception
+    {
+        RandomAccessFile file = new RandomAccessFile(createFile(createBytes(10)), "r");
+        try {
+            FileChannel channel = file.getChannel();
+            ChannelUtil.transferFully(channel, 0, 10, new StallingChannel(true));
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertFalse(e instanceof EOFException);
+        } finally {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.lang;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class DateTimeTest
+{
+    private static final long JAN_30_2002_23_59_59_UTC = 1012435199000L;
+
+    @Test
+    public void testParseForms()
+    {
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002:01:30 23:59:59").toString());
+        assertEquals("2002-01-30T23:59:00", DateTime.parse("2002:01:30 23:59").toString());
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002-01-30 23:59:59").toString());
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002.01.30 23:59:59").toString());
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002-01-30T23:59:59").toString());
+        assertEquals("2002-01-30T23:59:00", DateTime.parse("2002-01-30T23:59").toString());
+        assertEquals("2002-01-30", DateTime.parse("2002-01-30").toString());
+        assertEquals("2002-01-30", DateTime.parse("2002:01:30").toString());
+        assertEquals("2002-01-01", DateTime.parse("2002-01").toString());
+        assertEquals("2002-01-30", DateTime.parse("20020130").toString());
+        assertEquals("2002-01-01", DateTime.parse("2002").toString());
+    }
+
+    @Test
+    public void testParseFractionsAndOffsets()
+    {
+        DateTime dateTime = DateTime.parse("2002-01-30T23:59:59.099-08:00");
+        assertNotNull(dateTime);
+        assertEquals(99000000, dateTime.getNanosecond());
+        assertEquals(Integer.valueOf(-8 * 3600), dateTime.getOffsetSeconds());
+        assertEquals("2002-01-30T23:59:59.099-08:00", dateTime.toString());
+
+        assertEquals("2002-01-30T23:59:59.123456789Z", DateTime.parse("2002-01-30T23:59:59.1234567891Z").toString());
+        assertEquals("2002-01-30T23:59:59.100+05:30", DateTime.parse("2002-01-30T23:59:59.1+05:30").toString());
+        assertEquals("2002-01-30T23:59:00Z", DateTime.parse("2002-01-30T23:59Z").toString());
+        assertNull(DateTime.parse("2002-01-30T23:59:59").getOffsetSeconds());
+    }
+
+    @Test
+    public void testSubsecond()
+    {
+        assertEquals("2002-01-30T23:59:59.800", DateTime.parse("2002:01:30 23:59:59", "80").toString());
+        assertEquals("2002-01-30T23:59:59.011", DateTime.parse("2002:01:30 23:59:59", " 011 ").toString());
+        // Ignored when the value has its own fraction, or is not a number
+        assertEquals("2002-01-30T23:59:59.099", DateTime.parse("2002:01:30 23:59:59.099", "011").toString());
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002:01:30 23:59:59", "1.5").toString());
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002:01:30 23:59:59", "").toString());
+    }
+
+    @Test
+    public void testTrailingTextIgnored()
+    {
+        assertEquals("2002-01-30T23:59:59", DateTime.parse("2002:01:30 23:59:59\0").toString());
+        assertEquals("2002-01-30", DateTime.parse("2002-01-30 garbage").toString());
+    }
+
+    @Test
+    public void testInvalidValues()
+    {
+        assertNull(DateTime.parse(""));
+        assertNull(DateTime.parse("    :  :     :  :  "));
+        assertNull(DateTime.parse("0000:00:00 00:00:00"));
+        assertNull(DateTime.parse("2002:02:30 12:00:00"));
+        assertNull(DateTime.parse("2002:01:30 24:00:00"));
+        assertNull(DateTime.parse("200"));
+        assertNull(DateTime.parse("abcd"));
+    }
+
+    @Test
+    public void testEpochMillis()
+    {
+        assertEquals(JAN_30_2002_23_59_59_UTC, DateTime.parse("2002:01:30 23:59:59").getEpochMillis(null));
+        assertEquals(JAN_30_2002_23_59_59_UTC + 99, DateTime.parse("2002:01:30 23:59:59.0999").getEpochMillis(null));
+        assertEquals(JAN_30_2002_23_59_59_UTC + 8 * 3600000, DateTime.parse("2002-01-30T23:59:59-08:00").getEpochMillis(null));
+
+        // A zone is only used when the value has no offset
+        TimeZone pst = TimeZone.getTimeZone("PST");
+        assertEquals(JAN_30_2002_23_59_59_UTC + 8 * 3600000, DateTime.parse("2002:01:30 23:59:59").getEpochMillis(pst));
+        assertEquals(JAN_30_2002_23_59_59_UTC, DateTime.parse("2002:01:30 23:59:59Z").getEpochMillis(pst));
+
+        // Daylight saving time applies in summer
+        assertEquals(1027000800000L + 7 * 3600000, DateTime.parse("2002:07:18 14:00:00").getEpochMillis(pst));
+
+        assertEquals(-86400000L, DateTime.parse("1969-12-31").getEpochMillis(null));
+        assertEquals(951782400000L, DateTime.parse("2000-02-29").getEpochMillis(null));
+    }
+
+    @Test
+    public void testFromDate()
+    {
+        DateTime dateTime = DateTime.fromDate(new Date(JAN_30_2002_23_59_59_UTC + 7));
+        assertEquals("2002-01-30T23:59:59.007Z", dateTime.toString());
+        assertEquals(JAN_30_2002_23_59_59_UTC + 7, dateTime.getEpochMillis(null));
+
+        assertEquals("1969-12-31T23:59:59.999Z", DateTime.fromDate(new Date(-1)).toString());
+        assertEquals("2000-02-29T00:00:00Z", DateTime.fromDate(new Date(951782400000L)).toString());
+    }
+
+    @Test
+    public void testEquality()
+    {
+        assertEquals(DateTime.parse("2002:01:30 23:59:59"), DateTime.parse("2002-01-30T23:59:59"));
+        assertEquals(DateTime.parse("2002:01:30 23:59:59").hashCode(), DateTime.parse("2002-01-30T23:59:59").hashCode());
+        assertFalse(DateTime.parse("2002:01:30 23:59:59").equals(DateTime.parse("2002:01:30 23:59:59Z")));
+        assertFalse(DateTime.parse("2002:01:30").equals(DateTime.parse("2002:01:30 00:00:00")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorValidates()
+    {
+        new DateTime(2002, 13, 1, 0, 0, 0, 0, false, null);
+    }
+}
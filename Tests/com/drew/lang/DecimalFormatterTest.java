@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.lang;
+
+import org.junit.Test;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class DecimalFormatterTest
+{
+    private static final String[] PATTERNS = { "0.###", "0.##", "0.#", "0.0", "0.000", "0.0##", "#.##", "00.000" };
+
+    private static final double[] VALUES = {
+        0, -0d, 1, -1, 2.5, 3.5, -2.5, 0.125, 0.0005, 0.1234567, 12.345, 100, 1e14, 1e15, 1e20,
+        -123.456, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Float.MAX_VALUE, 1.0f / 3
+    };
+
+    @Test
+    public void testMatchesDecimalFormat()
+    {
+        for (String pattern : PATTERNS) {
+            for (RoundingMode mode : new RoundingMode[] { RoundingMode.HALF_EVEN, RoundingMode.HALF_UP }) {
+                DecimalFormatter formatter = new DecimalFormatter(pattern, mode);
+                DecimalFormat expected = new DecimalFormat(pattern);
+                expected.setRoundingMode(mode);
+                for (double value : VALUES) {
+                    assertEquals(pattern + " " + mode + " " + value, expected.format(value), formatter.format(value));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultRoundingModeIsHalfEven()
+    {
+        DecimalFormatter formatter = new DecimalFormatter("0");
+        assertEquals(RoundingMode.HALF_EVEN, formatter.getRoundingMode());
+        assertEquals("2", formatter.format(2.5));
+        assertEquals("4", formatter.format(3.5));
+        assertEquals("3", new DecimalFormatter("0", RoundingMode.HALF_UP).format(2.5));
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws Exception
+    {
+        final DecimalFormatter formatter = new DecimalFormatter("0.###");
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread thread = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    DecimalFormat expected = new DecimalFormat("0.###");
+                    for (int i = 0; i < 10000; i++) {
+                        double value = (i + offset) / 7d;
+                        String actual = formatter.format(value);
+                        if (!expected.format(value).equals(actual))
+                            failure.compareAndSet(null, value + " formatted as " + actual);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(failure.get());
+    }
+}
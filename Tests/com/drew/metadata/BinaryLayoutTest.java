@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.Charsets;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class BinaryLayoutTest
+{
+    private static final byte[] BLOCK = {
+        (byte)0xFE, (byte)0xFE, 0x01, 0x02, (byte)0xFF, (byte)0xFE, 0x01, 0x02, 0x03, (byte)0x80
+    };
+
+    @Test
+    public void testScalarValues()
+    {
+        BinaryLayout layout = new BinaryLayout();
+        layout.add(1, 0, BinaryLayout.FieldType.Int8);
+        layout.add(2, 1, BinaryLayout.FieldType.UInt8);
+        layout.add(3, 2, BinaryLayout.FieldType.UInt16);
+        layout.add(4, 4, BinaryLayout.FieldType.Int16);
+        layout.add(5, 6, BinaryLayout.FieldType.UInt32);
+        layout.add(6, 6, BinaryLayout.FieldType.Int32);
+        assertEquals(10, layout.getLength());
+
+        Directory directory = new MockDirectory();
+        layout.read(BLOCK, true, directory);
+
+        assertEquals(-2, directory.getObject(1));
+        assertEquals(0xFE, directory.getObject(2));
+        assertEquals(0x0102, directory.getObject(3));
+        assertEquals(-2, directory.getObject(4));
+        assertEquals(0x01020380L, directory.getObject(5));
+        assertEquals(0x01020380, directory.getObject(6));
+
+        directory = new MockDirectory();
+        layout.read(BLOCK, false, directory);
+
+        assertEquals(0x0201, directory.getObject(3));
+        assertEquals((int)(short)0xFEFF, directory.getObject(4));
+        assertEquals(0x80030201L, directory.getObject(5));
+        assertEquals(0x80030201, directory.getObject(6));
+    }
+
+    @Test
+    public void testArrayValues()
+    {
+        BinaryLayout layout = new BinaryLayout();
+        layout.add(1, 0, BinaryLayout.FieldType.Int8, 2);
+        layout.add(2, 0, BinaryLayout.FieldType.UInt8, 2);
+        layout.add(3, 2, BinaryLayout.FieldType.UInt16, 2);
+        layout.add(4, 2, BinaryLayout.FieldType.Int16, 2);
+        layout.add(5, 2, BinaryLayout.FieldType.UInt32, 2);
+
+        Directory directory = new MockDirectory();
+        layout.read(BLOCK, true, directory);
+
+        assertArrayEquals(new byte[] { -2, -2 }, (byte[])directory.getObject(1));
+        assertArrayEquals(new int[] { 0xFE, 0xFE }, (int[])directory.getObject(2));
+        assertArrayEquals(new int[] { 0x0102, 0xFFFE }, (int[])directory.getObject(3));
+        assertArrayEquals(new short[] { 0x0102, -2 }, (short[])directory.getObject(4));
+        assertArrayEquals(new long[] { 0x0102FFFEL, 0x01020380L }, (long[])directory.getObject(5));
+    }
+
+    @Test
+    public void testFieldsBeyondBlockAreOmitted()
+    {
+        BinaryLayout layout = new BinaryLayout();
+        layout.add(1, 0, BinaryLayout.FieldType.UInt16);
+        layout.add(2, 8, BinaryLayout.FieldType.UInt16, 2);
+
+        Directory directory = new MockDirectory();
+        layout.read(BLOCK, true, directory);
+
+        assertTrue(directory.containsTag(1));
+        assertFalse(directory.containsTag(2));
+    }
+
+    @Test
+    public void testReadFromReader() throws Exception
+    {
+        BinaryLayout layout = new BinaryLayout();
+        layout.add(1, 2, BinaryLayout.FieldType.UInt16);
+
+        ByteArrayReader reader = new ByteArrayReader(BLOCK);
+        reader.setMotorolaByteOrder(false);
+        Directory directory = new MockDirectory();
+        layout.read(reader, 6, directory);
+        assertEquals(0x8003, directory.getObject(1));
+
+        try {
+            layout.read(reader, 7, new MockDirectory());
+            fail("Expected an exception, as the block extends beyond the reader");
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Test
+    public void testReadTruncatedFromReader() throws Exception
+    {
+        BinaryLayout layout = new BinaryLayout();
+        layout.add(1, 0, BinaryLayout.FieldType.UInt16);
+        layout.add(2, 2, BinaryLayout.FieldType.UInt16);
+        layout.add(3, 6, BinaryLayout.FieldType.UInt32);
+
+        // Only eight of the layout's ten bytes are available
+        ByteArrayReader reader = new ByteArrayReader(BLOCK);
+        assertEquals(4, layout.readBlock(reader, 2).length);
+
+        Directory directory = new MockDirectory();
+        layout.read(reader, 2, directory);
+        assertEquals(0x0102, directory.getObject(1));
+        assertEquals(0xFFFE, directory.getObject(2));
+        assertFalse(directory.containsTag(3));
+    }
+
+    @Test
+    public void testTextValues() throws Exception
+    {
+        byte[] block = "ab\0cdefg".getBytes("UTF-8");
+
+        BinaryLayout layout = new BinaryLayout();
+        layout.add(1, 0, BinaryLayout.FieldType.Text, 2, Charsets.UTF_8);
+        layout.add(2, 0, BinaryLayout.FieldType.NullTerminatedText, 6, Charsets.UTF_8);
+        layout.add(3, 3, BinaryLayout.FieldType.NullTerminatedText, 3, Charsets.UTF_8);
+        layout.add(4, 5, BinaryLayout.FieldType.RawText, 1, Charsets.UTF_8);
+
+        Directory directory = new MockDirectory();
+        layout.read(block, true, directory);
+
+        assertEquals("ab", directory.getObject(1));
+        assertEquals("ab", directory.getObject(2));
+        assertEquals("cde", directory.getObject(3));
+        assertTrue(directory.getObject(4) instanceof StringValue);
+        assertEquals("e", directory.getString(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTextRequiresCharset()
+    {
+        new BinaryLayout().add(1, 0, BinaryLayout.FieldType.Text, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCount()
+    {
+        new BinaryLayout().add(1, 0, BinaryLayout.FieldType.UInt8, 0);
+    }
+}
@@ -26,8 +26,14 @@ import com.drew.metadata.exif.ExifSubIFDDirectory;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
 
 import static org.junit.Assert.*;
@@ -211,6 +217,60 @@ public class DirectoryTest
         assertEquals(0x010203, _directory.getInt(1));
     }
 
+    @Test
+    public void testGetOrDefault() throws Exception
+    {
+        _directory.setInt(1, 1000);
+        _directory.setRational(2, new Rational(7, 2));
+        _directory.setIntArray(3, new int[] { 42 });
+        _directory.setString(4, "123");
+        _directory.setString(5, "1.5");
+        _directory.setIntArray(6, new int[] { 1, 2 });
+        _directory.setBoolean(7, true);
+
+        assertEquals(1000, _directory.getIntOrDefault(1, -1));
+        assertEquals(3, _directory.getIntOrDefault(2, -1));
+        assertEquals(42, _directory.getIntOrDefault(3, -1));
+        assertEquals(123, _directory.getIntOrDefault(4, -1));
+        assertEquals(-1, _directory.getIntOrDefault(6, -1));
+        assertEquals(-1, _directory.getIntOrDefault(99, -1));
+
+        assertEquals(1000L, _directory.getLongOrDefault(1, -1));
+        assertEquals(42L, _directory.getLongOrDefault(3, -1));
+        assertEquals(-1L, _directory.getLongOrDefault(99, -1));
+
+        assertEquals(3.5, _directory.getDoubleOrDefault(2, -1), 0);
+        assertEquals(1.5, _directory.getDoubleOrDefault(5, -1), 0);
+        assertEquals(-1, _directory.getDoubleOrDefault(6, -1), 0);
+        assertEquals(3.5f, _directory.getFloatOrDefault(2, -1), 0);
+        assertEquals(-1f, _directory.getFloatOrDefault(99, -1), 0);
+
+        assertTrue(_directory.getBooleanOrDefault(7, false));
+        assertTrue(_directory.getBooleanOrDefault(99, true));
+    }
+
+    @Test
+    public void testConvertedArraysCachedUntilValueChanges() throws Exception
+    {
+        _directory.setObjectArray(1, new short[] { 1, 2 });
+
+        int[] ints = _directory.getIntArray(1);
+        assertArrayEquals(new int[] { 1, 2 }, ints);
+        assertSame(ints, _directory.getIntArray(1));
+        byte[] bytes = _directory.getByteArray(1);
+        assertArrayEquals(new byte[] { 1, 2 }, bytes);
+        assertSame(bytes, _directory.getByteArray(1));
+
+        _directory.setObjectArray(1, new short[] { 3 });
+        assertArrayEquals(new int[] { 3 }, _directory.getIntArray(1));
+        assertArrayEquals(new byte[] { 3 }, _directory.getByteArray(1));
+
+        _directory.setRationalArray(2, new Rational[] { new Rational(1, 2) });
+        String[] strings = _directory.getStringArray(2);
+        assertArrayEquals(new String[] { "1/2" }, strings);
+        assertSame(strings, _directory.getStringArray(2));
+    }
+
     @Test
     public void testContainsTag() throws Exception
     {
@@ -219,6 +279,25 @@ public class DirectoryTest
         assertTrue(_directory.containsTag(ExifSubIFDDirectory.TAG_APERTURE));
     }
 
+    @Test
+    public void testGetBoxedValueReturnsStoredInstance() throws Exception
+    {
+        // Values outside the range cached by Integer.valueOf would otherwise be boxed anew by each call
+        _directory.setInt(1, 4000);
+        _directory.setLong(2, 5000000000L);
+        _directory.setDouble(3, 1.5);
+        _directory.setFloat(4, 2.5f);
+
+        assertSame(_directory.getObject(1), _directory.getInteger(1));
+        assertSame(_directory.getObject(2), _directory.getLongObject(2));
+        assertSame(_directory.getObject(3), _directory.getDoubleObject(3));
+        assertSame(_directory.getObject(4), _directory.getFloatObject(4));
+
+        // Other numeric types are still converted
+        _directory.setLong(5, 4000);
+        assertEquals(Integer.valueOf(4000), _directory.getInteger(5));
+    }
+
     @Test
     public void testGetNonExistentTagIsNullForAllTypes() throws Exception
     {
@@ -246,4 +325,71 @@ public class DirectoryTest
         directory.setString(2, "Tag 2");
         assertEquals("Exif IFD0 Directory (2 tags)", directory.toString());
     }
+
+    @Test
+    public void testGetTagsInInsertionOrder()
+    {
+        _directory.setInt(3, 3);
+        _directory.setInt(1, 1);
+        _directory.setInt(2, 2);
+        _directory.setInt(1, 4);
+
+        Collection<Tag> tags = _directory.getTags();
+        assertEquals(3, tags.size());
+
+        List<Integer> tagTypes = new ArrayList<Integer>();
+        for (Tag tag : tags)
+            tagTypes.add(tag.getTagType());
+        assertEquals(Arrays.asList(3, 1, 2), tagTypes);
+
+        // The collection is a view
+        _directory.setInt(0, 0);
+        assertEquals(4, tags.size());
+        assertTrue(tags.contains(new Tag(0, _directory)));
+        assertFalse(tags.contains(new Tag(0, new MockDirectory())));
+    }
+
+    @Test
+    public void testTagsEqualAcrossAccesses()
+    {
+        _directory.setInt(1, 1);
+        _directory.setInt(2, 2);
+
+        // Each access creates new instances, which are nonetheless equal and may be used as keys
+        Tag first = _directory.getTags().iterator().next();
+        Tag again = _directory.getTags().iterator().next();
+        assertNotSame(first, again);
+        assertEquals(first, again);
+        assertEquals(first.hashCode(), again.hashCode());
+
+        Set<Tag> tags = new HashSet<Tag>(_directory.getTags());
+        tags.addAll(_directory.getTags());
+        assertEquals(2, tags.size());
+        assertTrue(tags.contains(new Tag(2, _directory)));
+
+        // Tags of the same type in another directory, even an equivalent one, differ
+        MockDirectory other = new MockDirectory();
+        other.setInt(1, 1);
+        assertFalse(first.equals(other.getTags().iterator().next()));
+        assertFalse(first.equals(new Tag(2, _directory)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetTagsIsReadOnly()
+    {
+        _directory.setInt(1, 1);
+        _directory.getTags().clear();
+    }
+
+    @Test
+    public void testGetDateTime()
+    {
+        _directory.setString(1, "2002:01:30 23:59:59");
+        _directory.setDate(2, new java.util.Date(1012435199000L));
+
+        assertEquals("2002-01-30T23:59:59", _directory.getDateTime(1).toString());
+        assertEquals("2002-01-30T23:59:59.800", _directory.getDateTime(1, "80").toString());
+        assertEquals("2002-01-30T23:59:59Z", _directory.getDateTime(2).toString());
+        assertNull(_directory.getDateTime(3));
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.lang.annotations.NotNull;
+import com.drew.tools.FileUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Compares the time taken to restore metadata via {@link MetadataCodec} with that taken to extract it again from the
+ * original file, for each readable file in the test data folder.  Files are held in memory, so that only parsing and
+ * decoding are measured.
+ * <p>
+ * Usage: <code>MetadataCodecBenchmark [folder] [iterations]</code>
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MetadataCodecBenchmark
+{
+    public static void main(String[] args) throws IOException
+    {
+        File folder = new File(args.length > 0 ? args[0] : "Tests/Data");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        File[] files = folder.listFiles();
+        if (files == null || files.length == 0) {
+            System.err.println("No files found in " + folder.getAbsolutePath());
+            System.exit(1);
+        }
+
+        System.out.printf("%-50s %10s %10s %14s %14s %8s%n", "File", "file bytes", "enc bytes", "extract ns/op", "decode ns/op", "speedup");
+
+        long totalExtract = 0;
+        long totalDecode = 0;
+
+        for (File file : files) {
+            if (!file.isFile())
+                continue;
+
+            byte[] fileBytes = FileUtil.readBytes(file);
+            byte[] encoded;
+            try {
+                encoded = MetadataCodec.encode(ImageMetadataReader.readMetadata(new ByteArrayInputStream(fileBytes)));
+            } catch (ImageProcessingException e) {
+                continue;
+            }
+
+            // Warm up both paths before measuring
+            extract(fileBytes, iterations / 10);
+            decode(encoded, iterations / 10);
+
+            long extract = extract(fileBytes, iterations);
+            long decode = decode(encoded, iterations);
+            totalExtract += extract;
+            totalDecode += decode;
+
+            System.out.printf("%-50s %10d %10d %14d %14d %7.1fx%n",
+                file.getName(), fileBytes.length, encoded.length, extract, decode, extract / (double)Math.max(1, decode));
+        }
+
+        System.out.printf("%-50s %10s %10s %14d %14d %7.1fx%n",
+            "Total", "", "", totalExtract, totalDecode, totalExtract / (double)Math.max(1, totalDecode));
+    }
+
+    /** Returns the mean time in nanoseconds to extract metadata from <code>bytes</code>. */
+    private static long extract(@NotNull byte[] bytes, int iterations) throws IOException
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            try {
+                ImageMetadataReader.readMetadata(new ByteArrayInputStream(bytes));
+            } catch (ImageProcessingException e) {
+                throw new IOException(e);
+            }
+        }
+        return (System.nanoTime() - start) / Math.max(1, iterations);
+    }
+
+    /** Returns the mean time in nanoseconds to decode metadata from <code>bytes</code>. */
+    private static long decode(@NotNull byte[] bytes, int iterations) throws IOException
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            MetadataCodec.decode(bytes);
+        return (System.nanoTime() - start) / Math.max(1, iterations);
+    }
+}
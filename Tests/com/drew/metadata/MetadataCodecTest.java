@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.imaging.FileType;
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.lang.Rational;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.drew.metadata.file.FileTypeDirectory;
+import com.drew.metadata.xmp.XmpDirectory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MetadataCodecTest
+{
+    @Test
+    public void testRoundTripTestData() throws Exception
+    {
+        File[] files = new File("Tests/Data").listFiles();
+        assertNotNull(files);
+
+        int count = 0;
+        for (File file : files) {
+            if (!file.isFile())
+                continue;
+            Metadata metadata;
+            try {
+                metadata = ImageMetadataReader.readMetadata(file);
+            } catch (ImageProcessingException e) {
+                continue;
+            }
+            assertRoundTrips(file.getName(), metadata);
+            count++;
+        }
+        assertTrue(count > 10);
+    }
+
+    @Test
+    public void testRoundTripValuesAndStructure() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+
+        ExifIFD0Directory ifd0 = new ExifIFD0Directory();
+        ifd0.setString(ExifIFD0Directory.TAG_MAKE, "Make");
+        ifd0.setString(ExifIFD0Directory.TAG_MODEL, "Make");
+        ifd0.setInt(ExifIFD0Directory.TAG_ORIENTATION, -7);
+        ifd0.setLong(ExifIFD0Directory.TAG_X_RESOLUTION, Long.MIN_VALUE);
+        ifd0.setRationalArray(ExifIFD0Directory.TAG_WHITE_POINT, new Rational[] { new Rational(1, 3), new Rational(-2, 5) });
+        ifd0.setDoubleArray(ExifIFD0Directory.TAG_Y_RESOLUTION, new double[] { Double.NaN, -0d, 1.5 });
+        ifd0.setStringValue(ExifIFD0Directory.TAG_ARTIST, new StringValue(new byte[] { 'A', (byte)0xE9 }, null));
+        ifd0.setSourceRange(new SourceRange(12, 100));
+        ifd0.setTagSourceRange(ExifIFD0Directory.TAG_MAKE, new SourceRange(20, 5));
+        ifd0.addError("Something went wrong");
+        metadata.addDirectory(ifd0);
+
+        ExifSubIFDDirectory subIfd = new ExifSubIFDDirectory();
+        subIfd.setParent(ifd0);
+        subIfd.setObject(ExifSubIFDDirectory.TAG_ISO_EQUIVALENT, (short)-200);
+        subIfd.setObjectArray(ExifSubIFDDirectory.TAG_LENS_SPECIFICATION, new long[] { 0xFFFFFFFFL, 3 });
+        metadata.addDirectory(subIfd);
+
+        metadata.addDirectory(new FileTypeDirectory(FileType.Bmp));
+
+        Metadata decoded = assertRoundTrips("constructed", metadata);
+
+        assertTrue(decoded.isSourceRangesEnabled());
+        ExifIFD0Directory decodedIfd0 = decoded.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        assertNotNull(decodedIfd0);
+        assertEquals(new SourceRange(12, 100), decodedIfd0.getSourceRange());
+        assertEquals(new SourceRange(20, 5), decodedIfd0.getTagSourceRange(ExifIFD0Directory.TAG_MAKE));
+        assertNull(decodedIfd0.getTagSourceRange(ExifIFD0Directory.TAG_MODEL));
+        assertSame(decodedIfd0, decoded.getFirstDirectoryOfType(ExifSubIFDDirectory.class).getParent());
+        assertEquals(Short.valueOf((short)-200), decoded.getFirstDirectoryOfType(ExifSubIFDDirectory.class).getObject(ExifSubIFDDirectory.TAG_ISO_EQUIVALENT));
+
+        // A directory whose constructor sets tags has exactly the encoded tags once decoded
+        metadata = new Metadata();
+        FileTypeDirectory fileType = new FileTypeDirectory(FileType.Bmp);
+        ((Directory)fileType).clearTags();
+        fileType.setString(FileTypeDirectory.TAG_DETECTED_FILE_TYPE_NAME, "Custom");
+        metadata.addDirectory(fileType);
+        assertRoundTrips("constructor tags", metadata);
+    }
+
+    @Test
+    public void testStreamingRoundTrip() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        ExifIFD0Directory directory = new ExifIFD0Directory();
+        directory.setString(ExifIFD0Directory.TAG_MAKE, "Make");
+        metadata.addDirectory(directory);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MetadataCodec.encode(metadata, output);
+        MetadataCodec.encode(metadata, output);
+
+        // Decoding stops at the end of each encoded instance
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        assertEquals("Make", MetadataCodec.decode(input).getFirstDirectoryOfType(ExifIFD0Directory.class).getString(ExifIFD0Directory.TAG_MAKE));
+        assertEquals("Make", MetadataCodec.decode(input).getFirstDirectoryOfType(ExifIFD0Directory.class).getString(ExifIFD0Directory.TAG_MAKE));
+        assertEquals(-1, input.read());
+    }
+
+    @Test
+    public void testInvalidData() throws Exception
+    {
+        byte[] bytes = MetadataCodec.encode(ImageMetadataReader.readMetadata(new File("Tests/Data/withExif.jpg")));
+
+        assertDecodeFails(new byte[] { 'N', 'O', 'P', 'E', 1, 0, 0 });
+        assertDecodeFails(Arrays.copyOf(bytes, bytes.length - 1));
+
+        byte[] unsupportedVersion = bytes.clone();
+        unsupportedVersion[4] = (byte)(MetadataCodec.VERSION + 1);
+        assertDecodeFails(unsupportedVersion);
+    }
+
+    @Test
+    public void testCorruptLengthsFailWithoutAllocating() throws Exception
+    {
+        // Each array is preceded by its type code and length, which are replaced by the largest valid length
+        assertCorruptLengthFails(new byte[] { 10, 20, 30 }, new byte[] { 12, 3, 10, 20, 30 });
+        assertCorruptLengthFails(new short[] { 10, 20, 30 }, new byte[] { 13, 3, 20, 40, 60 });
+        assertCorruptLengthFails(new long[] { 10, 20, 30 }, new byte[] { 15, 3, 20, 40, 60 });
+        assertCorruptLengthFails(new double[] { 0, 0, 0 }, new byte[] { 17, 3, 0, 0, 0, 0, 0, 0, 0, 0 });
+    }
+
+    private static void assertCorruptLengthFails(Object value, byte[] encodedValue) throws Exception
+    {
+        ExifIFD0Directory directory = new ExifIFD0Directory();
+        directory.setObject(ExifIFD0Directory.TAG_MAKE, value);
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(directory);
+        byte[] bytes = MetadataCodec.encode(metadata);
+
+        int index = indexOf(bytes, encodedValue);
+        assertTrue(index > 0);
+        ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+        corrupt.write(bytes, 0, index + 1);
+        corrupt.write(new byte[] { (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07 });
+        corrupt.write(bytes, index + 2, bytes.length - index - 2);
+
+        assertDecodeFails(corrupt.toByteArray());
+        try {
+            MetadataCodec.decode(new ByteArrayInputStream(corrupt.toByteArray()));
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern)
+    {
+        for (int i = 0; i + pattern.length <= bytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + pattern.length), pattern))
+                return i;
+        }
+        return -1;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisteredDirectoryType()
+    {
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(new MockDirectory());
+        MetadataCodec.encode(metadata);
+    }
+
+    private static void assertDecodeFails(byte[] bytes)
+    {
+        try {
+            MetadataCodec.decode(bytes);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    private static Metadata assertRoundTrips(String name, Metadata expected) throws IOException
+    {
+        byte[] bytes = MetadataCodec.encode(expected);
+        Metadata actual = MetadataCodec.decode(bytes);
+
+        List<Directory> expectedDirectories = toList(expected.getDirectories());
+        List<Directory> actualDirectories = toList(actual.getDirectories());
+        assertEquals(name, expectedDirectories.size(), actualDirectories.size());
+
+        for (int i = 0; i < expectedDirectories.size(); i++) {
+            Directory e = expectedDirectories.get(i);
+            Directory a = actualDirectories.get(i);
+            String context = name + " " + e.getName();
+            assertSame(context, e.getClass(), a.getClass());
+            assertEquals(context, e.getName(), a.getName());
+            assertEquals(context, toList(e.getErrors()), toList(a.getErrors()));
+            assertEquals(context, expectedDirectories.indexOf(e.getParent()), actualDirectories.indexOf(a.getParent()));
+            assertEquals(context, e.getTagCount(), a.getTagCount());
+            if (e instanceof XmpDirectory)
+                assertEquals(context, ((XmpDirectory)e).getXmpProperties(), ((XmpDirectory)a).getXmpProperties());
+
+            Iterator<Tag> actualTags = a.getTags().iterator();
+            for (Tag expectedTag : e.getTags()) {
+                Tag actualTag = actualTags.next();
+                int tagType = expectedTag.getTagType();
+                assertEquals(context, tagType, actualTag.getTagType());
+                assertSameValue(context + " " + expectedTag.getTagName(), e.getObject(tagType), a.getObject(tagType));
+                if (!(e.getObject(tagType) instanceof List))
+                    assertEquals(context, e.getString(tagType), a.getString(tagType));
+                assertEquals(context, e.getDescription(tagType), a.getDescription(tagType));
+            }
+        }
+
+        // Encoding the decoded metadata reproduces the same bytes, other than XMP whose serialisation order may vary
+        if (!expected.containsDirectoryOfType(XmpDirectory.class))
+            assertArrayEquals(name, bytes, MetadataCodec.encode(actual));
+        return actual;
+    }
+
+    private static void assertSameValue(String context, Object expected, Object actual)
+    {
+        assertNotNull(context, actual);
+        assertSame(context, expected.getClass(), actual.getClass());
+        if (expected instanceof Object[])
+            assertEquals(context, Arrays.deepToString((Object[])expected), Arrays.deepToString((Object[])actual));
+        else if (!expected.getClass().isArray() && !(expected instanceof List))
+            assertEquals(context, expected.toString(), actual.toString());
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable)
+    {
+        List<T> list = new ArrayList<T>();
+        for (T item : iterable)
+            list.add(item);
+        return list;
+    }
+}
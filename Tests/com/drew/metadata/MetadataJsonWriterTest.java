@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.lang.Rational;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MetadataJsonWriterTest
+{
+    @Test
+    public void testWritesTypedValuesAndHierarchy() throws Exception
+    {
+        Metadata metadata = new Metadata();
+
+        ExifIFD0Directory ifd0 = new ExifIFD0Directory();
+        ifd0.setString(ExifIFD0Directory.TAG_MAKE, "Make \"X\"\\\n\u0001\u2028");
+        ifd0.setInt(ExifIFD0Directory.TAG_ORIENTATION, -7);
+        ifd0.setRational(ExifIFD0Directory.TAG_X_RESOLUTION, new Rational(72, 1));
+        ifd0.setDoubleArray(ExifIFD0Directory.TAG_Y_RESOLUTION, new double[] { Double.NaN, 1.5 });
+        ifd0.setDate(ExifIFD0Directory.TAG_DATETIME, new Date(1000000000123L));
+        ifd0.addError("Bad");
+        metadata.addDirectory(ifd0);
+
+        ExifSubIFDDirectory subIfd = new ExifSubIFDDirectory();
+        subIfd.setParent(ifd0);
+        subIfd.setByteArray(ExifSubIFDDirectory.TAG_MAKERNOTE, new byte[] { 1, 2, 3, (byte)0xFF });
+        subIfd.setBoolean(ExifSubIFDDirectory.TAG_ISO_EQUIVALENT, true);
+        metadata.addDirectory(subIfd);
+
+        MetadataJsonWriter writer = new MetadataJsonWriter();
+        writer.setIncludeDescriptions(false);
+        assertFalse(writer.isIncludeDescriptions());
+
+        StringWriter json = new StringWriter();
+        writer.write(metadata, json);
+
+        assertEquals(
+            "{\"directories\":[" +
+                "{\"name\":\"Exif IFD0\",\"index\":0,\"parent\":null,\"tags\":[" +
+                    "{\"id\":271,\"name\":\"Make\",\"value\":\"Make \\\"X\\\"\\\\\\n\\u0001\\u2028\"}," +
+                    "{\"id\":274,\"name\":\"Orientation\",\"value\":-7}," +
+                    "{\"id\":282,\"name\":\"X Resolution\",\"value\":{\"numerator\":72,\"denominator\":1}}," +
+                    "{\"id\":283,\"name\":\"Y Resolution\",\"value\":[\"NaN\",1.5]}," +
+                    "{\"id\":306,\"name\":\"Date/Time\",\"value\":\"2001-09-09T01:46:40.123Z\"}]," +
+                "\"errors\":[\"Bad\"]}," +
+                "{\"name\":\"Exif SubIFD\",\"index\":1,\"parent\":0,\"tags\":[" +
+                    "{\"id\":37500,\"name\":\"Makernote\",\"value\":\"AQID/w==\"}," +
+                    "{\"id\":34855,\"name\":\"ISO Speed Ratings\",\"value\":true}]}" +
+            "]}",
+            json.toString());
+    }
+
+    @Test
+    public void testIncludesDescriptions() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        ExifIFD0Directory ifd0 = new ExifIFD0Directory();
+        ifd0.setInt(ExifIFD0Directory.TAG_ORIENTATION, 1);
+        metadata.addDirectory(ifd0);
+
+        MetadataJsonWriter writer = new MetadataJsonWriter();
+        assertTrue(writer.isIncludeDescriptions());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writer.write(metadata, stream);
+
+        assertEquals(
+            "{\"directories\":[{\"name\":\"Exif IFD0\",\"index\":0,\"parent\":null,\"tags\":[" +
+                "{\"id\":274,\"name\":\"Orientation\",\"value\":1,\"description\":\"Top, left side (Horizontal / normal)\"}]}]}",
+            stream.toString("UTF-8"));
+    }
+
+    @Test
+    public void testWritesTestData() throws Exception
+    {
+        File[] files = new File("Tests/Data").listFiles();
+        assertNotNull(files);
+
+        MetadataJsonWriter writer = new MetadataJsonWriter();
+        for (File file : files) {
+            if (!file.isFile())
+                continue;
+            Metadata metadata;
+            try {
+                metadata = ImageMetadataReader.readMetadata(file);
+            } catch (ImageProcessingException e) {
+                continue;
+            }
+
+            StringWriter json = new StringWriter();
+            writer.write(metadata, json);
+            assertBalanced(file.getName(), json.toString());
+        }
+    }
+
+    private static void assertBalanced(String message, String json)
+    {
+        int depth = 0;
+        boolean inString = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                assertTrue(message, c >= 0x20);
+                if (c == '\\')
+                    i++;
+                else if (c == '"')
+                    inString = false;
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                assertTrue(message, depth >= 0);
+            }
+        }
+        assertFalse(message, inString);
+        assertEquals(message, 0, depth);
+    }
+}
@@ -20,14 +20,19 @@
  */
 package com.drew.metadata;
 
+import com.drew.metadata.exif.ExifDirectoryBase;
 import com.drew.metadata.exif.ExifIFD0Directory;
 import com.drew.metadata.exif.ExifSubIFDDirectory;
 import com.drew.metadata.exif.ExifThumbnailDirectory;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -113,4 +118,216 @@ public class MetadataTest
         assertSame(directory2, directories.toArray()[1]);
         assertSame(directory3, directories.toArray()[2]);
     }
+
+    @Test
+    public void testDeferredDirectoryLoadedOnlyWhenMatched()
+    {
+        final int[] loadCount = new int[1];
+
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(new ExifIFD0Directory());
+        metadata.addDeferredDirectoryLoader(new DeferredDirectoryLoader()
+        {
+            public boolean mayProduce(Class<? extends Directory> directoryType)
+            {
+                return directoryType.isAssignableFrom(MockDirectory.class);
+            }
+
+            public void load(Metadata metadata)
+            {
+                loadCount[0]++;
+                metadata.addDirectory(new MockDirectory());
+            }
+        });
+
+        assertNotNull(metadata.getFirstDirectoryOfType(ExifIFD0Directory.class));
+        assertFalse(metadata.containsDirectoryOfType(ExifSubIFDDirectory.class));
+        assertEquals(0, loadCount[0]);
+
+        assertNotNull(metadata.getFirstDirectoryOfType(MockDirectory.class));
+        assertEquals(1, loadCount[0]);
+
+        assertEquals(2, metadata.getDirectoryCount());
+        assertEquals(1, loadCount[0]);
+    }
+
+    @Test
+    public void testDeferredDirectoryLoadedWhenIterating()
+    {
+        Metadata metadata = new Metadata();
+        metadata.addDeferredDirectoryLoader(new DeferredDirectoryLoader()
+        {
+            public boolean mayProduce(Class<? extends Directory> directoryType)
+            {
+                return false;
+            }
+
+            public void load(Metadata metadata)
+            {
+                metadata.addDirectory(new MockDirectory());
+            }
+        });
+
+        assertTrue(metadata.getDirectories().iterator().hasNext());
+    }
+
+    @Test
+    public void testConcurrentQueriesLoadDeferredDirectoriesOnce() throws Exception
+    {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            final AtomicInteger loadCount = new AtomicInteger();
+
+            final Metadata metadata = new Metadata();
+            metadata.addDirectory(new ExifIFD0Directory());
+            metadata.addDeferredDirectoryLoader(new DeferredDirectoryLoader()
+            {
+                public boolean mayProduce(Class<? extends Directory> directoryType)
+                {
+                    return directoryType.isAssignableFrom(MockDirectory.class);
+                }
+
+                public void load(Metadata metadata)
+                {
+                    loadCount.incrementAndGet();
+                    for (int i = 0; i < 20; i++) {
+                        metadata.addDirectory(new MockDirectory());
+                        Thread.yield();
+                    }
+                }
+            });
+
+            // Each thread queries in a different way, all of which load the deferred directories
+            final int threadCount = 4;
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+            final int[] counts = new int[threadCount];
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                final int index = t;
+                threads[t] = new Thread()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try {
+                            start.await();
+                            switch (index) {
+                                case 0: counts[index] = metadata.getDirectoryCount(); break;
+                                case 1: counts[index] = metadata.getDirectoriesOfType(Directory.class).size(); break;
+                                case 2: counts[index] = metadata.getDirectoriesOfType(MockDirectory.class).size() + 1; break;
+                                default:
+                                    int count = 0;
+                                    for (Directory ignored : metadata.getDirectories())
+                                        count++;
+                                    counts[index] = count;
+                                    break;
+                            }
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads)
+                thread.join();
+
+            assertEquals(Collections.<Throwable>emptyList(), failures);
+            assertEquals(1, loadCount.get());
+            for (int count : counts)
+                assertEquals(21, count);
+        }
+    }
+
+    @Test
+    public void testTypeQueriesReflectLaterAdditions()
+    {
+        Metadata metadata = new Metadata();
+        Directory subIfd = new ExifSubIFDDirectory();
+        metadata.addDirectory(subIfd);
+
+        // Queries before and after further directories are added, by exact and base types
+        assertSame(subIfd, metadata.getFirstDirectoryOfType(ExifDirectoryBase.class));
+        assertFalse(metadata.containsDirectoryOfType(ExifIFD0Directory.class));
+        assertEquals(1, metadata.getDirectoriesOfType(Directory.class).size());
+
+        Directory ifd0 = new ExifIFD0Directory();
+        Directory mock = new MockDirectory();
+        metadata.addDirectory(ifd0);
+        metadata.addDirectory(mock);
+
+        assertSame(subIfd, metadata.getFirstDirectoryOfType(ExifDirectoryBase.class));
+        assertTrue(metadata.containsDirectoryOfType(ExifIFD0Directory.class));
+        assertSame(ifd0, metadata.getFirstDirectoryOfType(ExifIFD0Directory.class));
+        assertEquals(Arrays.asList(subIfd, ifd0), new ArrayList<ExifDirectoryBase>(metadata.getDirectoriesOfType(ExifDirectoryBase.class)));
+        assertEquals(Arrays.asList(subIfd, ifd0, mock), new ArrayList<Directory>(metadata.getDirectoriesOfType(Directory.class)));
+
+        // Returned collections are copies
+        metadata.getDirectoriesOfType(Directory.class).clear();
+        assertEquals(3, metadata.getDirectoriesOfType(Directory.class).size());
+    }
+
+    @Test
+    public void testFreeze()
+    {
+        Metadata metadata = new Metadata();
+        final Directory subIfd = new ExifSubIFDDirectory();
+        subIfd.setInt(ExifSubIFDDirectory.TAG_ISO_EQUIVALENT, 100);
+        metadata.addDirectory(subIfd);
+        metadata.addDeferredDirectoryLoader(new DeferredDirectoryLoader()
+        {
+            public boolean mayProduce(Class<? extends Directory> directoryType)
+            {
+                return false;
+            }
+
+            public void load(Metadata metadata)
+            {
+                metadata.addDirectory(new ExifIFD0Directory());
+            }
+        });
+
+        Metadata frozen = metadata.freeze();
+
+        assertFalse(metadata.isFrozen());
+        assertTrue(frozen.isFrozen());
+        assertSame(frozen, frozen.freeze());
+
+        // Deferred directories are loaded, and type queries work over the snapshot
+        assertEquals(2, frozen.getDirectoryCount());
+        assertSame(subIfd, frozen.getFirstDirectoryOfType(ExifDirectoryBase.class));
+        assertEquals(2, frozen.getDirectoriesOfType(ExifDirectoryBase.class).size());
+        assertEquals(2, frozen.getDirectoriesOfType(Directory.class).size());
+        assertFalse(frozen.containsDirectoryOfType(MockDirectory.class));
+        assertEquals(100, subIfd.getInteger(ExifSubIFDDirectory.TAG_ISO_EQUIVALENT).intValue());
+
+        // Later additions to the source are not visible in the snapshot
+        metadata.addDirectory(new MockDirectory());
+        assertEquals(3, metadata.getDirectoryCount());
+        assertEquals(2, frozen.getDirectoryCount());
+
+        // Neither the snapshot nor its directories may be modified
+        assertTrue(subIfd.isFrozen());
+        try {
+            frozen.addDirectory(new MockDirectory());
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            subIfd.setString(ExifSubIFDDirectory.TAG_MAKERNOTE, "x");
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            subIfd.addError("x");
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            frozen.getDirectories().iterator().remove();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.imaging.heif.HeifMetadataReader;
+import com.drew.imaging.mp4.Mp4MetadataReader;
+import com.drew.imaging.quicktime.QuickTimeMetadataReader;
+import com.drew.imaging.tiff.TiffDataFormat;
+import com.drew.imaging.tiff.TiffMetadataReader;
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.RandomAccessFileReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.heif.HeifDirectory;
+import com.drew.metadata.mov.QuickTimeDirectory;
+import com.drew.metadata.mp4.Mp4Directory;
+import com.drew.metadata.tiff.TiffSourceRange;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the source ranges recorded by the TIFF and ISO base media file readers.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class SourceRangeTest
+{
+    @Test
+    public void testTiffRanges() throws Exception
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte)'I').put((byte)'I').putShort((short)0x2A).putInt(8);
+        buffer.putShort((short)2);
+        // Make, whose six bytes are stored after the IFD
+        buffer.putShort((short)ExifIFD0Directory.TAG_MAKE).putShort((short)2).putInt(6).putInt(38);
+        // Orientation, whose value is held within its entry
+        buffer.putShort((short)ExifIFD0Directory.TAG_ORIENTATION).putShort((short)3).putInt(1).putShort((short)1).putShort((short)0);
+        buffer.putInt(0);
+        buffer.put("Canon\0".getBytes());
+
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+        TiffMetadataReader.process(metadata, new ByteArrayReader(buffer.array()));
+
+        ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        assertNotNull(directory);
+        assertEquals("Canon", directory.getString(ExifIFD0Directory.TAG_MAKE));
+        assertEquals(new SourceRange(8, 30), directory.getSourceRange());
+        assertEquals(new TiffSourceRange(38, 6, TiffDataFormat.CODE_STRING, 6), directory.getTagSourceRange(ExifIFD0Directory.TAG_MAKE));
+        assertEquals(new TiffSourceRange(30, 2, TiffDataFormat.CODE_INT16_U, 1), directory.getTagSourceRange(ExifIFD0Directory.TAG_ORIENTATION));
+    }
+
+    @Test
+    public void testTiffRangesNotRecordedUnlessEnabled() throws Exception
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(26).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte)'I').put((byte)'I').putShort((short)0x2A).putInt(8);
+        buffer.putShort((short)1);
+        buffer.putShort((short)ExifIFD0Directory.TAG_ORIENTATION).putShort((short)3).putInt(1).putShort((short)1).putShort((short)0);
+        buffer.putInt(0);
+
+        Metadata metadata = new Metadata();
+        TiffMetadataReader.process(metadata, new ByteArrayReader(buffer.array()));
+
+        ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        assertNotNull(directory);
+        assertNull(directory.getSourceRange());
+        assertNull(directory.getTagSourceRange(ExifIFD0Directory.TAG_ORIENTATION));
+    }
+
+    @Test
+    public void testMp4Ranges() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+        Mp4MetadataReader.process(metadata, new ByteArrayInputStream(freeThenFileType("mp42")));
+
+        Mp4Directory directory = metadata.getFirstDirectoryOfType(Mp4Directory.class);
+        assertNotNull(directory);
+        assertEquals("mp42", directory.getString(Mp4Directory.TAG_MAJOR_BRAND));
+        assertEquals(new SourceRange(8, 20), directory.getTagSourceRange(Mp4Directory.TAG_MAJOR_BRAND));
+        assertEquals(new SourceRange(8, 20), directory.getTagSourceRange(Mp4Directory.TAG_COMPATIBLE_BRANDS));
+    }
+
+    @Test
+    public void testQuickTimeRanges() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        metadata.setSourceRangesEnabled(true);
+        QuickTimeMetadataReader.process(metadata, new ByteArrayInputStream(freeThenFileType("qt  ")));
+
+        QuickTimeDirectory directory = metadata.getFirstDirectoryOfType(QuickTimeDirectory.class);
+        assertNotNull(directory);
+        assertEquals("qt  ", directory.getString(QuickTimeDirectory.TAG_MAJOR_BRAND));
+        assertEquals(new SourceRange(8, 20), directory.getTagSourceRange(QuickTimeDirectory.TAG_MAJOR_BRAND));
+        assertEquals(new SourceRange(8, 20), directory.getTagSourceRange(QuickTimeDirectory.TAG_MINOR_VERSION));
+    }
+
+    @Test
+    public void testHeifRanges() throws Exception
+    {
+        byte[] bytes = freeThenFileType("heic");
+
+        // The HEIF reader reads boxes sequentially, which is only supported by file-backed readers
+        File file = File.createTempFile("heif", ".heic");
+        try {
+            FileOutputStream stream = new FileOutputStream(file);
+            try {
+                stream.write(bytes);
+            } finally {
+                stream.close();
+            }
+
+            Metadata metadata = new Metadata();
+            metadata.setSourceRangesEnabled(true);
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                assertTrue(HeifMetadataReader.process(metadata, new RandomAccessFileReader(randomAccessFile), bytes.length));
+            } finally {
+                randomAccessFile.close();
+            }
+
+            HeifDirectory directory = metadata.getFirstDirectoryOfType(HeifDirectory.class);
+            assertNotNull(directory);
+            assertEquals("heic", directory.getString(HeifDirectory.TAG_MAJOR_BRAND));
+            assertEquals(new SourceRange(8, 20), directory.getTagSourceRange(HeifDirectory.TAG_MAJOR_BRAND));
+            assertEquals(new SourceRange(8, 20), directory.getTagSourceRange(HeifDirectory.TAG_COMPATIBLE_BRANDS));
+        } finally {
+            if (!file.delete())
+                throw new IOException("Unable to delete " + file);
+        }
+    }
+
+    /**
+     * Builds an empty <code>free</code> box followed by a 20 byte <code>ftyp</code> box, so that the values read
+     * from the latter are at a non-zero offset.
+     */
+    @NotNull
+    private static byte[] freeThenFileType(@NotNull String brand)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(28);
+        buffer.putInt(8).put("free".getBytes());
+        buffer.putInt(20).put("ftyp".getBytes()).put(brand.getBytes()).putInt(1).put(brand.getBytes());
+        return buffer.array();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.lang.Charsets;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class StringPoolTest
+{
+    @Test
+    public void testInternStrings() throws Exception
+    {
+        StringPool pool = new StringPool(16, 8);
+        assertEquals(16, pool.getCapacity());
+        assertEquals(8, pool.getMaxLength());
+
+        String make = new String("Canon");
+        assertSame(make, pool.intern(make));
+        assertSame(make, pool.intern(new String("Canon")));
+
+        String long1 = new String("A long model name");
+        assertSame(long1, pool.intern(long1));
+        assertNotSame(long1, pool.intern(new String("A long model name")));
+    }
+
+    @Test
+    public void testInternStringValues() throws Exception
+    {
+        StringPool pool = new StringPool();
+
+        StringValue value = new StringValue(new byte[] { 'N', 'i', 'k', 'o', 'n' }, Charsets.UTF_8);
+        StringValue pooled = pool.intern(value);
+        assertEquals("Nikon", pooled.toString());
+        assertSame(pooled, pool.intern(value));
+        assertSame(pooled, pool.intern(new StringValue(new byte[] { 'N', 'i', 'k', 'o', 'n' }, Charsets.UTF_8)));
+        assertSame(pooled, pool.intern(pooled));
+
+        StringValue otherCharset = new StringValue(new byte[] { 'N', 'i', 'k', 'o', 'n' }, null);
+        assertNotSame(pooled, pool.intern(otherCharset));
+
+        // Values too long to pool are returned as given
+        StringValue longValue = new StringValue(new byte[StringPool.DEFAULT_MAX_LENGTH + 1], null);
+        assertSame(longValue, pool.intern(longValue));
+    }
+
+    @Test
+    public void testPooledStringValueCannotBeModified() throws Exception
+    {
+        StringPool pool = new StringPool();
+
+        byte[] bytes = { 'N', 'i', 'k', 'o', 'n' };
+        Metadata metadata1 = new Metadata();
+        metadata1.setStringPool(pool);
+        ExifIFD0Directory directory1 = new ExifIFD0Directory();
+        metadata1.addDirectory(directory1);
+        directory1.setStringValue(ExifIFD0Directory.TAG_MAKE, new StringValue(bytes, Charsets.UTF_8));
+
+        Metadata metadata2 = new Metadata();
+        metadata2.setStringPool(pool);
+        ExifIFD0Directory directory2 = new ExifIFD0Directory();
+        metadata2.addDirectory(directory2);
+        directory2.setStringValue(ExifIFD0Directory.TAG_MAKE, new StringValue(new byte[] { 'N', 'i', 'k', 'o', 'n' }, Charsets.UTF_8));
+
+        assertSame(directory1.getStringValue(ExifIFD0Directory.TAG_MAKE), directory2.getStringValue(ExifIFD0Directory.TAG_MAKE));
+
+        // Neither the array given when the value was set, nor arrays obtained via getters, reach the shared value
+        bytes[0] = 'X';
+        directory1.getByteArray(ExifIFD0Directory.TAG_MAKE)[1] = 'X';
+        directory1.getStringValue(ExifIFD0Directory.TAG_MAKE).getBytes()[2] = 'X';
+
+        assertEquals("Nikon", directory1.getString(ExifIFD0Directory.TAG_MAKE));
+        assertEquals("Nikon", directory2.getString(ExifIFD0Directory.TAG_MAKE));
+        assertArrayEquals(new byte[] { 'N', 'i', 'k', 'o', 'n' }, directory2.getByteArray(ExifIFD0Directory.TAG_MAKE));
+    }
+
+    @Test
+    public void testCapacityRoundedToPowerOfTwo() throws Exception
+    {
+        assertEquals(1, new StringPool(1, 0).getCapacity());
+        assertEquals(128, new StringPool(100, 0).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacityRejected() throws Exception
+    {
+        new StringPool(0, 10);
+    }
+
+    @Test
+    public void testMetadataPoolsDirectoryValues() throws Exception
+    {
+        StringPool pool = new StringPool();
+
+        Metadata metadata1 = new Metadata();
+        metadata1.setStringPool(pool);
+        assertSame(pool, metadata1.getStringPool());
+        ExifIFD0Directory directory1 = new ExifIFD0Directory();
+        metadata1.addDirectory(directory1);
+        directory1.setString(ExifIFD0Directory.TAG_MAKE, new String("Canon"));
+        directory1.setStringArray(ExifIFD0Directory.TAG_SOFTWARE, new String[] { new String("v1") });
+
+        // Values set before the directory is added are pooled when it is added
+        Metadata metadata2 = new Metadata();
+        metadata2.setStringPool(pool);
+        ExifIFD0Directory directory2 = new ExifIFD0Directory();
+        directory2.setString(ExifIFD0Directory.TAG_MAKE, new String("Canon"));
+        directory2.setStringArray(ExifIFD0Directory.TAG_SOFTWARE, new String[] { new String("v1") });
+        metadata2.addDirectory(directory2);
+
+        assertSame(directory1.getString(ExifIFD0Directory.TAG_MAKE), directory2.getString(ExifIFD0Directory.TAG_MAKE));
+        assertSame(directory1.getStringArray(ExifIFD0Directory.TAG_SOFTWARE)[0], directory2.getStringArray(ExifIFD0Directory.TAG_SOFTWARE)[0]);
+
+        // Without a pool, values are held as given
+        Metadata metadata3 = new Metadata();
+        ExifIFD0Directory directory3 = new ExifIFD0Directory();
+        metadata3.addDirectory(directory3);
+        directory3.setString(ExifIFD0Directory.TAG_MAKE, new String("Canon"));
+        assertNotSame(directory1.getString(ExifIFD0Directory.TAG_MAKE), directory3.getString(ExifIFD0Directory.TAG_MAKE));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import com.drew.metadata.exif.ExifIFD0Directory;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class TagNameTableTest
+{
+    @Test
+    public void testDenseAndSparseLookups() throws Exception
+    {
+        HashMap<Integer, String> dense = new HashMap<Integer, String>();
+        dense.put(10, "Ten");
+        dense.put(12, "Twelve");
+        HashMap<Integer, String> sparse = new HashMap<Integer, String>();
+        sparse.put(-5, "Negative");
+        sparse.put(3, "Three");
+        sparse.put(0xEA1D, "High");
+
+        for (HashMap<Integer, String> map : new HashMap[] { dense, sparse }) {
+            TagNameTable table = TagNameTable.forDirectory(MockDirectory.class, map);
+            assertTrue(table.isBuiltFrom(map));
+            for (Integer tagType : map.keySet())
+                assertEquals(map.get(tagType), table.get(tagType));
+            assertNull(table.get(11));
+            assertNull(table.get(4));
+            assertNull(table.get(Integer.MIN_VALUE));
+            assertNull(table.get(Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void testTableSharedAndRebuiltWhenMapChanges() throws Exception
+    {
+        HashMap<Integer, String> map = new HashMap<Integer, String>();
+        map.put(1, "One");
+        TagNameTable table = TagNameTable.forDirectory(MockDirectory.class, map);
+        assertSame(table, TagNameTable.forDirectory(MockDirectory.class, map));
+
+        map.put(2, "Two");
+        assertFalse(table.isBuiltFrom(map));
+        assertEquals("Two", TagNameTable.forDirectory(MockDirectory.class, map).get(2));
+    }
+
+    @Test
+    public void testUnknownNames() throws Exception
+    {
+        assertEquals("Unknown tag (0x0000)", TagNameTable.getUnknownName(0));
+        assertEquals("Unknown tag (0x00ff)", TagNameTable.getUnknownName(0xFF));
+        assertEquals("Unknown tag (0xffff)", TagNameTable.getUnknownName(0xFFFF));
+        assertEquals("Unknown tag (0x12345)", TagNameTable.getUnknownName(0x12345));
+        assertEquals("Unknown tag (0xffffffff)", TagNameTable.getUnknownName(-1));
+        assertSame(TagNameTable.getUnknownName(0x1234), TagNameTable.getUnknownName(0x1234));
+    }
+
+    @Test
+    public void testDirectoryTagNames() throws Exception
+    {
+        ExifIFD0Directory directory = new ExifIFD0Directory();
+        assertEquals("Make", directory.getTagName(ExifIFD0Directory.TAG_MAKE));
+        assertTrue(directory.hasTagName(ExifIFD0Directory.TAG_MAKE));
+        assertEquals("Unknown tag (0xfffe)", directory.getTagName(0xFFFE));
+        assertFalse(directory.hasTagName(0xFFFE));
+    }
+}
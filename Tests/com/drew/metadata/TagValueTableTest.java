@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class TagValueTableTest
+{
+    @Test
+    public void testEmpty()
+    {
+        TagValueTable table = new TagValueTable();
+        assertEquals(0, table.size());
+        assertEquals(-1, table.indexOf(0));
+        assertNull(table.get(0));
+    }
+
+    @Test
+    public void testPutRetainsInsertionOrder()
+    {
+        TagValueTable table = new TagValueTable();
+        // Enough entries to exceed the linear search limit and grow the hash index more than once
+        for (int i = 0; i < 100; i++)
+            assertTrue(table.put(1000 - i * 7, i));
+
+        assertEquals(100, table.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1000 - i * 7, table.getTagType(i));
+            assertEquals(i, table.getValue(i));
+            assertEquals(i, table.indexOf(1000 - i * 7));
+            assertEquals(i, table.get(1000 - i * 7));
+        }
+        assertEquals(-1, table.indexOf(1001));
+        assertNull(table.get(-1));
+    }
+
+    @Test
+    public void testReplaceRetainsPosition()
+    {
+        TagValueTable table = new TagValueTable();
+        table.put(1, "a");
+        table.put(2, "b");
+        assertFalse(table.put(1, "c"));
+
+        assertEquals(2, table.size());
+        assertEquals(1, table.getTagType(0));
+        assertEquals("c", table.getValue(0));
+        assertEquals("c", table.get(1));
+    }
+
+    @Test
+    public void testNegativeAndLargeTagTypes()
+    {
+        TagValueTable table = new TagValueTable();
+        for (int i = 0; i < 20; i++) {
+            table.put(Integer.MIN_VALUE + i, "min" + i);
+            table.put(Integer.MAX_VALUE - i, "max" + i);
+        }
+        assertEquals(40, table.size());
+        assertEquals("min7", table.get(Integer.MIN_VALUE + 7));
+        assertEquals("max19", table.get(Integer.MAX_VALUE - 19));
+    }
+
+    @Test
+    public void testMove()
+    {
+        for (int count : new int[] { 5, 30 }) {
+            TagValueTable table = new TagValueTable();
+            for (int i = 0; i < count; i++)
+                table.put(i, i);
+
+            // Move the last three entries to position one
+            table.move(count - 3, 1);
+
+            assertEquals(count, table.size());
+            assertEquals(0, table.getTagType(0));
+            assertEquals(count - 3, table.getTagType(1));
+            assertEquals(count - 2, table.getTagType(2));
+            assertEquals(count - 1, table.getTagType(3));
+            assertEquals(1, table.getTagType(4));
+            assertEquals(count - 4, table.getTagType(count - 1));
+            for (int i = 0; i < count; i++)
+                assertEquals(i, table.get(i));
+            assertEquals(1, table.indexOf(count - 3));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMoveForwardsThrows()
+    {
+        TagValueTable table = new TagValueTable();
+        table.put(1, 1);
+        table.put(2, 2);
+        table.move(0, 1);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.metadata.Metadata;
+import com.drew.metadata.Tag;
+import com.drew.metadata.exif.makernotes.CanonAFInfo;
+import com.drew.metadata.exif.makernotes.CanonCameraSettings;
+import com.drew.metadata.exif.makernotes.CanonMakernoteDirectory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.drew.metadata.exif.makernotes.CanonMakernoteDirectory.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class CanonMakernoteDirectoryTest
+{
+    private static final int CAMERA_SETTINGS_ARRAY = 0x0001;
+    private static final int AF_INFO_ARRAY = 0x0012;
+
+    @Test
+    public void testCameraSettingsRecord() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(CAMERA_SETTINGS_ARRAY, new int[] { 92, 1, 10, 5 });
+
+        CanonCameraSettings settings = directory.getCameraSettings();
+        assertNotNull(settings);
+        assertEquals(4, settings.getLength());
+        assertEquals(Integer.valueOf(1), settings.getMacroMode());
+        assertEquals(Integer.valueOf(10), settings.getSelfTimerDelay());
+        assertEquals(Integer.valueOf(5), settings.getQuality());
+        assertNull(settings.getFlashMode());
+
+        assertTrue(directory.containsTag(CameraSettings.TAG_MACRO_MODE));
+        assertFalse(directory.containsTag(CameraSettings.TAG_FLASH_MODE));
+        assertFalse(directory.containsTag(CAMERA_SETTINGS_ARRAY));
+        assertEquals(1, directory.getInt(CameraSettings.TAG_MACRO_MODE));
+        assertEquals(10, directory.getInt(CameraSettings.TAG_SELF_TIMER_DELAY));
+        assertEquals("Macro", directory.getDescription(CameraSettings.TAG_MACRO_MODE));
+    }
+
+    @Test
+    public void testRecordTagsExpandedInPlaceWhenTagsRequested() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setString(TAG_CANON_IMAGE_TYPE, "IMG");
+        directory.setObjectArray(CAMERA_SETTINGS_ARRAY, new int[] { 92, 1, 10 });
+        directory.setString(TAG_CANON_FIRMWARE_VERSION, "1.0");
+
+        assertEquals(5, directory.getTagCount());
+
+        List<Integer> tagTypes = new ArrayList<Integer>();
+        for (Tag tag : directory.getTags())
+            tagTypes.add(tag.getTagType());
+
+        assertEquals(TAG_CANON_IMAGE_TYPE, tagTypes.get(0).intValue());
+        assertEquals(CameraSettings.TAG_MACRO_MODE - 1, tagTypes.get(1).intValue());
+        assertEquals(CameraSettings.TAG_MACRO_MODE, tagTypes.get(2).intValue());
+        assertEquals(CameraSettings.TAG_SELF_TIMER_DELAY, tagTypes.get(3).intValue());
+        assertEquals(TAG_CANON_FIRMWARE_VERSION, tagTypes.get(4).intValue());
+
+        assertEquals(10, directory.getInt(CameraSettings.TAG_SELF_TIMER_DELAY));
+    }
+
+    @Test
+    public void testRecordsExpandedWhenFrozen() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(CAMERA_SETTINGS_ARRAY, new int[] { 92, 1, 10 });
+
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(directory);
+        metadata.freeze();
+
+        assertTrue(directory.isFrozen());
+        assertEquals(3, directory.getTagCount());
+        assertEquals(3, directory.getTags().size());
+        assertEquals(10, directory.getInt(CameraSettings.TAG_SELF_TIMER_DELAY));
+    }
+
+    @Test
+    public void testLaterRecordValuesTakePrecedence() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(CAMERA_SETTINGS_ARRAY, new int[] { 92, 1 });
+        directory.setObjectArray(CAMERA_SETTINGS_ARRAY, new int[] { 92, 2 });
+
+        assertEquals(2, directory.getInt(CameraSettings.TAG_MACRO_MODE));
+        assertEquals(2, directory.getTagCount());
+        assertEquals(2, directory.getInt(CameraSettings.TAG_MACRO_MODE));
+    }
+
+    @Test
+    public void testAFInfoRecord() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(AF_INFO_ARRAY, new int[] {
+            2, 2, 3000, 2000, 1500, 1000, 40, 30,
+            -100, 100,
+            -50, 50,
+            0x0002,
+            1, 0
+        });
+
+        CanonAFInfo afInfo = directory.getAFInfo();
+        assertNotNull(afInfo);
+        assertEquals(Integer.valueOf(2), afInfo.getNumAfPoints());
+        assertEquals(Integer.valueOf(3000), afInfo.getImageWidth());
+        assertArrayEquals(new short[] { -100, 100 }, afInfo.getAfAreaXPositions());
+        assertArrayEquals(new short[] { -50, 50 }, afInfo.getAfAreaYPositions());
+        assertArrayEquals(new short[] { 2 }, afInfo.getAfPointsInFocus());
+        assertEquals(Integer.valueOf(1), afInfo.getPrimaryAfPoint1());
+        assertEquals(Integer.valueOf(0), afInfo.getPrimaryAfPoint2());
+
+        assertEquals(1, directory.getInt(AFInfo.TAG_PRIMARY_AF_POINT_1));
+        assertEquals(13, directory.getTagCount());
+        assertEquals(1, directory.getInt(AFInfo.TAG_PRIMARY_AF_POINT_1));
+    }
+
+    @Test
+    public void testTruncatedAFInfoRecord() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(AF_INFO_ARRAY, new int[] { 9, 9, 3000 });
+
+        CanonAFInfo afInfo = directory.getAFInfo();
+        assertNotNull(afInfo);
+        assertEquals(Integer.valueOf(3000), afInfo.getImageWidth());
+        assertNull(afInfo.getAfAreaXPositions());
+        assertNull(afInfo.getPrimaryAfPoint1());
+        assertFalse(directory.containsTag(AFInfo.TAG_PRIMARY_AF_POINT_1));
+    }
+
+    @Test
+    public void testAFInfoArrayEndingAtEndOfRecord() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(AF_INFO_ARRAY, new int[] {
+            2, 2, 3000, 2000, 1500, 1000, 40, 30,
+            -100, 100,
+            -50, 50,
+            0x0002
+        });
+
+        CanonAFInfo afInfo = directory.getAFInfo();
+        assertNotNull(afInfo);
+        assertArrayEquals(new short[] { 2 }, afInfo.getAfPointsInFocus());
+        assertNull(afInfo.getPrimaryAfPoint1());
+    }
+
+    @Test
+    public void testTagsBeyondRecordAreAbsent() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setObjectArray(CAMERA_SETTINGS_ARRAY, new int[] { 92, 1 });
+
+        assertNull(directory.getObject(CameraSettings.TAG_QUALITY));
+        assertNull(directory.getObject(CameraSettings.TAG_MACRO_MODE + 0x1000));
+        assertFalse(directory.containsTag(CameraSettings.TAG_QUALITY));
+    }
+}
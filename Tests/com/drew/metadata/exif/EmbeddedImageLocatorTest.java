@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.imaging.jpeg.JpegSegmentData;
+import com.drew.imaging.jpeg.JpegSegmentReader;
+import com.drew.imaging.jpeg.JpegSegmentType;
+import com.drew.lang.annotations.NotNull;
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class EmbeddedImageLocatorTest
+{
+    @Test
+    public void testLocateExifThumbnailInJpeg() throws Exception
+    {
+        File file = new File("Tests/Data/manuallyAddedThumbnail.jpg");
+
+        List<EmbeddedImage> images = EmbeddedImageLocator.locate(file);
+
+        assertEquals(1, images.size());
+        EmbeddedImage thumbnail = images.get(0);
+        assertTrue(thumbnail.getDirectory() instanceof ExifThumbnailDirectory);
+        assertEquals(2970, thumbnail.getLength());
+
+        // The offset stored in the Exif data is relative to the TIFF header, which follows the APP1 preamble
+        JpegSegmentData segmentData = JpegSegmentReader.readSegments(file, Collections.singletonList(JpegSegmentType.APP1));
+        long tiffHeaderOffset = segmentData.getSegmentOffset(JpegSegmentType.APP1, 0) + ExifReader.JPEG_SEGMENT_PREAMBLE.length();
+        assertEquals(tiffHeaderOffset + 192, thumbnail.getOffset());
+    }
+
+    @Test
+    public void testCopyTo() throws Exception
+    {
+        File file = new File("Tests/Data/manuallyAddedThumbnail.jpg");
+        EmbeddedImage thumbnail = EmbeddedImageLocator.locate(file).get(0);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        assertEquals(2970, thumbnail.copyTo(file, stream));
+
+        byte[] bytes = stream.toByteArray();
+        byte[] fileBytes = FileUtil.readBytes(file);
+        assertEquals(2970, bytes.length);
+        for (int i = 0; i < bytes.length; i++)
+            assertEquals(fileBytes[(int)thumbnail.getOffset() + i], bytes[i]);
+
+        // JPEG SOI marker
+        assertEquals((byte)0xFF, bytes[0]);
+        assertEquals((byte)0xD8, bytes[1]);
+    }
+
+    @Test
+    public void testLocateInJpegWithoutExif() throws Exception
+    {
+        assertEquals(0, EmbeddedImageLocator.locate(new File("Tests/Data/noExif.jpg")).size());
+    }
+
+    private static final byte[] JPEG = { (byte)0xFF, (byte)0xD8, 1, 2, (byte)0xFF, (byte)0xD9 };
+
+    @Test
+    public void testLocatePreviewInNefSubIfd() throws Exception
+    {
+        // IFD0 points to a sub-IFD, as NEF files do, whose JPEGInterchangeFormat tags reference the preview
+        ByteBuffer buffer = tiffBuffer(62, 0x2A, 8);
+        buffer.putShort((short)1);
+        putEntry(buffer, ExifDirectoryBase.TAG_SUB_IFD_OFFSET, 4, 1, 26);
+        buffer.putInt(0);
+        buffer.putShort((short)2);
+        putEntry(buffer, ExifThumbnailDirectory.TAG_THUMBNAIL_OFFSET, 4, 1, 56);
+        putEntry(buffer, ExifThumbnailDirectory.TAG_THUMBNAIL_LENGTH, 4, 1, JPEG.length);
+        buffer.putInt(0);
+        buffer.put(JPEG);
+
+        List<EmbeddedImage> images = locate(buffer);
+
+        assertEquals(1, images.size());
+        assertTrue(images.get(0).getDirectory() instanceof ExifSubIFDDirectory);
+        assertEquals(56, images.get(0).getOffset());
+        assertEquals(JPEG.length, images.get(0).getLength());
+    }
+
+    @Test
+    public void testLocateStripPreviewInCr2() throws Exception
+    {
+        // CR2 headers append "CR", a version and the raw IFD offset to the TIFF header
+        ByteBuffer buffer = tiffBuffer(64, 0x2A, 16);
+        buffer.put(new byte[] { 'C', 'R', 2, 0 });
+        buffer.putInt(0);
+        buffer.putShort((short)3);
+        putEntry(buffer, ExifDirectoryBase.TAG_COMPRESSION, 3, 1, 6);
+        putEntry(buffer, ExifDirectoryBase.TAG_STRIP_OFFSETS, 4, 1, 58);
+        putEntry(buffer, ExifDirectoryBase.TAG_STRIP_BYTE_COUNTS, 4, 1, JPEG.length);
+        buffer.putInt(0);
+        buffer.put(JPEG);
+
+        List<EmbeddedImage> images = locate(buffer);
+
+        assertEquals(1, images.size());
+        assertTrue(images.get(0).getDirectory() instanceof ExifIFD0Directory);
+        assertEquals(58, images.get(0).getOffset());
+        assertEquals(JPEG.length, images.get(0).getLength());
+    }
+
+    @Test
+    public void testLocateJpgFromRawInRw2() throws Exception
+    {
+        // RW2 files use a Panasonic marker in place of 0x2A, and hold the preview as the JpgFromRaw tag's value
+        ByteBuffer buffer = tiffBuffer(32, 0x55, 8);
+        buffer.putShort((short)1);
+        putEntry(buffer, PanasonicRawIFD0Directory.TagJpgFromRaw, 7, JPEG.length, 26);
+        buffer.putInt(0);
+        buffer.put(JPEG);
+
+        List<EmbeddedImage> images = locate(buffer);
+
+        assertEquals(1, images.size());
+        assertTrue(images.get(0).getDirectory() instanceof PanasonicRawIFD0Directory);
+        assertEquals(26, images.get(0).getOffset());
+        assertEquals(JPEG.length, images.get(0).getLength());
+    }
+
+    @Test
+    public void testCopyToFallsBackWhenTransferStalls() throws Exception
+    {
+        File file = new File("Tests/Data/manuallyAddedThumbnail.jpg");
+        EmbeddedImage thumbnail = EmbeddedImageLocator.locate(file).get(0);
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        WritableByteChannel stallingChannel = new WritableByteChannel()
+        {
+            private boolean _stalled;
+
+            public int write(ByteBuffer src)
+            {
+                if (!_stalled) {
+                    // Accept nothing on the first write, causing transferTo to make no progress
+                    _stalled = true;
+                    return 0;
+                }
+                int count = src.remaining();
+                while (src.hasRemaining())
+                    stream.write(src.get());
+                return count;
+            }
+
+            public boolean isOpen()
+            {
+                return true;
+            }
+
+            public void close()
+            {
+            }
+        };
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            assertEquals(2970, thumbnail.copyTo(randomAccessFile.getChannel(), stallingChannel));
+        } finally {
+            randomAccessFile.close();
+        }
+
+        byte[] bytes = stream.toByteArray();
+        byte[] fileBytes = FileUtil.readBytes(file);
+        assertEquals(2970, bytes.length);
+        for (int i = 0; i < bytes.length; i++)
+            assertEquals(fileBytes[(int)thumbnail.getOffset() + i], bytes[i]);
+    }
+
+    @NotNull
+    private static ByteBuffer tiffBuffer(int length, int marker, int firstIfdOffset)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte)'I').put((byte)'I').putShort((short)marker).putInt(firstIfdOffset);
+        return buffer;
+    }
+
+    private static void putEntry(@NotNull ByteBuffer buffer, int tagId, int formatCode, int componentCount, int value)
+    {
+        buffer.putShort((short)tagId).putShort((short)formatCode).putInt(componentCount);
+        if (formatCode == 3)
+            buffer.putShort((short)value).putShort((short)0);
+        else
+            buffer.putInt(value);
+    }
+
+    /** Writes the buffer to a file, so that file type detection picks the raw format, and locates its images. */
+    @NotNull
+    private static List<EmbeddedImage> locate(@NotNull ByteBuffer buffer) throws Exception
+    {
+        assertFalse(buffer.hasRemaining());
+        File file = File.createTempFile("embedded", ".raw");
+        try {
+            FileOutputStream stream = new FileOutputStream(file);
+            try {
+                stream.write(buffer.array());
+            } finally {
+                stream.close();
+            }
+
+            List<EmbeddedImage> images = EmbeddedImageLocator.locate(file);
+
+            // Copying each image yields the bytes it was located at
+            for (EmbeddedImage image : images) {
+                ByteArrayOutputStream copy = new ByteArrayOutputStream();
+                image.copyTo(file, copy);
+                assertArrayEquals(JPEG, copy.toByteArray());
+            }
+            return images;
+        } finally {
+            if (!file.delete())
+                throw new IOException("Unable to delete " + file);
+        }
+    }
+}
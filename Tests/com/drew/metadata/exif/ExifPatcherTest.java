@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.imaging.jpeg.JpegMetadataReader;
+import com.drew.imaging.tiff.TiffDataFormat;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
+import com.drew.metadata.tiff.TiffSourceRange;
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class ExifPatcherTest
+{
+    private static File copyToTempFile(String path) throws Exception
+    {
+        File file = File.createTempFile("ExifPatcherTest", ".jpg");
+        file.deleteOnExit();
+        FileUtil.saveBytes(file, FileUtil.readBytes(path));
+        return file;
+    }
+
+    @Test
+    public void testSetOrientation() throws Exception
+    {
+        File file = copyToTempFile("Tests/Data/withIptcExifGps.jpg");
+        long length = file.length();
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            ExifPatcher patcher = new ExifPatcher(randomAccessFile);
+            assertTrue(patcher.setOrientation(6));
+        } finally {
+            randomAccessFile.close();
+        }
+
+        assertEquals(length, file.length());
+        Metadata metadata = JpegMetadataReader.readMetadata(file);
+        ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+        assertNotNull(directory);
+        assertEquals(6, directory.getInt(ExifDirectoryBase.TAG_ORIENTATION));
+    }
+
+    @Test
+    public void testSetDate() throws Exception
+    {
+        File file = copyToTempFile("Tests/Data/withIptcExifGps.jpg");
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            ExifPatcher patcher = new ExifPatcher(randomAccessFile);
+            assertTrue(patcher.setDate(ExifSubIFDDirectory.class, ExifDirectoryBase.TAG_DATETIME_ORIGINAL, new Date(0), TimeZone.getTimeZone("GMT")));
+        } finally {
+            randomAccessFile.close();
+        }
+
+        Metadata metadata = JpegMetadataReader.readMetadata(file);
+        ExifSubIFDDirectory directory = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        assertNotNull(directory);
+        assertEquals("1970:01:01 00:00:00", directory.getString(ExifDirectoryBase.TAG_DATETIME_ORIGINAL));
+    }
+
+    @Test
+    public void testClearGps() throws Exception
+    {
+        File file = copyToTempFile("Tests/Data/withIptcExifGps.jpg");
+        assertNotNull(JpegMetadataReader.readMetadata(file).getFirstDirectoryOfType(GpsDirectory.class).getGeoLocation());
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            assertTrue(new ExifPatcher(randomAccessFile).clearGps() > 0);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        GpsDirectory gps = JpegMetadataReader.readMetadata(file).getFirstDirectoryOfType(GpsDirectory.class);
+        assertNotNull(gps);
+        assertTrue(gps.getGeoLocation() == null || gps.getGeoLocation().isZero());
+    }
+
+    @Test
+    public void testValueMustFit() throws Exception
+    {
+        File file = copyToTempFile("Tests/Data/withIptcExifGps.jpg");
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            ExifPatcher patcher = new ExifPatcher(randomAccessFile);
+            try {
+                patcher.setInt(ExifIFD0Directory.class, ExifDirectoryBase.TAG_ORIENTATION, 0x10000);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ignored) {
+            }
+            assertFalse(patcher.setInt(ExifIFD0Directory.class, 0xFFFE, 1));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Test
+    public void testSetIntRequiresSingleUnsignedInteger() throws Exception
+    {
+        File file = copyToTempFile("Tests/Data/withIptcExifGps.jpg");
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            ExifPatcher patcher = new ExifPatcher(randomAccessFile);
+
+            // The format and component count are recorded with the value's position
+            SourceRange range = patcher.getMetadata().getFirstDirectoryOfType(ExifIFD0Directory.class).getTagSourceRange(ExifDirectoryBase.TAG_ORIENTATION);
+            assertTrue(range instanceof TiffSourceRange);
+            assertEquals(TiffDataFormat.CODE_INT16_U, ((TiffSourceRange)range).getFormatCode());
+            assertEquals(1, ((TiffSourceRange)range).getComponentCount());
+
+            // The Exif version occupies four bytes, as a LONG would, but holds four UNDEFINED components
+            try {
+                patcher.setInt(ExifSubIFDDirectory.class, ExifDirectoryBase.TAG_EXIF_VERSION, 1);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ignored) {
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+
+        ExifSubIFDDirectory directory = JpegMetadataReader.readMetadata(file).getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        assertNotNull(directory);
+        assertEquals(4, directory.getByteArray(ExifDirectoryBase.TAG_EXIF_VERSION).length);
+        assertEquals('0', directory.getByteArray(ExifDirectoryBase.TAG_EXIF_VERSION)[0]);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.BufferBoundsException;
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.Charsets;
+import com.drew.lang.RandomAccessReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.lang.annotations.Nullable;
+import com.drew.metadata.MakernotePolicy;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
+import com.drew.metadata.exif.makernotes.ReconyxHyperFireMakernoteDirectory;
+import com.drew.tools.FileUtil;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Measures the cost of selecting a makernote parser, for each Exif segment in the test data folder.
+ * <p>
+ * The makernote and camera make are first extracted from each segment. Selection is then timed alone, without any
+ * makernote parsing, both via a {@link MakernoteSignatureTable} holding the built-in entries and via the
+ * <code>if</code>/<code>else</code> chain that <code>ExifTiffHandler</code> used before the table existed. The
+ * selected parsers are compared, so any disagreement between the two is reported.
+ * <p>
+ * Usage: <code>MakernoteDispatchBenchmark [folder] [iterations]</code>
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MakernoteDispatchBenchmark
+{
+    private static final int NONE = 0;
+    private static final int OLYMPUS = 1;
+    private static final int NIKON = 2;
+    private static final int SONY = 3;
+    private static final int SIGMA = 4;
+    private static final int KODAK = 5;
+    private static final int CANON = 6;
+    private static final int CASIO = 7;
+    private static final int FUJIFILM = 8;
+    private static final int KYOCERA = 9;
+    private static final int LEICA = 10;
+    private static final int PANASONIC = 11;
+    private static final int PENTAX = 12;
+    private static final int SANYO = 13;
+    private static final int RICOH = 14;
+    private static final int APPLE = 15;
+    private static final int RECONYX = 16;
+    private static final int SAMSUNG = 17;
+
+    public static void main(String[] args) throws IOException
+    {
+        File folder = new File(args.length > 0 ? args[0] : "Tests/Data");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        File[] files = folder.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name)
+            {
+                return name.endsWith(".app1");
+            }
+        });
+
+        if (files == null || files.length == 0) {
+            System.err.println("No Exif segments (*.app1) found in " + folder.getAbsolutePath());
+            System.exit(1);
+        }
+
+        MakernoteSignatureTable table = createTable();
+
+        System.out.printf("%-50s %12s %12s%n", "File", "table ns/op", "chain ns/op");
+
+        for (File file : files) {
+            byte[] bytes = FileUtil.readBytes(file);
+
+            Metadata metadata = new Metadata();
+            metadata.setMakernotePolicy(MakernotePolicy.LocationOnly);
+            new ExifReader().extract(new ByteArrayReader(bytes), metadata, ExifReader.JPEG_SEGMENT_PREAMBLE.length(), null, 0);
+
+            ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+            SourceRange range = subIfd == null ? null : subIfd.getTagSourceRange(ExifDirectoryBase.TAG_MAKERNOTE);
+            if (range == null)
+                continue;
+
+            ExifIFD0Directory ifd0 = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            String cameraMake = ifd0 == null ? null : ifd0.getString(ExifIFD0Directory.TAG_MAKE);
+
+            RandomAccessReader reader = new ByteArrayReader(bytes);
+            int makernoteOffset = (int)range.getOffset();
+            MakernoteContext context = new MakernoteContext(new ExifTiffHandler(new Metadata(), null), reader,
+                new HashSet<Integer>(), subIfd, makernoteOffset, 0, cameraMake);
+
+            int viaTable = selectViaTable(table, context);
+            int viaChain = selectViaChain(reader, makernoteOffset, cameraMake);
+
+            // Warm up both paths before measuring
+            runTable(table, context, iterations / 10);
+            runChain(reader, makernoteOffset, cameraMake, iterations / 10);
+
+            long tableTime = runTable(table, context, iterations);
+            long chainTime = runChain(reader, makernoteOffset, cameraMake, iterations);
+
+            System.out.printf("%-50s %12d %12d%s%n", file.getName(), tableTime, chainTime,
+                viaTable == viaChain ? "" : "  (table selected " + viaTable + ", chain selected " + viaChain + ")");
+        }
+    }
+
+    /** Returns the mean time in nanoseconds to select a parser via <code>table</code>. */
+    private static long runTable(@NotNull MakernoteSignatureTable table, @NotNull MakernoteContext context, int iterations) throws IOException
+    {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            sum += selectViaTable(table, context);
+        long time = System.nanoTime() - start;
+        // Consume the result so that selection cannot be eliminated
+        if (sum == -1)
+            System.out.print("");
+        return time / Math.max(1, iterations);
+    }
+
+    /** Returns the mean time in nanoseconds to select a parser via the historical chain of comparisons. */
+    private static long runChain(@NotNull RandomAccessReader reader, int makernoteOffset, @Nullable String cameraMake, int iterations) throws IOException
+    {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            sum += selectViaChain(reader, makernoteOffset, cameraMake);
+        long time = System.nanoTime() - start;
+        if (sum == -1)
+            System.out.print("");
+        return time / Math.max(1, iterations);
+    }
+
+    private static int selectViaTable(@NotNull MakernoteSignatureTable table, @NotNull MakernoteContext context) throws IOException
+    {
+        SelectingParser.selected = NONE;
+        table.parse(context);
+        return SelectingParser.selected;
+    }
+
+    /**
+     * Builds a table with the same entries as {@link BuiltInMakernoteParsers}, whose parsers record their selection
+     * rather than parsing anything.
+     */
+    @NotNull
+    private static MakernoteSignatureTable createTable()
+    {
+        MakernoteSignatureTable table = new MakernoteSignatureTable();
+        table.addSignature("OLYMP\0", new SelectingParser(OLYMPUS));
+        table.addSignature("EPSON", new SelectingParser(OLYMPUS));
+        table.addSignature("AGFA", new SelectingParser(OLYMPUS));
+        table.addSignature("OLYMPUS\0II", new SelectingParser(OLYMPUS));
+        table.addMake("MINOLTA", new SelectingParser(OLYMPUS));
+        table.addMake("NIKON", new SelectingParser(NIKON));
+        table.addSignature("SONY CAM", new SelectingParser(SONY));
+        table.addSignature("SONY DSC", new SelectingParser(SONY));
+        table.addMake("SONY", new SelectingParser(SONY));
+        table.addSignature("SEMC MS\0\0\0\0\0", new SelectingParser(SONY));
+        table.addSignature("SIGMA\0\0\0", new SelectingParser(SIGMA));
+        table.addSignature("FOVEON\0\0", new SelectingParser(SIGMA));
+        table.addSignature("KDK", new SelectingParser(KODAK));
+        table.addMake("CANON", true, new SelectingParser(CANON));
+        table.addMake("CASIO", new SelectingParser(CASIO));
+        table.addSignature("FUJIFILM", new SelectingParser(FUJIFILM));
+        table.addMake("FUJIFILM", true, new SelectingParser(FUJIFILM));
+        table.addSignature("KYOCERA", new SelectingParser(KYOCERA));
+        table.addSignature("LEICA", new SelectingParser(LEICA));
+        table.addSignature("Panasonic\0\0\0", new SelectingParser(PANASONIC));
+        table.addSignature("AOC\0", new SelectingParser(PENTAX));
+        table.addMake("PENTAX", new SelectingParser(PENTAX));
+        table.addMake("ASAHI", new SelectingParser(PENTAX));
+        table.addSignature("SANYO\0\1\0", new SelectingParser(SANYO));
+        table.addMake("RICOH", new SelectingParser(RICOH));
+        table.addSignature("Apple iOS\0", new SelectingParser(APPLE));
+        table.addFallback(new SelectingParser(RECONYX) {
+            @Override
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                return context.getReader().getUInt16(context.getMakernoteOffset()) == ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION
+                    && super.parse(context);
+            }
+        });
+        table.addSignature("RECONYXUF", true, new SelectingParser(RECONYX));
+        table.addMake("SAMSUNG", true, new SelectingParser(SAMSUNG));
+        return table;
+    }
+
+    /**
+     * Selects a parser as <code>ExifTiffHandler.processMakernote</code> did before makernote parsers were held in a
+     * {@link MakernoteSignatureTable}, stopping short of parsing.
+     */
+    private static int selectViaChain(@NotNull RandomAccessReader reader, int makernoteOffset, @Nullable String cameraMake) throws IOException
+    {
+        final String firstTwoChars    = getReaderString(reader, makernoteOffset, 2);
+        final String firstThreeChars  = getReaderString(reader, makernoteOffset, 3);
+        final String firstFourChars   = getReaderString(reader, makernoteOffset, 4);
+        final String firstFiveChars   = getReaderString(reader, makernoteOffset, 5);
+        final String firstSixChars    = getReaderString(reader, makernoteOffset, 6);
+        final String firstSevenChars  = getReaderString(reader, makernoteOffset, 7);
+        final String firstEightChars  = getReaderString(reader, makernoteOffset, 8);
+        final String firstNineChars   = getReaderString(reader, makernoteOffset, 9);
+        final String firstTenChars    = getReaderString(reader, makernoteOffset, 10);
+        final String firstTwelveChars = getReaderString(reader, makernoteOffset, 12);
+
+        if ("OLYMP\0".equals(firstSixChars) || "EPSON".equals(firstFiveChars) || "AGFA".equals(firstFourChars)) {
+            return OLYMPUS;
+        } else if ("OLYMPUS\0II".equals(firstTenChars)) {
+            return OLYMPUS;
+        } else if (cameraMake != null && cameraMake.toUpperCase().startsWith("MINOLTA")) {
+            return OLYMPUS;
+        } else if (cameraMake != null && cameraMake.trim().toUpperCase().startsWith("NIKON")) {
+            return NIKON;
+        } else if ("SONY CAM".equals(firstEightChars) || "SONY DSC".equals(firstEightChars)) {
+            return SONY;
+        } else if (cameraMake != null && cameraMake.startsWith("SONY") &&
+                !Arrays.equals(reader.getBytes(makernoteOffset, 2), new byte[]{ 0x01, 0x00 }) ) {
+            return SONY;
+        } else if ("SEMC MS\u0000\u0000\u0000\u0000\u0000".equals(firstTwelveChars)) {
+            return SONY;
+        } else if ("SIGMA\u0000\u0000\u0000".equals(firstEightChars) || "FOVEON\u0000\u0000".equals(firstEightChars)) {
+            return SIGMA;
+        } else if ("KDK".equals(firstThreeChars)) {
+            return KODAK;
+        } else if ("Canon".equalsIgnoreCase(cameraMake)) {
+            return CANON;
+        } else if (cameraMake != null && cameraMake.toUpperCase().startsWith("CASIO")) {
+            return CASIO;
+        } else if ("FUJIFILM".equals(firstEightChars) || "Fujifilm".equalsIgnoreCase(cameraMake)) {
+            return FUJIFILM;
+        } else if ("KYOCERA".equals(firstSevenChars)) {
+            return KYOCERA;
+        } else if ("LEICA".equals(firstFiveChars)) {
+            return LEICA;
+        } else if ("Panasonic\u0000\u0000\u0000".equals(firstTwelveChars)) {
+            return PANASONIC;
+        } else if ("AOC\u0000".equals(firstFourChars)) {
+            return PENTAX;
+        } else if (cameraMake != null && (cameraMake.toUpperCase().startsWith("PENTAX") || cameraMake.toUpperCase().startsWith("ASAHI"))) {
+            return PENTAX;
+        } else if ("SANYO\0\1\0".equals(firstEightChars)) {
+            return SANYO;
+        } else if (cameraMake != null && cameraMake.toLowerCase().startsWith("ricoh")) {
+            if (firstTwoChars.equals("Rv") || firstThreeChars.equals("Rev") || firstFiveChars.equalsIgnoreCase("Ricoh"))
+                return RICOH;
+        } else if (firstTenChars.equals("Apple iOS\0")) {
+            return APPLE;
+        } else if (reader.getUInt16(makernoteOffset) == ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION) {
+            return RECONYX;
+        } else if (firstNineChars.equalsIgnoreCase("RECONYXUF")) {
+            return RECONYX;
+        } else if ("SAMSUNG".equals(cameraMake)) {
+            return SAMSUNG;
+        }
+        return NONE;
+    }
+
+    @NotNull
+    private static String getReaderString(@NotNull RandomAccessReader reader, int makernoteOffset, int bytesRequested) throws IOException
+    {
+        try {
+            return reader.getString(makernoteOffset, bytesRequested, Charsets.UTF_8);
+        } catch (BufferBoundsException e) {
+            return "";
+        }
+    }
+
+    /** Records which parser was selected, and accepts the makernote without parsing it. */
+    private static class SelectingParser implements MakernoteParser
+    {
+        static int selected;
+
+        private final int _id;
+
+        SelectingParser(int id)
+        {
+            _id = id;
+        }
+
+        public boolean parse(@NotNull MakernoteContext context) throws IOException
+        {
+            selected = _id;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.RandomAccessStreamReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.MakernotePolicy;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.SourceRange;
+import com.drew.metadata.exif.makernotes.NikonType2MakernoteDirectory;
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MakernotePolicyTest
+{
+    private static final String FILE = "Tests/Data/nikonMakernoteType2b.jpg.app1";
+
+    @NotNull
+    private static Metadata process(@NotNull MakernotePolicy policy) throws IOException
+    {
+        Metadata metadata = new Metadata();
+        metadata.setMakernotePolicy(policy);
+        byte[] bytes = FileUtil.readBytes(FILE);
+        new ExifReader().extract(new ByteArrayReader(bytes), metadata, ExifReader.JPEG_SEGMENT_PREAMBLE.length(), null, 0);
+        return metadata;
+    }
+
+    @Test
+    public void testDefaultPolicyIsEager()
+    {
+        assertEquals(MakernotePolicy.Eager, new Metadata().getMakernotePolicy());
+    }
+
+    @Test
+    public void testSkip() throws Exception
+    {
+        Metadata metadata = process(MakernotePolicy.Skip);
+
+        assertNotNull(metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class));
+        assertFalse(metadata.containsDirectoryOfType(NikonType2MakernoteDirectory.class));
+    }
+
+    @Test
+    public void testLocationOnly() throws Exception
+    {
+        Metadata metadata = process(MakernotePolicy.LocationOnly);
+
+        assertFalse(metadata.containsDirectoryOfType(NikonType2MakernoteDirectory.class));
+
+        ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        assertNotNull(subIfd);
+        SourceRange range = subIfd.getTagSourceRange(ExifDirectoryBase.TAG_MAKERNOTE);
+        assertNotNull(range);
+        assertTrue(range.getLength() > 0);
+    }
+
+    @Test
+    public void testLazyMatchesEager() throws Exception
+    {
+        NikonType2MakernoteDirectory eager = process(MakernotePolicy.Eager).getFirstDirectoryOfType(NikonType2MakernoteDirectory.class);
+        NikonType2MakernoteDirectory lazy = process(MakernotePolicy.Lazy).getFirstDirectoryOfType(NikonType2MakernoteDirectory.class);
+
+        assertNotNull(eager);
+        assertNotNull(lazy);
+        assertEquals(eager.getTagCount(), lazy.getTagCount());
+        assertEquals(eager.getString(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION), lazy.getString(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION));
+        assertNotNull(lazy.getParent());
+    }
+
+    @Test
+    public void testLazyDirectoryCountMatchesEager() throws Exception
+    {
+        assertEquals(process(MakernotePolicy.Eager).getDirectoryCount(), process(MakernotePolicy.Lazy).getDirectoryCount());
+    }
+
+    @Test
+    public void testLazyDefersStreams() throws Exception
+    {
+        byte[] bytes = FileUtil.readBytes(FILE);
+        int tiffHeaderOffset = ExifReader.JPEG_SEGMENT_PREAMBLE.length();
+
+        Metadata fromStream = new Metadata();
+        fromStream.setMakernotePolicy(MakernotePolicy.Lazy);
+        fromStream.setSourceRangesEnabled(true);
+        new ExifReader().extract(new RandomAccessStreamReader(new ByteArrayInputStream(bytes)), fromStream, tiffHeaderOffset, null, 0);
+
+        Metadata eager = new Metadata();
+        eager.setSourceRangesEnabled(true);
+        new ExifReader().extract(new ByteArrayReader(bytes), eager, tiffHeaderOffset, null, 0);
+
+        // Streams, like files, may be closed once reading completes, so a copy of the makernote is read when
+        // first requested, with directories appended as for byte arrays
+        assertEquals(getDirectoryTypes(process(MakernotePolicy.Lazy)), getDirectoryTypes(fromStream));
+
+        NikonType2MakernoteDirectory lazyNikon = fromStream.getFirstDirectoryOfType(NikonType2MakernoteDirectory.class);
+        NikonType2MakernoteDirectory eagerNikon = eager.getFirstDirectoryOfType(NikonType2MakernoteDirectory.class);
+        assertNotNull(lazyNikon);
+        assertNotNull(eagerNikon);
+        assertFalse(lazyNikon.hasErrors());
+        assertEquals(eagerNikon.getTagCount(), lazyNikon.getTagCount());
+        assertEquals(eagerNikon.getString(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION), lazyNikon.getString(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION));
+
+        // Source ranges refer to the original data, not the copy
+        SourceRange range = lazyNikon.getTagSourceRange(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION);
+        assertNotNull(range);
+        assertEquals(eagerNikon.getTagSourceRange(NikonType2MakernoteDirectory.TAG_FIRMWARE_VERSION), range);
+    }
+
+    @NotNull
+    private static List<Class<?>> getDirectoryTypes(@NotNull Metadata metadata)
+    {
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        for (Directory directory : metadata.getDirectories())
+            types.add(directory.getClass());
+        return types;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.MockDirectory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class MakernoteSignatureTableTest
+{
+    /**
+     * Builds a little-endian TIFF whose IFD0 has the given make, and whose SubIFD has the given makernote.
+     */
+    @NotNull
+    static byte[] buildExif(@NotNull String make, @NotNull byte[] makernote)
+    {
+        int makeOffset = 8 + 2 + 2 * 12 + 4;
+        int makeLength = make.length() + 1;
+        int subIfdOffset = makeOffset + makeLength + (makeLength % 2);
+        int makernoteOffset = subIfdOffset + 2 + 12 + 4;
+
+        byte[] bytes = new byte[makernoteOffset + makernote.length];
+        bytes[0] = 'I';
+        bytes[1] = 'I';
+        putInt16(bytes, 2, 0x2A);
+        putInt32(bytes, 4, 8);
+
+        putInt16(bytes, 8, 2);
+        putEntry(bytes, 10, ExifDirectoryBase.TAG_MAKE, 2, makeLength, makeOffset);
+        putEntry(bytes, 22, ExifIFD0Directory.TAG_EXIF_SUB_IFD_OFFSET, 4, 1, subIfdOffset);
+        for (int i = 0; i < make.length(); i++)
+            bytes[makeOffset + i] = (byte)make.charAt(i);
+
+        putInt16(bytes, subIfdOffset, 1);
+        putEntry(bytes, subIfdOffset + 2, ExifDirectoryBase.TAG_MAKERNOTE, 7, makernote.length, makernoteOffset);
+        System.arraycopy(makernote, 0, bytes, makernoteOffset, makernote.length);
+
+        return bytes;
+    }
+
+    private static void putEntry(byte[] bytes, int offset, int tag, int format, int count, int value)
+    {
+        putInt16(bytes, offset, tag);
+        putInt16(bytes, offset + 2, format);
+        putInt32(bytes, offset + 4, count);
+        putInt32(bytes, offset + 8, value);
+    }
+
+    private static void putInt16(byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte)value;
+        bytes[offset + 1] = (byte)(value >> 8);
+    }
+
+    private static void putInt32(byte[] bytes, int offset, int value)
+    {
+        putInt16(bytes, offset, value);
+        putInt16(bytes, offset + 2, value >> 16);
+    }
+
+    @NotNull
+    private static Metadata process(@NotNull String make, @NotNull String makernote)
+    {
+        Metadata metadata = new Metadata();
+        new ExifReader().extract(new ByteArrayReader(buildExif(make, (makernote + "\0\0\0\0\0\0\0\0").getBytes())), metadata);
+        return metadata;
+    }
+
+    /** Offers <code>makernote</code> to <code>table</code> directly, leaving the default table untouched. */
+    @NotNull
+    private static Metadata parse(@NotNull MakernoteSignatureTable table, @NotNull String make, @NotNull String makernote) throws IOException
+    {
+        Metadata metadata = new Metadata();
+        ExifTiffHandler handler = new ExifTiffHandler(metadata, null);
+        table.parse(new MakernoteContext(handler, new ByteArrayReader(makernote.getBytes()),
+            new HashSet<Integer>(), new ExifSubIFDDirectory(), 0, 0, make));
+        return metadata;
+    }
+
+    private static class RecordingParser implements MakernoteParser
+    {
+        private final boolean _accept;
+        private int _callCount;
+
+        RecordingParser(boolean accept)
+        {
+            _accept = accept;
+        }
+
+        public boolean parse(@NotNull MakernoteContext context) throws IOException
+        {
+            _callCount++;
+            if (_accept) {
+                MockDirectory directory = new MockDirectory();
+                directory.setParent(context.getParentDirectory());
+                directory.setInt(1, context.getByte(0));
+                context.addDirectory(directory);
+            }
+            return _accept;
+        }
+    }
+
+    @Test
+    public void testUnrecognisedMakernoteIsStoredAsTag() throws Exception
+    {
+        Metadata metadata = process("Unknown Vendor", "UNKNOWN-VENDOR");
+
+        ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        assertNotNull(subIfd);
+        assertTrue(subIfd.containsTag(ExifDirectoryBase.TAG_MAKERNOTE));
+        assertFalse(metadata.containsDirectoryOfType(MockDirectory.class));
+    }
+
+    @Test
+    public void testRegisteredSignature() throws Exception
+    {
+        MakernoteSignatureTable table = new MakernoteSignatureTable();
+        RecordingParser parser = new RecordingParser(true);
+        table.addSignature("TESTSIG\0", parser);
+
+        Metadata metadata = parse(table, "Some Camera Co", "TESTSIG\0\0");
+
+        assertEquals(1, parser._callCount);
+        MockDirectory directory = metadata.getFirstDirectoryOfType(MockDirectory.class);
+        assertNotNull(directory);
+        assertEquals('T', directory.getInt(1));
+        assertTrue(directory.getParent() instanceof ExifSubIFDDirectory);
+    }
+
+    @Test
+    public void testRegisteredMakeIgnoresCaseAndWhitespace() throws Exception
+    {
+        MakernoteSignatureTable table = new MakernoteSignatureTable();
+        RecordingParser parser = new RecordingParser(true);
+        table.addMake("testmake", parser);
+
+        parse(table, "  TestMake Imaging ", "\u0001\u0002");
+        parse(table, "Other", "\u0001\u0002");
+
+        assertEquals(1, parser._callCount);
+    }
+
+    @Test
+    public void testDeclinedMakernoteOfferedToNextMatch() throws Exception
+    {
+        MakernoteSignatureTable table = new MakernoteSignatureTable();
+        RecordingParser declining = new RecordingParser(false);
+        RecordingParser accepting = new RecordingParser(true);
+        RecordingParser unused = new RecordingParser(true);
+        table.addSignature("DECLINE", declining);
+        table.addMake("DECLINE", true, accepting);
+        table.addFallback(unused);
+
+        Metadata metadata = new Metadata();
+        ExifTiffHandler handler = new ExifTiffHandler(metadata, null);
+        MakernoteContext context = new MakernoteContext(handler, new ByteArrayReader("DECLINE".getBytes()),
+            new HashSet<Integer>(), new ExifSubIFDDirectory(), 0, 0, " decline ");
+
+        assertTrue(table.parse(context));
+        assertEquals(1, declining._callCount);
+        assertEquals(1, accepting._callCount);
+        assertEquals(0, unused._callCount);
+    }
+
+    @Test
+    public void testSignatureCaseSensitivity() throws Exception
+    {
+        MakernoteSignatureTable table = new MakernoteSignatureTable();
+        RecordingParser exact = new RecordingParser(true);
+        RecordingParser ignoreCase = new RecordingParser(true);
+        table.addSignature("Vendor", exact);
+        table.addSignature("VENDORX", true, ignoreCase);
+
+        Metadata metadata = new Metadata();
+        ExifTiffHandler handler = new ExifTiffHandler(metadata, null);
+
+        assertTrue(table.parse(new MakernoteContext(handler, new ByteArrayReader("vendorx".getBytes()),
+            new HashSet<Integer>(), new ExifSubIFDDirectory(), 0, 0, null)));
+        assertEquals(0, exact._callCount);
+        assertEquals(1, ignoreCase._callCount);
+
+        assertFalse(table.parse(new MakernoteContext(handler, new ByteArrayReader("VENDO".getBytes()),
+            new HashSet<Integer>(), new ExifSubIFDDirectory(), 0, 0, null)));
+    }
+
+    @Test
+    public void testProviderDiscoveredViaServiceLoader() throws Exception
+    {
+        Metadata metadata = process("Sample", SampleMakernoteParserProvider.SIGNATURE);
+
+        MockDirectory directory = metadata.getFirstDirectoryOfType(MockDirectory.class);
+        assertNotNull(directory);
+        assertEquals(SampleMakernoteParserProvider.SIGNATURE, directory.getString(1));
+
+        // A makernote claimed by a parser is not also stored as a raw tag
+        ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        assertNotNull(subIfd);
+        assertFalse(subIfd.containsTag(ExifDirectoryBase.TAG_MAKERNOTE));
+    }
+}
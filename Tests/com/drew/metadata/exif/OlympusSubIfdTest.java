@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.imaging.tiff.TiffMetadataReader;
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.RandomAccessStreamReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Directory;
+import com.drew.metadata.MakernotePolicy;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.makernotes.OlympusCameraSettingsMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusEquipmentMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.OlympusMakernoteDirectory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class OlympusSubIfdTest
+{
+    /**
+     * Builds an Olympus makernote whose equipment sub-IFD is referenced by pointer, and whose camera settings sub-IFD
+     * is stored as the value of its tag.
+     */
+    @NotNull
+    private static byte[] buildMakernote()
+    {
+        byte[] bytes = new byte[78 + 8];
+        System.arraycopy("OLYMPUS\0II".getBytes(), 0, bytes, 0, 10);
+        bytes[10] = 3;
+
+        // Offsets are relative to the start of the makernote
+        putInt16(bytes, 12, 2);
+        putEntry(bytes, 14, OlympusMakernoteDirectory.TAG_EQUIPMENT, 4, 1, 42);
+        putEntry(bytes, 26, OlympusMakernoteDirectory.TAG_CAMERA_SETTINGS, 7, 18, 60);
+
+        putInt16(bytes, 42, 1);
+        putEntry(bytes, 44, OlympusEquipmentMakernoteDirectory.TAG_BODY_FIRMWARE_VERSION, 3, 1, 7);
+
+        putInt16(bytes, 60, 1);
+        putEntry(bytes, 62, OlympusCameraSettingsMakernoteDirectory.TagExposureMode, 3, 1, 3);
+
+        return bytes;
+    }
+
+    private static void putEntry(byte[] bytes, int offset, int tag, int format, int count, int value)
+    {
+        putInt16(bytes, offset, tag);
+        putInt16(bytes, offset + 2, format);
+        putInt16(bytes, offset + 4, count);
+        putInt16(bytes, offset + 8, value);
+    }
+
+    private static void putInt16(byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte)value;
+        bytes[offset + 1] = (byte)(value >> 8);
+    }
+
+    @NotNull
+    private static Metadata process(@NotNull MakernotePolicy policy)
+    {
+        Metadata metadata = new Metadata();
+        metadata.setMakernotePolicy(policy);
+        new ExifReader().extract(new ByteArrayReader(MakernoteSignatureTableTest.buildExif("OLYMPUS IMAGING CORP.", buildMakernote())), metadata);
+        return metadata;
+    }
+
+    @NotNull
+    private static List<Class<?>> getDirectoryTypes(@NotNull Metadata metadata)
+    {
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        for (Directory directory : metadata.getDirectories())
+            types.add(directory.getClass());
+        return types;
+    }
+
+    @Test
+    public void testEagerSubIfds() throws Exception
+    {
+        Metadata metadata = process(MakernotePolicy.Eager);
+
+        OlympusMakernoteDirectory olympus = metadata.getFirstDirectoryOfType(OlympusMakernoteDirectory.class);
+        assertNotNull(olympus);
+        assertFalse(olympus.hasErrors());
+
+        OlympusEquipmentMakernoteDirectory equipment = metadata.getFirstDirectoryOfType(OlympusEquipmentMakernoteDirectory.class);
+        assertNotNull(equipment);
+        assertSame(olympus, equipment.getParent());
+        assertEquals(7, equipment.getInt(OlympusEquipmentMakernoteDirectory.TAG_BODY_FIRMWARE_VERSION));
+
+        OlympusCameraSettingsMakernoteDirectory cameraSettings = metadata.getFirstDirectoryOfType(OlympusCameraSettingsMakernoteDirectory.class);
+        assertNotNull(cameraSettings);
+        assertSame(olympus, cameraSettings.getParent());
+        assertEquals(3, cameraSettings.getInt(OlympusCameraSettingsMakernoteDirectory.TagExposureMode));
+
+        Integer equipmentOffset = olympus.getSubIfdOffset(OlympusMakernoteDirectory.TAG_EQUIPMENT);
+        Integer cameraSettingsOffset = olympus.getSubIfdOffset(OlympusMakernoteDirectory.TAG_CAMERA_SETTINGS);
+        assertNotNull(equipmentOffset);
+        assertNotNull(cameraSettingsOffset);
+        assertEquals(18, cameraSettingsOffset - equipmentOffset);
+        assertNull(olympus.getSubIfdOffset(OlympusMakernoteDirectory.TAG_FOCUS_INFO));
+
+        assertEquals(OlympusEquipmentMakernoteDirectory.class, getDirectoryTypes(metadata).get(3));
+        assertEquals(OlympusCameraSettingsMakernoteDirectory.class, getDirectoryTypes(metadata).get(4));
+    }
+
+    @Test
+    public void testLazySubIfdsLoadedIndividually() throws Exception
+    {
+        Metadata metadata = process(MakernotePolicy.Lazy);
+
+        // Requesting the camera settings loads the makernote and that sub-IFD only
+        OlympusCameraSettingsMakernoteDirectory cameraSettings = metadata.getFirstDirectoryOfType(OlympusCameraSettingsMakernoteDirectory.class);
+        assertNotNull(cameraSettings);
+        assertEquals(3, cameraSettings.getInt(OlympusCameraSettingsMakernoteDirectory.TagExposureMode));
+
+        OlympusMakernoteDirectory olympus = metadata.getFirstDirectoryOfType(OlympusMakernoteDirectory.class);
+        assertNotNull(olympus);
+        assertSame(olympus, cameraSettings.getParent());
+        assertNotNull(olympus.getSubIfdOffset(OlympusMakernoteDirectory.TAG_EQUIPMENT));
+
+        // The equipment sub-IFD is read once all directories are requested, and so is added last
+        List<Class<?>> types = getDirectoryTypes(metadata);
+        assertEquals(5, types.size());
+        assertEquals(OlympusCameraSettingsMakernoteDirectory.class, types.get(3));
+        assertEquals(OlympusEquipmentMakernoteDirectory.class, types.get(4));
+
+        OlympusEquipmentMakernoteDirectory equipment = metadata.getFirstDirectoryOfType(OlympusEquipmentMakernoteDirectory.class);
+        assertNotNull(equipment);
+        assertSame(olympus, equipment.getParent());
+        assertEquals(7, equipment.getInt(OlympusEquipmentMakernoteDirectory.TAG_BODY_FIRMWARE_VERSION));
+    }
+
+    @Test
+    public void testLazySubIfdsOfOrfStreamDeferred() throws Exception
+    {
+        byte[] bytes = MakernoteSignatureTableTest.buildExif("OLYMPUS IMAGING CORP.", buildMakernote());
+        // Use the ORF marker in place of the standard TIFF one
+        bytes[2] = 0x52;
+        bytes[3] = 0x4F;
+
+        // As in ImageMetadataReader, ORF files are read from a stream, which may be closed once reading completes
+        Metadata metadata = new Metadata();
+        metadata.setMakernotePolicy(MakernotePolicy.Lazy);
+        TiffMetadataReader.process(metadata, new RandomAccessStreamReader(new ByteArrayInputStream(bytes)));
+
+        // Sub-IFDs are read from a copy of the makernote, only once requested
+        OlympusCameraSettingsMakernoteDirectory cameraSettings = metadata.getFirstDirectoryOfType(OlympusCameraSettingsMakernoteDirectory.class);
+        assertNotNull(cameraSettings);
+        assertFalse(cameraSettings.hasErrors());
+        assertEquals(3, cameraSettings.getInt(OlympusCameraSettingsMakernoteDirectory.TagExposureMode));
+
+        List<Class<?>> types = getDirectoryTypes(metadata);
+        assertEquals(5, types.size());
+        assertEquals(OlympusMakernoteDirectory.class, types.get(2));
+        assertEquals(OlympusCameraSettingsMakernoteDirectory.class, types.get(3));
+        assertEquals(OlympusEquipmentMakernoteDirectory.class, types.get(4));
+
+        OlympusEquipmentMakernoteDirectory equipment = metadata.getFirstDirectoryOfType(OlympusEquipmentMakernoteDirectory.class);
+        assertNotNull(equipment);
+        assertEquals(7, equipment.getInt(OlympusEquipmentMakernoteDirectory.TAG_BODY_FIRMWARE_VERSION));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.ByteArrayReader;
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.makernotes.ReconyxHyperFireMakernoteDirectory;
+import com.drew.metadata.exif.makernotes.ReconyxUltraFireMakernoteDirectory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class ReconyxMakernoteTest
+{
+    private static void putInt16(byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte)value;
+        bytes[offset + 1] = (byte)(value >> 8);
+    }
+
+    private static void putInt16BigEndian(byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte)(value >> 8);
+        bytes[offset + 1] = (byte)value;
+    }
+
+    private static void putInt32BigEndian(byte[] bytes, int offset, int value)
+    {
+        putInt16BigEndian(bytes, offset, value >> 16);
+        putInt16BigEndian(bytes, offset + 2, value);
+    }
+
+    private static void putBytes(byte[] bytes, int offset, byte[] value)
+    {
+        System.arraycopy(value, 0, bytes, offset, value.length);
+    }
+
+    @NotNull
+    private static Metadata process(@NotNull byte[] makernote)
+    {
+        Metadata metadata = new Metadata();
+        new ExifReader().extract(new ByteArrayReader(MakernoteSignatureTableTest.buildExif("RECONYX", makernote)), metadata);
+        return metadata;
+    }
+
+    @Test
+    public void testHyperFire() throws Exception
+    {
+        byte[] makernote = new byte[130];
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_MAKERNOTE_VERSION, ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION);
+        int[] firmware = { 3, 2, 1, 0x2016, 0x0517 };
+        for (int i = 0; i < firmware.length; i++)
+            putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION + i * 2, firmware[i]);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE, 'M');
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE, 1);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE + 2, 3);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER, 1);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER + 2, 300);
+        int[] dateTime = { 5, 4, 3, 2, 1, 2017 };
+        for (int i = 0; i < dateTime.length; i++)
+            putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL + i * 2, dateTime[i]);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE, 2);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, 23);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, -5);
+        putBytes(makernote, ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER, "H500".getBytes("UTF-16LE"));
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_CONTRAST, 128);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_MOTION_SENSITIVITY, 1);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE, 6500);
+        putBytes(makernote, ReconyxHyperFireMakernoteDirectory.TAG_USER_LABEL, "Trail 1".getBytes("UTF-8"));
+
+        ReconyxHyperFireMakernoteDirectory directory = process(makernote).getFirstDirectoryOfType(ReconyxHyperFireMakernoteDirectory.class);
+        assertNotNull(directory);
+        assertFalse(directory.hasErrors());
+
+        assertEquals(ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_MAKERNOTE_VERSION));
+        assertEquals("3.2.1.20160517", directory.getString(ReconyxHyperFireMakernoteDirectory.TAG_FIRMWARE_VERSION));
+        assertEquals("M", directory.getString(ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE));
+        assertArrayEquals(new int[] { 1, 3 }, directory.getIntArray(ReconyxHyperFireMakernoteDirectory.TAG_SEQUENCE));
+        assertEquals(65836, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_EVENT_NUMBER));
+        assertEquals("2017: 2: 1  3: 4: 5", directory.getString(ReconyxHyperFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL));
+        assertEquals(2, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE));
+        assertEquals(23, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT));
+        assertEquals(-5, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE));
+        assertEquals("H500", directory.getString(ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER).replace("\0", ""));
+        assertEquals(128, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_CONTRAST));
+        assertEquals(1, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_MOTION_SENSITIVITY));
+        assertEquals(6.5, directory.getDouble(ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE), 0.0001);
+        assertEquals("Trail 1", directory.getString(ReconyxHyperFireMakernoteDirectory.TAG_USER_LABEL));
+    }
+
+    @Test
+    public void testUltraFire() throws Exception
+    {
+        byte[] makernote = new byte[100];
+        putBytes(makernote, ReconyxUltraFireMakernoteDirectory.TAG_LABEL, "RECONYXUF".getBytes("UTF-8"));
+        putInt32BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_ID, ReconyxUltraFireMakernoteDirectory.MAKERNOTE_ID);
+        putInt32BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_SIZE, 100);
+        putInt32BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_ID, ReconyxUltraFireMakernoteDirectory.MAKERNOTE_PUBLIC_ID);
+        putInt16BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_SIZE, 76);
+        putBytes(makernote, ReconyxUltraFireMakernoteDirectory.TAG_CAMERA_VERSION, new byte[] { 1, 2, 0x20, 0x17, 0x06, 0x15, 'A' });
+        putBytes(makernote, ReconyxUltraFireMakernoteDirectory.TAG_EVENT_TYPE, "T".getBytes("UTF-8"));
+        makernote[ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE] = 2;
+        makernote[ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE + 1] = 5;
+        putInt32BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_EVENT_NUMBER, 70000);
+        putBytes(makernote, ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL, new byte[] { 5, 4, 3, 2, 1, 0x07, (byte)0xE1 });
+        makernote[ReconyxUltraFireMakernoteDirectory.TAG_DAY_OF_WEEK] = 3;
+        makernote[ReconyxUltraFireMakernoteDirectory.TAG_MOON_PHASE] = 4;
+        putInt16BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT, 23);
+        putInt16BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE, -5);
+        makernote[ReconyxUltraFireMakernoteDirectory.TAG_FLASH] = 1;
+        putInt16BigEndian(makernote, ReconyxUltraFireMakernoteDirectory.TAG_BATTERY_VOLTAGE, 6500);
+        putBytes(makernote, ReconyxUltraFireMakernoteDirectory.TAG_USER_LABEL, "North gate".getBytes("UTF-8"));
+
+        ReconyxUltraFireMakernoteDirectory directory = process(makernote).getFirstDirectoryOfType(ReconyxUltraFireMakernoteDirectory.class);
+        assertNotNull(directory);
+        assertFalse(directory.hasErrors());
+
+        assertEquals("RECONYXUF", directory.getString(ReconyxUltraFireMakernoteDirectory.TAG_LABEL));
+        assertEquals("0x00010000", directory.getDescription(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_ID));
+        assertEquals(100, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_SIZE));
+        assertEquals("0x07F10001", directory.getDescription(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_ID));
+        assertEquals(76, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_MAKERNOTE_PUBLIC_SIZE));
+        assertEquals("1.2.2017.06.15A", directory.getString(ReconyxUltraFireMakernoteDirectory.TAG_CAMERA_VERSION));
+        assertEquals("T", directory.getString(ReconyxUltraFireMakernoteDirectory.TAG_EVENT_TYPE));
+        assertArrayEquals(new int[] { 2, 5 }, directory.getIntArray(ReconyxUltraFireMakernoteDirectory.TAG_SEQUENCE));
+        assertEquals(70000, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_EVENT_NUMBER));
+        assertEquals("2017:01:02 03:04:05", directory.getString(ReconyxUltraFireMakernoteDirectory.TAG_DATE_TIME_ORIGINAL));
+        assertEquals(3, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_DAY_OF_WEEK));
+        assertEquals(4, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_MOON_PHASE));
+        assertEquals(23, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE_FAHRENHEIT));
+        assertEquals(-5, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_AMBIENT_TEMPERATURE));
+        assertEquals(1, directory.getInt(ReconyxUltraFireMakernoteDirectory.TAG_FLASH));
+        assertEquals(6.5, directory.getDouble(ReconyxUltraFireMakernoteDirectory.TAG_BATTERY_VOLTAGE), 0.0001);
+        assertEquals("North gate", directory.getString(ReconyxUltraFireMakernoteDirectory.TAG_USER_LABEL));
+    }
+
+    @Test
+    public void testTruncatedHyperFire() throws Exception
+    {
+        byte[] makernote = new byte[40];
+        putInt16(makernote, 0, ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION);
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE, 'M');
+        putInt16(makernote, ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE, 2);
+
+        Metadata metadata = process(makernote);
+        ReconyxHyperFireMakernoteDirectory directory = metadata.getFirstDirectoryOfType(ReconyxHyperFireMakernoteDirectory.class);
+        assertNotNull(directory);
+
+        // Values within the available data are still decoded
+        assertEquals(ReconyxHyperFireMakernoteDirectory.MAKERNOTE_VERSION, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_MAKERNOTE_VERSION));
+        assertEquals("M", directory.getString(ReconyxHyperFireMakernoteDirectory.TAG_TRIGGER_MODE));
+        assertEquals(2, directory.getInt(ReconyxHyperFireMakernoteDirectory.TAG_MOON_PHASE));
+        assertFalse(directory.containsTag(ReconyxHyperFireMakernoteDirectory.TAG_SERIAL_NUMBER));
+        assertFalse(directory.containsTag(ReconyxHyperFireMakernoteDirectory.TAG_BATTERY_VOLTAGE));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif;
+
+import com.drew.lang.annotations.NotNull;
+import com.drew.metadata.MockDirectory;
+
+import java.io.IOException;
+
+/**
+ * A {@link MakernoteParserProvider} registered via <code>META-INF/services</code> in the test resources.
+ *
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class SampleMakernoteParserProvider implements MakernoteParserProvider
+{
+    public static final String SIGNATURE = "SAMPLE-PROVIDER\0";
+
+    public void register(@NotNull MakernoteSignatureTable table)
+    {
+        table.addSignature(SIGNATURE, new MakernoteParser()
+        {
+            public boolean parse(@NotNull MakernoteContext context) throws IOException
+            {
+                MockDirectory directory = new MockDirectory();
+                directory.setString(1, SIGNATURE);
+                context.addDirectory(directory);
+                return true;
+            }
+        });
+    }
+}
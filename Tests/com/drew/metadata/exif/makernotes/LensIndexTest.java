@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.Rational;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifReaderTest;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class LensIndexTest
+{
+    @Test
+    public void testDefaultIndex() throws Exception
+    {
+        LensIndex index = LensIndex.getDefault();
+
+        assertEquals("Canon EF 50mm f/1.8", index.getLensName(LensIndex.Vendor.Canon, 1));
+        assertEquals("Olympus Zuiko Digital ED 50mm F2.0 Macro", index.getLensName(LensIndex.Vendor.Olympus, LensIndex.getOlympusLensId(0, 1, 0)));
+        assertNull(index.getLensName(LensIndex.Vendor.Canon, 9999));
+        assertTrue(index.getLensCount(LensIndex.Vendor.Canon) > 150);
+    }
+
+    @Test
+    public void testDefaultIndexIncludesBundledLenses() throws Exception
+    {
+        LensIndex index = LensIndex.getDefault();
+
+        // Read from the resource bundled alongside LensIndex
+        assertEquals("AF Nikkor 50mm f/1.8", index.getLensName(LensIndex.Vendor.Nikon, 0x0158505014140200L));
+        // Identifiers whose top bit is set are read as unsigned
+        assertEquals("AF-S Nikkor 50mm f/1.4G", index.getLensName(LensIndex.Vendor.Nikon, 0xA05450500C0CA206L));
+        assertEquals("Minolta AF 28-85mm F3.5-4.5 New", index.getLensName(LensIndex.Vendor.Sony, 0));
+        assertEquals("Minolta AF 80-200mm F2.8 HS-APO G", index.getLensName(LensIndex.Vendor.Sony, 1));
+        assertTrue(index.getLensCount(LensIndex.Vendor.Nikon) > 40);
+        assertTrue(index.getLensCount(LensIndex.Vendor.Sony) > 60);
+    }
+
+    @Test
+    public void testCanonDescriptorUsesIndex() throws Exception
+    {
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setInt(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE, 1);
+        assertEquals("Canon EF 50mm f/1.8", directory.getDescription(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE));
+
+        directory.setInt(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE, 9999);
+        assertEquals("Unknown (9999)", directory.getDescription(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE));
+    }
+
+    @Test
+    public void testResolveNikonLens() throws Exception
+    {
+        Metadata metadata = ExifReaderTest.processBytes("Tests/Data/nikonMakernoteType2a.jpg.app1");
+
+        LensInfo lens = LensIndex.getDefault().resolveLens(metadata);
+        assertNotNull(lens);
+        assertEquals(LensIndex.Vendor.Nikon, lens.getVendor());
+        assertEquals(Long.valueOf(0x744037622C347806L), lens.getLensId());
+        assertEquals("AF-S Zoom-Nikkor 24-85mm f/3.5-4.5G IF-ED", lens.getModel());
+        assertEquals(24.0, lens.getMinFocalLength(), 0.001);
+        assertEquals(85.0, lens.getMaxFocalLength(), 0.001);
+        assertEquals(3.5, lens.getMaxApertureAtMinFocalLength(), 0.001);
+        assertEquals(4.5, lens.getMaxApertureAtMaxFocalLength(), 0.001);
+        assertEquals("AF-S Zoom-Nikkor 24-85mm f/3.5-4.5G IF-ED", lens.getDescription());
+
+        // Without a name, the lens is described by its specification
+        lens = LensIndex.read(new ByteArrayInputStream(new byte[0]), null).resolveLens(metadata);
+        assertNotNull(lens);
+        assertNull(lens.getModel());
+        assertEquals("24-85mm f/3.5-4.5", lens.getDescription());
+
+        LensIndex index = LensIndex.read(new ByteArrayInputStream((
+            "# Nikon lenses\n" +
+            "\n" +
+            "Nikon\t0x744037622C347806\tNikkor 24-85mm\n").getBytes("UTF-8")), LensIndex.getDefault());
+
+        lens = index.resolveLens(metadata);
+        assertNotNull(lens);
+        assertEquals("Nikkor 24-85mm", lens.getModel());
+        assertEquals("Nikkor 24-85mm", lens.toString());
+
+        // Entries of the base index are retained
+        assertEquals("Canon EF 50mm f/1.8", index.getLensName(LensIndex.Vendor.Canon, 1));
+    }
+
+    @Test
+    public void testResolveCanonLens() throws Exception
+    {
+        CanonMakernoteDirectory canon = new CanonMakernoteDirectory();
+        canon.setInt(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE, 1);
+
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(canon);
+
+        LensInfo lens = LensIndex.getDefault().resolveLens(metadata);
+        assertNotNull(lens);
+        assertEquals(LensIndex.Vendor.Canon, lens.getVendor());
+        assertEquals(Long.valueOf(1), lens.getLensId());
+        assertEquals("Canon EF 50mm f/1.8", lens.getModel());
+        assertNull(lens.getMinFocalLength());
+
+        // A model name recorded by the camera takes precedence
+        ExifSubIFDDirectory exif = new ExifSubIFDDirectory();
+        exif.setString(ExifSubIFDDirectory.TAG_LENS_MAKE, "Canon");
+        exif.setString(ExifSubIFDDirectory.TAG_LENS_MODEL, "EF50mm f/1.8 II");
+        exif.setRationalArray(ExifSubIFDDirectory.TAG_LENS_SPECIFICATION, new Rational[] {
+            new Rational(50, 1), new Rational(50, 1), new Rational(18, 10), new Rational(18, 10)
+        });
+        metadata.addDirectory(exif);
+
+        lens = LensIndex.getDefault().resolveLens(metadata);
+        assertNotNull(lens);
+        assertEquals("Canon", lens.getMake());
+        assertEquals("EF50mm f/1.8 II", lens.getModel());
+        assertEquals(50.0, lens.getMaxFocalLength(), 0.001);
+    }
+
+    @Test
+    public void testMakernoteModelPreferredOverIndex() throws Exception
+    {
+        CanonMakernoteDirectory canon = new CanonMakernoteDirectory();
+        canon.setInt(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE, 1);
+        canon.setString(CanonMakernoteDirectory.TAG_LENS_MODEL, "EF50mm f/1.8 II");
+
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(canon);
+
+        LensInfo lens = LensIndex.getDefault().resolveLens(metadata);
+        assertNotNull(lens);
+        assertEquals(Long.valueOf(1), lens.getLensId());
+        assertEquals("EF50mm f/1.8 II", lens.getModel());
+    }
+
+    @Test
+    public void testSetDefault() throws Exception
+    {
+        LensIndex builtIn = LensIndex.getDefault();
+        LensIndex index = LensIndex.read(new ByteArrayInputStream("Canon\t9999\tSome Lens\n".getBytes("UTF-8")), builtIn);
+
+        CanonMakernoteDirectory directory = new CanonMakernoteDirectory();
+        directory.setInt(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE, 9999);
+
+        LensIndex.setDefault(index);
+        try {
+            assertSame(index, LensIndex.getDefault());
+            assertEquals("Some Lens", directory.getDescription(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE));
+        } finally {
+            LensIndex.setDefault(null);
+        }
+
+        assertSame(builtIn, LensIndex.getDefault());
+        assertEquals("Unknown (9999)", directory.getDescription(CanonMakernoteDirectory.CameraSettings.TAG_LENS_TYPE));
+    }
+
+    @Test
+    public void testResolveWithoutLensData() throws Exception
+    {
+        assertNull(LensIndex.getDefault().resolveLens(new Metadata()));
+    }
+
+    @Test
+    public void testReadMalformedIndex() throws Exception
+    {
+        try {
+            LensIndex.read(new ByteArrayInputStream("Pentax\t1\tSome Lens\n".getBytes("UTF-8")), null);
+            fail("Expected an exception");
+        } catch (IOException e) {
+            assertEquals("Invalid vendor or lens identifier on line 1", e.getMessage());
+        }
+
+        try {
+            LensIndex.read(new ByteArrayInputStream("Canon 1 Some Lens\n".getBytes("UTF-8")), null);
+            fail("Expected an exception");
+        } catch (IOException e) {
+            assertEquals("Expected three tab-separated values on line 1", e.getMessage());
+        }
+    }
+}
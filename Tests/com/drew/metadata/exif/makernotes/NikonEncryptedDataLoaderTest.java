@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.lang.ByteArrayReader;
+import com.drew.metadata.MakernotePolicy;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifReader;
+import com.drew.metadata.exif.ExifReaderTest;
+import com.drew.tools.FileUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class NikonEncryptedDataLoaderTest
+{
+    private static final byte[] LENS_DATA_0201 = {
+        '0', '2', '0', '1',
+        0x60, 0x3a, 0x00, 0x00, (byte)0x8f, 0x28, 0x3c, 0x74, 0x40, 0x44, 0x5c, 0x1c, 0x24, 0x06, 0x34
+    };
+
+    @Test
+    public void testPlainLensDataFromFile() throws Exception
+    {
+        Metadata metadata = ExifReaderTest.processBytes("Tests/Data/nikonMakernoteType2a.jpg.app1");
+
+        NikonLensDataDirectory directory = metadata.getFirstDirectoryOfType(NikonLensDataDirectory.class);
+        assertNotNull(directory);
+        assertFalse(directory.hasErrors());
+        assertEquals("0100", directory.getString(NikonLensDataDirectory.TAG_LENS_DATA_VERSION));
+        assertEquals(116, directory.getInt(NikonLensDataDirectory.TAG_LENS_ID_NUMBER));
+        assertEquals("5.33", directory.getDescription(NikonLensDataDirectory.TAG_LENS_F_STOPS));
+        assertEquals("24.5 mm", directory.getDescription(NikonLensDataDirectory.TAG_MIN_FOCAL_LENGTH));
+        assertEquals("84.8 mm", directory.getDescription(NikonLensDataDirectory.TAG_MAX_FOCAL_LENGTH));
+        assertEquals("f/4.5", directory.getDescription(NikonLensDataDirectory.TAG_MAX_APERTURE_AT_MAX_FOCAL));
+
+        NikonShotInfoDirectory shotInfo = metadata.getFirstDirectoryOfType(NikonShotInfoDirectory.class);
+        assertNotNull(shotInfo);
+        assertEquals("0100", shotInfo.getString(NikonShotInfoDirectory.TAG_VERSION));
+    }
+
+    @Test
+    public void testLensDataWithLazyMakernotePolicy() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        metadata.setMakernotePolicy(MakernotePolicy.Lazy);
+        new ExifReader().extract(new ByteArrayReader(FileUtil.readBytes("Tests/Data/nikonMakernoteType2a.jpg.app1")), metadata, ExifReader.JPEG_SEGMENT_PREAMBLE.length(), null);
+
+        NikonLensDataDirectory directory = metadata.getFirstDirectoryOfType(NikonLensDataDirectory.class);
+        assertNotNull(directory);
+        assertEquals(116, directory.getInt(NikonLensDataDirectory.TAG_LENS_ID_NUMBER));
+    }
+
+    @Test
+    public void testEncryptedLensData() throws Exception
+    {
+        byte[] encrypted = LENS_DATA_0201.clone();
+        NikonType2MakernoteDirectory.decrypt(encrypted, 4, 1234567 & 0xff, 8191);
+
+        NikonType2MakernoteDirectory nikonDirectory = new NikonType2MakernoteDirectory();
+        nikonDirectory.setString(NikonType2MakernoteDirectory.TAG_CAMERA_SERIAL_NUMBER, "1234567");
+        nikonDirectory.setLong(NikonType2MakernoteDirectory.TAG_EXPOSURE_SEQUENCE_NUMBER, 8191);
+        nikonDirectory.setByteArray(NikonType2MakernoteDirectory.TAG_LENS_DATA, encrypted);
+
+        assertArrayEquals(LENS_DATA_0201, nikonDirectory.getDecryptedByteArray(NikonType2MakernoteDirectory.TAG_LENS_DATA, "NIKON D200"));
+        // The stored value is left untouched
+        assertArrayEquals(encrypted, nikonDirectory.getByteArray(NikonType2MakernoteDirectory.TAG_LENS_DATA));
+
+        // Agrees with the original int-based decryption
+        int[] decrypted = nikonDirectory.getDecryptedIntArray(NikonType2MakernoteDirectory.TAG_LENS_DATA);
+        assertNotNull(decrypted);
+        for (int i = 0; i < LENS_DATA_0201.length; i++)
+            assertEquals(LENS_DATA_0201[i] & 0xff, decrypted[i] & 0xff);
+        // Decrypting again yields the same values, as the stored value is not modified
+        assertArrayEquals(decrypted, nikonDirectory.getDecryptedIntArray(NikonType2MakernoteDirectory.TAG_LENS_DATA));
+
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(nikonDirectory);
+        NikonEncryptedDataLoader.register(metadata, nikonDirectory);
+
+        NikonLensDataDirectory directory = metadata.getFirstDirectoryOfType(NikonLensDataDirectory.class);
+        assertNotNull(directory);
+        assertFalse(directory.hasErrors());
+        assertSame(nikonDirectory, directory.getParent());
+        assertEquals("0201", directory.getString(NikonLensDataDirectory.TAG_LENS_DATA_VERSION));
+        assertEquals("21.3 mm", directory.getDescription(NikonLensDataDirectory.TAG_EXIT_PUPIL_POSITION));
+        assertEquals("f/5.3", directory.getDescription(NikonLensDataDirectory.TAG_AF_APERTURE));
+        assertEquals("0x8f", directory.getDescription(NikonLensDataDirectory.TAG_FOCUS_POSITION));
+        assertEquals("0.10 m", directory.getDescription(NikonLensDataDirectory.TAG_FOCUS_DISTANCE));
+        assertEquals("28.3 mm", directory.getDescription(NikonLensDataDirectory.TAG_FOCAL_LENGTH));
+        assertEquals(0x74, directory.getInt(NikonLensDataDirectory.TAG_LENS_ID_NUMBER));
+        assertEquals(0x06, directory.getInt(NikonLensDataDirectory.TAG_MCU_VERSION));
+        assertEquals("f/4.5", directory.getDescription(NikonLensDataDirectory.TAG_EFFECTIVE_MAX_APERTURE));
+
+        // Only the requested blocks are present
+        assertNull(metadata.getFirstDirectoryOfType(NikonShotInfoDirectory.class));
+    }
+
+    @Test
+    public void testMissingShutterCountReportsError() throws Exception
+    {
+        NikonType2MakernoteDirectory nikonDirectory = new NikonType2MakernoteDirectory();
+        nikonDirectory.setByteArray(NikonType2MakernoteDirectory.TAG_LENS_DATA, LENS_DATA_0201);
+
+        Metadata metadata = new Metadata();
+        NikonEncryptedDataLoader.register(metadata, nikonDirectory);
+
+        NikonLensDataDirectory directory = metadata.getFirstDirectoryOfType(NikonLensDataDirectory.class);
+        assertNotNull(directory);
+        assertTrue(directory.hasErrors());
+        assertEquals(0, directory.getTagCount());
+    }
+
+    @Test
+    public void testSerialKey() throws Exception
+    {
+        assertEquals(1234567 & 0xff, NikonType2MakernoteDirectory.getSerialKey(" 1234567 ", "NIKON D200"));
+        assertEquals(0x22, NikonType2MakernoteDirectory.getSerialKey("NO= 30045efe", "NIKON D50"));
+        assertEquals(0x60, NikonType2MakernoteDirectory.getSerialKey("NO= 30045efe", "NIKON D500"));
+        assertEquals(0x60, NikonType2MakernoteDirectory.getSerialKey(null, null));
+    }
+
+    @Test
+    public void testNoDirectoriesWithoutBlocks() throws Exception
+    {
+        Metadata metadata = new Metadata();
+        NikonEncryptedDataLoader.register(metadata, new NikonType2MakernoteDirectory());
+        assertEquals(0, metadata.getDirectoryCount());
+        assertNull(metadata.getFirstDirectoryOfType(ExifIFD0Directory.class));
+    }
+}
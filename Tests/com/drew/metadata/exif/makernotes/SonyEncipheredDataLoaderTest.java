@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2019 Drew Noakes and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * More information about this project is available at:
+ *
+ *    https://drewnoakes.com/code/exif/
+ *    https://github.com/drewnoakes/metadata-extractor
+ */
+package com.drew.metadata.exif.makernotes;
+
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Drew Noakes https://drewnoakes.com
+ */
+public class SonyEncipheredDataLoaderTest
+{
+    @Test
+    public void testCipherRoundTrip() throws Exception
+    {
+        byte[] plain = new byte[256];
+        for (int i = 0; i < plain.length; i++)
+            plain[i] = (byte)i;
+
+        byte[] enciphered = SonyCipher.encipher(plain);
+
+        assertEquals(8, enciphered[2]);
+        assertEquals(125, enciphered[5]);
+        assertEquals((byte)(1000 % 249), enciphered[10]);
+
+        // Values from 249 upwards pass through unchanged
+        assertEquals((byte)250, enciphered[250]);
+
+        assertArrayEquals(plain, SonyCipher.decipher(enciphered));
+    }
+
+    @Test
+    public void testTag9050() throws Exception
+    {
+        byte[] plain = new byte[0x100];
+        plain[0x32] = 0x39;
+        plain[0x33] = 0x30;
+        plain[0x34] = 0x01;
+        plain[0x35] = 0x7f; // outside the masked count
+        plain[0x7c] = (byte)0xe1;
+        plain[0x7d] = (byte)0xa2;
+        plain[0x7e] = (byte)0xb3;
+        plain[0x7f] = (byte)0xc4;
+
+        SonyType1MakernoteDirectory sony = new SonyType1MakernoteDirectory();
+        sony.setByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_9050, SonyCipher.encipher(plain));
+
+        ExifIFD0Directory ifd0 = new ExifIFD0Directory();
+        ifd0.setString(ExifIFD0Directory.TAG_MODEL, "NEX-7");
+
+        Metadata metadata = new Metadata();
+        metadata.addDirectory(ifd0);
+        metadata.addDirectory(sony);
+        SonyEncipheredDataLoader.register(metadata, sony);
+
+        SonyTag9050Directory directory = metadata.getFirstDirectoryOfType(SonyTag9050Directory.class);
+        assertNotNull(directory);
+        assertSame(sony, directory.getParent());
+        assertEquals(0x013039, directory.getInt(SonyTag9050Directory.TAG_SHUTTER_COUNT));
+        assertEquals("e1a2b3c4", directory.getString(SonyTag9050Directory.TAG_INTERNAL_SERIAL_NUMBER));
+        assertArrayEquals(plain, directory.getByteArray(SonyTag9050Directory.TAG_DATA));
+
+        // Only requested once, and the absent 0x2010 block produces no directory
+        assertSame(directory, metadata.getFirstDirectoryOfType(SonyTag9050Directory.class));
+        assertNull(metadata.getFirstDirectoryOfType(SonyTag2010Directory.class));
+    }
+
+    @Test
+    public void testTag9050LaterLayout() throws Exception
+    {
+        byte[] plain = new byte[0x100];
+        plain[0x3a] = 0x10;
+        plain[0x88] = 0x01;
+        plain[0x8d] = 0x06;
+
+        SonyTag9050Directory directory = new SonyTag9050Directory();
+        SonyEncipheredDataLoader.readTag9050(directory, plain, "ILCE-7M3");
+
+        assertEquals(0x10, directory.getInt(SonyTag9050Directory.TAG_SHUTTER_COUNT));
+        assertEquals("010000000006", directory.getString(SonyTag9050Directory.TAG_INTERNAL_SERIAL_NUMBER));
+    }
+
+    @Test
+    public void testTag9050UnknownModel() throws Exception
+    {
+        SonyTag9050Directory directory = new SonyTag9050Directory();
+        SonyEncipheredDataLoader.readTag9050(directory, new byte[0x100], "DSC-RX100");
+
+        assertFalse(directory.containsTag(SonyTag9050Directory.TAG_SHUTTER_COUNT));
+        assertTrue(directory.containsTag(SonyTag9050Directory.TAG_DATA));
+    }
+
+    @Test
+    public void testTag2010() throws Exception
+    {
+        byte[] plain = { 1, 2, 3, (byte)200, (byte)255 };
+
+        SonyType1MakernoteDirectory sony = new SonyType1MakernoteDirectory();
+        sony.setByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_2010, SonyCipher.encipher(plain));
+
+        Metadata metadata = new Metadata();
+        SonyEncipheredDataLoader.register(metadata, sony);
+
+        SonyTag2010Directory directory = metadata.getFirstDirectoryOfType(SonyTag2010Directory.class);
+        assertNotNull(directory);
+        assertArrayEquals(plain, directory.getByteArray(SonyTag2010Directory.TAG_DATA));
+    }
+
+    @Test
+    public void testRegisteredBeforeMakernoteIsRead() throws Exception
+    {
+        // Under MakernotePolicy.Lazy the loader is registered before the makernote's tags have been read
+        SonyType1MakernoteDirectory sony = new SonyType1MakernoteDirectory();
+        Metadata metadata = new Metadata();
+        SonyEncipheredDataLoader.register(metadata, sony);
+
+        byte[] plain = { 1, 2, 3 };
+        sony.setByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_2010, SonyCipher.encipher(plain));
+
+        SonyTag2010Directory directory = metadata.getFirstDirectoryOfType(SonyTag2010Directory.class);
+        assertNotNull(directory);
+        assertArrayEquals(plain, directory.getByteArray(SonyTag2010Directory.TAG_DATA));
+        assertNull(metadata.getFirstDirectoryOfType(SonyTag9050Directory.class));
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception
+    {
+        byte[] plain9050 = new byte[0x100];
+        byte[] plain2010 = { 1, 2, 3 };
+
+        for (int attempt = 0; attempt < 50; attempt++) {
+            SonyType1MakernoteDirectory sony = new SonyType1MakernoteDirectory();
+            sony.setByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_9050, SonyCipher.encipher(plain9050));
+            sony.setByteArray(SonyType1MakernoteDirectory.TAG_ENCIPHERED_2010, SonyCipher.encipher(plain2010));
+
+            // The loader is registered under every makernote policy, so readers of a populated instance trigger it
+            final Metadata metadata = new Metadata();
+            metadata.addDirectory(sony);
+            SonyEncipheredDataLoader.register(metadata, sony);
+
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                final boolean queryByType = t % 2 == 0;
+                threads[t] = new Thread()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try {
+                            start.await();
+                            if (queryByType) {
+                                assertNotNull(metadata.getFirstDirectoryOfType(SonyTag9050Directory.class));
+                                assertNotNull(metadata.getFirstDirectoryOfType(SonyTag2010Directory.class));
+                            } else {
+                                assertEquals(3, metadata.getDirectoryCount());
+                            }
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads)
+                thread.join();
+
+            assertEquals(Collections.<Throwable>emptyList(), failures);
+            assertEquals(1, metadata.getDirectoriesOfType(SonyTag9050Directory.class).size());
+            assertEquals(1, metadata.getDirectoriesOfType(SonyTag2010Directory.class).size());
+        }
+    }
+}